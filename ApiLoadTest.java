@@ -0,0 +1,125 @@
+/**
+ * HTTP接口压力测试类
+ *
+ * 对运行中的ApiServer（java JobCli serve）并发发送只读请求，统计吞吐量和各接口的延迟分位数。
+ * 匹配接口会修改数据，不在默认的请求组合中。
+ *
+ * 用法：
+ *   java ApiLoadTest [服务器地址] [测量秒数] [并发数] [预热秒数] [路径...]
+ * 默认：http://localhost:8080 30 64 5，路径为空缺职业、分类、未聘用求职者、职业统计四个接口轮流
+ *
+ * 设置系统属性jm.load.minRps时作为验收标准：测量期间的吞吐量低于该值或错误率超过1%时退出码为1。
+ * 客户端与服务器在同一台机器上时两者争用CPU，结果偏保守。
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP接口压力测试
+ */
+class ApiLoadTest {
+
+    private static final String[] DEFAULT_PATHS = {
+        "/api/jobs/vacant?limit=20",
+        "/api/categories",
+        "/api/seekers/unemployed?limit=20",
+        "/api/reports/job-stats",
+    };
+
+    public static void main(String[] args) throws Exception {
+        String base = args.length > 0 ? args[0] : "http://localhost:8080";
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        int warmupSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        String[] paths = args.length > 4 ? Arrays.copyOfRange(args, 4, args.length) : DEFAULT_PATHS;
+        long minRps = Long.getLong("jm.load.minRps", 0L);
+
+        URI[] uris = new URI[paths.length];
+        LatencyHistogram[] latency = new LatencyHistogram[paths.length];
+        LongAdder[] errors = new LongAdder[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            uris[i] = URI.create(base + paths[i]);
+            latency[i] = new LatencyHistogram();
+            errors[i] = new LongAdder();
+        }
+        LatencyHistogram total = new LatencyHistogram();
+
+        ExecutorService workers = ApiServer.newVirtualThreadExecutor();
+        boolean virtualThreads = workers != null;
+        if (workers == null) {
+            workers = Executors.newFixedThreadPool(concurrency);
+        }
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        System.out.printf("目标 %s，并发 %d（%s），预热 %ds，测量 %ds，接口 %d 个%n",
+                base, concurrency, virtualThreads ? "虚拟线程" : "平台线程", warmupSeconds, seconds, paths.length);
+
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long deadline = measureFrom + TimeUnit.SECONDS.toNanos(seconds);
+        for (int w = 0; w < concurrency; w++) {
+            int offset = w;
+            workers.execute(() -> {
+                for (long n = offset; ; n++) {
+                    int i = (int) (n % uris.length);
+                    HttpRequest request = HttpRequest.newBuilder(uris[i]).timeout(Duration.ofSeconds(30)).GET().build();
+                    long begin = System.nanoTime();
+                    if (begin >= deadline) {
+                        return;
+                    }
+                    boolean ok;
+                    try {
+                        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                        ok = response.statusCode() / 100 == 2;
+                    } catch (Exception e) {
+                        ok = false;
+                    }
+                    long end = System.nanoTime();
+                    if (begin >= measureFrom && end <= deadline) {
+                        latency[i].recordNanos(end - begin);
+                        total.recordNanos(end - begin);
+                        if (!ok) {
+                            errors[i].increment();
+                        }
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(warmupSeconds + seconds + 60L, TimeUnit.SECONDS);
+
+        long requests = 0;
+        long failed = 0;
+        for (int i = 0; i < paths.length; i++) {
+            LatencyHistogram.Snapshot s = latency[i].snapshot();
+            requests += s.count;
+            failed += errors[i].sum();
+            System.out.printf("%-36s 错误 %d，%s%n", paths[i], errors[i].sum(), s);
+        }
+        double rps = requests / (double) seconds;
+        System.out.printf("合计: %s%n", total.snapshot());
+        System.out.printf("吞吐量: %.0f 请求/秒，错误 %d（%.2f%%）%n", rps, failed, requests == 0 ? 0 : failed * 100.0 / requests);
+
+        if (minRps > 0) {
+            boolean passed = rps >= minRps && failed * 100 <= requests;
+            System.out.println(passed ? "达到验收标准 " + minRps + " 请求/秒" : "未达到验收标准 " + minRps + " 请求/秒");
+            System.exit(passed ? 0 : 1);
+        }
+    }
+}
@@ -0,0 +1,447 @@
+/**
+ * HTTP接口类
+ *
+ * 自助终端和网页前端不经过Swing客户端，通过JSON接口查询空缺职业、提交匹配。
+ * 使用JDK自带的com.sun.net.httpserver，不引入其他依赖；与命令行模式一样不加载任何界面类，
+ * 由JobCli的serve命令启动。
+ *
+ * 接口：
+ * - GET  /api/categories                  全部职业分类（参考数据缓存，见ReferenceData）
+ * - GET  /api/jobs/vacant?after=&limit=    有空缺的职业，按job_id分页
+ * - GET  /api/seekers/unemployed?after=&limit=  未聘用的求职者，按seeker_id分页
+ * - POST /api/matches  jobId=&seekerId=    匹配（参数可以放在查询串或表单请求体中）
+ * - GET  /api/reports/job-stats            职业统计报表（存储过程GetJobStats）
+ * - GET  /api/metrics                      各接口的请求数、错误数和延迟分位数，连接池状态和各SQL的统计（DbMetrics）
+ * 分页接口返回nextAfter，作为下一页的after参数；没有更多数据时为null。
+ *
+ * 线程模型：
+ * - 每个请求一个虚拟线程（JDK 21及以上），阻塞在数据库上不占用平台线程；
+ *   同时执行的数据库操作仍受连接池大小（jm.pool.maxSize）限制，其余请求在借连接时排队
+ * - 运行在更早的JDK上时退回到固定大小的平台线程池（jm.http.threads）
+ * - 同时处理的请求超过jm.http.maxInFlight时直接返回503，避免排队请求无限增长
+ *
+ * 配置（系统属性）：
+ * - jm.http.port：监听端口，默认8080
+ * - jm.http.threads：没有虚拟线程时的线程数，默认64
+ * - jm.http.maxInFlight：同时处理的请求上限，默认2000
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 内嵌HTTP服务器
+ */
+final class ApiServer {
+
+    static final int DEFAULT_PORT = Integer.getInteger("jm.http.port", 8080);
+
+    static final int FALLBACK_THREADS = Integer.getInteger("jm.http.threads", 64);
+
+    static final int MAX_IN_FLIGHT = Integer.getInteger("jm.http.maxInFlight", 2000);
+
+    /** 分页接口默认和最大的每页行数 */
+    static final int DEFAULT_LIMIT = 100;
+    static final int MAX_LIMIT = 1000;
+
+    /** 等待accept的TCP连接队列长度（0为系统默认值，压力下容易拒绝连接） */
+    private static final int BACKLOG = 1024;
+
+    /** 请求体上限（匹配接口只有两个参数） */
+    private static final int MAX_BODY_BYTES = 4096;
+
+    /**
+     * 接口处理函数，返回的对象按Json序列化
+     */
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(Map<String, String> params) throws SQLException, ApiException;
+    }
+
+    /**
+     * 返回给客户端的错误（状态码和说明）
+     */
+    private static final class ApiException extends Exception {
+        final int status;
+        final String error;
+
+        ApiException(int status, String error, String message) {
+            super(message, null, false, false);
+            this.status = status;
+            this.error = error;
+        }
+    }
+
+    /**
+     * 一个接口：方法、处理函数和统计
+     */
+    private static final class Route {
+        final String method;
+        final Handler handler;
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+
+        Route(String method, Handler handler) {
+            this.method = method;
+            this.handler = handler;
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private final Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+    private final LongAdder rejected = new LongAdder();
+
+    /** 路径 -> 接口，构造后不再修改 */
+    private final Map<String, Route> routes = new LinkedHashMap<>();
+
+    private ApiServer(HttpServer server, ExecutorService executor, boolean virtualThreads) {
+        this.server = server;
+        this.executor = executor;
+        this.virtualThreads = virtualThreads;
+        route("/api/categories", "GET", this::categories);
+        route("/api/jobs/vacant", "GET", this::vacantJobs);
+        route("/api/seekers/unemployed", "GET", this::unemployedSeekers);
+        route("/api/matches", "POST", this::match);
+        route("/api/reports/job-stats", "GET", this::jobStats);
+        route("/api/metrics", "GET", params -> metrics());
+    }
+
+    /**
+     * 启动服务器
+     *
+     * @param port 监听端口，0表示由系统分配
+     * @return 已启动的服务器
+     * @throws IOException 端口无法监听
+     */
+    static ApiServer start(int port) throws IOException {
+        // JDK的HttpServer默认不设置TCP_NODELAY，响应头和响应体分两次写出时与客户端的延迟确认叠加，
+        // 每个请求多等约40ms；必须在服务器类第一次使用之前设置
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        ExecutorService executor = newVirtualThreadExecutor();
+        boolean virtualThreads = executor != null;
+        if (executor == null) {
+            AtomicInteger counter = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(FALLBACK_THREADS,
+                    r -> new Thread(r, "http-worker-" + counter.incrementAndGet()));
+        }
+        ApiServer api = new ApiServer(server, executor, virtualThreads);
+        server.setExecutor(executor);
+        server.start();
+        return api;
+    }
+
+    /**
+     * 每个任务一个虚拟线程的执行器，JDK不支持虚拟线程时返回null
+     * 通过反射调用，源码仍可用JDK 17编译
+     */
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // JDK 19/20未开启预览特性时调用会失败，同样退回到平台线程
+            return null;
+        }
+    }
+
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    boolean virtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * 停止服务器，等待正在处理的请求最多delaySeconds秒
+     */
+    void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void route(String path, String method, Handler handler) {
+        Route route = new Route(method, handler);
+        routes.put(path, route);
+        server.createContext(path, exchange -> handle(exchange, path, route));
+    }
+
+    // ==================== 请求处理 ====================
+
+    private void handle(HttpExchange exchange, String path, Route route) throws IOException {
+        long start = System.nanoTime();
+        if (!inFlight.tryAcquire()) {
+            rejected.increment();
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            send(exchange, 503, error("overloaded", "服务器繁忙，请稍后重试"));
+            return;
+        }
+        int status = 500;
+        try {
+            Object body;
+            try {
+                if (!exchange.getRequestURI().getPath().equals(path)) {
+                    throw new ApiException(404, "not_found", "接口不存在");
+                }
+                if (!route.method.equals(exchange.getRequestMethod())) {
+                    exchange.getResponseHeaders().set("Allow", route.method);
+                    throw new ApiException(405, "method_not_allowed", "只支持" + route.method);
+                }
+                body = route.handler.handle(params(exchange));
+                status = "POST".equals(route.method) ? 201 : 200;
+            } catch (ApiException e) {
+                status = e.status;
+                body = error(e.error, e.getMessage());
+            } catch (SQLException e) {
+                status = 500;
+                Map<String, Object> error = error("sql", e.getMessage());
+                error.put("sqlState", e.getSQLState());
+                body = error;
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                status = 500;
+                body = error("internal", String.valueOf(e));
+            }
+            send(exchange, status, body);
+        } finally {
+            inFlight.release();
+            if (status >= 500) {
+                route.errors.increment();
+            }
+            route.latency.recordNanos(System.nanoTime() - start);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = Json.of(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, Object> error(String error, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", error);
+        body.put("message", message);
+        return body;
+    }
+
+    /**
+     * 查询串和表单请求体中的参数（同名参数以请求体为准）
+     */
+    private static Map<String, String> params(HttpExchange exchange) throws IOException, ApiException {
+        Map<String, String> params = new HashMap<>();
+        parseForm(exchange.getRequestURI().getRawQuery(), params);
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        if (contentType != null && contentType.startsWith("application/x-www-form-urlencoded")) {
+            try (InputStream in = exchange.getRequestBody()) {
+                byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+                if (body.length > MAX_BODY_BYTES) {
+                    throw new ApiException(413, "too_large", "请求体过大");
+                }
+                parseForm(new String(body, StandardCharsets.UTF_8), params);
+            }
+        }
+        return params;
+    }
+
+    private static void parseForm(String form, Map<String, String> params) {
+        if (form == null || form.isEmpty()) {
+            return;
+        }
+        for (String pair : form.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.put(name, value);
+        }
+    }
+
+    private static int intParam(Map<String, String> params, String name, int defaultValue, int min, int max)
+            throws ApiException {
+        String value = params.get(name);
+        if (value == null || value.isEmpty()) {
+            if (defaultValue < min) {
+                throw new ApiException(400, "bad_request", "缺少参数" + name);
+            }
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed < min || parsed > max) {
+                throw new ApiException(400, "bad_request", "参数" + name + "应在" + min + "到" + max + "之间");
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "bad_request", "参数" + name + "不是整数: " + value);
+        }
+    }
+
+    // ==================== 接口 ====================
+
+    private Object categories(Map<String, String> params) throws SQLException {
+        List<Object> categories = new ArrayList<>();
+        for (ReferenceData.Category category : ReferenceData.CATEGORIES.all(null)) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", category.id);
+            row.put("name", category.name);
+            categories.add(row);
+        }
+        return categories;
+    }
+
+    private Object vacantJobs(Map<String, String> params) throws SQLException, ApiException {
+        int after = intParam(params, "after", 0, 0, Integer.MAX_VALUE);
+        int limit = intParam(params, "limit", DEFAULT_LIMIT, 1, MAX_LIMIT);
+        List<Object> jobs = new ArrayList<>();
+        int[] last = {0};
+        try (Connection conn = DBConnector.getConnection()) {
+            JobDao.vacantPage(conn, after, limit, rs -> {
+                Map<String, Object> row = new LinkedHashMap<>();
+                last[0] = rs.getInt("job_id");
+                row.put("id", last[0]);
+                row.put("categoryId", rs.getInt("category_id"));
+                row.put("category", rs.getString("category_name"));
+                row.put("employer", rs.getString("employer"));
+                row.put("required", rs.getInt("required_count"));
+                row.put("hired", rs.getInt("hired_count"));
+                row.put("vacancy", rs.getInt("vacancy"));
+                jobs.add(row);
+            });
+        }
+        return page(jobs, limit, last[0]);
+    }
+
+    private Object unemployedSeekers(Map<String, String> params) throws SQLException, ApiException {
+        int after = intParam(params, "after", 0, 0, Integer.MAX_VALUE);
+        int limit = intParam(params, "limit", DEFAULT_LIMIT, 1, MAX_LIMIT);
+        List<Object> seekers = new ArrayList<>();
+        int[] last = {0};
+        try (Connection conn = DBConnector.getConnection()) {
+            SeekerDao.unemployedPage(conn, after, limit, rs -> {
+                Map<String, Object> row = new LinkedHashMap<>();
+                last[0] = rs.getInt("seeker_id");
+                row.put("id", last[0]);
+                row.put("name", rs.getString("name"));
+                row.put("gender", rs.getString("gender"));
+                seekers.add(row);
+            });
+        }
+        return page(seekers, limit, last[0]);
+    }
+
+    private static Map<String, Object> page(List<Object> items, int limit, int last) {
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("items", items);
+        page.put("nextAfter", items.size() < limit ? null : last);
+        return page;
+    }
+
+    private Object match(Map<String, String> params) throws SQLException, ApiException {
+        int jobId = intParam(params, "jobId", -1, 1, Integer.MAX_VALUE);
+        int seekerId = intParam(params, "seekerId", -1, 1, Integer.MAX_VALUE);
+        int[] matchId = new int[1];
+        MatchOutcome outcome;
+        try (Connection conn = DBConnector.getConnection()) {
+            outcome = MatchingDao.match(conn, jobId, seekerId, matchId);
+        }
+        switch (outcome) {
+            case OK: {
+                Map<String, Object> body = new LinkedHashMap<>();
+                body.put("matchId", matchId[0]);
+                body.put("jobId", jobId);
+                body.put("seekerId", seekerId);
+                return body;
+            }
+            case NOT_FOUND:
+                throw new ApiException(404, outcome.name().toLowerCase(), outcome.message);
+            default:
+                throw new ApiException(409, outcome.name().toLowerCase(), outcome.message);
+        }
+    }
+
+    private Object jobStats(Map<String, String> params) throws SQLException {
+        List<Object> stats = new ArrayList<>();
+        try (Connection conn = DBConnector.getConnection()) {
+            for (StatsDao.JobStat stat : StatsDao.jobStats(conn)) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("employer", stat.employer);
+                row.put("required", stat.required);
+                row.put("hired", stat.hired);
+                row.put("vacancy", stat.vacancy);
+                stats.add(row);
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * 各接口的请求统计（自服务器启动起累计）
+     */
+    Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("virtualThreads", virtualThreads);
+        metrics.put("inFlight", MAX_IN_FLIGHT - inFlight.availablePermits());
+        metrics.put("rejected", rejected.sum());
+        Map<String, Object> byRoute = new LinkedHashMap<>();
+        for (Map.Entry<String, Route> entry : routes.entrySet()) {
+            LatencyHistogram.Snapshot s = entry.getValue().latency.snapshot();
+            Map<String, Object> route = new LinkedHashMap<>();
+            route.put("count", s.count);
+            route.put("errors", entry.getValue().errors.sum());
+            route.put("meanMicros", s.meanMicros);
+            route.put("p50Micros", s.p50Micros);
+            route.put("p90Micros", s.p90Micros);
+            route.put("p99Micros", s.p99Micros);
+            route.put("p999Micros", s.p999Micros);
+            route.put("maxMicros", s.maxMicros);
+            byRoute.put(entry.getKey(), route);
+        }
+        metrics.put("routes", byRoute);
+        metrics.put("pool", DbMetrics.poolAttributes());
+        List<Object> statements = new ArrayList<>();
+        for (DbMetrics.Operation operation : DbMetrics.operations()) {
+            if (operation.execute.snapshot().count > 0) {
+                statements.add(DbMetrics.attributes(operation));
+            }
+        }
+        metrics.put("statements", statements);
+        return metrics;
+    }
+}
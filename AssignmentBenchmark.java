@@ -0,0 +1,89 @@
+/**
+ * 最优分配求解器性能测试类
+ *
+ * 在随机生成的稀疏输入上单独运行AssignmentSolver，不需要数据库。
+ * 同时计算按得分从高到低的贪心分配，用于对比求解质量。
+ *
+ * 用法：
+ *   java AssignmentBenchmark [求职者数] [职业数] [每个求职者的候选边数] [随机种子] [重复次数]
+ * 默认：100000 10000 20 42 5
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 最优分配求解器性能测试
+ */
+class AssignmentBenchmark {
+
+    public static void main(String[] args) {
+        int seekers = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int jobs = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int degree = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42L;
+        int rounds = args.length > 4 ? Integer.parseInt(args[4]) : 5;
+
+        // 生成输入：每个职业1~20个空缺，每个求职者随机degree个候选职业，得分0~100
+        Random random = new Random(seed);
+        int[] capacity = new int[jobs];
+        long totalCapacity = 0;
+        for (int j = 0; j < jobs; j++) {
+            capacity[j] = 1 + random.nextInt(20);
+            totalCapacity += capacity[j];
+        }
+        int edges = seekers * degree;
+        int[] edgeSeeker = new int[edges];
+        int[] edgeJob = new int[edges];
+        int[] edgeScore = new int[edges];
+        for (int s = 0, e = 0; s < seekers; s++) {
+            for (int d = 0; d < degree; d++, e++) {
+                edgeSeeker[e] = s;
+                edgeJob[e] = random.nextInt(jobs);
+                edgeScore[e] = random.nextInt(101);
+            }
+        }
+
+        System.out.printf("求职者 %d，职业 %d（空缺合计 %d），候选边 %d%n", seekers, jobs, totalCapacity, edges);
+        System.out.println("贪心分配: 总得分 " + greedy(seekers, capacity, edgeSeeker, edgeJob, edgeScore));
+
+        long best = Long.MAX_VALUE;
+        for (int round = 1; round <= rounds; round++) {
+            long start = System.nanoTime();
+            AssignmentSolver solver = new AssignmentSolver(seekers, capacity, edgeSeeker, edgeJob, edgeScore);
+            long built = System.nanoTime();
+            AssignmentSolver.Solution solution = solver.solve();
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            best = Math.min(best, elapsed);
+            System.out.printf("第%d轮: 建图 %dms，%s%n", round, (built - start) / 1_000_000, solution);
+        }
+        System.out.println("最短总耗时: " + best + "ms");
+    }
+
+    /**
+     * 贪心基线：按得分从高到低依次分配
+     */
+    private static long greedy(int seekers, int[] capacity, int[] edgeSeeker, int[] edgeJob, int[] edgeScore) {
+        Integer[] order = new Integer[edgeScore.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(edgeScore[b], edgeScore[a]));
+
+        int[] left = capacity.clone();
+        boolean[] taken = new boolean[seekers];
+        long total = 0;
+        for (int e : order) {
+            if (!taken[edgeSeeker[e]] && left[edgeJob[e]] > 0) {
+                taken[edgeSeeker[e]] = true;
+                left[edgeJob[e]]--;
+                total += edgeScore[e];
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,384 @@
+/**
+ * 最优分配求解器类
+ *
+ * 该类求解“求职者 - 职业空缺”的最大权分配问题：每个求职者最多匹配一个职业，
+ * 每个职业最多接收capacity个求职者，在给定的候选边（求职者, 职业, 得分）上使总得分最大。
+ *
+ * 建模为最小费用流：
+ *   求职者 -> 职业（容量1，费用 = -得分）
+ *   职业 -> 汇点（容量 = 空缺数，费用0）
+ *   求职者 -> 汇点（容量1，费用0，表示不匹配）
+ * 每个求职者提供1个单位流量，因为可以不匹配，所以总是可行。
+ *
+ * 算法（逐个求职者的最短增广路，势能法）：
+ * 1. 按下标依次加入求职者，每次从该求职者出发，在约化费用下用Dijkstra（二叉堆）找到汇点的最短路
+ *    （可能经过已匹配的求职者：把对方挤到另一个候选职业，或让对方放弃匹配），沿路增广
+ * 2. 每次加入后当前分配对已加入的求职者都是最优的，所以全部加入后即为最优解
+ * 3. Dijkstra在汇点出堆时停止，势能只更新本次出堆的结点，距离数组只重置本次访问过的结点，
+ *    每次搜索的工作量与访问到的区域成正比，而不是与整个图成正比
+ *
+ * 按阶段同时增广多条路的原始-对偶法在得分各不相同时（例如按登记顺序优先）退化为每阶段一条路、
+ * 每阶段扫描全图；逐个求职者搜索在这种输入上不会退化。
+ *
+ * 图使用基本类型数组存储（按求职者分组的候选边数组，每个职业的已匹配求职者用数组链表），
+ * 适用于10万求职者 × 1万职业、每个求职者几十条候选边的稀疏规模。
+ * 本类不访问数据库，可以独立测试和做性能测试（见AssignmentBenchmark）。
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.util.Arrays;
+
+/**
+ * 最大权分配求解器
+ */
+class AssignmentSolver {
+
+    private static final long INF = Long.MAX_VALUE / 4;
+
+    /**
+     * 求解结果
+     */
+    static final class Solution {
+        /** seekerJob[i] = 求职者i分配到的职业下标，未分配为-1 */
+        final int[] seekerJob;
+        final int matched;
+        final long totalScore;
+        /** 最短路搜索次数（有候选边的求职者数） */
+        final int phases;
+        final long solveMillis;
+
+        Solution(int[] seekerJob, int matched, long totalScore, int phases, long solveMillis) {
+            this.seekerJob = seekerJob;
+            this.matched = matched;
+            this.totalScore = totalScore;
+            this.phases = phases;
+            this.solveMillis = solveMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("匹配 %d 对，总得分 %d，最短路搜索 %d 次，求解耗时 %dms",
+                    matched, totalScore, phases, solveMillis);
+        }
+    }
+
+    // ==================== 图结构 ====================
+
+    /**
+     * 结点编号：求职者 0..seekers-1，职业 seekers..seekers+jobs-1，汇点 seekers+jobs
+     */
+    private final int seekers;
+    private final int sink;
+    private final int[] capacity;
+
+    /**
+     * 候选边按求职者分组连续存放：求职者s的候选边编号为 edgeStart[s] .. edgeStart[s + 1] - 1
+     */
+    private final int[] edgeStart;
+    private final int[] edgeJob;
+    private final int[] edgeCost;
+
+    // ==================== 当前分配 ====================
+
+    /** 求职者当前的职业下标（未匹配为-1）和该边的费用 */
+    private final int[] seekerJob;
+    private final int[] seekerCost;
+    /** 每个职业已匹配的人数，以及已匹配求职者的双向链表（head按职业，next/prev按求职者） */
+    private final int[] load;
+    private final int[] head;
+    private final int[] next;
+    private final int[] prev;
+
+    // ==================== 最短路 ====================
+
+    private final long[] potential;
+    private final long[] dist;
+    /** 前驱结点；到达职业时另记所用候选边的编号 */
+    private final int[] pred;
+    private final int[] predEdge;
+    private final boolean[] settled;
+    /** 本次搜索访问过的结点，搜索结束后据此更新势能并重置dist/settled */
+    private final int[] touched;
+    private final LongHeap heap = new LongHeap(64);
+
+    /**
+     * 构造求解器
+     *
+     * @param seekers 求职者数量（下标0..seekers-1）
+     * @param jobCapacity 每个职业的空缺数（下标0..jobs-1）
+     * @param edgeSeeker 候选边的求职者下标
+     * @param edgeJob 候选边的职业下标
+     * @param edgeScore 候选边的得分（越大越好）
+     */
+    AssignmentSolver(int seekers, int[] jobCapacity, int[] edgeSeeker, int[] edgeJob, int[] edgeScore) {
+        if (edgeSeeker.length != edgeJob.length || edgeJob.length != edgeScore.length) {
+            throw new IllegalArgumentException("候选边数组长度不一致");
+        }
+        int jobs = jobCapacity.length;
+        this.seekers = seekers;
+        this.sink = seekers + jobs;
+        this.capacity = jobCapacity.clone();
+
+        edgeStart = new int[seekers + 1];
+        for (int s : edgeSeeker) {
+            edgeStart[s + 1]++;
+        }
+        for (int s = 0; s < seekers; s++) {
+            edgeStart[s + 1] += edgeStart[s];
+        }
+        this.edgeJob = new int[edgeSeeker.length];
+        edgeCost = new int[edgeSeeker.length];
+        int[] fill = Arrays.copyOf(edgeStart, seekers);
+        for (int i = 0; i < edgeSeeker.length; i++) {
+            int e = fill[edgeSeeker[i]]++;
+            this.edgeJob[e] = edgeJob[i];
+            edgeCost[e] = -edgeScore[i];
+        }
+
+        seekerJob = new int[seekers];
+        Arrays.fill(seekerJob, -1);
+        seekerCost = new int[seekers];
+        load = new int[jobs];
+        head = new int[jobs];
+        Arrays.fill(head, -1);
+        next = new int[seekers];
+        prev = new int[seekers];
+
+        int nodeCount = sink + 1;
+        potential = new long[nodeCount];
+        dist = new long[nodeCount];
+        Arrays.fill(dist, INF);
+        pred = new int[nodeCount];
+        predEdge = new int[nodeCount];
+        settled = new boolean[nodeCount];
+        touched = new int[nodeCount];
+    }
+
+    // ==================== 求解 ====================
+
+    /**
+     * 求解最大权分配
+     *
+     * @return 求解结果
+     */
+    Solution solve() {
+        long start = System.nanoTime();
+        int phases = 0;
+        for (int s = 0; s < seekers; s++) {
+            if (edgeStart[s] == edgeStart[s + 1]) {
+                continue;  // 没有候选边，只能不匹配
+            }
+            // 新加入的求职者没有入边，势能取满足其出边约化费用非负的最小值
+            long p = potential[sink];
+            for (int e = edgeStart[s]; e < edgeStart[s + 1]; e++) {
+                p = Math.max(p, potential[seekers + edgeJob[e]] - edgeCost[e]);
+            }
+            potential[s] = p;
+            augment(s, dijkstra(s));
+            phases++;
+        }
+
+        int matched = 0;
+        long total = 0;
+        for (int s = 0; s < seekers; s++) {
+            if (seekerJob[s] >= 0) {
+                matched++;
+                total -= seekerCost[s];
+            }
+        }
+        return new Solution(seekerJob.clone(), matched, total, phases, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * 从求职者origin出发的约化费用Dijkstra（汇点出堆后即停止），并更新出堆结点的势能
+     *
+     * @return 本次访问过的结点数（touched的有效长度）
+     */
+    private int dijkstra(int origin) {
+        int count = 0;
+        dist[origin] = 0;
+        pred[origin] = -1;
+        touched[count++] = origin;
+        heap.clear();
+        heap.push(0, origin);
+        while (true) {
+            long d = heap.peekKey();
+            int u = heap.pop();
+            if (settled[u]) {
+                continue;
+            }
+            settled[u] = true;
+            if (u == sink) {
+                break;  // 不匹配的边总是存在，汇点一定可达
+            }
+            long pu = potential[u];
+            if (u < seekers) {
+                // 放弃当前职业（新加入的求职者则是不匹配）
+                count = relax(count, sink, d + pu - potential[sink], u, -1);
+                int current = seekerJob[u];
+                for (int e = edgeStart[u]; e < edgeStart[u + 1]; e++) {
+                    int v = seekers + edgeJob[e];
+                    if (edgeJob[e] != current) {
+                        count = relax(count, v, d + edgeCost[e] + pu - potential[v], u, e);
+                    }
+                }
+            } else {
+                int j = u - seekers;
+                if (load[j] < capacity[j]) {
+                    count = relax(count, sink, d + pu - potential[sink], u, -1);
+                }
+                // 挤走一个已匹配的求职者（沿反向边，费用为其当前边费用的相反数）
+                for (int s = head[j]; s >= 0; s = next[s]) {
+                    count = relax(count, s, d - seekerCost[s] + pu - potential[s], u, -1);
+                }
+            }
+        }
+
+        // 出堆结点的势能加上 dist - dist[汇点]，其余结点不变（相当于整体减去常数），约化费用保持非负
+        long limit = dist[sink];
+        for (int i = 0; i < count; i++) {
+            int v = touched[i];
+            if (settled[v]) {
+                potential[v] += dist[v] - limit;
+            }
+        }
+        return count;
+    }
+
+    private int relax(int count, int v, long nd, int from, int edge) {
+        if (nd < dist[v]) {
+            if (dist[v] == INF) {
+                touched[count++] = v;
+            }
+            dist[v] = nd;
+            pred[v] = from;
+            predEdge[v] = edge;
+            heap.push(nd, v);
+        }
+        return count;
+    }
+
+    /**
+     * 沿前驱从汇点回溯到origin，更新分配，并重置本次访问过的结点
+     */
+    private void augment(int origin, int count) {
+        int v = pred[sink];
+        if (v < seekers && seekerJob[v] >= 0) {
+            unlink(v);  // 路径经“不匹配”边到达汇点：该求职者放弃当前职业
+        }
+        while (v != origin) {
+            if (v >= seekers) {
+                // 候选边 s -> 职业：s 转到该职业（原职业由路径上的下一段接替）
+                int s = pred[v];
+                if (seekerJob[s] >= 0) {
+                    unlink(s);
+                }
+                link(s, v - seekers, edgeCost[predEdge[v]]);
+                v = s;
+            } else {
+                v = pred[v];
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            dist[touched[i]] = INF;
+            settled[touched[i]] = false;
+        }
+    }
+
+    private void link(int s, int j, int c) {
+        seekerJob[s] = j;
+        seekerCost[s] = c;
+        load[j]++;
+        prev[s] = -1;
+        next[s] = head[j];
+        if (head[j] >= 0) {
+            prev[head[j]] = s;
+        }
+        head[j] = s;
+    }
+
+    private void unlink(int s) {
+        int j = seekerJob[s];
+        if (prev[s] >= 0) {
+            next[prev[s]] = next[s];
+        } else {
+            head[j] = next[s];
+        }
+        if (next[s] >= 0) {
+            prev[next[s]] = prev[s];
+        }
+        seekerJob[s] = -1;
+        load[j]--;
+    }
+
+    // ==================== 二叉堆 ====================
+
+    /**
+     * (long键, int值) 的最小二叉堆，避免PriorityQueue的装箱
+     */
+    private static final class LongHeap {
+        private long[] keys;
+        private int[] values;
+        private int size;
+
+        LongHeap(int capacity) {
+            keys = new long[Math.max(16, capacity)];
+            values = new int[keys.length];
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        long peekKey() {
+            return keys[0];
+        }
+
+        void push(long key, int value) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                keys[i] = keys[parent];
+                values[i] = values[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        int pop() {
+            int result = values[0];
+            long key = keys[--size];
+            int value = values[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (keys[child] >= key) {
+                    break;
+                }
+                keys[i] = keys[child];
+                values[i] = values[child];
+                i = child;
+            }
+            keys[i] = key;
+            values[i] = value;
+            return result;
+        }
+    }
+}
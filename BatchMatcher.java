@@ -0,0 +1,431 @@
+/**
+ * 批量自动匹配类
+ *
+ * 该类用于招聘会等场景一次性匹配大量求职者：读取所有仍有空缺的职业
+ * （required_count - hired_count > 0）和所有未聘用的求职者，按指定策略在内存中生成匹配方案，
+ * 然后分块、分事务地用JDBC批处理写入JobMatching表。
+ * 主要功能：
+ * 1. 可选的分配策略（先到先得、按分类轮流、按用人单位轮流）
+ * 2. 预览（dry-run）：只生成方案，不写数据库
+ * 3. 分块提交：每块一个事务，先锁定本块涉及的职业和求职者并重新检查，再批量插入
+ * 4. 统计：方案规模、实际插入数、因并发冲突跳过的数量、耗时和吞吐量
+ *
+ * 并发安全：
+ * - 生成方案之后、提交之前，其他终端可能已经匹配了部分职业或求职者，
+ *   因此每块提交前都用SELECT ... FOR UPDATE按主键顺序锁定相关行并重新检查，冲突的配对跳过
+ * - 锁定语句经过Dao.queryInList执行，IN列表补齐到2的幂，不同的块大小只产生少数几种SQL文本
+ * - 已聘人数和聘用状态由AfterInsertMatching触发器维护（与JobMatcher一致）
+ * - 发生死锁（SQLState 40001）时重试当前块
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 批量匹配执行器
+ */
+class BatchMatcher {
+
+    /** 默认每个事务提交的配对数 */
+    static final int DEFAULT_CHUNK_SIZE = 500;
+
+    /** 死锁时每块的最大尝试次数 */
+    private static final int MAX_ATTEMPTS = 3;
+
+    /** MySQL死锁/序列化失败的SQLState */
+    private static final String DEADLOCK_SQL_STATE = "40001";
+
+    private static final String INSERT_SQL = "INSERT INTO JobMatching (job_id, seeker_id) VALUES (?, ?)";
+
+    /** 有空缺的职业（按登记顺序） */
+    static final String VACANT_JOBS_SQL = "SELECT job_id, category_id, employer, " +
+            "required_count - hired_count AS vacancy FROM Job " +
+            "WHERE required_count > hired_count ORDER BY job_id";
+
+    /** 锁定本块的职业并读取当前空缺（“%s”为IN列表，见Dao.queryInList） */
+    static final String LOCK_JOBS_SQL = "SELECT job_id, required_count - hired_count FROM Job " +
+            "WHERE job_id IN (%s) ORDER BY job_id FOR UPDATE";
+
+    /** 锁定本块的求职者并读取仍未聘用的（“%s”为IN列表） */
+    static final String LOCK_SEEKERS_SQL = "SELECT seeker_id FROM JobSeeker " +
+            "WHERE seeker_id IN (%s) AND employed = false ORDER BY seeker_id FOR UPDATE";
+
+    /** 未聘用的求职者（按登记顺序） */
+    static final String UNEMPLOYED_SQL =
+            "SELECT seeker_id, name FROM JobSeeker WHERE employed = false ORDER BY seeker_id";
+
+    private static final DbMetrics.Operation INSERT = DbMetrics.operation(INSERT_SQL);
+
+    /**
+     * 分配策略
+     * 三种策略都把职业分组后轮流分配，组内按job_id顺序逐个填满，求职者按seeker_id（登记先后）顺序分配
+     */
+    enum Policy {
+        /** 所有职业为一组：按职业登记顺序依次填满 */
+        FIFO("先到先得"),
+        /** 按职业分类分组：各分类轮流获得求职者 */
+        BY_CATEGORY("按分类轮流"),
+        /** 按用人单位分组：各用人单位轮流获得求职者 */
+        ROUND_ROBIN("按用人单位轮流");
+
+        final String label;
+
+        Policy(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private BatchMatcher() {
+    }
+
+    // ==================== 候选数据 ====================
+
+    /**
+     * 候选职业和求职者（按主键升序）
+     */
+    static final class Candidates {
+        final int[] jobIds;
+        final int[] categoryIds;
+        final String[] employers;
+        final int[] vacancies;
+        final int[] seekerIds;
+        final String[] seekerNames;
+
+        Candidates(int[] jobIds, int[] categoryIds, String[] employers, int[] vacancies,
+                   int[] seekerIds, String[] seekerNames) {
+            this.jobIds = jobIds;
+            this.categoryIds = categoryIds;
+            this.employers = employers;
+            this.vacancies = vacancies;
+            this.seekerIds = seekerIds;
+            this.seekerNames = seekerNames;
+        }
+
+        int totalVacancy() {
+            int total = 0;
+            for (int v : vacancies) {
+                total += v;
+            }
+            return total;
+        }
+    }
+
+    /**
+     * 读取所有仍有空缺的职业和所有未聘用的求职者
+     *
+     * @param conn 数据库连接
+     * @return 候选数据
+     * @throws SQLException SQL异常
+     */
+    static Candidates loadCandidates(Connection conn) throws SQLException {
+        IntList jobIds = new IntList(), categoryIds = new IntList(), vacancies = new IntList();
+        List<String> employers = new ArrayList<>();
+        Dao.query(conn, VACANT_JOBS_SQL, rs -> {
+            jobIds.add(rs.getInt(1));
+            categoryIds.add(rs.getInt(2));
+            employers.add(rs.getString(3));
+            vacancies.add(rs.getInt(4));
+        });
+
+        IntList seekerIds = new IntList();
+        List<String> seekerNames = new ArrayList<>();
+        Dao.query(conn, UNEMPLOYED_SQL, rs -> {
+            seekerIds.add(rs.getInt(1));
+            seekerNames.add(rs.getString(2));
+        });
+
+        return new Candidates(jobIds.toArray(), categoryIds.toArray(), employers.toArray(new String[0]),
+                vacancies.toArray(), seekerIds.toArray(), seekerNames.toArray(new String[0]));
+    }
+
+    // ==================== 生成方案 ====================
+
+    /**
+     * 匹配方案：第i个配对为 (jobIds[i], seekerIds[i])
+     */
+    static final class Plan {
+        final String strategy;
+        final int openJobs;
+        final int totalVacancy;
+        final int freeSeekers;
+        final int[] jobIds;
+        final int[] seekerIds;
+        final String[] employers;
+        final String[] seekerNames;
+        final long planMillis;
+
+        Plan(String strategy, Candidates c, int[] jobIds, int[] seekerIds,
+             String[] employers, String[] seekerNames, long planMillis) {
+            this.strategy = strategy;
+            this.openJobs = c.jobIds.length;
+            this.totalVacancy = c.totalVacancy();
+            this.freeSeekers = c.seekerIds.length;
+            this.jobIds = jobIds;
+            this.seekerIds = seekerIds;
+            this.employers = employers;
+            this.seekerNames = seekerNames;
+            this.planMillis = planMillis;
+        }
+
+        int size() {
+            return jobIds.length;
+        }
+
+        /**
+         * 方案摘要和前limit个配对（预览用）
+         */
+        String preview(int limit) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("策略: ").append(strategy).append('\n');
+            sb.append("有空缺的职业: ").append(openJobs).append("（空缺合计 ").append(totalVacancy).append("）\n");
+            sb.append("未聘用的求职者: ").append(freeSeekers).append('\n');
+            sb.append("计划匹配: ").append(size()).append(" 对，生成方案耗时 ").append(planMillis).append("ms\n");
+            int shown = Math.min(limit, size());
+            for (int i = 0; i < shown; i++) {
+                sb.append(String.format("%6d  %s (#%d)  <-  %s (#%d)\n",
+                        i + 1, employers[i], jobIds[i], seekerNames[i], seekerIds[i]));
+            }
+            if (shown < size()) {
+                sb.append("…… 其余 ").append(size() - shown).append(" 对未列出\n");
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * 读取候选数据并生成匹配方案（不写数据库）
+     */
+    static Plan plan(Connection conn, Policy policy) throws SQLException {
+        return plan(loadCandidates(conn), policy);
+    }
+
+    /**
+     * 按策略生成匹配方案（纯内存计算）
+     *
+     * 算法：把职业按策略分组，每组是一个按job_id排列的职业队列；
+     * 各组轮流取出队首职业分配一个求职者，职业空缺用完后出队，组内职业用完后该组退出轮转。
+     *
+     * @param c 候选数据
+     * @param policy 分配策略
+     * @return 匹配方案
+     */
+    static Plan plan(Candidates c, Policy policy) {
+        long start = System.nanoTime();
+        int[] remaining = c.vacancies.clone();
+
+        // 分组：组键 -> 职业下标队列（按出现顺序，即job_id顺序）
+        Map<Object, ArrayDeque<Integer>> groups = new LinkedHashMap<>();
+        for (int j = 0; j < c.jobIds.length; j++) {
+            Object key;
+            switch (policy) {
+                case BY_CATEGORY:
+                    key = c.categoryIds[j];
+                    break;
+                case ROUND_ROBIN:
+                    key = c.employers[j];
+                    break;
+                default:
+                    key = Boolean.TRUE;  // 单一分组
+                    break;
+            }
+            groups.computeIfAbsent(key, k -> new ArrayDeque<>()).add(j);
+        }
+        ArrayDeque<ArrayDeque<Integer>> turn = new ArrayDeque<>(groups.values());
+
+        int capacity = Math.min(c.seekerIds.length, c.totalVacancy());
+        int[] jobIds = new int[capacity];
+        int[] seekerIds = new int[capacity];
+        String[] employers = new String[capacity];
+        String[] seekerNames = new String[capacity];
+
+        int n = 0;
+        while (n < capacity && !turn.isEmpty()) {
+            ArrayDeque<Integer> group = turn.poll();
+            int j = group.peek();
+            jobIds[n] = c.jobIds[j];
+            employers[n] = c.employers[j];
+            seekerIds[n] = c.seekerIds[n];
+            seekerNames[n] = c.seekerNames[n];
+            n++;
+            if (--remaining[j] == 0) {
+                group.poll();
+            }
+            if (!group.isEmpty()) {
+                turn.add(group);
+            }
+        }
+
+        return new Plan(policy.label, c, Arrays.copyOf(jobIds, n), Arrays.copyOf(seekerIds, n),
+                Arrays.copyOf(employers, n), Arrays.copyOf(seekerNames, n),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // ==================== 提交方案 ====================
+
+    /**
+     * 提交统计
+     */
+    static final class Result {
+        int planned;
+        int inserted;
+        int skipped;
+        int chunks;
+        int retries;
+        long elapsedMillis;
+
+        double rowsPerSecond() {
+            return elapsedMillis == 0 ? inserted : inserted * 1000.0 / elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("计划 %d 对，成功匹配 %d 对，因冲突跳过 %d 对%n" +
+                            "共 %d 个事务（死锁重试 %d 次），耗时 %dms，约 %.0f 对/秒",
+                    planned, inserted, skipped, chunks, retries, elapsedMillis, rowsPerSecond());
+        }
+    }
+
+    /**
+     * 分块提交匹配方案
+     *
+     * 每块执行流程（一个事务）：
+     * 1. 按job_id顺序锁定本块涉及的职业，读取当前空缺
+     * 2. 按seeker_id顺序锁定本块涉及的求职者，读取当前聘用状态
+     * 3. 逐对重新检查，仍然可行的配对加入批处理，其余计为跳过
+     * 4. executeBatch并提交
+     *
+     * @param conn 数据库连接（方法内部会临时关闭自动提交，结束后恢复）
+     * @param plan 匹配方案
+     * @param chunkSize 每个事务的配对数
+     * @return 提交统计
+     * @throws SQLException SQL异常（已提交的块不会回滚）
+     */
+    static Result commit(Connection conn, Plan plan, int chunkSize) throws SQLException {
+        Result result = new Result();
+        result.planned = plan.size();
+        long start = System.nanoTime();
+
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            for (int from = 0; from < plan.size(); from += chunkSize) {
+                int to = Math.min(plan.size(), from + chunkSize);
+                for (int attempt = 1; ; attempt++) {
+                    try {
+                        int inserted = commitChunk(conn, plan, from, to);
+                        conn.commit();
+                        result.inserted += inserted;
+                        result.skipped += (to - from) - inserted;
+                        result.chunks++;
+                        break;
+                    } catch (SQLException e) {
+                        conn.rollback();
+                        if (attempt >= MAX_ATTEMPTS || !DEADLOCK_SQL_STATE.equals(e.getSQLState())) {
+                            throw e;
+                        }
+                        result.retries++;
+                    } catch (RuntimeException e) {
+                        // 程序错误不重试，但同样要回滚当前块
+                        conn.rollback();
+                        throw e;
+                    }
+                }
+            }
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+
+        result.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return result;
+    }
+
+    /**
+     * 提交方案中[from, to)范围的配对（调用者负责提交或回滚）
+     *
+     * @return 实际插入的配对数
+     */
+    private static int commitChunk(Connection conn, Plan plan, int from, int to) throws SQLException {
+        int[] jobs = distinctSorted(plan.jobIds, from, to);
+        int[] seekers = distinctSorted(plan.seekerIds, from, to);
+
+        // 锁定职业并读取当前空缺
+        Map<Integer, Integer> vacancy = new HashMap<>();
+        Dao.queryInList(conn, LOCK_JOBS_SQL, jobs, rs -> vacancy.put(rs.getInt(1), rs.getInt(2)));
+
+        // 锁定求职者并读取当前聘用状态
+        Set<Integer> available = new HashSet<>();
+        Dao.queryInList(conn, LOCK_SEEKERS_SQL, seekers, rs -> available.add(rs.getInt(1)));
+
+        int inserted = 0;
+        try (PreparedStatement insert = conn.prepareStatement(INSERT_SQL)) {
+            for (int i = from; i < to; i++) {
+                int jobId = plan.jobIds[i];
+                int seekerId = plan.seekerIds[i];
+                Integer left = vacancy.get(jobId);
+                if (left == null || left <= 0 || !available.remove(seekerId)) {
+                    continue;  // 已被其他终端匹配，跳过
+                }
+                vacancy.put(jobId, left - 1);
+                insert.setInt(1, jobId);
+                insert.setInt(2, seekerId);
+                insert.addBatch();
+                inserted++;
+            }
+            if (inserted > 0) {
+                long start = System.nanoTime();
+                try {
+                    INSERT.executed(start, insert.executeBatch());
+                } catch (SQLException | RuntimeException e) {
+                    INSERT.failed();
+                    throw e;
+                }
+                INSERT.rows.add(inserted);
+            }
+        }
+        return inserted;
+    }
+
+    // ==================== 工具方法 ====================
+
+    private static int[] distinctSorted(int[] values, int from, int to) {
+        return Arrays.stream(values, from, to).distinct().sorted().toArray();
+    }
+
+    /**
+     * 可增长的int数组，读取候选数据时避免装箱
+     */
+    private static final class IntList {
+        private int[] values = new int[64];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
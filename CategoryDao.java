@@ -0,0 +1,86 @@
+/**
+ * 职业分类数据访问类
+ *
+ * JobCategory表的增删改，SQL语句都定义为常量（见Dao的说明）。
+ * 方法不维护ReferenceData和报表缓存，由调用者在成功后使其失效。
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 职业分类DAO
+ */
+final class CategoryDao {
+
+    static final String INSERT_SQL = "INSERT INTO JobCategory (category_name) VALUES (?)";
+
+    static final String UPDATE_SQL = "UPDATE JobCategory SET category_name = ? WHERE category_id = ?";
+
+    static final String DELETE_SQL = "DELETE FROM JobCategory WHERE category_id = ?";
+
+    /** 使用该分类的职业数量（走外键category_id上的索引） */
+    static final String COUNT_JOBS_SQL = "SELECT COUNT(*) FROM Job WHERE category_id = ?";
+
+    /** 一组分类中仍被职业使用的分类（一次查询，%s为IN列表） */
+    static final String IN_USE_SQL = "SELECT DISTINCT category_id FROM Job WHERE category_id IN (%s)";
+
+    private CategoryDao() {
+    }
+
+    /**
+     * 添加分类
+     *
+     * @return 新分类的category_id
+     */
+    static int insert(Connection conn, String categoryName) throws SQLException {
+        return Dao.insert(conn, INSERT_SQL, categoryName);
+    }
+
+    /**
+     * 修改分类名称
+     *
+     * @return 受影响的行数，0表示分类已不存在
+     */
+    static int update(Connection conn, int categoryId, String categoryName) throws SQLException {
+        return Dao.update(conn, UPDATE_SQL, categoryName, categoryId);
+    }
+
+    /**
+     * 删除分类（调用者应先用countJobs确认没有职业使用该分类）
+     *
+     * @return 受影响的行数，0表示分类已不存在
+     */
+    static int delete(Connection conn, int categoryId) throws SQLException {
+        return Dao.update(conn, DELETE_SQL, categoryId);
+    }
+
+    /**
+     * 批量删除分类（一个事务）：锁定分类后用一次查询检查哪些分类仍被职业使用，
+     * 只要有一个分类仍被使用，整批都不删除
+     *
+     * @return 删除结果，blocked为仍被使用的分类
+     */
+    static Dao.Deleted deleteAll(Connection conn, int[] categoryIds) throws SQLException {
+        return Dao.inTransaction(conn, () -> {
+            int[] existing = Dao.queryKeys(conn, Dao.lockSql("JobCategory", "category_id"), Dao.sorted(categoryIds));
+            int[] inUse = Dao.queryKeys(conn, IN_USE_SQL, existing);
+            if (inUse.length > 0) {
+                return new Dao.Deleted(new int[0], inUse);
+            }
+            Dao.updateKeys(conn, Dao.deleteSql("JobCategory", "category_id"), existing);
+            return new Dao.Deleted(existing, new int[0]);
+        });
+    }
+
+    /**
+     * 统计使用该分类的职业数量
+     */
+    static int countJobs(Connection conn, int categoryId) throws SQLException {
+        return Dao.queryInt(conn, COUNT_JOBS_SQL, categoryId);
+    }
+}
@@ -0,0 +1,612 @@
+/**
+ * 列式表格模型类
+ *
+ * 该类替代buildTableModel原先使用的Vector<Vector<Object>>：数据按列存储，
+ * 并根据ResultSetMetaData中的列类型为每一列选择基本类型数组，避免把每个int、
+ * boolean都装箱成Object，也避免Vector在表格绘制时每次getValueAt都加锁。
+ *
+ * 列类型与存储方式：
+ * - INTEGER/SMALLINT/TINYINT     -> int[]
+ * - BIGINT、无符号INTEGER          -> long[]
+ * - BIT(1)/BOOLEAN               -> BitSet
+ * - DECIMAL/NUMERIC（精度<=18）    -> long[]（按小数位数缩放后的整数，读取时还原为BigDecimal，无精度损失）
+ * - FLOAT/REAL/DOUBLE            -> double[]
+ * - CHAR/VARCHAR/TEXT            -> 字典编码：int[]编号 + 去重后的字符串表
+ * - 其他类型                       -> Object[]
+ * - 每列用一个BitSet记录NULL
+ *
+ * 模型创建后只读，可以安全地在后台线程构建后交给EDT使用。
+ * 需要修改单行时（例如分页模型应用增删改补丁）用splice()生成新的模型，原模型不变。
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * 列式、基本类型特化的只读表格模型
+ */
+class ColumnarTableModel extends AbstractTableModel implements TypedTableModel {
+
+    /** 构建时数组的初始容量 */
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Column[] columns;
+    private final int rowCount;
+
+    private ColumnarTableModel(Column[] columns, int rowCount) {
+        this.columns = columns;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * 从ResultSet读取全部剩余行构建模型
+     *
+     * @param rs 结果集（从当前位置开始读取）
+     * @return 列式表格模型
+     * @throws SQLException SQL异常
+     */
+    static ColumnarTableModel from(ResultSet rs) throws SQLException {
+        return from(rs, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 从ResultSet读取最多limit行构建模型（用于分页读取）
+     *
+     * @param rs 结果集（从当前位置开始读取）
+     * @param limit 最多读取的行数
+     * @return 列式表格模型
+     * @throws SQLException SQL异常
+     */
+    static ColumnarTableModel from(ResultSet rs, int limit) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        Column[] columns = new Column[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            columns[i] = Column.forType(metaData, i + 1);
+        }
+
+        int row = 0;
+        while (row < limit && rs.next()) {
+            for (int i = 0; i < columnCount; i++) {
+                columns[i].read(rs, i + 1, row);
+            }
+            row++;
+        }
+        for (Column column : columns) {
+            column.trim(row);
+        }
+        return new ColumnarTableModel(columns, row);
+    }
+
+    /**
+     * 生成拼接后的新模型：删除[at, at + removeCount)范围的行，并在at处插入insert的所有行
+     * insert必须来自同一条查询（列数和列类型相同）
+     *
+     * @param at 起始行
+     * @param removeCount 删除的行数
+     * @param insert 插入的行，为null表示不插入
+     * @return 新模型
+     */
+    ColumnarTableModel splice(int at, int removeCount, ColumnarTableModel insert) {
+        int inserted = insert == null ? 0 : insert.rowCount;
+        int rows = rowCount - removeCount + inserted;
+        Column[] result = new Column[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            Column column = columns[i].newEmpty();
+            int row = 0;
+            for (int k = 0; k < at; k++) {
+                column.copyFrom(columns[i], k, row++);
+            }
+            for (int k = 0; k < inserted; k++) {
+                column.copyFrom(insert.columns[i], k, row++);
+            }
+            for (int k = at + removeCount; k < rowCount; k++) {
+                column.copyFrom(columns[i], k, row++);
+            }
+            column.trim(rows);
+            result[i] = column;
+        }
+        return new ColumnarTableModel(result, rows);
+    }
+
+    // ==================== TableModel接口 ====================
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column].name;
+    }
+
+    /**
+     * 获取单元格的值（表格绘制用）
+     * 这里会装箱，需要基本类型的调用者应使用getInt等类型化方法
+     */
+    @Override
+    public Object getValueAt(int row, int column) {
+        Column c = columns[column];
+        return c.nulls.get(row) ? null : c.get(row);
+    }
+
+    // ==================== 类型化读取 ====================
+
+    @Override
+    public int getInt(int row, int column) {
+        Column c = columns[column];
+        if (c instanceof IntColumn) {
+            return ((IntColumn) c).values[row];
+        }
+        return (int) getLong(row, column);
+    }
+
+    @Override
+    public long getLong(int row, int column) {
+        Column c = columns[column];
+        if (c instanceof IntColumn) {
+            return ((IntColumn) c).values[row];
+        }
+        if (c instanceof LongColumn) {
+            return ((LongColumn) c).values[row];
+        }
+        if (c instanceof BooleanColumn) {
+            return ((BooleanColumn) c).values.get(row) ? 1 : 0;  // 与getBoolean读取数值列的规则对称
+        }
+        Object value = getValueAt(row, column);
+        if (value == null) {
+            return 0;
+        }
+        if (!(value instanceof Number)) {
+            throw new IllegalArgumentException("第" + (column + 1) + "列（" + c.name + "，"
+                    + c.getClass().getSimpleName() + "）不是数值列");
+        }
+        return ((Number) value).longValue();
+    }
+
+    @Override
+    public boolean getBoolean(int row, int column) {
+        Column c = columns[column];
+        if (c instanceof BooleanColumn) {
+            return ((BooleanColumn) c).values.get(row);
+        }
+        return getLong(row, column) != 0;
+    }
+
+    @Override
+    public String getString(int row, int column) {
+        Column c = columns[column];
+        if (c instanceof DictionaryColumn) {
+            return ((DictionaryColumn) c).get(row);
+        }
+        Object value = getValueAt(row, column);
+        return value == null ? null : value.toString();
+    }
+
+    @Override
+    public boolean isNull(int row, int column) {
+        return columns[column].nulls.get(row);
+    }
+
+    /**
+     * 读取DECIMAL列的精确值
+     */
+    BigDecimal getDecimal(int row, int column) {
+        Object value = getValueAt(row, column);
+        return value == null ? null : value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal(value.toString());
+    }
+
+    // ==================== 列存储 ====================
+
+    /**
+     * 列存储基类
+     */
+    private abstract static class Column {
+        final String name;
+        final BitSet nulls = new BitSet();
+
+        Column(String name) {
+            this.name = name;
+        }
+
+        /** 读取当前行的值写入第row行 */
+        abstract void read(ResultSet rs, int index, int row) throws SQLException;
+
+        /** 返回第row行的值（非NULL） */
+        abstract Object get(int row);
+
+        /** 构建完成后把数组收缩到实际行数 */
+        abstract void trim(int rows);
+
+        /** 创建同名、同类型的空列（用于splice） */
+        abstract Column newEmpty();
+
+        /** 把同类型列src第srcRow行的非NULL值写入第row行 */
+        abstract void copyValue(Column src, int srcRow, int row);
+
+        final void copyFrom(Column src, int srcRow, int row) {
+            if (src.nulls.get(srcRow)) {
+                nulls.set(row);
+            } else {
+                copyValue(src, srcRow, row);
+            }
+        }
+
+        /**
+         * 根据列的JDBC类型选择存储方式
+         */
+        static Column forType(ResultSetMetaData metaData, int index) throws SQLException {
+            String name = metaData.getColumnLabel(index);
+            int precision = metaData.getPrecision(index);
+            switch (metaData.getColumnType(index)) {
+                case Types.TINYINT:
+                case Types.SMALLINT:
+                    return new IntColumn(name);
+                case Types.INTEGER:
+                    return metaData.isSigned(index) ? new IntColumn(name) : new LongColumn(name);
+                case Types.BIGINT:
+                    return metaData.isSigned(index) ? new LongColumn(name) : new ObjectColumn(name);
+                case Types.BIT:
+                case Types.BOOLEAN:
+                    return precision <= 1 ? new BooleanColumn(name) : new ObjectColumn(name);
+                case Types.DECIMAL:
+                case Types.NUMERIC:
+                    int scale = metaData.getScale(index);
+                    return precision > 0 && precision <= 18 && scale >= 0
+                            ? new DecimalColumn(name, scale) : new ObjectColumn(name);
+                case Types.FLOAT:
+                case Types.REAL:
+                case Types.DOUBLE:
+                    return new DoubleColumn(name);
+                case Types.CHAR:
+                case Types.VARCHAR:
+                case Types.LONGVARCHAR:
+                case Types.NCHAR:
+                case Types.NVARCHAR:
+                case Types.LONGNVARCHAR:
+                    return new DictionaryColumn(name);
+                default:
+                    return new ObjectColumn(name);
+            }
+        }
+    }
+
+    private static final class IntColumn extends Column {
+        int[] values = new int[INITIAL_CAPACITY];
+
+        IntColumn(String name) {
+            super(name);
+        }
+
+        @Override
+        void read(ResultSet rs, int index, int row) throws SQLException {
+            if (row == values.length) {
+                values = Arrays.copyOf(values, row * 2);
+            }
+            values[row] = rs.getInt(index);
+            if (rs.wasNull()) {
+                nulls.set(row);
+            }
+        }
+
+        @Override
+        Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        void trim(int rows) {
+            values = Arrays.copyOf(values, rows);
+        }
+
+        @Override
+        Column newEmpty() {
+            return new IntColumn(name);
+        }
+
+        @Override
+        void copyValue(Column src, int srcRow, int row) {
+            if (row >= values.length) {
+                values = Arrays.copyOf(values, Math.max(row + 1, values.length * 2));
+            }
+            values[row] = ((IntColumn) src).values[srcRow];
+        }
+    }
+
+    private static final class LongColumn extends Column {
+        long[] values = new long[INITIAL_CAPACITY];
+
+        LongColumn(String name) {
+            super(name);
+        }
+
+        @Override
+        void read(ResultSet rs, int index, int row) throws SQLException {
+            if (row == values.length) {
+                values = Arrays.copyOf(values, row * 2);
+            }
+            values[row] = rs.getLong(index);
+            if (rs.wasNull()) {
+                nulls.set(row);
+            }
+        }
+
+        @Override
+        Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        void trim(int rows) {
+            values = Arrays.copyOf(values, rows);
+        }
+
+        @Override
+        Column newEmpty() {
+            return new LongColumn(name);
+        }
+
+        @Override
+        void copyValue(Column src, int srcRow, int row) {
+            if (row >= values.length) {
+                values = Arrays.copyOf(values, Math.max(row + 1, values.length * 2));
+            }
+            values[row] = ((LongColumn) src).values[srcRow];
+        }
+    }
+
+    private static final class BooleanColumn extends Column {
+        final BitSet values = new BitSet();
+
+        BooleanColumn(String name) {
+            super(name);
+        }
+
+        @Override
+        void read(ResultSet rs, int index, int row) throws SQLException {
+            boolean value = rs.getBoolean(index);
+            if (rs.wasNull()) {
+                nulls.set(row);
+            } else if (value) {
+                values.set(row);
+            }
+        }
+
+        @Override
+        Object get(int row) {
+            return values.get(row);
+        }
+
+        @Override
+        void trim(int rows) {
+            // BitSet按需增长，不需要收缩
+        }
+
+        @Override
+        Column newEmpty() {
+            return new BooleanColumn(name);
+        }
+
+        @Override
+        void copyValue(Column src, int srcRow, int row) {
+            values.set(row, ((BooleanColumn) src).values.get(srcRow));
+        }
+    }
+
+    /**
+     * DECIMAL列：保存按小数位数缩放后的long，例如scale=2时 123.45 保存为 12345
+     */
+    private static final class DecimalColumn extends Column {
+        final int scale;
+        long[] unscaled = new long[INITIAL_CAPACITY];
+
+        DecimalColumn(String name, int scale) {
+            super(name);
+            this.scale = scale;
+        }
+
+        @Override
+        void read(ResultSet rs, int index, int row) throws SQLException {
+            if (row == unscaled.length) {
+                unscaled = Arrays.copyOf(unscaled, row * 2);
+            }
+            BigDecimal value = rs.getBigDecimal(index);
+            if (value == null) {
+                nulls.set(row);
+            } else {
+                unscaled[row] = value.setScale(scale).unscaledValue().longValueExact();
+            }
+        }
+
+        @Override
+        Object get(int row) {
+            return BigDecimal.valueOf(unscaled[row], scale);
+        }
+
+        @Override
+        void trim(int rows) {
+            unscaled = Arrays.copyOf(unscaled, rows);
+        }
+
+        @Override
+        Column newEmpty() {
+            return new DecimalColumn(name, scale);
+        }
+
+        @Override
+        void copyValue(Column src, int srcRow, int row) {
+            if (row >= unscaled.length) {
+                unscaled = Arrays.copyOf(unscaled, Math.max(row + 1, unscaled.length * 2));
+            }
+            unscaled[row] = ((DecimalColumn) src).unscaled[srcRow];
+        }
+    }
+
+    private static final class DoubleColumn extends Column {
+        double[] values = new double[INITIAL_CAPACITY];
+
+        DoubleColumn(String name) {
+            super(name);
+        }
+
+        @Override
+        void read(ResultSet rs, int index, int row) throws SQLException {
+            if (row == values.length) {
+                values = Arrays.copyOf(values, row * 2);
+            }
+            values[row] = rs.getDouble(index);
+            if (rs.wasNull()) {
+                nulls.set(row);
+            }
+        }
+
+        @Override
+        Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        void trim(int rows) {
+            values = Arrays.copyOf(values, rows);
+        }
+
+        @Override
+        Column newEmpty() {
+            return new DoubleColumn(name);
+        }
+
+        @Override
+        void copyValue(Column src, int srcRow, int row) {
+            if (row >= values.length) {
+                values = Arrays.copyOf(values, Math.max(row + 1, values.length * 2));
+            }
+            values[row] = ((DoubleColumn) src).values[srcRow];
+        }
+    }
+
+    /**
+     * 字典编码的字符串列
+     * 重复出现的字符串（例如性别、分类名称、用人单位）只保存一份
+     */
+    private static final class DictionaryColumn extends Column {
+        int[] codes = new int[INITIAL_CAPACITY];
+        private List<String> dictionary = new ArrayList<>();    // 仅构建期间使用
+        private Map<String, Integer> index = new HashMap<>();   // 仅构建期间使用
+        private String[] table;
+
+        DictionaryColumn(String name) {
+            super(name);
+        }
+
+        @Override
+        void read(ResultSet rs, int column, int row) throws SQLException {
+            if (row == codes.length) {
+                codes = Arrays.copyOf(codes, row * 2);
+            }
+            String value = rs.getString(column);
+            if (value == null) {
+                nulls.set(row);
+                return;
+            }
+            codes[row] = encode(value);
+        }
+
+        private int encode(String value) {
+            Integer code = index.get(value);
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.add(value);
+                index.put(value, code);
+            }
+            return code;
+        }
+
+        @Override
+        String get(int row) {
+            return nulls.get(row) ? null : table[codes[row]];
+        }
+
+        @Override
+        void trim(int rows) {
+            codes = Arrays.copyOf(codes, rows);
+            table = dictionary.toArray(new String[0]);
+            dictionary = null;  // 构建完成后释放构建期间的列表和查找表
+            index = null;
+        }
+
+        @Override
+        Column newEmpty() {
+            return new DictionaryColumn(name);
+        }
+
+        @Override
+        void copyValue(Column src, int srcRow, int row) {
+            if (row >= codes.length) {
+                codes = Arrays.copyOf(codes, Math.max(row + 1, codes.length * 2));
+            }
+            codes[row] = encode(((DictionaryColumn) src).get(srcRow));
+        }
+    }
+
+    private static final class ObjectColumn extends Column {
+        Object[] values = new Object[INITIAL_CAPACITY];
+
+        ObjectColumn(String name) {
+            super(name);
+        }
+
+        @Override
+        void read(ResultSet rs, int index, int row) throws SQLException {
+            if (row == values.length) {
+                values = Arrays.copyOf(values, row * 2);
+            }
+            values[row] = rs.getObject(index);
+            if (values[row] == null) {
+                nulls.set(row);
+            }
+        }
+
+        @Override
+        Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        void trim(int rows) {
+            values = Arrays.copyOf(values, rows);
+        }
+
+        @Override
+        Column newEmpty() {
+            return new ObjectColumn(name);
+        }
+
+        @Override
+        void copyValue(Column src, int srcRow, int row) {
+            if (row >= values.length) {
+                values = Arrays.copyOf(values, Math.max(row + 1, values.length * 2));
+            }
+            values[row] = ((ObjectColumn) src).values[srcRow];
+        }
+    }
+}
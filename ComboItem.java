@@ -0,0 +1,145 @@
+/**
+ * 下拉框选项类
+ *
+ * 下拉框中的每一项同时保存数据库ID和显示文本，选中后直接取得ID，
+ * 不需要再按显示文本（用人单位、求职者姓名）查询数据库，同名记录也不会取错。
+ * 主要功能：
+ * 1. ComboItem：ID + 显示文本，按ID判断相等
+ * 2. disambiguate：显示文本重复时在文本后追加ID，让用户能区分同名记录
+ * 3. Model：下拉框数据模型，带ID -> 选项的哈希索引，
+ *    可以按ID选中（例如选中表格行时同步下拉框），替换全部选项时保留原来选中的ID
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.swing.AbstractListModel;
+import javax.swing.ComboBoxModel;
+
+/**
+ * 带ID的下拉框选项
+ */
+final class ComboItem {
+
+    final int id;
+    final String label;
+
+    ComboItem(int id, String label) {
+        this.id = id;
+        this.label = label;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ComboItem && ((ComboItem) o).id == id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return label;  // JComboBox默认渲染器显示toString()
+    }
+
+    /**
+     * 显示文本重复的选项在文本后追加ID，例如“张三 #12”
+     *
+     * @param items 按显示顺序排列的选项
+     * @return 新列表，不重复的选项保持原对象
+     */
+    static List<ComboItem> disambiguate(List<ComboItem> items) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (ComboItem item : items) {
+            counts.merge(item.label, 1, Integer::sum);
+        }
+        List<ComboItem> result = new ArrayList<>(items.size());
+        for (ComboItem item : items) {
+            result.add(counts.get(item.label) > 1 ? new ComboItem(item.id, item.label + " #" + item.id) : item);
+        }
+        return result;
+    }
+
+    /**
+     * 下拉框数据模型（EDT中使用）
+     * 与DefaultComboBoxModel逐项添加不同，替换全部选项只触发一次内容变化事件
+     */
+    static final class Model extends AbstractListModel<ComboItem> implements ComboBoxModel<ComboItem> {
+
+        private List<ComboItem> items = Collections.emptyList();
+
+        /** ID -> 选项 */
+        private Map<Integer, ComboItem> index = Collections.emptyMap();
+
+        private ComboItem selected;
+
+        /**
+         * 替换全部选项
+         * 原来选中的ID仍然存在时保持选中，否则选中第一项（没有选项时不选中）
+         */
+        void setItems(List<ComboItem> newItems) {
+            Map<Integer, ComboItem> newIndex = new HashMap<>(newItems.size() * 2);
+            for (ComboItem item : newItems) {
+                newIndex.put(item.id, item);
+            }
+            int oldSize = items.size();
+            items = new ArrayList<>(newItems);
+            index = newIndex;
+
+            ComboItem keep = selected == null ? null : index.get(selected.id);
+            selected = keep != null ? keep : items.isEmpty() ? null : items.get(0);
+
+            if (oldSize > 0) {
+                fireIntervalRemoved(this, 0, oldSize - 1);
+            }
+            if (!items.isEmpty()) {
+                fireIntervalAdded(this, 0, items.size() - 1);
+            }
+            fireContentsChanged(this, -1, -1);  // 选中项变化
+        }
+
+        /**
+         * 按ID选中
+         *
+         * @return 该ID存在时返回true
+         */
+        boolean selectId(int id) {
+            ComboItem item = index.get(id);
+            if (item != null) {
+                setSelectedItem(item);
+            }
+            return item != null;
+        }
+
+        @Override
+        public void setSelectedItem(Object item) {
+            if (item == null ? selected != null : !item.equals(selected)) {
+                selected = item instanceof ComboItem ? index.get(((ComboItem) item).id) : null;
+                fireContentsChanged(this, -1, -1);
+            }
+        }
+
+        @Override
+        public Object getSelectedItem() {
+            return selected;
+        }
+
+        @Override
+        public int getSize() {
+            return items.size();
+        }
+
+        @Override
+        public ComboItem getElementAt(int i) {
+            return items.get(i);
+        }
+    }
+}
@@ -0,0 +1,720 @@
+/**
+ * 数据库连接池类
+ *
+ * 该类为DBConnector提供有界的JDBC连接池，避免每次数据库操作都重新建立
+ * TCP连接并完成MySQL认证握手。
+ * 主要功能：
+ * 1. 最小/最大连接数控制，连接耗尽时等待并超时报错
+ * 2. 借出时校验连接有效性（Connection.isValid）
+ * 3. 空闲连接超时回收，并保持最小连接数
+ * 4. 连接泄漏检测：记录借出时的调用栈，超时未归还时输出警告
+ * 5. 连接池统计信息（总数、空闲、活动、等待、超时、泄漏等）
+ *
+ * 使用方式：
+ * - 调用者仍然使用try-with-resources关闭连接
+ * - 关闭的是代理连接，物理连接会被归还到池中而不是真正断开
+ *
+ * 归还时的清理（下一个借用者拿到与新建连接相同的状态）：
+ * - 回滚未提交的事务并恢复自动提交
+ * - 本次借出中修改过的只读、事务隔离级别和当前数据库恢复为物理连接建立时的值
+ * - 关闭本次借出中创建但没有关闭的Statement（其ResultSet随之关闭），清除警告
+ * - Statement和DatabaseMetaData也经过代理，getConnection()返回代理连接而不是物理连接；
+ *   ResultSet不加代理（逐行逐列的调用经过反射代价太高），ResultSet.getStatement()返回物理Statement
+ * - 代理的unwrap()只返回代理本身，不交出物理连接和物理Statement
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 有界JDBC连接池
+ * 由DBConnector持有唯一实例，对外只暴露借出、统计和关闭方法
+ */
+class ConnectionPool {
+
+    // ==================== 连接配置 ====================
+
+    private final String url;
+    private final String user;
+    private final String pass;
+
+    // ==================== 池参数 ====================
+
+    /** 最小连接数：空闲回收时至少保留的连接数量 */
+    private final int minSize;
+
+    /** 最大连接数：同时存在（空闲+借出）的物理连接上限 */
+    private final int maxSize;
+
+    /** 借出等待超时（毫秒）：连接耗尽时最多等待的时间 */
+    private final long maxWaitMillis;
+
+    /** 空闲超时（毫秒）：超过该时间未使用的连接会被回收（保留最小连接数） */
+    private final long idleTimeoutMillis;
+
+    /** 泄漏阈值（毫秒）：连接借出超过该时间未归还视为疑似泄漏，0表示关闭检测 */
+    private final long leakThresholdMillis;
+
+    /** 借出校验超时（秒），传给Connection.isValid */
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    /** 借出时若连接空闲不足该时间则跳过校验，避免热连接每次都多一次往返 */
+    private static final long VALIDATION_SKIP_MILLIS = 500;
+
+    // ==================== 池状态 ====================
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+
+    /** 空闲连接栈：后进先出，优先复用最近使用过的“热”连接 */
+    private final ArrayDeque<PooledConnection> idle = new ArrayDeque<>();
+
+    /** 已借出的连接集合，供泄漏检测扫描 */
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+
+    /** 当前物理连接总数（包含正在创建中的连接） */
+    private int totalCount;
+
+    /** 正在等待连接的线程数 */
+    private int waitingCount;
+
+    private boolean shutdown;
+
+    // ==================== 统计计数器 ====================
+
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong destroyedCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong validationFailCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+
+    /** 后台维护线程：空闲回收、补足最小连接数、泄漏检测 */
+    private final ScheduledExecutorService housekeeper;
+
+    ConnectionPool(String url, String user, String pass, int minSize, int maxSize,
+                   long maxWaitMillis, long idleTimeoutMillis, long leakThresholdMillis) {
+        if (minSize < 0 || maxSize <= 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("无效的连接池大小: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.pass = pass;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.maxWaitMillis = maxWaitMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);  // 守护线程，不阻止JVM退出
+            return t;
+        });
+        long period = Math.max(1000, Math.min(idleTimeoutMillis, 30_000) / 2);
+        housekeeper.scheduleWithFixedDelay(this::houseKeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    // ==================== 借出与归还 ====================
+
+    /**
+     * 从池中借出一个连接
+     *
+     * 借出流程：
+     * 1. 优先取空闲连接，必要时校验其有效性，无效则销毁后继续
+     * 2. 没有空闲连接且未达上限时创建新的物理连接
+     * 3. 已达上限时等待其他线程归还，超过maxWaitMillis抛出SQLException
+     *
+     * @return 代理连接，调用close()会归还到池中
+     * @throws SQLException 连接创建失败或等待超时
+     */
+    Connection borrow() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+
+        while (true) {
+            PooledConnection candidate = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (true) {
+                    if (shutdown) {
+                        throw new SQLException("连接池已关闭");
+                    }
+                    candidate = idle.pollFirst();
+                    if (candidate != null) {
+                        break;
+                    }
+                    if (totalCount < maxSize) {
+                        totalCount++;  // 先占位，在锁外创建物理连接
+                        create = true;
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        timeoutCount.incrementAndGet();
+                        throw new SQLException("获取数据库连接超时（" + maxWaitMillis + "ms），连接池已满: " + stats());
+                    }
+                    waitingCount++;
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("等待数据库连接时被中断", e);
+                    } finally {
+                        waitingCount--;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                try {
+                    candidate = new PooledConnection(DriverManager.getConnection(url, user, pass));
+                    createdCount.incrementAndGet();
+                } catch (SQLException e) {
+                    releaseSlot();
+                    throw e;
+                }
+            } else if (!validate(candidate)) {
+                validationFailCount.incrementAndGet();
+                destroy(candidate);
+                continue;
+            }
+
+            long waited = System.nanoTime() - start;
+            totalWaitNanos.addAndGet(waited);
+            DbMetrics.ACQUIRE.recordNanos(waited);
+            borrowCount.incrementAndGet();
+            return candidate.lease(leakThresholdMillis > 0);
+        }
+    }
+
+    /**
+     * 归还连接（由代理连接的close()调用）
+     * 归还前关闭遗留的语句、重置事务和会话状态，保证下一个使用者拿到的是自动提交的干净连接
+     */
+    private void giveBack(PooledConnection pc, LeaseHandler lease) {
+        borrowed.remove(pc);
+        boolean healthy = true;
+        try {
+            lease.closeStatements();
+            if (!pc.physical.getAutoCommit()) {
+                pc.physical.rollback();
+                pc.physical.setAutoCommit(true);
+            }
+            // 只恢复本次借出中改过的属性，未修改时不增加往返
+            if (lease.readOnlyChanged) {
+                pc.physical.setReadOnly(pc.defaultReadOnly);
+            }
+            if (lease.isolationChanged) {
+                pc.physical.setTransactionIsolation(pc.defaultIsolation);
+            }
+            if (lease.catalogChanged && pc.defaultCatalog != null) {
+                pc.physical.setCatalog(pc.defaultCatalog);
+            }
+            pc.physical.clearWarnings();
+            healthy = !pc.physical.isClosed();
+        } catch (SQLException e) {
+            healthy = false;
+        }
+
+        if (!healthy) {
+            destroy(pc);
+            return;
+        }
+
+        lock.lock();
+        try {
+            if (shutdown) {
+                closeQuietly(pc);
+                totalCount--;
+                return;
+            }
+            pc.lastUsedAt = System.currentTimeMillis();
+            idle.addFirst(pc);
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 校验空闲连接是否仍然可用
+     * 刚归还不久的连接直接视为有效，减少一次网络往返
+     */
+    private boolean validate(PooledConnection pc) {
+        if (System.currentTimeMillis() - pc.lastUsedAt < VALIDATION_SKIP_MILLIS) {
+            return true;
+        }
+        try {
+            return pc.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void destroy(PooledConnection pc) {
+        closeQuietly(pc);
+        releaseSlot();
+    }
+
+    private void releaseSlot() {
+        lock.lock();
+        try {
+            totalCount--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeQuietly(PooledConnection pc) {
+        try {
+            pc.physical.close();
+        } catch (SQLException ignored) {
+            // 连接已不可用，忽略关闭异常
+        }
+        destroyedCount.incrementAndGet();
+    }
+
+    // ==================== 后台维护 ====================
+
+    /**
+     * 后台维护任务
+     * 1. 回收空闲超时的连接（保留最小连接数）
+     * 2. 补足最小连接数
+     * 3. 检测借出超时的疑似泄漏连接
+     */
+    private void houseKeep() {
+        try {
+            evictIdle();
+            fillToMinimum();
+            detectLeaks();
+        } catch (RuntimeException e) {
+            e.printStackTrace();  // 维护任务异常不能终止调度线程
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        ArrayDeque<PooledConnection> evicted = new ArrayDeque<>();
+        lock.lock();
+        try {
+            // 从栈底（最久未使用）开始回收
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext() && totalCount - evicted.size() > minSize) {
+                PooledConnection pc = it.next();
+                if (now - pc.lastUsedAt >= idleTimeoutMillis) {
+                    it.remove();
+                    evicted.add(pc);
+                }
+            }
+            totalCount -= evicted.size();
+        } finally {
+            lock.unlock();
+        }
+        for (PooledConnection pc : evicted) {
+            closeQuietly(pc);
+        }
+    }
+
+    /**
+     * 预热连接池：补足到最小连接数
+     * 启动时可以提前调用，让第一批查询不必等待握手
+     */
+    void fillToMinimum() {
+        while (true) {
+            lock.lock();
+            try {
+                if (shutdown || totalCount >= minSize) {
+                    return;
+                }
+                totalCount++;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                PooledConnection pc = new PooledConnection(DriverManager.getConnection(url, user, pass));
+                createdCount.incrementAndGet();
+                lock.lock();
+                try {
+                    idle.addLast(pc);
+                    available.signal();
+                } finally {
+                    lock.unlock();
+                }
+            } catch (SQLException e) {
+                releaseSlot();
+                return;  // 数据库暂不可用，等待下一轮维护再试
+            }
+        }
+    }
+
+    private void detectLeaks() {
+        if (leakThresholdMillis <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (PooledConnection pc : borrowed) {
+            if (!pc.leakReported && now - pc.borrowedAt > leakThresholdMillis) {
+                pc.leakReported = true;
+                leakCount.incrementAndGet();
+                System.err.println("疑似数据库连接泄漏：连接已借出 " + (now - pc.borrowedAt)
+                        + "ms 未归还（线程 " + pc.borrowThread + "），借出位置：");
+                if (pc.borrowStack != null) {
+                    pc.borrowStack.printStackTrace();
+                }
+            }
+        }
+    }
+
+    // ==================== 统计与关闭 ====================
+
+    /**
+     * 获取连接池统计快照
+     *
+     * @return 当前时刻的统计信息
+     */
+    PoolStats stats() {
+        lock.lock();
+        try {
+            long borrows = borrowCount.get();
+            return new PoolStats(totalCount, idle.size(), borrowed.size(), waitingCount,
+                    minSize, maxSize, borrows, createdCount.get(), destroyedCount.get(),
+                    timeoutCount.get(), validationFailCount.get(), leakCount.get(),
+                    borrows == 0 ? 0 : totalWaitNanos.get() / borrows / 1000);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 关闭连接池：关闭所有空闲连接，借出中的连接在归还时关闭
+     */
+    void shutdown() {
+        housekeeper.shutdownNow();
+        ArrayDeque<PooledConnection> toClose;
+        lock.lock();
+        try {
+            shutdown = true;
+            toClose = new ArrayDeque<>(idle);
+            totalCount -= idle.size();
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (PooledConnection pc : toClose) {
+            closeQuietly(pc);
+        }
+    }
+
+    // ==================== 内部类 ====================
+
+    /**
+     * 池化连接：物理连接及其借出信息
+     */
+    private final class PooledConnection {
+        final Connection physical;
+
+        /** 物理连接建立时的会话属性，归还时据此恢复 */
+        final boolean defaultReadOnly;
+        final int defaultIsolation;
+        final String defaultCatalog;
+
+        volatile long lastUsedAt = System.currentTimeMillis();
+        volatile long borrowedAt;
+        volatile String borrowThread;
+        volatile Throwable borrowStack;
+        volatile boolean leakReported;
+
+        PooledConnection(Connection physical) throws SQLException {
+            this.physical = physical;
+            try {
+                defaultReadOnly = physical.isReadOnly();
+                defaultIsolation = physical.getTransactionIsolation();
+                defaultCatalog = physical.getCatalog();
+            } catch (SQLException e) {
+                try {
+                    physical.close();
+                } catch (SQLException ignored) {
+                    // 连接已不可用，忽略关闭异常
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * 借出：记录借出信息并创建新的代理
+         * 每次借出都是新代理，旧代理关闭后再调用会报错，不会误用别人的连接
+         */
+        Connection lease(boolean captureStack) {
+            borrowedAt = System.currentTimeMillis();
+            borrowThread = Thread.currentThread().getName();
+            borrowStack = captureStack ? new Throwable("连接借出位置") : null;
+            leakReported = false;
+            borrowed.add(this);
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new LeaseHandler(this));
+        }
+    }
+
+    /**
+     * 代理连接的调用处理器
+     * close()归还到池，isClosed()反映本次借出的状态，其他方法转发给物理连接；
+     * 创建的Statement和DatabaseMetaData包装为代理，并记录修改过的会话属性
+     */
+    private final class LeaseHandler implements InvocationHandler {
+        private final PooledConnection pc;
+        /** 借用者可能在其他线程中调用isClosed()，例如泄漏检测和超时取消 */
+        private volatile boolean closed;
+
+        /** 本次借出中创建且尚未关闭的语句（物理对象） */
+        private final List<Statement> openStatements = new ArrayList<>();
+
+        boolean readOnlyChanged;
+        boolean isolationChanged;
+        boolean catalogChanged;
+
+        LeaseHandler(PooledConnection pc) {
+            this.pc = pc;
+        }
+
+        /**
+         * 关闭借用者遗留的语句（归还时调用）
+         */
+        void closeStatements() {
+            List<Statement> leftOver;
+            synchronized (openStatements) {
+                leftOver = new ArrayList<>(openStatements);
+                openStatements.clear();
+            }
+            for (Statement statement : leftOver) {
+                try {
+                    statement.close();
+                } catch (SQLException ignored) {
+                    // 语句所在的连接可能已断开，随后的健康检查会处理
+                }
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (this) {
+                        if (closed) {
+                            return null;
+                        }
+                        closed = true;
+                    }
+                    giveBack(pc, this);
+                    return null;
+                case "isClosed":
+                    return closed || pc.physical.isClosed();
+                case "unwrap":
+                case "isWrapperFor":
+                    return unwrap(proxy, method, (Class<?>) args[0]);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pc.physical + "]";
+                default:
+                    if (closed) {
+                        throw new SQLException("连接已归还到连接池，不能继续使用");
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(pc.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    switch (method.getName()) {
+                        case "setReadOnly":
+                            readOnlyChanged = true;
+                            return result;
+                        case "setTransactionIsolation":
+                            isolationChanged = true;
+                            return result;
+                        case "setCatalog":
+                            catalogChanged = true;
+                            return result;
+                        case "createStatement":
+                        case "prepareStatement":
+                        case "prepareCall": {
+                            Statement statement = (Statement) result;
+                            synchronized (openStatements) {
+                                openStatements.add(statement);
+                            }
+                            return wrap(method.getReturnType(), result, new StatementHandler(proxy, statement));
+                        }
+                        case "getMetaData":
+                            return wrap(DatabaseMetaData.class, result, new MetaDataHandler(proxy, result));
+                        default:
+                            return result;
+                    }
+            }
+        }
+
+        /**
+         * 语句代理：getConnection()返回代理连接，close()时不再跟踪
+         */
+        private final class StatementHandler implements InvocationHandler {
+            private final Object connection;
+            private final Statement statement;
+
+            StatementHandler(Object connection, Statement statement) {
+                this.connection = connection;
+                this.statement = statement;
+            }
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "getConnection":
+                        return connection;
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "unwrap":
+                    case "isWrapperFor":
+                        return unwrap(proxy, method, (Class<?>) args[0]);
+                    case "close":
+                        synchronized (openStatements) {
+                            // 按引用删除，不依赖驱动的equals实现
+                            for (int i = openStatements.size() - 1; i >= 0; i--) {
+                                if (openStatements.get(i) == statement) {
+                                    openStatements.remove(i);
+                                    break;
+                                }
+                            }
+                        }
+                        break;
+                    default:
+                        break;
+                }
+                try {
+                    return method.invoke(statement, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        }
+    }
+
+    /**
+     * 元数据代理：getConnection()返回代理连接
+     */
+    private static final class MetaDataHandler implements InvocationHandler {
+        private final Object connection;
+        private final Object metaData;
+
+        MetaDataHandler(Object connection, Object metaData) {
+            this.connection = connection;
+            this.metaData = metaData;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("getConnection")) {
+                return connection;
+            }
+            try {
+                return method.invoke(metaData, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * 代理的unwrap/isWrapperFor：只能取得代理自己，不交出物理连接或物理语句，
+     * 否则调用者可以绕过连接池关闭物理连接，或在归还后继续使用
+     */
+    private static Object unwrap(Object proxy, Method method, Class<?> iface) throws SQLException {
+        boolean own = iface.isInstance(proxy);
+        if (method.getName().equals("isWrapperFor")) {
+            return own;
+        }
+        if (!own) {
+            throw new SQLException("连接池的连接不能解包为" + iface.getName());
+        }
+        return proxy;
+    }
+
+    /**
+     * 为JDBC对象创建指定接口的代理，对象为null时返回null
+     */
+    private static Object wrap(Class<?> type, Object target, InvocationHandler handler) {
+        if (target == null) {
+            return null;
+        }
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    /**
+     * 连接池统计快照
+     */
+    static final class PoolStats {
+        final int total, idle, active, waiting, minSize, maxSize;
+        final long borrows, created, destroyed, timeouts, validationFailures, leaks, avgWaitMicros;
+
+        PoolStats(int total, int idle, int active, int waiting, int minSize, int maxSize,
+                  long borrows, long created, long destroyed, long timeouts,
+                  long validationFailures, long leaks, long avgWaitMicros) {
+            this.total = total;
+            this.idle = idle;
+            this.active = active;
+            this.waiting = waiting;
+            this.minSize = minSize;
+            this.maxSize = maxSize;
+            this.borrows = borrows;
+            this.created = created;
+            this.destroyed = destroyed;
+            this.timeouts = timeouts;
+            this.validationFailures = validationFailures;
+            this.leaks = leaks;
+            this.avgWaitMicros = avgWaitMicros;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("连接池[总数=%d/%d(最小%d), 空闲=%d, 活动=%d, 等待=%d, 借出=%d, 创建=%d, 销毁=%d, "
+                            + "超时=%d, 校验失败=%d, 泄漏=%d, 平均等待=%dµs]",
+                    total, maxSize, minSize, idle, active, waiting, borrows, created, destroyed,
+                    timeouts, validationFailures, leaks, avgWaitMicros);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * 数据一致性检查类
+ *
+ * 已聘人数、聘用状态和统计表都是由触发器维护的冗余数据，
+ * 级联删除不触发触发器、手工修改数据库等情况可能使它们与原始数据不一致。
+ * 该类只读地逐项检查，报告每一项不一致的行数和前几行的主键，不做任何修复
+ * （统计表可以用RebuildJobStats重建）。
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 一致性检查
+ */
+final class ConsistencyCheck {
+
+    /** 每一项最多报告的主键个数 */
+    static final int SAMPLE_SIZE = 10;
+
+    /**
+     * 检查项：名称、说明和查询不一致行主键的SQL
+     */
+    enum Rule {
+        HIRED_COUNT("职业的已聘人数与匹配记录数不一致", "job_id",
+                "SELECT j.job_id FROM Job j "
+                        + "LEFT JOIN (SELECT job_id, COUNT(*) AS matched FROM JobMatching GROUP BY job_id) m "
+                        + "ON m.job_id = j.job_id "
+                        + "WHERE COALESCE(j.hired_count, 0) <> COALESCE(m.matched, 0) ORDER BY j.job_id"),
+        OVER_HIRED("职业的已聘人数超过需求人数", "job_id",
+                "SELECT job_id FROM Job WHERE hired_count > required_count ORDER BY job_id"),
+        MATCHED_NOT_EMPLOYED("已匹配的求职者未标记为聘用", "seeker_id",
+                "SELECT s.seeker_id FROM JobMatching m JOIN JobSeeker s ON s.seeker_id = m.seeker_id "
+                        + "WHERE s.employed = false ORDER BY s.seeker_id"),
+        JOB_STATS("职业统计表与职业表不一致", "job_id",
+                "SELECT j.job_id FROM Job j LEFT JOIN JobStats s ON s.job_id = j.job_id "
+                        + "WHERE s.job_id IS NULL OR NOT (s.category_id <=> j.category_id) "
+                        + "OR s.employer <> j.employer OR s.required_count <> j.required_count "
+                        + "OR s.hired_count <> COALESCE(j.hired_count, 0) ORDER BY j.job_id"),
+        CATEGORY_STATS("分类统计表与职业表的汇总不一致", "category_id",
+                "SELECT c.category_id FROM JobCategory c "
+                        + "LEFT JOIN (SELECT category_id, COUNT(*) AS job_count, SUM(required_count) AS required_total, "
+                        + "SUM(COALESCE(hired_count, 0)) AS hired_total FROM Job GROUP BY category_id) j "
+                        + "ON j.category_id = c.category_id "
+                        + "LEFT JOIN CategoryStats s ON s.category_id = c.category_id "
+                        + "WHERE COALESCE(s.job_count, 0) <> COALESCE(j.job_count, 0) "
+                        + "OR COALESCE(s.required_total, 0) <> COALESCE(j.required_total, 0) "
+                        + "OR COALESCE(s.hired_total, 0) <> COALESCE(j.hired_total, 0) ORDER BY c.category_id");
+
+        final String description;
+        final String keyColumn;
+        final String sql;
+
+        Rule(String description, String keyColumn, String sql) {
+            this.description = description;
+            this.keyColumn = keyColumn;
+            this.sql = sql;
+        }
+    }
+
+    /**
+     * 一个检查项的结果
+     */
+    static final class Finding {
+        final Rule rule;
+        /** 不一致的行数 */
+        final int count;
+        /** 前SAMPLE_SIZE个不一致行的主键 */
+        final int[] sample;
+
+        Finding(Rule rule, int count, int[] sample) {
+            this.rule = rule;
+            this.count = count;
+            this.sample = sample;
+        }
+
+        boolean ok() {
+            return count == 0;
+        }
+
+        @Override
+        public String toString() {
+            return rule.description + ": " + count + (count == 0 ? "" : " " + rule.keyColumn + "=" + Arrays.toString(sample));
+        }
+    }
+
+    private ConsistencyCheck() {
+    }
+
+    /**
+     * 执行全部检查项
+     *
+     * @return 每个检查项一个结果（包括没有问题的项），顺序与Rule相同
+     */
+    static List<Finding> run(Connection conn) throws SQLException {
+        List<Finding> findings = new ArrayList<>();
+        for (Rule rule : Rule.values()) {
+            findings.add(check(conn, rule));
+        }
+        return findings;
+    }
+
+    /**
+     * 执行一个检查项
+     */
+    static Finding check(Connection conn, Rule rule) throws SQLException {
+        int[] sample = new int[SAMPLE_SIZE];
+        int count = 0;
+        DbMetrics.Operation operation = DbMetrics.operation(rule.sql);
+        long start = System.nanoTime();
+        try (PreparedStatement pstmt = conn.prepareStatement(rule.sql);
+             ResultSet rs = operation.executed(start, pstmt.executeQuery())) {
+            long fetchStart = System.nanoTime();
+            while (rs.next()) {
+                if (count < SAMPLE_SIZE) {
+                    sample[count] = rs.getInt(1);
+                }
+                count++;
+            }
+            operation.fetched(fetchStart, count);
+        } catch (SQLException e) {
+            operation.failed();
+            throw e;
+        }
+        return new Finding(rule, count, Arrays.copyOf(sample, Math.min(count, SAMPLE_SIZE)));
+    }
+
+    /**
+     * 是否全部检查项都没有问题
+     */
+    static boolean allOk(List<Finding> findings) {
+        for (Finding finding : findings) {
+            if (!finding.ok()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
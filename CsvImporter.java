@@ -0,0 +1,622 @@
+/**
+ * CSV导入类
+ *
+ * 把每天收到的求职者文件（几万行）和职业文件（几千行）导入数据库，代替逐条点击“添加”按钮：
+ * 1. 流式解析：逐条读取CSV记录（RFC 4180，引号内可以包含逗号和换行），内存占用与文件大小无关；
+ *    文件名以.gz结尾时先解压
+ * 2. 校验：必填列不能为空，长度不超过列定义，性别只能是“男”或“女”，需求人数为非负整数；
+ *    职业分类名称通过导入前一次查询得到的“名称 -> category_id”映射转换，不逐行查询
+ * 3. 分块提交：每CHUNK_SIZE行一个事务，用JDBC批处理插入（驱动改写为多行INSERT）；
+ *    批处理被数据库拒绝时回滚该块并逐行重新插入，找出被拒绝的行
+ * 4. 被拒绝的行连同行号和原因写入拒绝文件（与导入文件同目录，名称后加“.rejects.csv”），
+ *    拒绝文件在第一次拒绝时才创建
+ * 5. 定期回调Progress报告已读取、已导入、已拒绝的行数和速度；取消时已提交的块保留
+ *
+ * 列按表头名称识别，顺序任意，多余的列忽略；表头可以是数据导出（TableExporter）使用的中文列名，
+ * 也可以是数据库列名，因此导出的文件可以直接导入。
+ *
+ * 配置（系统属性）：
+ * - jm.import.chunkSize：每个事务插入的行数，默认1000
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 求职者和职业的批量导入
+ */
+final class CsvImporter {
+
+    /** 每个事务插入的行数 */
+    static final int CHUNK_SIZE = Integer.getInteger("jm.import.chunkSize", 1000);
+
+    /** 读文件的缓冲区大小 */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** 每读取多少行回调一次进度 */
+    private static final int PROGRESS_INTERVAL = 5_000;
+
+    /** 拒绝文件名后缀 */
+    static final String REJECT_SUFFIX = ".rejects.csv";
+
+    /** 分类名称重复时映射中的标记，导入时拒绝（无法判断是哪个分类） */
+    private static final int AMBIGUOUS = -1;
+
+    /** 导入职业前一次读取全部职业分类 */
+    private static final String CATEGORY_IDS_SQL = "SELECT category_id, category_name FROM JobCategory";
+
+    /**
+     * 导入内容
+     */
+    enum Kind {
+        SEEKERS("求职者", SeekerDao.INSERT_SQL, new String[][] {
+                {"姓名", "name"}, {"性别", "gender"}, {"已聘用", "employed"}}, 2),
+        JOBS("职业", JobDao.INSERT_SQL, new String[][] {
+                {"职业分类", "category_name"}, {"用人单位", "employer"}, {"需求人数", "required_count"}, {"备注", "notes"}}, 3);
+
+        final String name;
+        final String insertSql;
+
+        /** 插入语句的统计，与DAO单条插入使用同一条SQL，合并统计 */
+        final DbMetrics.Operation insert;
+
+        /** 每列可以使用的表头名称 */
+        final String[][] columns;
+
+        /** 前几列是必需的，其余列可以没有 */
+        final int requiredColumns;
+
+        Kind(String name, String insertSql, String[][] columns, int requiredColumns) {
+            this.name = name;
+            this.insertSql = insertSql;
+            this.insert = DbMetrics.operation(insertSql);
+            this.columns = columns;
+            this.requiredColumns = requiredColumns;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * 进度回调（在导入线程中调用）
+     */
+    interface Progress {
+        /**
+         * @param result 当前统计（只读）
+         * @param percent 按已读取的字节估计的进度（0-100）
+         */
+        void update(Result result, int percent);
+
+        /** 返回true时在当前块提交后停止导入 */
+        boolean cancelled();
+    }
+
+    /**
+     * 导入统计
+     */
+    static final class Result {
+        long read;
+        long inserted;
+        long rejected;
+        int chunks;
+        boolean cancelled;
+        long elapsedMillis;
+
+        /** 有拒绝的行时为拒绝文件路径 */
+        Path rejectFile;
+
+        double rowsPerSecond() {
+            return elapsedMillis == 0 ? read : read * 1000.0 / elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            String text = String.format("读取 %d 行，导入 %d 行，拒绝 %d 行%n共 %d 个事务，耗时 %dms，约 %.0f 行/秒",
+                    read, inserted, rejected, chunks, elapsedMillis, rowsPerSecond());
+            if (cancelled) {
+                text += "\n导入已取消，已提交的行保留";
+            }
+            if (rejectFile != null) {
+                text += "\n被拒绝的行见 " + rejectFile;
+            }
+            return text;
+        }
+    }
+
+    /**
+     * 一行校验通过的数据（已转换为插入参数）
+     */
+    private static final class Row {
+        final long line;
+        final String[] fields;
+        final Object[] params;
+
+        Row(long line, String[] fields, Object[] params) {
+            this.line = line;
+            this.fields = fields;
+            this.params = params;
+        }
+    }
+
+    /**
+     * 校验失败
+     */
+    private static final class RejectedException extends Exception {
+        RejectedException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    private CsvImporter() {
+    }
+
+    /**
+     * 导入文件
+     *
+     * @param kind 导入内容
+     * @param path CSV文件（UTF-8，可以带BOM），以.gz结尾时按gzip解压
+     * @param progress 进度回调
+     * @return 导入统计
+     * @throws SQLException SQL异常（已提交的块不会回滚）
+     * @throws IOException 读取或写入拒绝文件失败，或者缺少必需的列
+     */
+    static Result importFile(Kind kind, Path path, Progress progress) throws SQLException, IOException {
+        Result result = new Result();
+        long start = System.nanoTime();
+        long size = Math.max(1, Files.size(path));
+        Path rejectPath = path.resolveSibling(path.getFileName() + REJECT_SUFFIX);
+
+        try (CountingInputStream counter = new CountingInputStream(Files.newInputStream(path));
+             CsvReader reader = new CsvReader(new InputStreamReader(
+                     path.toString().toLowerCase().endsWith(".gz") ? new GZIPInputStream(counter, BUFFER_SIZE) : counter,
+                     StandardCharsets.UTF_8));
+             RejectWriter rejects = new RejectWriter(rejectPath);
+             Connection conn = DBConnector.getConnection()) {
+
+            String[] header = reader.next();
+            if (header == null) {
+                throw new IOException("文件为空");
+            }
+            int[] columnIndex = mapColumns(kind, header);
+            rejects.header = header;
+            Map<String, Integer> categories = kind == Kind.JOBS ? categoryIds(conn) : null;
+
+            List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement insert = conn.prepareStatement(kind.insertSql)) {
+                String[] fields;
+                while ((fields = reader.next()) != null) {
+                    result.read++;
+                    long line = reader.recordLine();
+                    try {
+                        chunk.add(new Row(line, fields, validate(kind, fields, columnIndex, categories)));
+                    } catch (RejectedException e) {
+                        rejects.write(line, e.getMessage(), fields);
+                        result.rejected++;
+                    }
+                    if (chunk.size() == CHUNK_SIZE) {
+                        commitChunk(conn, kind.insert, insert, chunk, rejects, result);
+                        if (progress.cancelled()) {
+                            result.cancelled = true;
+                            break;
+                        }
+                    }
+                    if (result.read % PROGRESS_INTERVAL == 0) {
+                        result.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+                        progress.update(result, (int) Math.min(99, counter.count * 100 / size));
+                    }
+                }
+                if (!result.cancelled) {
+                    commitChunk(conn, kind.insert, insert, chunk, rejects, result);
+                }
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+            if (rejects.created()) {
+                result.rejectFile = rejectPath;
+            }
+        }
+        result.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        progress.update(result, 100);
+        return result;
+    }
+
+    /**
+     * 提交一块：先整块批处理插入；被数据库拒绝时回滚，再逐行插入并把出错的行写入拒绝文件
+     * 单条语句出错时InnoDB只回滚这一条语句，同一事务中的其他行不受影响
+     */
+    private static void commitChunk(Connection conn, DbMetrics.Operation operation, PreparedStatement insert,
+                                    List<Row> chunk, RejectWriter rejects, Result result)
+            throws SQLException, IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            for (Row row : chunk) {
+                bind(insert, row.params);
+                insert.addBatch();
+            }
+            long start = System.nanoTime();
+            try {
+                operation.executed(start, insert.executeBatch());
+            } catch (SQLException e) {
+                operation.failed();
+                throw e;
+            }
+            operation.rows.add(chunk.size());
+            conn.commit();
+            result.inserted += chunk.size();
+        } catch (SQLException batchError) {
+            conn.rollback();
+            insert.clearBatch();
+            int inserted = 0;
+            try {
+                for (Row row : chunk) {
+                    bind(insert, row.params);
+                    long start = System.nanoTime();
+                    try {
+                        operation.updated(start, insert.executeUpdate());
+                        inserted++;
+                    } catch (SQLException e) {
+                        operation.failed();
+                        if (!isDataError(e)) {
+                            throw e;
+                        }
+                        rejects.write(row.line, "数据库拒绝: " + e.getMessage(), row.fields);
+                        result.rejected++;
+                    }
+                }
+                conn.commit();
+            } catch (SQLException | IOException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+            result.inserted += inserted;
+        }
+        result.chunks++;
+        chunk.clear();
+    }
+
+    /**
+     * 数据错误（SQLState 22xxx）和约束冲突（23xxx）只影响这一行
+     */
+    private static boolean isDataError(SQLException e) {
+        String state = e.getSQLState();
+        return state != null && (state.startsWith("22") || state.startsWith("23"));
+    }
+
+    private static void bind(PreparedStatement pstmt, Object[] params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            pstmt.setObject(i + 1, params[i]);
+        }
+    }
+
+    // ==================== 校验 ====================
+
+    /**
+     * 按表头找到每列在记录中的位置，没有的可选列为-1
+     *
+     * @throws IOException 缺少必需的列
+     */
+    private static int[] mapColumns(Kind kind, String[] header) throws IOException {
+        int[] index = new int[kind.columns.length];
+        for (int c = 0; c < kind.columns.length; c++) {
+            index[c] = -1;
+            for (int i = 0; i < header.length && index[c] < 0; i++) {
+                String name = header[i].trim();
+                for (String alias : kind.columns[c]) {
+                    if (alias.equalsIgnoreCase(name)) {
+                        index[c] = i;
+                        break;
+                    }
+                }
+            }
+            if (index[c] < 0 && c < kind.requiredColumns) {
+                throw new IOException("缺少列: " + kind.columns[c][0] + "（或 " + kind.columns[c][1] + "）");
+            }
+        }
+        return index;
+    }
+
+    /**
+     * 校验一行并转换为插入参数（顺序与Kind.insertSql一致）
+     */
+    private static Object[] validate(Kind kind, String[] fields, int[] columnIndex, Map<String, Integer> categories)
+            throws RejectedException {
+        if (kind == Kind.SEEKERS) {
+            String name = text(fields, columnIndex[0], "姓名", 50, true);
+            String gender = text(fields, columnIndex[1], "性别", 1, true);
+            if (!"男".equals(gender) && !"女".equals(gender)) {
+                throw new RejectedException("性别必须是“男”或“女”: " + gender);
+            }
+            return new Object[] {name, gender, bool(text(fields, columnIndex[2], "已聘用", 10, false))};
+        }
+
+        String categoryName = text(fields, columnIndex[0], "职业分类", 50, true);
+        Integer categoryId = categories.get(categoryName);
+        if (categoryId == null) {
+            throw new RejectedException("职业分类不存在: " + categoryName);
+        }
+        if (categoryId == AMBIGUOUS) {
+            throw new RejectedException("存在多个同名的职业分类: " + categoryName);
+        }
+        String employer = text(fields, columnIndex[1], "用人单位", 100, true);
+        String required = text(fields, columnIndex[2], "需求人数", 10, true);
+        int requiredCount;
+        try {
+            requiredCount = Integer.parseInt(required);
+        } catch (NumberFormatException e) {
+            throw new RejectedException("需求人数必须是整数: " + required);
+        }
+        if (requiredCount < 0) {
+            throw new RejectedException("需求人数不能为负数: " + required);
+        }
+        return new Object[] {categoryId, employer, requiredCount, text(fields, columnIndex[3], "备注", 65_535, false)};
+    }
+
+    /**
+     * 读取文本列并去除首尾空格；导出时为防止公式执行加的单引号前缀在这里去掉
+     *
+     * @return 可选列为空时返回null
+     */
+    private static String text(String[] fields, int index, String column, int maxLength, boolean required)
+            throws RejectedException {
+        String value = index >= 0 && index < fields.length ? fields[index].trim() : "";
+        if (value.length() > 1 && value.charAt(0) == '\'' && "=+-@".indexOf(value.charAt(1)) >= 0) {
+            value = value.substring(1);
+        }
+        if (value.isEmpty()) {
+            if (required) {
+                throw new RejectedException(column + "不能为空");
+            }
+            return null;
+        }
+        if (value.length() > maxLength) {
+            throw new RejectedException(column + "超过" + maxLength + "个字符");
+        }
+        return value;
+    }
+
+    /**
+     * 已聘用列：导出的“是/否”、数据库的true/false和1/0，以及界面上的“聘用成功/未聘用”
+     */
+    private static boolean bool(String value) throws RejectedException {
+        if (value == null) {
+            return false;
+        }
+        switch (value.toLowerCase()) {
+            case "是": case "true": case "1": case "聘用成功":
+                return true;
+            case "否": case "false": case "0": case "未聘用": case "待聘用":
+                return false;
+            default:
+                throw new RejectedException("已聘用必须是“是”或“否”: " + value);
+        }
+    }
+
+    /**
+     * 一次查询全部职业分类，得到“名称 -> category_id”映射
+     */
+    private static Map<String, Integer> categoryIds(Connection conn) throws SQLException {
+        Map<String, Integer> ids = new HashMap<>();
+        Dao.query(conn, CATEGORY_IDS_SQL, rs -> ids.merge(rs.getString(2).trim(), rs.getInt(1), (a, b) -> AMBIGUOUS));
+        return ids;
+    }
+
+    // ==================== 文件读写 ====================
+
+    /**
+     * 统计已读取的字节数，用于估计进度
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        volatile long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+
+    /**
+     * 流式CSV读取（RFC 4180）：逐条返回记录，引号内可以包含逗号、引号（写作两个引号）和换行
+     */
+    private static final class CsvReader implements AutoCloseable {
+        private final Reader in;
+        private final StringBuilder field = new StringBuilder();
+        private final List<String> record = new ArrayList<>();
+        private long line = 1;
+        private long recordLine;
+        private int pending = -2;  // 预读的字符，-2表示没有
+        private boolean started;
+
+        CsvReader(Reader reader) {
+            in = new BufferedReader(reader, BUFFER_SIZE);
+        }
+
+        /** 上一次next()返回的记录开始的行号（从1开始，表头为第1行） */
+        long recordLine() {
+            return recordLine;
+        }
+
+        /**
+         * 读取下一条记录，空行跳过
+         *
+         * @return 字段数组，文件结束时为null
+         */
+        String[] next() throws IOException {
+            while (true) {
+                record.clear();
+                field.setLength(0);
+                recordLine = line;
+                boolean quoted = false, any = false;
+                int c;
+                while ((c = read()) >= 0) {
+                    any = true;
+                    if (quoted) {
+                        if (c == '"') {
+                            int d = read();
+                            if (d == '"') {
+                                field.append('"');
+                                continue;
+                            }
+                            quoted = false;
+                            unread(d);
+                        } else {
+                            if (c == '\n') {
+                                line++;
+                            }
+                            field.append((char) c);
+                        }
+                    } else if (c == '"' && field.length() == 0) {
+                        quoted = true;
+                    } else if (c == ',') {
+                        record.add(field.toString());
+                        field.setLength(0);
+                    } else if (c == '\r' || c == '\n') {
+                        if (c == '\r') {
+                            int d = read();
+                            if (d != '\n') {
+                                unread(d);
+                            }
+                        }
+                        line++;
+                        break;
+                    } else {
+                        field.append((char) c);
+                    }
+                }
+                if (!any) {
+                    return null;
+                }
+                record.add(field.toString());
+                if (record.size() == 1 && record.get(0).isEmpty()) {
+                    continue;  // 空行
+                }
+                return record.toArray(new String[0]);
+            }
+        }
+
+        private int read() throws IOException {
+            if (pending != -2) {
+                int c = pending;
+                pending = -2;
+                return c;
+            }
+            int c = in.read();
+            if (!started) {
+                started = true;
+                if (c == '\uFEFF') {
+                    c = in.read();  // 跳过文件开头的BOM
+                }
+            }
+            return c;
+        }
+
+        private void unread(int c) {
+            pending = c;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * 拒绝文件：原表头前加“行号”“原因”两列，第一次写入时才创建文件
+     */
+    private static final class RejectWriter implements AutoCloseable {
+        private final Path path;
+        private Writer writer;
+        String[] header;
+
+        RejectWriter(Path path) throws IOException {
+            this.path = path;
+            Files.deleteIfExists(path);  // 不保留上次导入的拒绝记录
+        }
+
+        boolean created() {
+            return writer != null;
+        }
+
+        void write(long line, String reason, String[] fields) throws IOException {
+            if (writer == null) {
+                writer = new BufferedWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8));
+                writer.write('\uFEFF');
+                writeRecord("行号", "原因", header);
+            }
+            writeRecord(Long.toString(line), reason, fields);
+        }
+
+        private void writeRecord(String line, String reason, String[] fields) throws IOException {
+            writer.write(line);
+            writer.write(',');
+            writeField(reason);
+            for (String value : fields) {
+                writer.write(',');
+                writeField(value);
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+    }
+}
@@ -14,7 +14,15 @@
  * 
  * 安全考虑：
  * - 数据库密码应该通过配置文件或环境变量管理
- * - 生产环境中应使用连接池提高性能
+ * 
+ * 连接池：
+ * - 内部持有一个有界的ConnectionPool，getConnection()从池中借出连接
+ * - 池参数可以通过系统属性覆盖（见下方常量说明）
+ *
+ * 预编译语句缓存：
+ * - 连接URL附加服务端预编译和语句缓存参数，每个物理连接缓存自己的预编译语句，
+ *   同一SQL在该连接上再次prepareStatement时直接复用，服务器不再重新解析
+ * - 连接归还到池中后缓存仍然保留，下次借出同一物理连接时继续命中
  * 
  * @author 系统开发者
  * @version 1.0
@@ -23,7 +31,6 @@
 
 // 导入必要的Java SQL包
 import java.sql.Connection;    // 导入数据库连接接口
-import java.sql.DriverManager; // 导入驱动管理器类
 import java.sql.SQLException;  // 导入SQL异常类
 
 /**
@@ -33,6 +40,12 @@ import java.sql.SQLException;  // 导入SQL异常类
 class DBConnector {
     
     // ==================== 数据库连接配置常量 ====================
+
+    /**
+     * 每个物理连接缓存的预编译语句数量（系统属性jm.db.prepStmtCacheSize），为0时不启用语句缓存
+     * 必须在URL之前初始化
+     */
+    private static final int PREP_STMT_CACHE_SIZE = Integer.getInteger("jm.db.prepStmtCacheSize", 250);
     
     /**
      * 数据库连接URL
@@ -43,14 +56,16 @@ class DBConnector {
      * - job_management - 数据库名称
      * - useSSL=false - 禁用SSL连接（开发环境）
      * - serverTimezone=UTC - 设置服务器时区为UTC
+     * - rewriteBatchedStatements=true - 把批处理INSERT改写为多行INSERT，批量匹配时减少往返次数
      */
-    private static final String URL = "jdbc:mysql://localhost:3306/job_management?useSSL=false&serverTimezone=UTC";
+    private static final String URL = withStatementCache(System.getProperty("jm.db.url",
+            "jdbc:mysql://localhost:3306/job_management?useSSL=false&serverTimezone=UTC&rewriteBatchedStatements=true"));
     
     /**
      * 数据库用户名
      * 用于连接MySQL数据库的用户名
      */
-    private static final String USER = "root";
+    private static final String USER = System.getProperty("jm.db.user", "root");
     
     /**
      * 数据库密码
@@ -61,7 +76,29 @@ class DBConnector {
      * 2. 将密码存储在配置文件中
      * 3. 使用环境变量管理敏感信息
      */
-    private static final String PASS = "123456";
+    private static final String PASS = System.getProperty("jm.db.password", "123456");
+
+    // ==================== 连接池配置常量 ====================
+
+    /**
+     * 连接池参数（均可通过同名系统属性覆盖，例如 -Djm.pool.maxSize=20）
+     * - minSize: 最小连接数，空闲回收时至少保留的连接
+     * - maxSize: 最大连接数，同时存在的物理连接上限
+     * - maxWaitMillis: 连接耗尽时的最长等待时间
+     * - idleTimeoutMillis: 空闲连接超过该时间会被回收
+     * - leakThresholdMillis: 借出超过该时间未归还时输出泄漏警告（0为关闭）
+     */
+    private static final int POOL_MIN_SIZE = Integer.getInteger("jm.pool.minSize", 2);
+    private static final int POOL_MAX_SIZE = Integer.getInteger("jm.pool.maxSize", 10);
+    private static final long POOL_MAX_WAIT_MILLIS = Long.getLong("jm.pool.maxWaitMillis", 10_000L);
+    private static final long POOL_IDLE_TIMEOUT_MILLIS = Long.getLong("jm.pool.idleTimeoutMillis", 300_000L);
+    private static final long POOL_LEAK_THRESHOLD_MILLIS = Long.getLong("jm.pool.leakThresholdMillis", 60_000L);
+
+    /**
+     * 连接池实例
+     * 在静态初始化块中驱动加载成功后创建
+     */
+    private static final ConnectionPool POOL;
 
     // ==================== 静态初始化块 ====================
     
@@ -99,6 +136,33 @@ class DBConnector {
             // 程序无法继续运行，强制退出
             System.exit(1);
         }
+
+        // 创建连接池，并在JVM退出时关闭所有物理连接
+        POOL = new ConnectionPool(URL, USER, PASS, POOL_MIN_SIZE, POOL_MAX_SIZE,
+                POOL_MAX_WAIT_MILLIS, POOL_IDLE_TIMEOUT_MILLIS, POOL_LEAK_THRESHOLD_MILLIS);
+        Runtime.getRuntime().addShutdownHook(new Thread(POOL::shutdown, "db-pool-shutdown"));
+    }
+
+    // ==================== 私有方法 ====================
+
+    /**
+     * 在连接URL后附加预编译语句缓存参数
+     *
+     * 参数说明：
+     * - useServerPrepStmts=true - 使用服务端预编译，服务器只解析一次SQL，之后只传参数
+     * - cachePrepStmts=true - 关闭PreparedStatement时放回连接的缓存而不是在服务器上释放
+     * - prepStmtCacheSize - 每个连接缓存的语句数量，DAO类中的全部语句都能放下
+     * - prepStmtCacheSqlLimit=2048 - 可缓存的SQL最大长度，分页查询的SQL也能缓存
+     *
+     * URL中已经指定了cachePrepStmts时（通过jm.db.url自定义）保持原样
+     */
+    private static String withStatementCache(String url) {
+        if (PREP_STMT_CACHE_SIZE <= 0 || url.contains("cachePrepStmts")) {
+            return url;
+        }
+        return url + (url.indexOf('?') < 0 ? "?" : "&")
+                + "useServerPrepStmts=true&cachePrepStmts=true&prepStmtCacheSize=" + PREP_STMT_CACHE_SIZE
+                + "&prepStmtCacheSqlLimit=2048";
     }
 
     // ==================== 公共方法 ====================
@@ -106,7 +170,8 @@ class DBConnector {
     /**
      * 获取数据库连接
      * 
-     * 该方法使用配置的URL、用户名和密码创建到MySQL数据库的连接。
+     * 该方法从连接池借出一个连接；池中没有空闲连接且未达上限时，
+     * 才会使用配置的URL、用户名和密码创建新的物理连接。
      * 
      * 方法特点：
      * - 静态方法：可以直接通过类名调用，无需创建实例
@@ -127,16 +192,33 @@ class DBConnector {
      * </pre>
      * 
      * 注意事项：
-     * 1. 调用者负责关闭连接（使用try-with-resources语句）
-     * 2. 该方法每次调用都会创建新的连接
-     * 3. 生产环境建议使用连接池提高性能
+     * 1. 调用者负责关闭连接（使用try-with-resources语句），关闭即归还到连接池
+     * 2. 连接归还后不能继续使用，未提交的事务会被回滚
+     * 3. 连接池耗尽时最多等待maxWaitMillis，超时抛出SQLException
      * 
      * @return 数据库连接对象
-     * @throws SQLException 如果数据库连接失败
+     * @throws SQLException 如果数据库连接失败或等待连接超时
      */
     public static Connection getConnection() throws SQLException {
-        // 使用DriverManager创建数据库连接
-        // 传入配置的URL、用户名和密码
-        return DriverManager.getConnection(URL, USER, PASS);
+        // 从连接池借出连接
+        return POOL.borrow();
+    }
+
+    /**
+     * 获取连接池统计信息
+     * 
+     * @return 连接池当前的统计快照（总数、空闲、活动、等待、泄漏等）
+     */
+    public static ConnectionPool.PoolStats getPoolStats() {
+        return POOL.stats();
+    }
+
+    /**
+     * 预热连接池
+     * 
+     * 同步创建连接直到达到最小连接数，适合在后台线程中于启动时调用。
+     */
+    public static void warmUp() {
+        POOL.fillToMinimum();
     }
 }
@@ -0,0 +1,350 @@
+/**
+ * 数据访问辅助类
+ *
+ * CategoryDao、JobDao、SeekerDao、MatchingDao、FeeDao、StatsDao以及批量匹配、增量同步、费用报表共用的语句执行方法。
+ * 每个DAO把自己的SQL定义为常量，调用这里的方法绑定参数并执行：
+ * - SQL文本固定不变，DBConnector开启的预编译语句缓存按SQL文本命中，
+ *   同一物理连接上第二次执行时不再由服务器解析
+ * - 语句在方法内关闭，关闭后放回连接的缓存，调用者只需要管理连接
+ *
+ * DAO方法都接收调用者的连接，不自己借出连接，因此可以放在同一个事务中组合调用，
+ * 也可以脱离Swing界面单独调用和测量。
+ *
+ * 每次执行都记录到DbMetrics（按SQL文本统计执行耗时、读取耗时、行数和失败次数），
+ * SQLException和RuntimeException（例如行处理中的程序错误）都计为失败。
+ *
+ * 批量删除：按主键IN列表锁定和删除，主键数量补齐到2的幂（重复最后一个主键），
+ * 不同的选中行数只产生少数几种SQL文本，仍然能命中预编译语句缓存；超过MAX_IN_LIST个主键时分批执行。
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * DAO共用的语句执行方法
+ */
+final class Dao {
+
+    /** IN列表中最多的主键数 */
+    static final int MAX_IN_LIST = 512;
+
+    /**
+     * 批量删除的结果
+     */
+    static final class Deleted {
+        /** 实际删除的主键（升序），不包括已被其他终端删除的 */
+        final int[] keys;
+
+        /** 因仍被其他记录引用而没有删除的主键；不为空时整批都没有删除 */
+        final int[] blocked;
+
+        Deleted(int[] keys, int[] blocked) {
+            this.keys = keys;
+            this.blocked = blocked;
+        }
+    }
+
+    /**
+     * 可能抛出SQLException的数据库操作（事务内的操作、后台线程中的任务）
+     * 定义在数据访问层，不依赖Swing；DbExecutor在后台线程执行它并把结果发布回EDT
+     *
+     * @param <T> 操作结果类型
+     */
+    @FunctionalInterface
+    interface SqlWork<T> {
+        T call() throws SQLException;
+    }
+
+    /**
+     * 逐行处理查询结果
+     */
+    @FunctionalInterface
+    interface RowHandler {
+        void row(ResultSet rs) throws SQLException;
+    }
+
+    private Dao() {
+    }
+
+    /**
+     * 在一个事务中执行，成功时提交，失败时回滚
+     *
+     * @param conn 数据库连接（方法内部会临时关闭自动提交，结束后恢复）
+     * @param work 事务内的操作
+     * @return 操作的结果
+     * @throws SQLException SQL异常（已回滚）
+     */
+    static <T> T inTransaction(Connection conn, SqlWork<T> work) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            T result = work.call();
+            conn.commit();
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * 主键去重并升序排列：按相同顺序加锁，避免两个批量操作互相死锁
+     */
+    static int[] sorted(int[] keys) {
+        return Arrays.stream(keys).distinct().sorted().toArray();
+    }
+
+    /**
+     * 执行带IN列表的查询，逐行交给handler处理
+     *
+     * @param sqlPattern SQL，其中的“%s”替换为IN列表的占位符
+     * @param keys 主键（不能重复）
+     */
+    static void queryInList(Connection conn, String sqlPattern, int[] keys, RowHandler handler) throws SQLException {
+        for (int from = 0; from < keys.length; from += MAX_IN_LIST) {
+            String sql = inListSql(sqlPattern, keys.length - from);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                bindInList(pstmt, keys, from);
+                read(DbMetrics.operation(sql), pstmt, handler);
+            }
+        }
+    }
+
+    /**
+     * 执行带IN列表的查询，返回第一列的整数（去重后升序）
+     *
+     * @param sqlPattern SQL，其中的“%s”替换为IN列表的占位符
+     * @param keys 主键（不能重复）
+     */
+    static int[] queryKeys(Connection conn, String sqlPattern, int[] keys) throws SQLException {
+        int[][] found = {new int[keys.length]};
+        int[] count = {0};
+        queryInList(conn, sqlPattern, keys, rs -> {
+            if (count[0] == found[0].length) {
+                found[0] = Arrays.copyOf(found[0], count[0] * 2 + 1);
+            }
+            found[0][count[0]++] = rs.getInt(1);
+        });
+        return sorted(Arrays.copyOf(found[0], count[0]));
+    }
+
+    /**
+     * 执行带IN列表的UPDATE或DELETE
+     *
+     * @param sqlPattern SQL，其中的“%s”替换为IN列表的占位符
+     * @param keys 主键
+     * @return 受影响的行数
+     */
+    static int updateKeys(Connection conn, String sqlPattern, int[] keys) throws SQLException {
+        int rows = 0;
+        for (int from = 0; from < keys.length; from += MAX_IN_LIST) {
+            String sql = inListSql(sqlPattern, keys.length - from);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                bindInList(pstmt, keys, from);
+                rows += update(DbMetrics.operation(sql), pstmt);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 按主键批量删除（一个事务）：先按主键顺序锁定仍然存在的行，再一次删除
+     *
+     * @param table 表名
+     * @param keyColumn 主键列
+     * @param keys 要删除的主键
+     * @return 删除结果
+     */
+    static Deleted deleteAll(Connection conn, String table, String keyColumn, int[] keys) throws SQLException {
+        return inTransaction(conn, () -> {
+            int[] existing = queryKeys(conn, lockSql(table, keyColumn), sorted(keys));
+            updateKeys(conn, deleteSql(table, keyColumn), existing);
+            return new Deleted(existing, new int[0]);
+        });
+    }
+
+    /**
+     * 按主键顺序锁定仍然存在的行（FOR UPDATE），返回它们的主键
+     */
+    static String lockSql(String table, String keyColumn) {
+        return "SELECT " + keyColumn + " FROM " + table + " WHERE " + keyColumn + " IN (%s) ORDER BY " + keyColumn
+                + " FOR UPDATE";
+    }
+
+    /**
+     * 按主键IN列表删除
+     */
+    static String deleteSql(String table, String keyColumn) {
+        return "DELETE FROM " + table + " WHERE " + keyColumn + " IN (%s)";
+    }
+
+    /**
+     * 一批IN列表语句的SQL：剩余remaining个主键中最多取MAX_IN_LIST个，占位符个数补齐到2的幂
+     */
+    private static String inListSql(String sqlPattern, int remaining) {
+        int padded = paddedCount(Math.min(MAX_IN_LIST, remaining));
+        StringBuilder placeholders = new StringBuilder(padded * 2);
+        for (int i = 0; i < padded; i++) {
+            placeholders.append(i == 0 ? "?" : ",?");
+        }
+        return String.format(sqlPattern, placeholders);
+    }
+
+    /**
+     * 绑定一批IN列表参数：从keys[from]开始，补齐的位置重复这一批的最后一个主键
+     */
+    private static void bindInList(PreparedStatement pstmt, int[] keys, int from) throws SQLException {
+        int count = Math.min(MAX_IN_LIST, keys.length - from);
+        int padded = paddedCount(count);
+        for (int i = 0; i < padded; i++) {
+            pstmt.setInt(i + 1, keys[from + Math.min(i, count - 1)]);
+        }
+    }
+
+    private static int paddedCount(int count) {
+        int padded = Integer.highestOneBit(Math.max(1, count));
+        return padded < count ? padded << 1 : padded;
+    }
+
+    /**
+     * 执行INSERT并返回自增主键
+     *
+     * @param conn 数据库连接
+     * @param sql INSERT语句
+     * @param params 参数，按顺序绑定
+     * @return 新记录的自增主键
+     * @throws SQLException SQL异常
+     */
+    static int insert(Connection conn, String sql, Object... params) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            bind(pstmt, params);
+            update(DbMetrics.operation(sql), pstmt);
+            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                keys.next();
+                return keys.getInt(1);
+            }
+        }
+    }
+
+    /**
+     * 执行UPDATE或DELETE
+     *
+     * @param conn 数据库连接
+     * @param sql UPDATE或DELETE语句
+     * @param params 参数，按顺序绑定
+     * @return 受影响的行数
+     * @throws SQLException SQL异常
+     */
+    static int update(Connection conn, String sql, Object... params) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            bind(pstmt, params);
+            return update(DbMetrics.operation(sql), pstmt);
+        }
+    }
+
+    /**
+     * 执行只返回一个整数的查询（例如COUNT）
+     *
+     * @return 第一行第一列，没有结果时为0
+     */
+    static int queryInt(Connection conn, String sql, Object... params) throws SQLException {
+        DbMetrics.Operation operation = DbMetrics.operation(sql);
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            bind(pstmt, params);
+            long start = System.nanoTime();
+            try (ResultSet rs = operation.executed(start, pstmt.executeQuery())) {
+                long fetchStart = System.nanoTime();
+                boolean found = rs.next();
+                int value = found ? rs.getInt(1) : 0;
+                operation.fetched(fetchStart, found ? 1 : 0);
+                return value;
+            } catch (SQLException | RuntimeException e) {
+                operation.failed();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 执行查询，逐行交给handler处理
+     */
+    static void query(Connection conn, String sql, RowHandler handler, Object... params) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            bind(pstmt, params);
+            read(DbMetrics.operation(sql), pstmt, handler);
+        }
+    }
+
+    /**
+     * 调用返回结果集的存储过程，逐行交给handler处理
+     */
+    static void call(Connection conn, String call, RowHandler handler) throws SQLException {
+        try (CallableStatement cstmt = conn.prepareCall(call)) {
+            read(DbMetrics.operation(call), cstmt, handler);
+        }
+    }
+
+    /**
+     * 调用不返回结果集的存储过程
+     */
+    static void call(Connection conn, String call) throws SQLException {
+        DbMetrics.Operation operation = DbMetrics.operation(call);
+        try (CallableStatement cstmt = conn.prepareCall(call)) {
+            long start = System.nanoTime();
+            operation.executed(start, cstmt.execute());
+        } catch (SQLException | RuntimeException e) {
+            operation.failed();
+            throw e;
+        }
+    }
+
+    /**
+     * 执行查询并逐行处理，记录执行耗时、读取耗时和行数
+     */
+    private static void read(DbMetrics.Operation operation, PreparedStatement pstmt, RowHandler handler)
+            throws SQLException {
+        long start = System.nanoTime();
+        try (ResultSet rs = operation.executed(start, pstmt.executeQuery())) {
+            long fetchStart = System.nanoTime();
+            int rows = 0;
+            while (rs.next()) {
+                handler.row(rs);
+                rows++;
+            }
+            operation.fetched(fetchStart, rows);
+        } catch (SQLException | RuntimeException e) {
+            operation.failed();
+            throw e;
+        }
+    }
+
+    /**
+     * 执行UPDATE、DELETE或INSERT，记录执行耗时和受影响的行数
+     */
+    private static int update(DbMetrics.Operation operation, PreparedStatement pstmt) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return operation.updated(start, pstmt.executeUpdate());
+        } catch (SQLException | RuntimeException e) {
+            operation.failed();
+            throw e;
+        }
+    }
+
+    private static void bind(PreparedStatement pstmt, Object[] params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            pstmt.setObject(i + 1, params[i]);
+        }
+    }
+}
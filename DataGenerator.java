@@ -0,0 +1,499 @@
+/**
+ * 测试数据生成类
+ *
+ * 建库脚本只插入几条示例数据，无法评估大数据量下的性能。该类按配置的数量向
+ * JobCategory、Job、JobSeeker、JobMatching、Fee填充数据（求职者可以到千万级），
+ * 同一个随机种子、同样的配置在空库上生成完全相同的数据。
+ * 在已有数据的库上重复运行时，同名的职业分类沿用已有的，不再插入（同名分类在导入时无法区分）。
+ *
+ * 数据分布：
+ * - 职业分类的热门程度服从Zipf分布（少数分类占大部分职业）
+ * - 需求人数服从均值约为5的重尾分布（Lomax，即平移的Pareto分布），约千分之三的职业需求上百人
+ * - 用人单位由城市、字号、行业组合而成，数量多时同一单位会发布多个职业
+ * - 求职者姓名按常见姓氏的频率生成，男女各半
+ * - 按matchRate从全部求职者中随机抽取已聘用的求职者，随机分配到职业的空缺上（不超过需求人数）
+ * - 按feeRate为匹配生成费用记录，金额服从对数正态分布
+ *
+ * 写入方式：
+ * - 每张表使用一条固定的单行INSERT加入批处理，连接URL中的rewriteBatchedStatements=true
+ *   把每批改写为多行INSERT，每CHUNK行提交一次
+ * - 匹配记录正常经过AfterInsertMatching触发器，已聘人数、聘用状态和统计表由触发器维护，
+ *   生成后的数据与界面操作产生的数据一致（这一步的耗时主要在触发器上）
+ * - 已有数据时在其后追加，生成的主键从数据库返回，不假设自增值连续
+ *
+ * 内存：每个求职者8字节（主键和姓名编码），每个空缺位置4字节，一千万求职者约需100MB堆内存。
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * 测试数据生成器
+ */
+final class DataGenerator {
+
+    private static final String[] CATEGORY_NAMES = {
+        "软件开发", "销售", "客户服务", "财务会计", "行政文员", "物流仓储", "餐饮服务", "教育培训",
+        "医疗护理", "建筑施工", "生产制造", "平面设计", "市场营销", "人力资源", "法律咨询", "金融投资",
+        "安保", "保洁家政", "驾驶运输", "电工维修", "酒店管理", "零售导购", "美容美发", "质量检验",
+        "采购", "翻译", "新闻编辑", "数据分析", "网络运维", "机械设计",
+    };
+
+    private static final String[] CITIES = {
+        "北京", "上海", "广州", "深圳", "杭州", "南京", "成都", "武汉", "西安", "重庆",
+        "天津", "苏州", "长沙", "郑州", "青岛", "厦门", "合肥", "济南", "沈阳", "昆明",
+    };
+
+    private static final String[] BRANDS = {
+        "恒达", "华信", "新锐", "金桥", "远航", "鼎盛", "宏图", "博雅", "安泰", "星辰",
+        "瑞丰", "嘉禾", "中联", "天成", "海纳", "明德", "长城", "东方", "盛世", "万通",
+        "启明", "百川", "凯旋", "永兴", "联创", "融通", "广和", "德润", "诚信", "优品",
+    };
+
+    private static final String[] INDUSTRIES = {
+        "科技", "物流", "餐饮", "教育", "医疗", "建设", "制造", "商贸", "传媒", "金融",
+        "物业", "电子", "食品", "服饰", "咨询",
+    };
+
+    private static final String[] NOTES = {
+        "有相关经验优先", "接受应届毕业生", "需要倒班", "提供住宿", "需要驾照", "五险一金", "需要英语四级",
+    };
+
+    /** 常见姓氏及其相对频率（千分比，其余姓氏合并到最后一项的频率中） */
+    private static final String[] SURNAMES = {
+        "王", "李", "张", "刘", "陈", "杨", "黄", "赵", "吴", "周", "徐", "孙", "马", "朱", "胡",
+        "郭", "何", "高", "林", "罗", "郑", "梁", "谢", "宋", "唐", "许", "韩", "冯", "邓", "曹",
+    };
+    private static final int[] SURNAME_WEIGHTS = {
+        72, 72, 68, 53, 46, 31, 23, 20, 20, 18, 13, 13, 12, 11, 10,
+        10, 9, 9, 9, 8, 8, 7, 7, 7, 6, 6, 6, 6, 6, 5,
+    };
+
+    private static final int[] SURNAME_CUMULATIVE = cumulative(SURNAME_WEIGHTS);
+
+    private static final String GIVEN_CHARS = "伟芳娜敏静丽强磊军洋勇艳杰娟涛明超秀霞平刚桂英华玉兰飞红鹏辉建文斌宇浩凯婷雪琳晨欣怡";
+
+    /** 已有的职业分类（按ID顺序，同名时沿用最早的一个） */
+    private static final String EXISTING_CATEGORIES_SQL =
+            "SELECT category_id, category_name FROM JobCategory ORDER BY category_id";
+
+    /** 需求人数分布（Lomax）的形状参数和尺度参数：均值约为 1 + 尺度 / (形状 - 1) */
+    private static final double REQUIRED_SHAPE = 1.5;
+    private static final double REQUIRED_SCALE = 2.5;
+
+    /** 每批（每个事务）的行数 */
+    static final int DEFAULT_CHUNK_SIZE = Integer.getInteger("jm.generate.chunkSize", 5000);
+
+    /**
+     * 生成配置
+     */
+    static final class Config {
+        int categories = 30;
+        int jobs = 10_000;
+        int seekers = 100_000;
+        /** 已聘用的求职者比例（受职业需求人数合计限制） */
+        double matchRate = 0.3;
+        /** 生成费用记录的匹配比例 */
+        double feeRate = 0.8;
+        long seed = 42;
+        int chunkSize = DEFAULT_CHUNK_SIZE;
+
+        /**
+         * 从key=value形式的参数读取配置
+         *
+         * @throws IllegalArgumentException 参数名未知或值无效
+         */
+        static Config parse(List<String> args) {
+            Config config = new Config();
+            for (String arg : args) {
+                int eq = arg.indexOf('=');
+                if (eq < 0) {
+                    throw new IllegalArgumentException("参数应为key=value: " + arg);
+                }
+                String key = arg.substring(0, eq);
+                String value = arg.substring(eq + 1);
+                try {
+                    switch (key) {
+                        case "categories":
+                            config.categories = Integer.parseInt(value);
+                            break;
+                        case "jobs":
+                            config.jobs = Integer.parseInt(value);
+                            break;
+                        case "seekers":
+                            config.seekers = Integer.parseInt(value);
+                            break;
+                        case "matchRate":
+                            config.matchRate = Double.parseDouble(value);
+                            break;
+                        case "feeRate":
+                            config.feeRate = Double.parseDouble(value);
+                            break;
+                        case "seed":
+                            config.seed = Long.parseLong(value);
+                            break;
+                        case "chunkSize":
+                            config.chunkSize = Integer.parseInt(value);
+                            break;
+                        default:
+                            throw new IllegalArgumentException("未知的参数: " + key);
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("参数" + key + "的值无效: " + value);
+                }
+            }
+            if (config.categories < 1 || config.jobs < 0 || config.seekers < 0 || config.chunkSize < 1
+                    || config.matchRate < 0 || config.matchRate > 1 || config.feeRate < 0 || config.feeRate > 1) {
+                throw new IllegalArgumentException("参数超出范围（categories>=1，jobs/seekers>=0，比例在0到1之间）");
+            }
+            return config;
+        }
+    }
+
+    /**
+     * 进度回调（在生成线程中调用）
+     */
+    interface Progress {
+        /**
+         * @param table 正在写入的表
+         * @param rows 该表已写入的行数
+         * @param total 该表计划写入的行数
+         */
+        void update(String table, long rows, long total);
+    }
+
+    /**
+     * 生成统计
+     */
+    static final class Result {
+        /** 新插入的职业分类数（沿用的同名分类不计入） */
+        int categories;
+        int jobs;
+        int seekers;
+        int matchings;
+        int fees;
+        long elapsedMillis;
+        /** 各表的写入耗时：分类、职业、求职者、匹配和费用 */
+        final long[] tableMillis = new long[4];
+
+        @Override
+        public String toString() {
+            return String.format("分类 %d，职业 %d（%dms），求职者 %d（%dms），匹配 %d、费用 %d（%dms），共耗时 %dms",
+                    categories, jobs, tableMillis[1], seekers, tableMillis[2], matchings, fees, tableMillis[3],
+                    elapsedMillis);
+        }
+    }
+
+    private DataGenerator() {
+    }
+
+    /**
+     * 生成数据
+     *
+     * @param conn 数据库连接（方法内部会临时关闭自动提交，结束后恢复）
+     * @param config 配置
+     * @param progress 进度回调
+     * @return 生成统计
+     * @throws SQLException SQL异常（已提交的批次保留）
+     */
+    static Result generate(Connection conn, Config config, Progress progress) throws SQLException {
+        long start = System.nanoTime();
+        Result result = new Result();
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            // 职业分类：已有同名分类时沿用，只插入缺少的
+            long stage = System.nanoTime();
+            Map<String, Integer> existing = new HashMap<>();
+            Dao.query(conn, EXISTING_CATEGORIES_SQL, rs -> existing.putIfAbsent(rs.getString(2), rs.getInt(1)));
+            int[] categoryIds = new int[config.categories];
+            int[] missing = new int[config.categories];
+            int missingCount = 0;
+            try (PreparedStatement pstmt = conn.prepareStatement(CategoryDao.INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (int i = 0; i < config.categories; i++) {
+                    Integer id = existing.get(categoryName(i));
+                    if (id != null) {
+                        categoryIds[i] = id;
+                        continue;
+                    }
+                    pstmt.setString(1, categoryName(i));
+                    pstmt.addBatch();
+                    missing[missingCount++] = i;
+                }
+                if (missingCount > 0) {
+                    int[] keys = new int[missingCount];
+                    flush(conn, pstmt, keys, 0);
+                    for (int k = 0; k < missingCount; k++) {
+                        categoryIds[missing[k]] = keys[k];
+                    }
+                }
+            }
+            result.categories = missingCount;
+            result.tableMillis[0] = millisSince(stage);
+
+            // 职业：分类按Zipf分布选择
+            stage = System.nanoTime();
+            SplittableRandom random = new SplittableRandom(config.seed);
+            double[] categoryWeights = zipf(config.categories, 1.0);
+            int[] jobIds = new int[config.jobs];
+            int[] required = new int[config.jobs];
+            int[] employers = new int[config.jobs];
+            try (PreparedStatement pstmt = conn.prepareStatement(JobDao.INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                int pending = 0;
+                for (int i = 0; i < config.jobs; i++) {
+                    employers[i] = random.nextInt(CITIES.length * BRANDS.length * INDUSTRIES.length);
+                    required[i] = requiredCount(random);
+                    pstmt.setInt(1, categoryIds[pick(categoryWeights, random.nextDouble())]);
+                    pstmt.setString(2, employerName(employers[i]));
+                    pstmt.setInt(3, required[i]);
+                    pstmt.setString(4, random.nextInt(10) < 3 ? NOTES[random.nextInt(NOTES.length)] : null);
+                    pstmt.addBatch();
+                    if (++pending == config.chunkSize || i == config.jobs - 1) {
+                        flush(conn, pstmt, jobIds, i + 1 - pending);
+                        pending = 0;
+                        progress.update("Job", i + 1, config.jobs);
+                    }
+                }
+            }
+            result.jobs = config.jobs;
+            result.tableMillis[1] = millisSince(stage);
+
+            // 求职者：只保存主键和姓名编码，费用记录需要时再还原姓名
+            stage = System.nanoTime();
+            random = new SplittableRandom(config.seed + 1);
+            int[] seekerIds = new int[config.seekers];
+            int[] nameCodes = new int[config.seekers];
+            try (PreparedStatement pstmt = conn.prepareStatement(SeekerDao.INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                int pending = 0;
+                for (int i = 0; i < config.seekers; i++) {
+                    nameCodes[i] = nameCode(random);
+                    pstmt.setString(1, seekerName(nameCodes[i]));
+                    pstmt.setString(2, random.nextBoolean() ? "男" : "女");
+                    pstmt.setBoolean(3, false);
+                    pstmt.addBatch();
+                    if (++pending == config.chunkSize || i == config.seekers - 1) {
+                        flush(conn, pstmt, seekerIds, i + 1 - pending);
+                        pending = 0;
+                        progress.update("JobSeeker", i + 1, config.seekers);
+                    }
+                }
+            }
+            result.seekers = config.seekers;
+            result.tableMillis[2] = millisSince(stage);
+
+            // 匹配和费用
+            stage = System.nanoTime();
+            generateMatchings(conn, config, jobIds, required, employers, seekerIds, nameCodes, result, progress);
+            result.tableMillis[3] = millisSince(stage);
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        result.elapsedMillis = millisSince(start);
+        return result;
+    }
+
+    /**
+     * 把每个职业的需求人数展开为空缺位置并打乱，按顺序分配给随机抽取的求职者
+     * （抽样用Knuth的选择抽样算法，按seeker顺序一次遍历，不需要打乱全部求职者）
+     */
+    private static void generateMatchings(Connection conn, Config config, int[] jobIds, int[] required, int[] employers,
+                                          int[] seekerIds, int[] nameCodes, Result result, Progress progress)
+            throws SQLException {
+        SplittableRandom random = new SplittableRandom(config.seed + 2);
+        long totalRequired = 0;
+        for (int r : required) {
+            totalRequired += r;
+        }
+        int hires = (int) Math.min(Math.min(Math.round(config.matchRate * seekerIds.length), totalRequired),
+                Integer.MAX_VALUE - 8);
+        if (hires == 0) {
+            return;
+        }
+
+        // 部分Fisher-Yates：只需要前hires个空缺位置
+        int[] slots = new int[(int) Math.min(totalRequired, Integer.MAX_VALUE - 8)];
+        for (int j = 0, k = 0; j < required.length && k < slots.length; j++) {
+            for (int n = 0; n < required[j] && k < slots.length; n++) {
+                slots[k++] = j;
+            }
+        }
+        for (int i = 0; i < hires; i++) {
+            int swap = i + random.nextInt(slots.length - i);
+            int tmp = slots[i];
+            slots[i] = slots[swap];
+            slots[swap] = tmp;
+        }
+
+        try (PreparedStatement matching = conn.prepareStatement(
+                MatchingDao.INSERT_SQL);
+             PreparedStatement fee = conn.prepareStatement(FeeDao.INSERT_SQL)) {
+            int selected = 0;
+            int pending = 0;
+            int fees = 0;
+            for (int i = 0; i < seekerIds.length && selected < hires; i++) {
+                // 选择抽样：剩余seekers - i个中还需要hires - selected个
+                if (random.nextInt(seekerIds.length - i) >= hires - selected) {
+                    continue;
+                }
+                int job = slots[selected++];
+                matching.setInt(1, jobIds[job]);
+                matching.setInt(2, seekerIds[i]);
+                matching.addBatch();
+                if (random.nextDouble() < config.feeRate) {
+                    fee.setString(1, employerName(employers[job]));
+                    fee.setBigDecimal(2, logNormalMoney(random, 800, 0.5));
+                    fee.setString(3, seekerName(nameCodes[i]));
+                    fee.setBigDecimal(4, logNormalMoney(random, 150, 0.4));
+                    fee.addBatch();
+                    fees++;
+                }
+                if (++pending == config.chunkSize || selected == hires) {
+                    matching.executeBatch();
+                    fee.executeBatch();
+                    conn.commit();
+                    pending = 0;
+                    progress.update("JobMatching", selected, hires);
+                }
+            }
+            result.matchings = selected;
+            result.fees = fees;
+        }
+    }
+
+    /**
+     * 执行批处理并提交，把返回的主键按顺序写入keys[from...]
+     */
+    private static void flush(Connection conn, PreparedStatement pstmt, int[] keys, int from) throws SQLException {
+        pstmt.executeBatch();
+        try (ResultSet rs = pstmt.getGeneratedKeys()) {
+            int i = from;
+            while (rs.next() && i < keys.length) {
+                keys[i++] = rs.getInt(1);
+            }
+        }
+        conn.commit();
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    // ==================== 分布和名称 ====================
+
+    /**
+     * Zipf分布的累积概率：第k个的权重为1/(k+1)^s
+     */
+    private static double[] zipf(int n, double s) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1 / Math.pow(k + 1, s);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= sum;
+        }
+        return cumulative;
+    }
+
+    /**
+     * 按累积概率选择下标
+     */
+    private static int pick(double[] cumulative, double u) {
+        int index = Arrays.binarySearch(cumulative, u);
+        return Math.min(index < 0 ? -index - 1 : index, cumulative.length - 1);
+    }
+
+    private static int[] cumulative(int[] weights) {
+        int[] cumulative = new int[weights.length];
+        int sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulative[i] = sum;
+        }
+        return cumulative;
+    }
+
+    /**
+     * 需求人数：1加Lomax分布（逆变换采样），均值约为5，上限500
+     * 尾部按幂律衰减：需求100人以上的约占0.3%，而指数分布几乎不会超过60
+     */
+    static int requiredCount(SplittableRandom random) {
+        double lomax = REQUIRED_SCALE * (Math.pow(1 - random.nextDouble(), -1 / REQUIRED_SHAPE) - 1);
+        return 1 + (int) Math.min(499, lomax);
+    }
+
+    /**
+     * 对数正态分布的金额（中位数为median），保留两位小数
+     */
+    static BigDecimal logNormalMoney(SplittableRandom random, double median, double sigma) {
+        double gaussian = Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+        return BigDecimal.valueOf(Math.round(median * Math.exp(sigma * gaussian) * 100), 2);
+    }
+
+    static String categoryName(int index) {
+        return index < CATEGORY_NAMES.length ? CATEGORY_NAMES[index]
+                : CATEGORY_NAMES[index % CATEGORY_NAMES.length] + (index / CATEGORY_NAMES.length + 1);
+    }
+
+    /**
+     * 用人单位名称（编码为城市、字号、行业的组合）
+     */
+    static String employerName(int code) {
+        int industry = code % INDUSTRIES.length;
+        int brand = code / INDUSTRIES.length % BRANDS.length;
+        int city = code / INDUSTRIES.length / BRANDS.length % CITIES.length;
+        return CITIES[city] + BRANDS[brand] + INDUSTRIES[industry] + "有限公司";
+    }
+
+    static String employerName(SplittableRandom random) {
+        return employerName(random.nextInt(CITIES.length * BRANDS.length * INDUSTRIES.length));
+    }
+
+    /**
+     * 随机姓名编码：姓氏、名的第一个字、第二个字（可以没有）
+     */
+    private static int nameCode(SplittableRandom random) {
+        int u = random.nextInt(SURNAME_CUMULATIVE[SURNAME_CUMULATIVE.length - 1]);
+        int surname = 0;
+        while (SURNAME_CUMULATIVE[surname] <= u) {
+            surname++;
+        }
+        int n = GIVEN_CHARS.length();
+        int first = random.nextInt(n);
+        int second = random.nextInt(3) == 0 ? n : random.nextInt(n);
+        return (surname * n + first) * (n + 1) + second;
+    }
+
+    static String seekerName(int code) {
+        int n = GIVEN_CHARS.length();
+        int second = code % (n + 1);
+        int first = code / (n + 1) % n;
+        int surname = code / (n + 1) / n;
+        StringBuilder name = new StringBuilder(3).append(SURNAMES[surname]).append(GIVEN_CHARS.charAt(first));
+        if (second < n) {
+            name.append(GIVEN_CHARS.charAt(second));
+        }
+        return name.toString();
+    }
+
+    static String seekerName(SplittableRandom random) {
+        return seekerName(nameCode(random));
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * 数据库后台执行器类
+ *
+ * 该类负责把JDBC操作从Swing事件调度线程(EDT)移到后台工作线程执行，
+ * 执行完成后再把结果发布回EDT，避免数据库较慢时整个窗口卡死。
+ * 主要功能：
+ * 1. 固定大小的后台工作线程池（守护线程，不阻止程序退出）
+ * 2. 结果和异常统一回调到EDT，回调中可以直接操作Swing组件
+ * 3. 过期结果丢弃：同一个key（例如同一张表）的新刷新会使旧刷新的结果失效
+ *
+ * 线程安全：
+ * - submit()可以在任意线程调用
+ * - 所有回调都在EDT中执行
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+
+/**
+ * 数据库后台执行器
+ * 在工作线程中执行SQL任务，并在EDT中回调结果
+ */
+class DbExecutor {
+
+    /** 后台工作线程池 */
+    private final ExecutorService workers;
+
+    /**
+     * 每个key的最新提交序号
+     * 任务完成时若序号已不是最新，说明有更新的刷新已经提交，结果直接丢弃
+     */
+    private final ConcurrentHashMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数
+     *
+     * @param threads 工作线程数，一般不超过连接池的最大连接数
+     */
+    DbExecutor(int threads) {
+        AtomicInteger seq = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "db-worker-" + seq.incrementAndGet());
+            t.setDaemon(true);  // 守护线程，关闭窗口时不阻止JVM退出
+            return t;
+        });
+    }
+
+    /**
+     * 提交一个后台数据库任务
+     *
+     * 执行流程：
+     * 1. 若key不为空，递增该key的序号并记录本次任务的序号
+     * 2. 在工作线程中执行task
+     * 3. 回到EDT：先调用onDone，再根据结果调用onSuccess或onError
+     * 4. 若本次任务已被同key的新任务取代，则只调用onDone，结果和异常都被丢弃
+     *
+     * @param key 过期判断的键，为null时表示任务不会过期（例如增删改操作）
+     * @param task 在后台线程执行的数据库任务，自行通过DBConnector获取和关闭连接
+     * @param onSuccess 成功回调（EDT）
+     * @param onError 失败回调（EDT）
+     * @param onDone 结束回调（EDT），无论成功、失败还是过期都会调用，可为null
+     * @param <T> 任务结果类型
+     */
+    <T> void submit(String key, Dao.SqlWork<T> task, Consumer<? super T> onSuccess,
+                    Consumer<? super Exception> onError, Runnable onDone) {
+        final AtomicLong counter = key == null ? null : generations.computeIfAbsent(key, k -> new AtomicLong());
+        final long generation = counter == null ? 0 : counter.incrementAndGet();
+
+        workers.execute(() -> {
+            T result = null;
+            Exception failure = null;
+            try {
+                result = task.call();
+            } catch (Exception e) {
+                failure = e;
+            }
+
+            final T value = result;
+            final Exception error = failure;
+            SwingUtilities.invokeLater(() -> {
+                if (onDone != null) {
+                    onDone.run();
+                }
+                if (counter != null && counter.get() != generation) {
+                    return;  // 已被更新的刷新取代，丢弃过期结果
+                }
+                if (error != null) {
+                    onError.accept(error);
+                } else {
+                    onSuccess.accept(value);
+                }
+            });
+        });
+    }
+
+    /**
+     * 关闭执行器，不再接受新任务
+     */
+    void shutdown() {
+        workers.shutdown();
+    }
+}
@@ -0,0 +1,333 @@
+/**
+ * 数据库操作统计类
+ *
+ * 记录每条SQL的执行情况，用于找出慢语句：
+ * - 借出连接的耗时（包括连接池耗尽时的等待和新建物理连接），所有语句共用一个直方图
+ * - 执行耗时：从executeQuery/executeUpdate开始到返回
+ * - 读取耗时：逐行读取结果集并构建结果（例如ColumnarTableModel），以及读取的行数
+ * - 失败次数
+ *
+ * 统计按SQL文本区分：DAO中的固定SQL、分页模型按Spec拼出的SQL都只有少数几种文本。
+ * 超过MAX_OPERATIONS种时，之后出现的新文本计入OTHER，避免动态拼接的SQL无限增加统计项。
+ *
+ * 热路径不分配对象：
+ * - 常量SQL在类加载时取得Operation，动态SQL用ConcurrentHashMap.get查找（只有第一次执行时创建）
+ * - 记录只对LatencyHistogram和LongAdder做原子加
+ *
+ * 查看方式：
+ * - 界面的“诊断”选项卡（DiagnosticsTableModel）
+ * - JMX：registerJmx()之后每条SQL注册为JobManagementSystem:type=DbOperation,name="SQL"，
+ *   连接池注册为JobManagementSystem:type=DbPool，可以用jconsole或VisualVM查看；
+ *   系统属性jm.metrics.jmx=false时不注册
+ * - HTTP接口的/api/metrics
+ *
+ * 统计自程序启动起累计，不重置。
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+/**
+ * 数据库操作统计
+ */
+final class DbMetrics {
+
+    /** 最多单独统计的SQL文本数 */
+    static final int MAX_OPERATIONS = 256;
+
+    /** JMX域名 */
+    private static final String JMX_DOMAIN = "JobManagementSystem";
+
+    /** 是否注册JMX（系统属性jm.metrics.jmx） */
+    private static final boolean JMX_ENABLED = Boolean.parseBoolean(System.getProperty("jm.metrics.jmx", "true"));
+
+    /** 借出连接的耗时（ConnectionPool.borrow） */
+    static final LatencyHistogram ACQUIRE = new LatencyHistogram();
+
+    /**
+     * 一条SQL的统计
+     */
+    static final class Operation {
+        /** SQL文本（连续空白压缩为一个空格） */
+        final String sql;
+        final LatencyHistogram execute = new LatencyHistogram();
+        final LatencyHistogram fetch = new LatencyHistogram();
+        final LongAdder rows = new LongAdder();
+        final LongAdder errors = new LongAdder();
+
+        private Operation(String sql) {
+            this.sql = sql.trim().replaceAll("\\s+", " ");
+        }
+
+        /**
+         * 语句执行完成，记录执行耗时
+         *
+         * @param startNanos 开始执行的时刻（System.nanoTime）
+         * @param result 执行结果，原样返回，便于写在try-with-resources的资源声明中
+         */
+        <T> T executed(long startNanos, T result) {
+            execute.recordNanos(System.nanoTime() - startNanos);
+            return result;
+        }
+
+        /**
+         * 更新语句执行完成，记录执行耗时和受影响的行数
+         *
+         * @return 受影响的行数（原样返回）
+         */
+        int updated(long startNanos, int count) {
+            execute.recordNanos(System.nanoTime() - startNanos);
+            rows.add(count);
+            return count;
+        }
+
+        /**
+         * 结果读取完成，记录读取耗时和行数
+         *
+         * @param startNanos 开始读取的时刻（System.nanoTime）
+         * @param count 读取的行数
+         */
+        void fetched(long startNanos, long count) {
+            fetch.recordNanos(System.nanoTime() - startNanos);
+            rows.add(count);
+        }
+
+        /**
+         * 执行或读取失败
+         */
+        void failed() {
+            errors.increment();
+        }
+    }
+
+    /** 超过MAX_OPERATIONS后出现的SQL */
+    static final Operation OTHER = new Operation("(其他)");
+
+    private static final ConcurrentHashMap<String, Operation> BY_SQL = new ConcurrentHashMap<>();
+
+    /** 按第一次执行的顺序排列，供界面和JMX遍历 */
+    private static final List<Operation> OPERATIONS = new CopyOnWriteArrayList<>();
+
+    /** registerJmx()之后不为null，新出现的SQL随即注册 */
+    private static volatile MBeanServer jmxServer;
+
+    private DbMetrics() {
+    }
+
+    /**
+     * 取得一条SQL的统计，第一次出现时创建
+     *
+     * @param sql SQL文本
+     * @return 统计（超过MAX_OPERATIONS种SQL时为OTHER）
+     */
+    static Operation operation(String sql) {
+        Operation operation = BY_SQL.get(sql);
+        if (operation != null) {
+            return operation;
+        }
+        if (OPERATIONS.size() >= MAX_OPERATIONS) {
+            return OTHER;
+        }
+        synchronized (BY_SQL) {
+            operation = BY_SQL.get(sql);
+            if (operation != null) {
+                return operation;
+            }
+            if (OPERATIONS.size() >= MAX_OPERATIONS) {
+                return OTHER;
+            }
+            operation = new Operation(sql);
+            BY_SQL.put(sql, operation);
+            OPERATIONS.add(operation);
+        }
+        MBeanServer server = jmxServer;
+        if (server != null) {
+            register(server, operation);
+        }
+        return operation;
+    }
+
+    /**
+     * 已出现的全部SQL的统计：第一个是OTHER，其后按第一次执行的顺序（只会在末尾追加）
+     */
+    static List<Operation> operations() {
+        List<Operation> all = new ArrayList<>(OPERATIONS.size() + 1);
+        all.add(OTHER);
+        all.addAll(OPERATIONS);
+        return all;
+    }
+
+    // ==================== JMX ====================
+
+    /**
+     * 把统计注册到平台MBeanServer（重复调用无影响）
+     * 获取平台MBeanServer需要加载JMX相关的类，因此不在类加载时进行，由界面和HTTP接口启动后在后台调用
+     */
+    static void registerJmx() {
+        if (!JMX_ENABLED || jmxServer != null) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        synchronized (DbMetrics.class) {
+            if (jmxServer != null) {
+                return;
+            }
+            try {
+                server.registerMBean(new AttributeBean("数据库连接池和借出连接的耗时", DbMetrics::poolAttributes),
+                        new ObjectName(JMX_DOMAIN + ":type=DbPool"));
+            } catch (InstanceAlreadyExistsException e) {
+                // 已由其他类加载器中的同一程序注册
+            } catch (JMException e) {
+                System.err.println("注册JMX统计失败: " + e.getMessage());
+                return;
+            }
+            jmxServer = server;
+        }
+        // 与operation()并发时同一条SQL可能注册两次，register忽略重复
+        for (Operation operation : operations()) {
+            register(server, operation);
+        }
+    }
+
+    private static void register(MBeanServer server, Operation operation) {
+        try {
+            server.registerMBean(new AttributeBean(operation.sql, () -> attributes(operation)),
+                    new ObjectName(JMX_DOMAIN + ":type=DbOperation,name=" + ObjectName.quote(operation.sql)));
+        } catch (InstanceAlreadyExistsException e) {
+            // 已注册
+        } catch (JMException e) {
+            System.err.println("注册JMX统计失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 一条SQL的统计值（JMX属性和HTTP接口共用，时间单位为微秒）
+     */
+    static Map<String, Object> attributes(Operation operation) {
+        LatencyHistogram.Snapshot execute = operation.execute.snapshot();
+        LatencyHistogram.Snapshot fetch = operation.fetch.snapshot();
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("Sql", operation.sql);
+        values.put("Count", execute.count);
+        values.put("Errors", operation.errors.sum());
+        values.put("Rows", operation.rows.sum());
+        values.put("ExecuteMeanMicros", execute.meanMicros);
+        values.put("ExecuteP50Micros", execute.p50Micros);
+        values.put("ExecuteP95Micros", execute.p95Micros);
+        values.put("ExecuteP99Micros", execute.p99Micros);
+        values.put("ExecuteMaxMicros", execute.maxMicros);
+        values.put("FetchCount", fetch.count);
+        values.put("FetchP50Micros", fetch.p50Micros);
+        values.put("FetchP95Micros", fetch.p95Micros);
+        values.put("FetchP99Micros", fetch.p99Micros);
+        values.put("FetchMaxMicros", fetch.maxMicros);
+        return values;
+    }
+
+    /**
+     * 借出连接的耗时和连接池状态
+     */
+    static Map<String, Object> poolAttributes() {
+        LatencyHistogram.Snapshot acquire = ACQUIRE.snapshot();
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("AcquireCount", acquire.count);
+        values.put("AcquireMeanMicros", acquire.meanMicros);
+        values.put("AcquireP50Micros", acquire.p50Micros);
+        values.put("AcquireP95Micros", acquire.p95Micros);
+        values.put("AcquireP99Micros", acquire.p99Micros);
+        values.put("AcquireMaxMicros", acquire.maxMicros);
+        ConnectionPool.PoolStats pool = DBConnector.getPoolStats();
+        values.put("Total", (long) pool.total);
+        values.put("Idle", (long) pool.idle);
+        values.put("Active", (long) pool.active);
+        values.put("Waiting", (long) pool.waiting);
+        values.put("MaxSize", (long) pool.maxSize);
+        values.put("Timeouts", pool.timeouts);
+        values.put("Leaks", pool.leaks);
+        return values;
+    }
+
+    /**
+     * 只读属性的MBean，属性值每次读取时从supplier重新计算
+     * （标准MBean要求public接口，本项目的类都是包内可见，因此实现DynamicMBean）
+     */
+    private static final class AttributeBean implements DynamicMBean {
+        private final Supplier<Map<String, Object>> supplier;
+        private final MBeanInfo info;
+
+        AttributeBean(String description, Supplier<Map<String, Object>> supplier) {
+            this.supplier = supplier;
+            Map<String, Object> sample = supplier.get();
+            MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[sample.size()];
+            int i = 0;
+            for (Map.Entry<String, Object> entry : sample.entrySet()) {
+                String type = entry.getValue() instanceof Long ? "long" : String.class.getName();
+                attributes[i++] = new MBeanAttributeInfo(entry.getKey(), type, entry.getKey(), true, false, false);
+            }
+            info = new MBeanInfo(DbMetrics.class.getName(), description, attributes, null, null, null);
+        }
+
+        @Override
+        public Object getAttribute(String name) throws AttributeNotFoundException {
+            Map<String, Object> values = supplier.get();
+            if (!values.containsKey(name)) {
+                throw new AttributeNotFoundException(name);
+            }
+            return values.get(name);
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] names) {
+            Map<String, Object> values = supplier.get();
+            AttributeList list = new AttributeList();
+            for (String name : names) {
+                if (values.containsKey(name)) {
+                    list.add(new Attribute(name, values.get(name)));
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("只读属性: " + attribute.getName());
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String action, Object[] params, String[] signature) throws ReflectionException {
+            throw new ReflectionException(new NoSuchMethodException(action), "没有可调用的操作");
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            return info;
+        }
+    }
+}
@@ -0,0 +1,327 @@
+/**
+ * 增量同步类
+ *
+ * 多个终端连接同一个数据库时，该类定期只读取上次同步以来其他终端修改过的行，
+ * 合并到已打开的表格和下拉框中，不需要用户手动刷新。
+ * 主要功能：
+ * 1. 每张表的updated_at列（由数据库在插入和修改时自动维护）作为变化依据，
+ *    以数据库服务器时间作为同步水位，每次只查询水位之后变化的行
+ * 2. 删除的行记录在DeletedRow墓碑表中（由触发器写入），同样按水位读取
+ * 3. 变化的行按主键读取为CHANGED补丁，删除的行读取为DELETED补丁，
+ *    在EDT中应用到表格的分页模型（PagedTableModel.apply），滚动位置和选中行不变
+ * 4. 有变化的表对应的下拉框重新加载；一张表一次变化太多时直接重新加载整张表
+ *
+ * 水位与重复：
+ * - 每次查询都往回多看OVERLAP_MILLIS，避免漏掉“修改时间早、提交时间晚”的事务
+ * - 重叠窗口内重复读到的行用version列去重（version由BEFORE UPDATE触发器递增），
+ *   重复的删除补丁由PagedTableModel自己忽略
+ * - 长时间没有同步成功（超过墓碑保留时间）时，墓碑可能已被清理，直接重新加载所有表格
+ *
+ * 线程模型：
+ * - track()/start()/stop()在EDT中调用
+ * - 定时器在EDT中触发，查询通过DbExecutor在后台线程执行，结果回到EDT合并
+ *
+ * 配置（系统属性）：
+ * - jm.sync.intervalMillis：同步间隔，默认5000毫秒，0表示不启用
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.swing.JTable;
+import javax.swing.Timer;
+
+/**
+ * 增量同步器
+ */
+class DeltaSync {
+
+    /** 同步间隔（毫秒），0表示不启用 */
+    static final int INTERVAL_MILLIS = Integer.getInteger("jm.sync.intervalMillis", 5000);
+
+    /** 每次查询往回多看的时间，覆盖执行中尚未提交的事务 */
+    private static final long OVERLAP_MILLIS = 5_000L;
+
+    /** 墓碑保留时间，超过该时间的墓碑在启动同步时清理 */
+    private static final long TOMBSTONE_RETENTION_MILLIS = 24 * 60 * 60 * 1000L;
+
+    /** 一张表一次变化的行数超过该值时直接重新加载整张表，不再逐行读取 */
+    private static final int MAX_PATCHES_PER_TABLE = 200;
+
+    /** DbExecutor的过期判断键 */
+    private static final String STALE_KEY = "deltaSync";
+
+    /** MySQL错误码：列不存在、表不存在（数据库尚未升级到带版本列的结构） */
+    private static final int ER_BAD_FIELD = 1054, ER_NO_SUCH_TABLE = 1146;
+
+    /** 某张表在某个时间之后的删除记录（使用idx_deleted_at索引） */
+    static final String TOMBSTONE_SQL =
+            "SELECT tombstone_id, row_id FROM DeletedRow WHERE table_name = ? AND deleted_at > ? ORDER BY row_id";
+
+    /** 清理过期墓碑 */
+    private static final String PURGE_TOMBSTONES_SQL = "DELETE FROM DeletedRow WHERE deleted_at < ?";
+
+    /** 数据库服务器的当前时间（毫秒精度，与updated_at相同） */
+    private static final String SERVER_TIME_SQL = "SELECT NOW(3)";
+
+    /**
+     * 一张被同步的表
+     */
+    private static final class Source {
+        final String table;
+        final String keyColumn;
+        final PagedTableModel.Spec spec;
+        final JTable view;
+        final Runnable reload;
+        final Runnable onChange;
+
+        /** 上一次同步读到的主键 -> version，重叠窗口内再次读到且版本相同的行跳过 */
+        Map<Integer, Integer> seenVersions = new HashMap<>();
+
+        /** 上一次同步读到的墓碑ID */
+        Set<Long> seenTombstones = new HashSet<>();
+
+        Source(String table, String keyColumn, PagedTableModel.Spec spec, JTable view,
+               Runnable reload, Runnable onChange) {
+            this.table = table;
+            this.keyColumn = keyColumn;
+            this.spec = spec;
+            this.view = view;
+            this.reload = reload;
+            this.onChange = onChange;
+        }
+    }
+
+    /**
+     * 一次同步读取的结果（后台线程生成，EDT合并）
+     */
+    private static final class Delta {
+        final Timestamp watermark;
+        final List<List<PagedTableModel.RowPatch>> patches = new ArrayList<>();
+        final List<Map<Integer, Integer>> seenVersions = new ArrayList<>();
+        final List<Set<Long>> seenTombstones = new ArrayList<>();
+
+        /** 变化太多、需要重新加载整张表的表 */
+        final boolean[] reload;
+
+        Delta(Timestamp watermark, int sources) {
+            this.watermark = watermark;
+            this.reload = new boolean[sources];
+        }
+    }
+
+    private final DbExecutor executor;
+    private final List<Source> sources = new ArrayList<>();
+    private final Timer timer;
+
+    /** 同步水位：上一次同步开始时的数据库服务器时间，尚未取得时为null */
+    private Timestamp watermark;
+
+    /** 是否有同步查询正在执行，执行中时跳过本次定时触发 */
+    private boolean inFlight;
+
+    /**
+     * 构造函数
+     *
+     * @param executor 执行同步查询的后台执行器
+     */
+    DeltaSync(DbExecutor executor) {
+        this.executor = executor;
+        this.timer = new Timer(Math.max(INTERVAL_MILLIS, 1), e -> poll());
+    }
+
+    /**
+     * 登记一张需要同步的表
+     *
+     * @param table 数据库表名（与DeletedRow.table_name一致）
+     * @param keyColumn 该表的主键列名（不带别名）
+     * @param spec 表格使用的分页查询定义，按主键读取补丁
+     * @param view 显示该表的表格，模型是PagedTableModel时才合并补丁
+     * @param reload 重新加载整张表
+     * @param onChange 该表有变化时额外执行的刷新（例如重新加载下拉框），可以为null
+     */
+    void track(String table, String keyColumn, PagedTableModel.Spec spec, JTable view,
+               Runnable reload, Runnable onChange) {
+        sources.add(new Source(table, keyColumn, spec, view, reload, onChange));
+    }
+
+    /**
+     * 开始定时同步
+     * 立即读取一次水位并清理过期墓碑，之后每INTERVAL_MILLIS同步一次
+     */
+    void start() {
+        if (INTERVAL_MILLIS <= 0) {
+            return;
+        }
+        timer.start();
+        poll();
+    }
+
+    /**
+     * 停止定时同步
+     */
+    void stop() {
+        timer.stop();
+    }
+
+    /**
+     * 读取数据库服务器当前时间作为初始水位，并清理过期墓碑（后台线程调用）
+     */
+    private static Timestamp startWatermark() throws SQLException {
+        try (Connection conn = DBConnector.getConnection()) {
+            Timestamp now = serverTime(conn);
+            Dao.update(conn, PURGE_TOMBSTONES_SQL, new Timestamp(now.getTime() - TOMBSTONE_RETENTION_MILLIS));
+            return now;
+        }
+    }
+
+    /**
+     * 某张表在某个时间之后修改过的行（使用idx_*_updated_at索引）
+     */
+    static String changedRowsSql(String table, String keyColumn) {
+        return "SELECT " + keyColumn + ", version FROM " + table
+                + " WHERE updated_at > ? ORDER BY " + keyColumn;
+    }
+
+    private static Timestamp serverTime(Connection conn) throws SQLException {
+        Timestamp[] now = {null};
+        Dao.query(conn, SERVER_TIME_SQL, rs -> now[0] = rs.getTimestamp(1));
+        return now[0];
+    }
+
+    /**
+     * 定时器触发：提交一次同步查询（EDT调用）
+     */
+    private void poll() {
+        if (inFlight) {
+            return;
+        }
+        inFlight = true;
+        if (watermark == null) {
+            // 还没有水位（刚启动或启动时读取失败）
+            executor.submit(STALE_KEY, DeltaSync::startWatermark, now -> watermark = now,
+                    this::failed, () -> inFlight = false);
+            return;
+        }
+        final Timestamp since = new Timestamp(watermark.getTime() - OVERLAP_MILLIS);
+        final List<Source> snapshot = new ArrayList<>(sources);
+        final List<Map<Integer, Integer>> seenVersions = new ArrayList<>();
+        final List<Set<Long>> seenTombstones = new ArrayList<>();
+        for (Source source : snapshot) {
+            seenVersions.add(source.seenVersions);
+            seenTombstones.add(source.seenTombstones);
+        }
+        executor.submit(STALE_KEY, () -> readDelta(snapshot, since, seenVersions, seenTombstones),
+                delta -> merge(snapshot, delta), this::failed, () -> inFlight = false);
+    }
+
+    /**
+     * 读取水位之后的变化（后台线程调用）
+     * 源的状态在EDT中维护，这里只读取调用前复制的seenVersions/seenTombstones
+     */
+    private static Delta readDelta(List<Source> sources, Timestamp since,
+                                   List<Map<Integer, Integer>> seenVersions,
+                                   List<Set<Long>> seenTombstones) throws SQLException {
+        try (Connection conn = DBConnector.getConnection()) {
+            // 先取得服务器时间，之后提交的修改留给下一次同步
+            Delta delta = new Delta(serverTime(conn), sources.size());
+            for (int i = 0; i < sources.size(); i++) {
+                Source source = sources.get(i);
+                List<PagedTableModel.RowPatch> patches = new ArrayList<>();
+                Map<Integer, Integer> versions = new HashMap<>();
+                Set<Long> tombstones = new HashSet<>();
+                List<Integer> deletedKeys = new ArrayList<>();
+                List<Integer> changedKeys = new ArrayList<>();
+
+                Set<Long> seenDeleted = seenTombstones.get(i);
+                Dao.query(conn, TOMBSTONE_SQL, rs -> {
+                    long id = rs.getLong(1);
+                    tombstones.add(id);
+                    if (!seenDeleted.contains(id)) {
+                        deletedKeys.add(rs.getInt(2));
+                    }
+                }, source.table, since);
+
+                Map<Integer, Integer> seenChanged = seenVersions.get(i);
+                Dao.query(conn, changedRowsSql(source.table, source.keyColumn), rs -> {
+                    int key = rs.getInt(1);
+                    int version = rs.getInt(2);
+                    versions.put(key, version);
+                    Integer seen = seenChanged.get(key);
+                    if (seen == null || seen != version) {
+                        changedKeys.add(key);
+                    }
+                }, since);
+
+                if (deletedKeys.size() + changedKeys.size() > MAX_PATCHES_PER_TABLE) {
+                    delta.reload[i] = true;
+                } else {
+                    // 先删除后插入，按主键升序应用，行号与数据库中的最终顺序一致
+                    for (int key : deletedKeys) {
+                        patches.add(PagedTableModel.RowPatch.deleted(conn, source.spec, key));
+                    }
+                    for (int key : changedKeys) {
+                        patches.add(PagedTableModel.RowPatch.changed(conn, source.spec, key));
+                    }
+                }
+                delta.patches.add(patches);
+                delta.seenVersions.add(versions);
+                delta.seenTombstones.add(tombstones);
+            }
+            return delta;
+        }
+    }
+
+    /**
+     * 合并一次同步的结果（EDT调用）
+     */
+    private void merge(List<Source> sources, Delta delta) {
+        boolean expired = delta.watermark.getTime() - watermark.getTime() > TOMBSTONE_RETENTION_MILLIS;
+        watermark = delta.watermark;
+        for (int i = 0; i < sources.size(); i++) {
+            Source source = sources.get(i);
+            source.seenVersions = delta.seenVersions.get(i);
+            source.seenTombstones = delta.seenTombstones.get(i);
+            List<PagedTableModel.RowPatch> patches = delta.patches.get(i);
+
+            if (expired || delta.reload[i]) {
+                source.reload.run();
+            } else if (!patches.isEmpty() && source.view.getModel() instanceof PagedTableModel) {
+                PagedTableModel model = (PagedTableModel) source.view.getModel();
+                for (PagedTableModel.RowPatch patch : patches) {
+                    model.apply(patch);
+                }
+            }
+            if (source.onChange != null && (expired || delta.reload[i] || !patches.isEmpty())) {
+                source.onChange.run();
+            }
+        }
+    }
+
+    /**
+     * 同步失败（EDT调用）
+     * 不弹出对话框打扰用户，下次定时触发时重试；数据库缺少同步所需的列或表时停止同步
+     */
+    private void failed(Exception e) {
+        if (e instanceof SQLException) {
+            int code = ((SQLException) e).getErrorCode();
+            if (code == ER_BAD_FIELD || code == ER_NO_SUCH_TABLE) {
+                stop();
+                System.err.println("数据库缺少增量同步所需的version/updated_at列或DeletedRow表，已停止同步: "
+                        + e.getMessage());
+                return;
+            }
+        }
+        System.err.println("增量同步失败: " + e.getMessage());
+    }
+}
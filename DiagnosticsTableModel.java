@@ -0,0 +1,110 @@
+/**
+ * 诊断表格模型类
+ *
+ * “诊断”选项卡中的表格：每条SQL一行，显示DbMetrics中的执行次数、失败次数、行数、
+ * 执行耗时和读取耗时的p50/p95/p99，以及累计耗时（用于排序找出最耗时的语句）。
+ *
+ * 刷新：
+ * - refresh()在EDT中调用，读取各直方图的快照后只触发行更新事件，
+ *   表格的排序和选中行保持不变；新出现的SQL追加在末尾
+ * - DbMetrics.operations()只在末尾追加且不会删除，因此行号始终对应同一条SQL
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * 诊断表格模型
+ */
+class DiagnosticsTableModel extends AbstractTableModel {
+
+    private static final String[] COLUMNS = {
+        "SQL", "次数", "失败", "行数",
+        "执行p50(ms)", "执行p95(ms)", "执行p99(ms)", "执行最大(ms)",
+        "读取p50(ms)", "读取p95(ms)", "读取p99(ms)", "累计(s)",
+    };
+
+    /** 累计耗时所在的列（默认按该列降序排列） */
+    static final int TOTAL_COLUMN = COLUMNS.length - 1;
+
+    /** 每条SQL一行，与DbMetrics.operations()的顺序相同 */
+    private final List<Object[]> rows = new ArrayList<>();
+
+    /**
+     * 重新读取统计（EDT调用）
+     */
+    void refresh() {
+        List<DbMetrics.Operation> operations = DbMetrics.operations();
+        int oldSize = rows.size();
+        for (int i = 0; i < operations.size(); i++) {
+            Object[] row = row(operations.get(i));
+            if (i < oldSize) {
+                rows.set(i, row);
+            } else {
+                rows.add(row);
+            }
+        }
+        // 先通知新增的行，排序器的行数与模型一致后再通知已有行的更新
+        if (rows.size() > oldSize) {
+            fireTableRowsInserted(oldSize, rows.size() - 1);
+        }
+        if (oldSize > 0) {
+            fireTableRowsUpdated(0, oldSize - 1);
+        }
+    }
+
+    /**
+     * 某一行的完整SQL（用作提示文字）
+     */
+    String sqlAt(int row) {
+        return (String) rows.get(row)[0];
+    }
+
+    private static Object[] row(DbMetrics.Operation operation) {
+        LatencyHistogram.Snapshot execute = operation.execute.snapshot();
+        LatencyHistogram.Snapshot fetch = operation.fetch.snapshot();
+        double totalSeconds = (execute.count * execute.meanMicros + fetch.count * fetch.meanMicros) / 1e6;
+        return new Object[] {
+            operation.sql, execute.count, operation.errors.sum(), operation.rows.sum(),
+            millis(execute.p50Micros), millis(execute.p95Micros), millis(execute.p99Micros), millis(execute.maxMicros),
+            millis(fetch.p50Micros), millis(fetch.p95Micros), millis(fetch.p99Micros), totalSeconds,
+        };
+    }
+
+    private static Double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        if (column == 0) {
+            return String.class;
+        }
+        return column <= 3 ? Long.class : Double.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return rows.get(row)[column];
+    }
+}
@@ -0,0 +1,164 @@
+/**
+ * 实体缓存类
+ *
+ * 进程内的读穿透缓存：先查内存，未命中时从数据库读取并放入缓存。
+ * 用于职业分类、职业这类被反复整表读取的参考数据（填充下拉框）。
+ * 主要功能：
+ * 1. 全部记录列表（all），用于填充下拉框
+ * 2. 过期时间：超过TTL的列表视为未命中，重新读取
+ * 3. 显式失效：增删改操作或其他终端的修改（增量同步）后调用invalidateAll()
+ * 4. 命中/未命中计数
+ *
+ * 线程安全：
+ * - 所有方法都可以在任意线程调用（后台任务中读取，EDT中查看统计）
+ * - 数据库读取在锁外执行，并发未命中时可能重复读取，结果相同
+ * - 读取期间发生失效时，读到的结果只返回给调用者，不放入缓存
+ *
+ * 配置（系统属性）：
+ * - jm.cache.ttlMillis：列表过期时间，默认60000毫秒
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 读穿透实体缓存
+ *
+ * @param <V> 实体类型（不可变）
+ */
+class EntityCache<V> {
+
+    /** 默认过期时间（毫秒） */
+    static final long DEFAULT_TTL_MILLIS = Long.getLong("jm.cache.ttlMillis", 60_000L);
+
+    /**
+     * 从结果集当前行读取一个实体
+     */
+    @FunctionalInterface
+    interface RowReader<V> {
+        V read(ResultSet rs) throws SQLException;
+    }
+
+    private final String name;
+    private final long ttlMillis;
+    private final String allSql;
+    private final RowReader<V> reader;
+
+    /** 全部记录列表及其读取时间，为null表示未缓存 */
+    private List<V> all;
+    private long allLoadedAt;
+
+    /**
+     * 失效次数：读取开始后发生过失效时，读到的结果可能已经过时，不放入缓存
+     */
+    private long epoch;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * 构造函数
+     *
+     * @param name 缓存名称（用于统计输出）
+     * @param allSql 查询全部记录的SQL
+     * @param reader 从结果集读取实体
+     */
+    EntityCache(String name, String allSql, RowReader<V> reader) {
+        this(name, DEFAULT_TTL_MILLIS, allSql, reader);
+    }
+
+    EntityCache(String name, long ttlMillis, String allSql, RowReader<V> reader) {
+        this.name = name;
+        this.ttlMillis = ttlMillis;
+        this.allSql = allSql;
+        this.reader = reader;
+    }
+
+    // ==================== 查询 ====================
+
+    /**
+     * 查询全部记录
+     *
+     * @param conn 未命中时使用的数据库连接，为null时未命中才从连接池借用连接
+     *             （命中时不借用连接，借出校验本身也要访问数据库）
+     * @return 按allSql顺序排列的只读列表
+     * @throws SQLException SQL异常
+     */
+    List<V> all(Connection conn) throws SQLException {
+        long start;
+        synchronized (this) {
+            if (all != null && System.currentTimeMillis() - allLoadedAt < ttlMillis) {
+                hits.increment();
+                return all;
+            }
+            start = epoch;
+        }
+        misses.increment();
+        long now = System.currentTimeMillis();
+        List<V> values = new ArrayList<>();
+        DbMetrics.Operation operation = DbMetrics.operation(allSql);
+        try (Connection own = conn == null ? DBConnector.getConnection() : null;
+             Statement stmt = (conn == null ? own : conn).createStatement()) {
+            long executeStart = System.nanoTime();
+            try (ResultSet rs = operation.executed(executeStart, stmt.executeQuery(allSql))) {
+                long fetchStart = System.nanoTime();
+                while (rs.next()) {
+                    values.add(reader.read(rs));
+                }
+                operation.fetched(fetchStart, values.size());
+            } catch (SQLException e) {
+                operation.failed();
+                throw e;
+            }
+        }
+        values = Collections.unmodifiableList(values);
+        synchronized (this) {
+            if (start == epoch) {
+                all = values;
+                allLoadedAt = now;
+            }
+        }
+        return values;
+    }
+
+    // ==================== 失效 ====================
+
+    /**
+     * 清空缓存（增删改实体、批量修改或其他终端修改后调用）
+     */
+    synchronized void invalidateAll() {
+        epoch++;
+        all = null;
+    }
+
+    // ==================== 统计 ====================
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long misses() {
+        return misses.sum();
+    }
+
+    synchronized int size() {
+        return all == null ? 0 : all.size();
+    }
+
+    @Override
+    public String toString() {
+        long h = hits(), m = misses();
+        return String.format("%s缓存: %d条，命中 %d，未命中 %d，命中率 %.1f%%",
+                name, size(), h, m, h + m == 0 ? 0.0 : h * 100.0 / (h + m));
+    }
+}
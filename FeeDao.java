@@ -0,0 +1,68 @@
+/**
+ * 费用数据访问类
+ *
+ * Fee表的增删改，SQL语句都定义为常量（见Dao的说明）。
+ * 合计和报表导出见FeeReport。
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 费用DAO
+ */
+final class FeeDao {
+
+    static final String INSERT_SQL =
+            "INSERT INTO Fee (employer_name, employer_fee, seeker_name, seeker_fee) VALUES (?, ?, ?, ?)";
+
+    static final String UPDATE_SQL =
+            "UPDATE Fee SET employer_name = ?, employer_fee = ?, seeker_name = ?, seeker_fee = ? WHERE fee_id = ?";
+
+    static final String DELETE_SQL = "DELETE FROM Fee WHERE fee_id = ?";
+
+    private FeeDao() {
+    }
+
+    /**
+     * 添加费用记录
+     *
+     * @return 新记录的fee_id
+     */
+    static int insert(Connection conn, String employerName, double employerFee, String seekerName, double seekerFee)
+            throws SQLException {
+        return Dao.insert(conn, INSERT_SQL, employerName, employerFee, seekerName, seekerFee);
+    }
+
+    /**
+     * 修改费用记录
+     *
+     * @return 受影响的行数，0表示记录已不存在
+     */
+    static int update(Connection conn, int feeId, String employerName, double employerFee,
+                      String seekerName, double seekerFee) throws SQLException {
+        return Dao.update(conn, UPDATE_SQL, employerName, employerFee, seekerName, seekerFee, feeId);
+    }
+
+    /**
+     * 删除费用记录
+     *
+     * @return 受影响的行数，0表示记录已不存在
+     */
+    static int delete(Connection conn, int feeId) throws SQLException {
+        return Dao.update(conn, DELETE_SQL, feeId);
+    }
+
+    /**
+     * 在一个事务中批量删除费用记录
+     *
+     * @return 删除结果，已被其他终端删除的主键不在其中
+     */
+    static Dao.Deleted deleteAll(Connection conn, int[] feeIds) throws SQLException {
+        return Dao.deleteAll(conn, "Fee", "fee_id", feeIds);
+    }
+}
@@ -0,0 +1,202 @@
+/**
+ * 费用报表类
+ *
+ * 费用记录可能有上百万条，报表不再把全部记录拼成一个字符串：
+ * 1. 合计由数据库计算（SUM，DECIMAL精确到分），读取为BigDecimal，不使用double累加
+ * 2. 报表面板只显示合计，明细用分页表格显示，只读取滚动到的页面
+ * 3. 导出完整报表时按主键分批读取明细（每批FETCH_SIZE行），逐行写入Writer，内存占用与记录数无关
+ *
+ * 导出时合计和全部明细在同一个只读事务（一致性快照）中读取，导出期间其他终端的修改不会造成前后不一致。
+ *
+ * 配置（系统属性）：
+ * - jm.report.fetchSize：导出时每批读取的行数，默认1000
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 费用收支统计报表
+ */
+final class FeeReport {
+
+    /** 导出时每批读取的行数 */
+    static final int FETCH_SIZE = Integer.getInteger("jm.report.fetchSize", 1000);
+
+    /** 合计：记录数和两项费用之和，没有记录时费用为0 */
+    static final String TOTALS_SQL =
+            "SELECT COUNT(*), COALESCE(SUM(employer_fee), 0), COALESCE(SUM(seeker_fee), 0) FROM Fee";
+
+    /** 按主键分批读取明细 */
+    private static final String DETAIL_SQL =
+            "SELECT fee_id, employer_name, employer_fee, seeker_name, seeker_fee FROM Fee "
+                    + "WHERE fee_id > ? ORDER BY fee_id LIMIT ?";
+
+    private static final DbMetrics.Operation DETAIL = DbMetrics.operation(DETAIL_SQL);
+
+    /** 报表面板中的明细表格（只读，列名为中文） */
+    static final PagedTableModel.Spec DETAIL_SPEC = new PagedTableModel.Spec(
+            "fee_id AS 费用ID, employer_name AS 用人单位, employer_fee AS 用人单位费用, "
+                    + "seeker_name AS 求职者, seeker_fee AS 求职者费用",
+            "Fee", "fee_id");
+
+    private static final String TITLE = "========= 费用收支统计报表 =========\n";
+    private static final String SEPARATOR = "---------------------------------------------\n";
+    private static final String FOOTER = "=============================================";
+
+    /** 明细列宽，与原来的格式 "%-15d %-20s %-15.2f %-20s %-15.2f" 相同 */
+    private static final int[] WIDTHS = {15, 20, 15, 20, 15};
+
+    private static final BigDecimal ZERO = BigDecimal.ZERO.setScale(2);
+
+    /**
+     * 合计
+     */
+    static final class Totals {
+        final long count;
+        final BigDecimal employerFee;
+        final BigDecimal seekerFee;
+
+        Totals(long count, BigDecimal employerFee, BigDecimal seekerFee) {
+            this.count = count;
+            this.employerFee = employerFee;
+            this.seekerFee = seekerFee;
+        }
+
+        BigDecimal total() {
+            return employerFee.add(seekerFee);
+        }
+    }
+
+    private FeeReport() {
+    }
+
+    /**
+     * 由数据库计算合计
+     *
+     * @param conn 数据库连接
+     * @return 合计
+     * @throws SQLException SQL异常
+     */
+    static Totals totals(Connection conn) throws SQLException {
+        Totals[] totals = {null};
+        Dao.query(conn, TOTALS_SQL,
+                rs -> totals[0] = new Totals(rs.getLong(1), rs.getBigDecimal(2), rs.getBigDecimal(3)));
+        return totals[0];
+    }
+
+    /**
+     * 报表摘要（标题和合计），显示在报表面板中
+     */
+    static String summary(Totals totals) {
+        StringBuilder report = new StringBuilder(TITLE);
+        appendTotals(report, totals);
+        return report.toString();
+    }
+
+    /**
+     * 导出完整报表：标题、表头、全部明细和合计
+     *
+     * @param conn 数据库连接（方法内部会临时开启只读事务，结束后恢复自动提交）
+     * @param out 输出，调用者负责缓冲和关闭
+     * @return 合计
+     * @throws SQLException SQL异常
+     * @throws IOException 写入失败
+     */
+    static Totals write(Connection conn, Writer out) throws SQLException, IOException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("START TRANSACTION WITH CONSISTENT SNAPSHOT, READ ONLY");
+            }
+            Totals totals = totals(conn);
+
+            out.write(TITLE);
+            StringBuilder line = new StringBuilder(128);
+            appendRow(line, "费用ID", "用人单位", "费用金额", "求职者", "费用金额");
+            out.append(line);
+
+            try (PreparedStatement pstmt = conn.prepareStatement(DETAIL_SQL)) {
+                int lastId = 0;
+                int rows;
+                do {
+                    pstmt.setInt(1, lastId);
+                    pstmt.setInt(2, FETCH_SIZE);
+                    rows = 0;
+                    long start = System.nanoTime();
+                    try (ResultSet rs = DETAIL.executed(start, pstmt.executeQuery())) {
+                        // 读取耗时包括逐行写入out
+                        long fetchStart = System.nanoTime();
+                        while (rs.next()) {
+                            lastId = rs.getInt(1);
+                            line.setLength(0);
+                            appendRow(line, Integer.toString(lastId), rs.getString(2), money(rs.getBigDecimal(3)),
+                                    rs.getString(4), money(rs.getBigDecimal(5)));
+                            out.append(line);
+                            rows++;
+                        }
+                        DETAIL.fetched(fetchStart, rows);
+                    } catch (SQLException | RuntimeException e) {
+                        DETAIL.failed();
+                        throw e;
+                    }
+                } while (rows == FETCH_SIZE);
+            }
+
+            line.setLength(0);
+            line.append(SEPARATOR);
+            appendTotals(line, totals);
+            out.append(line);
+            conn.commit();
+            return totals;
+        } catch (SQLException | IOException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    // ==================== 格式化 ====================
+
+    private static void appendTotals(StringBuilder report, Totals totals) {
+        report.append("总计: ").append(totals.count).append(" 条记录\n");
+        report.append("用人单位总费用: ").append(money(totals.employerFee)).append('\n');
+        report.append("求职者总费用: ").append(money(totals.seekerFee)).append('\n');
+        report.append("总收入: ").append(money(totals.total())).append('\n');
+        report.append(FOOTER);
+    }
+
+    /**
+     * 追加一行明细，每列左对齐补足宽度，代替逐行String.format
+     */
+    private static void appendRow(StringBuilder line, String... values) {
+        for (int i = 0; i < values.length; i++) {
+            String value = String.valueOf(values[i]);
+            line.append(value);
+            for (int n = value.length(); n < WIDTHS[i]; n++) {
+                line.append(' ');
+            }
+            line.append(i < values.length - 1 ? ' ' : '\n');
+        }
+    }
+
+    /**
+     * 金额保留两位小数，NULL按0处理
+     */
+    private static String money(BigDecimal value) {
+        return value == null ? ZERO.toPlainString() : value.setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+}
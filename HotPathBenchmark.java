@@ -0,0 +1,467 @@
+/**
+ * 数据和报表热点路径性能测试类
+ *
+ * 正式的基准结果由benchmarks目录中的JMH模块测量（TableModelBenchmark、JobReportBenchmark、
+ * FeeReportBenchmark、MatchBenchmark），它们通过operation()和matchOperation()取得与本类相同的被测操作和合成数据；
+ * MatchBenchmark连接内存中的H2（MySQL兼容模式），不需要MySQL服务器。
+ * 本类保留为独立的main程序，用javac/java直接运行，不依赖构建工具，用于修改代码时快速比较。
+ * 测量方法参照JMH：先预热若干轮让JIT编译完成，再测量若干轮，报告每次操作的平均耗时、标准差、
+ * 最短耗时，以及每次操作在当前线程上分配的字节数和测量期间的GC次数（相当于JMH -prof gc的
+ * gc.alloc.rate.norm和gc.count）。
+ *
+ * 测试项：
+ * - tableModel：ColumnarTableModel.from（表格模型构建，原buildTableModel）读取1万/10万/100万行
+ * - jobReport：JobReport.format格式化1千/1万个职业的统计报表（不需要数据库）
+ * - feeReport：FeeReport.write导出1万/10万/100万条费用明细（写入空Writer）
+ * - match：MatchingDao.match + MatchingDao.delete（界面匹配一次再取消匹配），
+ *   需要可连接的MySQL（jm.db.url，建库脚本job_management.sql），数据库不可用时跳过
+ *
+ * tableModel和feeReport使用内存中生成的合成结果集（动态代理实现的JDBC接口），
+ * 测量的是模型构建和格式化本身；合成结果集的方法分派开销对不同版本的代码相同，
+ * 适合比较前后两次修改，不代表真实驱动的绝对耗时。
+ *
+ * 用法：
+ *   java -Xmx2g HotPathBenchmark [测试项...]
+ * 不指定测试项时全部运行。配置（系统属性）：
+ * - jm.bench.warmup：预热轮数，默认5
+ * - jm.bench.iterations：测量轮数，默认10
+ * - jm.bench.rows：tableModel和feeReport的行数，默认10000,100000,1000000
+ * - jm.bench.matchOps：match每轮的匹配次数，默认200
+ *
+ * 基准结果见benchmark-baseline.txt（只记录JMH的结果；本类的输出中包含JDK版本和CPU数，
+ * 比较时应在相同环境下重新运行）。
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.IntFunction;
+
+/**
+ * 热点路径性能测试
+ */
+class HotPathBenchmark {
+
+    private static final int WARMUP = Integer.getInteger("jm.bench.warmup", 5);
+    private static final int ITERATIONS = Integer.getInteger("jm.bench.iterations", 10);
+    private static final int MATCH_OPS = Integer.getInteger("jm.bench.matchOps", 200);
+    private static final int[] ROWS = Arrays.stream(System.getProperty("jm.bench.rows", "10000,100000,1000000")
+            .split(",")).mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+
+    private static final String[] ALL = {"tableModel", "jobReport", "feeReport", "match"};
+
+    /** 合成数据使用的字符串和金额池（避免测量生成数据本身） */
+    private static final String[] CATEGORIES = new String[20];
+    private static final String[] EMPLOYERS = new String[5000];
+    private static final String[] NAMES = new String[5000];
+    private static final BigDecimal[] MONEY = new BigDecimal[1000];
+
+    static {
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            CATEGORIES[i] = "职业分类" + i;
+        }
+        for (int i = 0; i < EMPLOYERS.length; i++) {
+            EMPLOYERS[i] = "用人单位" + i;
+            NAMES[i] = "求职者" + i;
+        }
+        for (int i = 0; i < MONEY.length; i++) {
+            MONEY[i] = BigDecimal.valueOf(10_000 + i * 137L, 2);
+        }
+    }
+
+    /** 防止JIT把测量的结果当作无用代码消除 */
+    private static volatile long sink;
+
+    public static void main(String[] args) throws Exception {
+        List<String> selected = Arrays.asList(args.length == 0 ? ALL : args);
+        System.out.printf("时间 %s，JDK %s（%s），%s %s，CPU %d，最大堆 %dMB%n",
+                LocalDateTime.now().withNano(0), System.getProperty("java.version"), System.getProperty("java.vm.name"),
+                System.getProperty("os.name"), System.getProperty("os.arch"),
+                Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().maxMemory() >> 20);
+        System.out.printf("预热 %d 轮，测量 %d 轮%n", WARMUP, ITERATIONS);
+        System.out.printf("%-12s %10s %14s %12s %14s %16s %6s%n",
+                "测试项", "规模", "平均(ms/op)", "标准差", "最短(ms/op)", "分配(B/op)", "GC");
+
+        for (String name : selected) {
+            switch (name) {
+                case "tableModel":
+                case "feeReport":
+                    for (int rows : ROWS) {
+                        measure(name, rows, 1, operation(name, rows));
+                    }
+                    break;
+                case "jobReport":
+                    for (int jobs : new int[] {1_000, 10_000}) {
+                        measure(name, jobs, 1, operation(name, jobs));
+                    }
+                    break;
+                case "match":
+                    benchMatch();
+                    break;
+                default:
+                    System.out.println("未知的测试项: " + name + "（可选: " + String.join(", ", ALL) + "）");
+            }
+        }
+        System.out.println("sink=" + sink);
+    }
+
+    /**
+     * 不需要数据库的被测操作（本类和JMH模块共用）
+     * 合成数据在这里预先生成，返回的操作每次调用只执行被测代码
+     *
+     * @param name 测试项：tableModel、jobReport或feeReport
+     * @param size 行数（jobReport为职业数）
+     * @return 被测操作，返回值用于防止JIT消除
+     */
+    static Callable<Object> operation(String name, int size) {
+        switch (name) {
+            case "tableModel":
+                return () -> ColumnarTableModel.from(jobRows(size)).getRowCount();
+            case "jobReport": {
+                List<StatsDao.JobStat> jobStats = jobStats(size);
+                List<StatsDao.CategoryStat> categoryStats = categoryStats();
+                return () -> JobReport.format(jobStats, categoryStats).length();
+            }
+            case "feeReport":
+                return () -> FeeReport.write(feeConnection(size), Writer.nullWriter()).count;
+            default:
+                throw new IllegalArgumentException("未知的测试项: " + name);
+        }
+    }
+
+    // ==================== 测量 ====================
+
+    /**
+     * 预热后测量，输出一行结果
+     *
+     * @param opsPerRun 每次调用op包含的操作数，结果按单次操作折算
+     */
+    private static void measure(String name, int size, int opsPerRun, Callable<?> op) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            consume(op.call());
+        }
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        double[] millis = new double[ITERATIONS];
+        long allocated = 0;
+        long gcBefore = gcCount();
+        for (int i = 0; i < ITERATIONS; i++) {
+            long bytes = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            consume(op.call());
+            millis[i] = (System.nanoTime() - start) / 1e6 / opsPerRun;
+            allocated += threads.getThreadAllocatedBytes(threadId) - bytes;
+        }
+        long gc = gcCount() - gcBefore;
+
+        double mean = 0;
+        double min = Double.MAX_VALUE;
+        for (double m : millis) {
+            mean += m;
+            min = Math.min(min, m);
+        }
+        mean /= ITERATIONS;
+        double variance = 0;
+        for (double m : millis) {
+            variance += (m - mean) * (m - mean);
+        }
+        double stddev = ITERATIONS > 1 ? Math.sqrt(variance / (ITERATIONS - 1)) : 0;
+        System.out.printf("%-12s %10d %14.3f %12.3f %14.3f %16d %6d%n",
+                name, size, mean, stddev, min, allocated / ((long) ITERATIONS * opsPerRun), gc);
+    }
+
+    private static void consume(Object result) {
+        sink += result == null ? 0 : result.hashCode();
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    // ==================== 数据库测试 ====================
+
+    /**
+     * 匹配一次再取消匹配，数据库中的数据在测试前后不变
+     */
+    private static void benchMatch() throws Exception {
+        try {
+            Class.forName("com.mysql.cj.jdbc.Driver");
+        } catch (ClassNotFoundException e) {
+            System.out.println("match        跳过：classpath中没有MySQL驱动");
+            return;
+        }
+        try (Connection conn = DBConnector.getConnection()) {
+            Callable<Object> op = matchOperation(conn);
+            if (op == null) {
+                System.out.println("match        跳过：数据库中没有有空缺的职业或未聘用的求职者");
+                return;
+            }
+            measure("match", MATCH_OPS, MATCH_OPS, () -> {
+                Object last = null;
+                for (int i = 0; i < MATCH_OPS; i++) {
+                    last = op.call();
+                }
+                return last;
+            });
+        } catch (SQLException e) {
+            System.out.println("match        跳过：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 取得match的被测操作：把第一个有空缺的职业和第一个未聘用的求职者匹配一次再取消匹配
+     * JMH的MatchBenchmark通过反射调用本方法
+     *
+     * @param conn 数据库连接（调用期间一直使用）
+     * @return 被测操作，返回新匹配记录的match_id；没有可匹配的职业或求职者时为null
+     */
+    static Callable<Object> matchOperation(Connection conn) throws SQLException {
+        int jobId = Dao.queryInt(conn,
+                "SELECT job_id FROM Job WHERE hired_count < required_count ORDER BY job_id LIMIT 1");
+        int seekerId = Dao.queryInt(conn,
+                "SELECT seeker_id FROM JobSeeker WHERE employed = false ORDER BY seeker_id LIMIT 1");
+        if (jobId == 0 || seekerId == 0) {
+            return null;
+        }
+        int[] matchId = new int[1];
+        return () -> {
+            MatchOutcome outcome = MatchingDao.match(conn, jobId, seekerId, matchId);
+            if (outcome != MatchOutcome.OK) {
+                throw new IllegalStateException("匹配失败: " + outcome.message);
+            }
+            MatchingDao.delete(conn, matchId[0]);
+            return matchId[0];
+        };
+    }
+
+    // ==================== 合成数据 ====================
+
+    /**
+     * 与职业表格相同形状的结果集：整数、分类名（20种）、用人单位（5000种）、需求/已聘人数、
+     * 金额DECIMAL(10,2)、布尔值、每两行一个NULL备注
+     */
+    private static ResultSet jobRows(int rows) {
+        return SyntheticResultSet.create(rows, new Column[] {
+            new Column("job_id", Types.INTEGER, 11, 0, r -> r + 1),
+            new Column("category_name", Types.VARCHAR, 50, 0, r -> CATEGORIES[r % CATEGORIES.length]),
+            new Column("employer", Types.VARCHAR, 100, 0, r -> EMPLOYERS[r % EMPLOYERS.length]),
+            new Column("required_count", Types.INTEGER, 11, 0, r -> 1 + r % 20),
+            new Column("hired_count", Types.INTEGER, 11, 0, r -> r % 7),
+            new Column("fee", Types.DECIMAL, 10, 2, r -> MONEY[r % MONEY.length]),
+            new Column("employed", Types.BIT, 1, 0, r -> r % 3 == 0),
+            new Column("notes", Types.LONGVARCHAR, 65535, 0, r -> r % 2 == 0 ? null : "备注"),
+        });
+    }
+
+    private static List<StatsDao.JobStat> jobStats(int jobs) {
+        List<StatsDao.JobStat> stats = new ArrayList<>(jobs);
+        for (int i = 0; i < jobs; i++) {
+            int required = 1 + i % 20;
+            int hired = Math.min(required, i % 7);
+            stats.add(new StatsDao.JobStat(EMPLOYERS[i % EMPLOYERS.length], required, hired, required - hired));
+        }
+        return stats;
+    }
+
+    private static List<StatsDao.CategoryStat> categoryStats() {
+        List<StatsDao.CategoryStat> stats = new ArrayList<>();
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            stats.add(new StatsDao.CategoryStat(CATEGORIES[i], 50 + i, 500 + i, 200 + i, 300));
+        }
+        return stats;
+    }
+
+    /**
+     * 只支持FeeReport.write用到的调用的合成连接：合计查询返回一行，明细查询按主键分批返回rows行
+     */
+    private static Connection feeConnection(int rows) {
+        Column[] detail = {
+            new Column("fee_id", Types.INTEGER, 11, 0, r -> r + 1),
+            new Column("employer_name", Types.VARCHAR, 100, 0, r -> EMPLOYERS[r % EMPLOYERS.length]),
+            new Column("employer_fee", Types.DECIMAL, 10, 2, r -> MONEY[r % MONEY.length]),
+            new Column("seeker_name", Types.VARCHAR, 100, 0, r -> NAMES[r % NAMES.length]),
+            new Column("seeker_fee", Types.DECIMAL, 10, 2, r -> MONEY[(r * 7) % MONEY.length]),
+        };
+        Column[] totals = {
+            new Column("count", Types.BIGINT, 20, 0, r -> (long) rows),
+            new Column("employer_fee", Types.DECIMAL, 20, 2, r -> BigDecimal.ZERO),
+            new Column("seeker_fee", Types.DECIMAL, 20, 2, r -> BigDecimal.ZERO),
+        };
+        Statement statement = proxy(Statement.class, (method, args) ->
+                "execute".equals(method.getName()) ? Boolean.FALSE : null);
+        PreparedStatement totalsStatement = proxy(PreparedStatement.class, (method, args) ->
+                "executeQuery".equals(method.getName()) ? SyntheticResultSet.create(1, totals) : null);
+        int[] params = new int[3];
+        PreparedStatement detailStatement = proxy(PreparedStatement.class, (method, args) -> {
+            switch (method.getName()) {
+                case "setInt":
+                    params[(Integer) args[0]] = (Integer) args[1];
+                    return null;
+                case "executeQuery": {
+                    int from = params[1];
+                    int count = Math.max(0, Math.min(params[2], rows - from));
+                    return SyntheticResultSet.create(count, Column.offset(detail, from));
+                }
+                default:
+                    return null;
+            }
+        });
+        return proxy(Connection.class, (method, args) -> {
+            switch (method.getName()) {
+                case "createStatement":
+                    return statement;
+                case "prepareStatement":
+                    return FeeReport.TOTALS_SQL.equals(args[0]) ? totalsStatement : detailStatement;
+                case "getAutoCommit":
+                    return true;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object invoke(Method method, Object[] args) throws Exception;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(HotPathBenchmark.class.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> handler.invoke(method, args));
+    }
+
+    /**
+     * 合成结果集的一列：元数据和按行号生成值的函数
+     */
+    private static final class Column {
+        final String label;
+        final int type;
+        final int precision;
+        final int scale;
+        final IntFunction<Object> value;
+
+        Column(String label, int type, int precision, int scale, IntFunction<Object> value) {
+            this.label = label;
+            this.type = type;
+            this.precision = precision;
+            this.scale = scale;
+            this.value = value;
+        }
+
+        /** 行号整体偏移from（分批读取的后续批次） */
+        static Column[] offset(Column[] columns, int from) {
+            Column[] shifted = new Column[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                Column c = columns[i];
+                shifted[i] = new Column(c.label, c.type, c.precision, c.scale, r -> c.value.apply(r + from));
+            }
+            return shifted;
+        }
+    }
+
+    /**
+     * 动态代理实现的只进结果集，只支持测试用到的方法
+     */
+    private static final class SyntheticResultSet implements InvocationHandler {
+        private final int rows;
+        private final Column[] columns;
+        private final ResultSetMetaData metaData;
+        private int row = -1;
+        private boolean wasNull;
+
+        private SyntheticResultSet(int rows, Column[] columns) {
+            this.rows = rows;
+            this.columns = columns;
+            this.metaData = proxy(ResultSetMetaData.class, (method, args) -> {
+                switch (method.getName()) {
+                    case "getColumnCount":
+                        return columns.length;
+                    case "getColumnLabel":
+                    case "getColumnName":
+                        return columns[(Integer) args[0] - 1].label;
+                    case "getColumnType":
+                        return columns[(Integer) args[0] - 1].type;
+                    case "getPrecision":
+                        return columns[(Integer) args[0] - 1].precision;
+                    case "getScale":
+                        return columns[(Integer) args[0] - 1].scale;
+                    case "isSigned":
+                        return true;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+        }
+
+        static ResultSet create(int rows, Column[] columns) {
+            return (ResultSet) Proxy.newProxyInstance(HotPathBenchmark.class.getClassLoader(),
+                    new Class<?>[] {ResultSet.class}, new SyntheticResultSet(rows, columns));
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "next":
+                    return ++row < rows;
+                case "getMetaData":
+                    return metaData;
+                case "wasNull":
+                    return wasNull;
+                case "close":
+                    return null;
+                case "isClosed":
+                    return false;
+                default:
+                    break;
+            }
+            if (!(args != null && args.length == 1 && args[0] instanceof Integer)) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            Object value = columns[(Integer) args[0] - 1].value.apply(row);
+            wasNull = value == null;
+            switch (method.getName()) {
+                case "getInt":
+                    return value == null ? 0 : ((Number) value).intValue();
+                case "getLong":
+                    return value == null ? 0L : ((Number) value).longValue();
+                case "getDouble":
+                    return value == null ? 0.0 : ((Number) value).doubleValue();
+                case "getBoolean":
+                    return value != null && (Boolean) value;
+                case "getString":
+                    return value == null ? null : value.toString();
+                case "getBigDecimal":
+                case "getObject":
+                    return value;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        }
+    }
+}
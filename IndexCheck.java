@@ -0,0 +1,194 @@
+/**
+ * 索引检查类
+ *
+ * 对程序中的常用查询执行EXPLAIN，确认每个查询都使用了预期的索引。
+ * 查询语句直接引用程序中实际执行的SQL常量，修改查询后重新运行即可发现索引失效。
+ * 带IN列表的查询（见Dao.queryInList）按两个占位符展开后检查。
+ *
+ * 判定规则：
+ * - 通过：使用了预期的索引，且每张表都通过索引访问
+ * - 警告：预期的索引可用（出现在possible_keys中），但优化器选择了全表扫描，
+ *         且估计行数小于SMALL_TABLE_ROWS；示例数据很少时常见，应在接近真实规模的数据上复查
+ * - 失败：其他情况，程序以状态码1退出
+ *
+ * 用法（数据库连接参数与主程序相同，见DBConnector）：
+ *   java IndexCheck
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 常用查询的索引检查
+ */
+class IndexCheck {
+
+    /** 估计行数小于该值时，全表扫描只算警告 */
+    static final int SMALL_TABLE_ROWS = 1000;
+
+    /**
+     * 一个待检查的查询
+     */
+    private static final class Check {
+        final String name;
+        final String sql;
+        final Object[] params;
+        final String expectedIndex;
+
+        Check(String name, String sql, String expectedIndex, Object... params) {
+            this.name = name;
+            this.sql = sql;
+            this.expectedIndex = expectedIndex;
+            this.params = params;
+        }
+    }
+
+    /**
+     * EXPLAIN输出中的一行（一张表的访问方式）
+     */
+    private static final class Plan {
+        final String table;
+        final String type;
+        final String possibleKeys;
+        final String key;
+        final long rows;
+
+        Plan(ResultSet rs) throws SQLException {
+            table = rs.getString("table");
+            type = rs.getString("type");
+            possibleKeys = rs.getString("possible_keys");
+            key = rs.getString("key");
+            rows = rs.getLong("rows");
+        }
+
+        @Override
+        public String toString() {
+            return table + ": type=" + type + ", key=" + key + ", possible_keys=" + possibleKeys + ", rows=" + rows;
+        }
+    }
+
+    /**
+     * 待检查的查询
+     */
+    static List<Check> checks() {
+        Timestamp since = new Timestamp(System.currentTimeMillis() - 60_000L);
+        List<Check> checks = new ArrayList<>(Arrays.asList(
+                new Check("求职者下拉框", SeekerDao.UNEMPLOYED_SQL, "idx_seeker_employed"),
+                new Check("未聘用求职者分页（HTTP接口）", SeekerDao.UNEMPLOYED_PAGE_SQL, "idx_seeker_employed",
+                        0, PagedTableModel.DEFAULT_PAGE_SIZE),
+                new Check("有空缺职业分页（HTTP接口）", JobDao.VACANT_PAGE_SQL, "PRIMARY",
+                        0, PagedTableModel.DEFAULT_PAGE_SIZE),
+                new Check("批量匹配-有空缺的职业", BatchMatcher.VACANT_JOBS_SQL, "PRIMARY"),
+                new Check("批量匹配-未聘用的求职者", BatchMatcher.UNEMPLOYED_SQL, "idx_seeker_employed"),
+                new Check("批量匹配-锁定职业", String.format(BatchMatcher.LOCK_JOBS_SQL, "?,?"), "PRIMARY", 1, 2),
+                new Check("批量匹配-锁定求职者", String.format(BatchMatcher.LOCK_SEEKERS_SQL, "?,?"), "PRIMARY", 1, 2),
+                new Check("职业统计（GetJobStats）",
+                        "SELECT employer, required_count, hired_count, vacancy FROM JobStats ORDER BY required_count DESC",
+                        "idx_jobstats_required"),
+                new Check("匹配加锁", JobMatcher.LOCK_SQL, "PRIMARY", 1, 1),
+                new Check("增量同步-删除记录", DeltaSync.TOMBSTONE_SQL, "idx_deleted_at", "Job", since)));
+
+        String[][] synced = {
+                {"JobCategory", "category_id", "idx_category_updated_at"},
+                {"Job", "job_id", "idx_job_updated_at"},
+                {"JobSeeker", "seeker_id", "idx_seeker_updated_at"},
+                {"JobMatching", "match_id", "idx_matching_updated_at"},
+                {"Fee", "fee_id", "idx_fee_updated_at"},
+        };
+        for (String[] table : synced) {
+            checks.add(new Check("增量同步-" + table[0], DeltaSync.changedRowsSql(table[0], table[1]), table[2], since));
+        }
+
+        PagedTableModel.Spec[] specs = {
+                JobManagementSystem.CATEGORY_SPEC, JobManagementSystem.JOB_SPEC, JobManagementSystem.SEEKER_SPEC,
+                JobManagementSystem.MATCHING_SPEC, JobManagementSystem.FEE_SPEC,
+        };
+        for (PagedTableModel.Spec spec : specs) {
+            checks.add(new Check("分页-" + spec.from, spec.keysetSql(PagedTableModel.DEFAULT_PAGE_SIZE), "PRIMARY", 1));
+            checks.add(new Check("行号-" + spec.from, spec.positionSql(), "PRIMARY", 1));
+            checks.add(new Check("单行-" + spec.from, spec.rowSql(), "PRIMARY", 1));
+        }
+        return checks;
+    }
+
+    public static void main(String[] args) {
+        int passed = 0, warnings = 0, failures = 0;
+        try (Connection conn = DBConnector.getConnection()) {
+            for (Check check : checks()) {
+                List<Plan> plans = explain(conn, check);
+                String result = judge(check, plans);
+                System.out.println("[" + result + "] " + check.name + "（预期索引 " + check.expectedIndex + "）");
+                if (!"通过".equals(result)) {
+                    System.out.println("    " + check.sql);
+                    for (Plan plan : plans) {
+                        System.out.println("    " + plan);
+                    }
+                }
+                switch (result) {
+                    case "通过": passed++; break;
+                    case "警告": warnings++; break;
+                    default: failures++; break;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("索引检查失败: " + e.getMessage());
+            System.exit(2);
+        }
+        System.out.printf("通过 %d，警告 %d，失败 %d%n", passed, warnings, failures);
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static List<Plan> explain(Connection conn, Check check) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("EXPLAIN " + check.sql)) {
+            for (int i = 0; i < check.params.length; i++) {
+                pstmt.setObject(i + 1, check.params[i]);
+            }
+            List<Plan> plans = new ArrayList<>();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    plans.add(new Plan(rs));
+                }
+            }
+            return plans;
+        }
+    }
+
+    /**
+     * 按类注释中的规则判定
+     * type为null的行（例如常量条件被优化掉）不访问表，不参与判定
+     */
+    private static String judge(Check check, List<Plan> plans) {
+        boolean used = false, possible = false, small = true, scanned = false;
+        for (Plan plan : plans) {
+            if (plan.type == null) {
+                continue;
+            }
+            used |= check.expectedIndex.equals(plan.key);
+            possible |= contains(plan.possibleKeys, check.expectedIndex);
+            if (plan.key == null) {
+                scanned = true;
+                small &= plan.rows < SMALL_TABLE_ROWS;
+            }
+        }
+        if (used && !scanned) {
+            return "通过";
+        }
+        return (used || possible) && small ? "警告" : "失败";
+    }
+
+    private static boolean contains(String keys, String index) {
+        return keys != null && Arrays.asList(keys.split(",")).contains(index);
+    }
+}
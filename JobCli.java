@@ -0,0 +1,547 @@
+/**
+ * 命令行（无界面）模式
+ *
+ * 夜间批量匹配、报表和导入导出任务不需要桌面会话：该类不引用任何AWT/Swing类，
+ * 直接调用数据访问层（各DAO、BatchMatcher、CsvImporter、TableExporter等），
+ * 与界面共用同一套SQL和事务逻辑，而不是经过界面的事件监听器。
+ *
+ * 用法：
+ * <pre>
+ * java -cp "bin;lib/*" JobCli &lt;命令&gt; [参数]
+ * </pre>
+ * JobManagementSystem带参数启动时也会转到这里，但那样会先加载界面类；
+ * 计划任务应直接运行JobCli，启动时只加载数据库驱动和用到的几个类。
+ *
+ * 输出约定：
+ * - stdout只输出一行JSON（每个命令一个对象），包含command、status和命令自己的字段；
+ *   非ASCII字符输出为\\uXXXX转义，结果与控制台编码无关
+ * - 驱动加载、迁移等调试信息和进度改为输出到stderr
+ * - serve命令启动HTTP接口（见ApiServer），输出启动结果后一直运行，直到进程被终止
+ * - generate和scenario用于容量测试：前者填充测试数据（见DataGenerator），
+ *   后者按脚本运行并发混合负载（见ScenarioRunner），各阶段的延迟表输出到stderr，JSON中包含同样的数字
+ * - 退出码：0成功；1命令完成但发现问题（一致性检查不通过、导入有被拒绝的行）；
+ *   2用法错误；3数据库错误；4文件读写错误；5程序内部错误（未预期的运行时异常，堆栈输出到stderr）
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * 命令行入口
+ */
+final class JobCli {
+
+    static final int EXIT_OK = 0;
+    static final int EXIT_PROBLEMS = 1;
+    static final int EXIT_USAGE = 2;
+    static final int EXIT_SQL = 3;
+    static final int EXIT_IO = 4;
+    static final int EXIT_INTERNAL = 5;
+
+    static final String USAGE = String.join("\n",
+            "用法: java JobCli <命令> [参数]",
+            "  import seekers|jobs <文件>                      从CSV导入求职者或职业（.gz按gzip读取）",
+            "  match [fifo|by-category|round-robin|optimal] [--dry-run]",
+            "                                                  批量匹配（默认fifo，--dry-run只生成方案）",
+            "  report jobs                                     职业统计和分类汇总",
+            "  report fees [<文件>]                            费用合计，给出文件时同时导出完整报表",
+            "  export seekers|jobs|matchings|fees|job-stats <文件>",
+            "                                                  导出，格式按扩展名（.csv、.csv.gz、.xlsx）",
+            "  check                                           数据一致性检查（只读）",
+            "  rebuild-stats                                   从职业表重建职业统计和分类统计",
+            "  migrate                                         升级数据库结构",
+            "  serve [<端口>]                                  启动HTTP接口（默认端口jm.http.port），直到进程被终止",
+            "  generate [key=value...]                         生成测试数据，key为categories、jobs、seekers、",
+            "                                                  matchRate、feeRate、seed、chunkSize",
+            "  scenario <脚本>                                 按脚本运行并发混合负载，输出各操作的延迟分位数",
+            "  help                                            显示本说明",
+            "退出码: 0成功 1发现问题 2用法错误 3数据库错误 4文件错误 5内部错误");
+
+    /**
+     * 用法错误（参数缺失或无法识别）
+     */
+    private static final class UsageException extends Exception {
+        UsageException(String message) {
+            super(message);
+        }
+    }
+
+    /** 真正的标准输出（run开始时System.out被改到stderr） */
+    private static PrintStream stdout = System.out;
+
+    private JobCli() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * 执行一个命令并输出结果
+     *
+     * @param args 命令和参数
+     * @return 退出码
+     */
+    static int run(String[] args) {
+        // stdout只留给JSON结果，其余输出（驱动加载信息等）都改到stderr
+        stdout = System.out;
+        System.setOut(System.err);
+        long start = System.nanoTime();
+
+        String command = args.length == 0 ? "help" : args[0];
+        List<String> params = new ArrayList<>(Arrays.asList(args).subList(Math.min(1, args.length), args.length));
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("command", command);
+        result.put("status", "ok");
+        int code;
+        try {
+            code = execute(command, params, result);
+        } catch (UsageException e) {
+            code = error(result, EXIT_USAGE, "usage", e.getMessage());
+            System.err.println(USAGE);
+        } catch (SQLException e) {
+            code = error(result, EXIT_SQL, "sql", e.getMessage());
+            result.put("sqlState", e.getSQLState());
+        } catch (IOException e) {
+            code = error(result, EXIT_IO, "io", e.getMessage());
+        } catch (RuntimeException e) {
+            // 程序错误也输出一行JSON，调用方不会因为stdout为空而无法解析结果
+            e.printStackTrace();
+            code = error(result, EXIT_INTERNAL, "internal", e.toString());
+        }
+        if (code == EXIT_PROBLEMS) {
+            result.put("status", "problems");
+        }
+        result.put("elapsedMillis", (System.nanoTime() - start) / 1_000_000);
+        stdout.println(Json.of(result));
+        stdout.flush();
+        return code;
+    }
+
+    private static int error(Map<String, Object> result, int code, String error, String message) {
+        result.put("status", "error");
+        result.put("error", error);
+        result.put("message", message);
+        return code;
+    }
+
+    private static int execute(String command, List<String> params, Map<String, Object> result)
+            throws UsageException, SQLException, IOException {
+        switch (command) {
+            case "help":
+            case "-h":
+            case "--help":
+                result.put("usage", USAGE);
+                return EXIT_OK;
+            case "import":
+            case "match":
+            case "report":
+            case "export":
+            case "check":
+            case "rebuild-stats":
+            case "migrate":
+            case "serve":
+            case "generate":
+            case "scenario":
+                requireDriver();
+                break;
+            default:
+                throw new UsageException("未知命令: " + command);
+        }
+        switch (command) {
+            case "import":
+                return importFile(params, result);
+            case "match":
+                return match(params, result);
+            case "report":
+                return report(params, result);
+            case "export":
+                return export(params, result);
+            case "check":
+                return check(params, result);
+            case "rebuild-stats":
+                return rebuildStats(params, result);
+            case "migrate":
+                return migrate(params, result);
+            case "generate":
+                return generate(params, result);
+            case "scenario":
+                return scenario(params, result);
+            default:
+                return serve(params, result);
+        }
+    }
+
+    // ==================== 命令 ====================
+
+    private static int importFile(List<String> params, Map<String, Object> result)
+            throws UsageException, SQLException, IOException {
+        expect(params, 2, "import seekers|jobs <文件>");
+        CsvImporter.Kind kind;
+        switch (params.get(0)) {
+            case "seekers":
+                kind = CsvImporter.Kind.SEEKERS;
+                break;
+            case "jobs":
+                kind = CsvImporter.Kind.JOBS;
+                break;
+            default:
+                throw new UsageException("未知的导入内容: " + params.get(0));
+        }
+        Path path = Paths.get(params.get(1));
+        int[] reported = {0};
+        CsvImporter.Result imported = CsvImporter.importFile(kind, path, new CsvImporter.Progress() {
+            @Override
+            public void update(CsvImporter.Result progress, int percent) {
+                // 每10%在stderr报告一次，便于在计划任务日志中观察长时间导入
+                if (percent >= reported[0] + 10) {
+                    reported[0] = percent - percent % 10;
+                    System.err.println("导入进度 " + percent + "%（已读取 " + progress.read + " 行）");
+                }
+            }
+
+            @Override
+            public boolean cancelled() {
+                return false;
+            }
+        });
+        result.put("kind", params.get(0));
+        result.put("file", path.toString());
+        result.put("read", imported.read);
+        result.put("inserted", imported.inserted);
+        result.put("rejected", imported.rejected);
+        result.put("chunks", imported.chunks);
+        result.put("importMillis", imported.elapsedMillis);
+        result.put("rejectFile", imported.rejectFile == null ? null : imported.rejectFile.toString());
+        return imported.rejected == 0 ? EXIT_OK : EXIT_PROBLEMS;
+    }
+
+    private static int match(List<String> params, Map<String, Object> result) throws UsageException, SQLException {
+        boolean dryRun = params.remove("--dry-run");
+        if (params.size() > 1) {
+            throw new UsageException("match [fifo|by-category|round-robin|optimal] [--dry-run]");
+        }
+        String policy = params.isEmpty() ? "fifo" : params.get(0);
+        try (Connection conn = DBConnector.getConnection()) {
+            BatchMatcher.Plan plan;
+            switch (policy) {
+                case "fifo":
+                    plan = BatchMatcher.plan(conn, BatchMatcher.Policy.FIFO);
+                    break;
+                case "by-category":
+                    plan = BatchMatcher.plan(conn, BatchMatcher.Policy.BY_CATEGORY);
+                    break;
+                case "round-robin":
+                    plan = BatchMatcher.plan(conn, BatchMatcher.Policy.ROUND_ROBIN);
+                    break;
+                case "optimal":
+                    plan = OptimalMatcher.plan(conn, OptimalMatcher.WAITING_FIRST,
+                            OptimalMatcher.DEFAULT_CANDIDATES_PER_SEEKER);
+                    break;
+                default:
+                    throw new UsageException("未知的匹配策略: " + policy);
+            }
+            result.put("policy", policy);
+            result.put("openJobs", plan.openJobs);
+            result.put("totalVacancy", plan.totalVacancy);
+            result.put("freeSeekers", plan.freeSeekers);
+            result.put("planned", plan.size());
+            result.put("planMillis", plan.planMillis);
+            result.put("dryRun", dryRun);
+            if (dryRun || plan.size() == 0) {
+                return EXIT_OK;
+            }
+            BatchMatcher.Result committed = "optimal".equals(policy)
+                    ? OptimalMatcher.commit(conn, plan)
+                    : BatchMatcher.commit(conn, plan, BatchMatcher.DEFAULT_CHUNK_SIZE);
+            result.put("inserted", committed.inserted);
+            result.put("skipped", committed.skipped);
+            result.put("chunks", committed.chunks);
+            result.put("retries", committed.retries);
+            result.put("commitMillis", committed.elapsedMillis);
+            return EXIT_OK;
+        }
+    }
+
+    private static int report(List<String> params, Map<String, Object> result)
+            throws UsageException, SQLException, IOException {
+        if (params.isEmpty()) {
+            throw new UsageException("report jobs|fees [<文件>]");
+        }
+        String report = params.get(0);
+        result.put("report", report);
+        try (Connection conn = DBConnector.getConnection()) {
+            switch (report) {
+                case "jobs": {
+                    expect(params, 1, "report jobs");
+                    List<Object> jobs = new ArrayList<>();
+                    for (StatsDao.JobStat stat : StatsDao.jobStats(conn)) {
+                        Map<String, Object> row = new LinkedHashMap<>();
+                        row.put("employer", stat.employer);
+                        row.put("required", stat.required);
+                        row.put("hired", stat.hired);
+                        row.put("vacancy", stat.vacancy);
+                        jobs.add(row);
+                    }
+                    List<Object> categories = new ArrayList<>();
+                    for (StatsDao.CategoryStat stat : StatsDao.categoryStats(conn)) {
+                        Map<String, Object> row = new LinkedHashMap<>();
+                        row.put("category", stat.categoryName);
+                        row.put("jobs", stat.jobCount);
+                        row.put("required", stat.required);
+                        row.put("hired", stat.hired);
+                        row.put("vacancy", stat.vacancy);
+                        categories.add(row);
+                    }
+                    result.put("jobs", jobs);
+                    result.put("categories", categories);
+                    return EXIT_OK;
+                }
+                case "fees": {
+                    if (params.size() > 2) {
+                        throw new UsageException("report fees [<文件>]");
+                    }
+                    FeeReport.Totals totals;
+                    if (params.size() == 2) {
+                        Path path = Paths.get(params.get(1));
+                        try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                            totals = FeeReport.write(conn, out);
+                        }
+                        result.put("file", path.toString());
+                    } else {
+                        totals = FeeReport.totals(conn);
+                    }
+                    result.put("count", totals.count);
+                    result.put("employerFee", totals.employerFee);
+                    result.put("seekerFee", totals.seekerFee);
+                    result.put("total", totals.total());
+                    return EXIT_OK;
+                }
+                default:
+                    throw new UsageException("未知的报表: " + report);
+            }
+        }
+    }
+
+    private static int export(List<String> params, Map<String, Object> result)
+            throws UsageException, SQLException, IOException {
+        expect(params, 2, "export seekers|jobs|matchings|fees|job-stats <文件>");
+        TableExporter.Export export;
+        switch (params.get(0)) {
+            case "seekers":
+                export = TableExporter.SEEKERS;
+                break;
+            case "jobs":
+                export = TableExporter.JOBS;
+                break;
+            case "matchings":
+                export = TableExporter.MATCHINGS;
+                break;
+            case "fees":
+                export = TableExporter.FEES;
+                break;
+            case "job-stats":
+                export = TableExporter.JOB_STATS;
+                break;
+            default:
+                throw new UsageException("未知的导出内容: " + params.get(0));
+        }
+        Path path = Paths.get(params.get(1));
+        TableExporter.Format format = TableExporter.Format.of(path);
+        if (format == null) {
+            throw new UsageException("无法识别的导出格式（支持.csv、.csv.gz、.xlsx）: " + path);
+        }
+        long rows = TableExporter.export(export, format, path, new TableExporter.Progress() {
+            @Override
+            public void update(long rows, long estimatedRows) {
+            }
+
+            @Override
+            public boolean cancelled() {
+                return false;
+            }
+        });
+        result.put("kind", params.get(0));
+        result.put("format", format.name());
+        result.put("file", path.toString());
+        result.put("rows", rows);
+        return EXIT_OK;
+    }
+
+    private static int check(List<String> params, Map<String, Object> result) throws UsageException, SQLException {
+        expect(params, 0, "check");
+        List<ConsistencyCheck.Finding> findings;
+        try (Connection conn = DBConnector.getConnection()) {
+            findings = ConsistencyCheck.run(conn);
+        }
+        List<Object> checks = new ArrayList<>();
+        for (ConsistencyCheck.Finding finding : findings) {
+            Map<String, Object> check = new LinkedHashMap<>();
+            check.put("name", finding.rule.name());
+            check.put("description", finding.rule.description);
+            check.put("count", finding.count);
+            check.put("keyColumn", finding.rule.keyColumn);
+            check.put("sample", finding.sample);
+            checks.add(check);
+            if (!finding.ok()) {
+                System.err.println(finding);
+            }
+        }
+        result.put("checks", checks);
+        return ConsistencyCheck.allOk(findings) ? EXIT_OK : EXIT_PROBLEMS;
+    }
+
+    private static int rebuildStats(List<String> params, Map<String, Object> result)
+            throws UsageException, SQLException {
+        expect(params, 0, "rebuild-stats");
+        try (Connection conn = DBConnector.getConnection()) {
+            StatsDao.rebuild(conn);
+        }
+        return EXIT_OK;
+    }
+
+    private static int migrate(List<String> params, Map<String, Object> result) throws UsageException, SQLException {
+        expect(params, 0, "migrate");
+        result.put("applied", SchemaMigrator.migrate());
+        return EXIT_OK;
+    }
+
+    /**
+     * 在使用DBConnector之前确认驱动存在
+     * DBConnector找不到驱动时以退出码1结束进程，与本模式"发现问题"的退出码冲突，因此先检查
+     */
+    private static void requireDriver() throws SQLException {
+        try {
+            Class.forName("com.mysql.cj.jdbc.Driver");
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("MySQL JDBC驱动程序未找到，请把mysql-connector-j加入classpath", "08001", e);
+        }
+    }
+
+    /**
+     * 启动HTTP接口并一直运行
+     * 启动后立即输出一行JSON（端口、是否使用虚拟线程），进程收到终止信号时停止服务器并退出
+     */
+    private static int serve(List<String> params, Map<String, Object> result) throws UsageException, IOException {
+        if (params.size() > 1) {
+            throw new UsageException("serve [<端口>]");
+        }
+        int port;
+        try {
+            port = params.isEmpty() ? ApiServer.DEFAULT_PORT : Integer.parseInt(params.get(0));
+        } catch (NumberFormatException e) {
+            throw new UsageException("端口不是整数: " + params.get(0));
+        }
+        ApiServer server = ApiServer.start(port);
+        DbMetrics.registerJmx();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(2), "http-shutdown"));
+        result.put("port", server.port());
+        result.put("virtualThreads", server.virtualThreads());
+        stdout.println(Json.of(result));
+        stdout.flush();
+        System.err.println("HTTP接口已启动，端口 " + server.port() + (server.virtualThreads() ? "（虚拟线程）" : "（平台线程池）"));
+        try {
+            new CountDownLatch(1).await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return EXIT_OK;
+    }
+
+    private static int generate(List<String> params, Map<String, Object> result) throws UsageException, SQLException {
+        DataGenerator.Config config;
+        try {
+            config = DataGenerator.Config.parse(params);
+        } catch (IllegalArgumentException e) {
+            throw new UsageException(e.getMessage());
+        }
+        long[] reported = {-1};
+        DataGenerator.Result generated;
+        try (Connection conn = DBConnector.getConnection()) {
+            generated = DataGenerator.generate(conn, config, (table, rows, total) -> {
+                // 每10%在stderr报告一次
+                long percent = total == 0 ? 100 : rows * 100 / total;
+                if (percent / 10 != reported[0] / 10 || rows == total) {
+                    reported[0] = percent;
+                    System.err.println(table + " " + rows + "/" + total);
+                }
+            });
+        }
+        System.err.println(generated);
+        result.put("seed", config.seed);
+        result.put("categories", generated.categories);
+        result.put("jobs", generated.jobs);
+        result.put("seekers", generated.seekers);
+        result.put("matchings", generated.matchings);
+        result.put("fees", generated.fees);
+        result.put("jobMillis", generated.tableMillis[1]);
+        result.put("seekerMillis", generated.tableMillis[2]);
+        result.put("matchingMillis", generated.tableMillis[3]);
+        result.put("generateMillis", generated.elapsedMillis);
+        return EXIT_OK;
+    }
+
+    private static int scenario(List<String> params, Map<String, Object> result)
+            throws UsageException, SQLException, IOException {
+        expect(params, 1, "scenario <脚本>");
+        ScenarioRunner.Script script;
+        try {
+            script = ScenarioRunner.parse(Paths.get(params.get(0)));
+        } catch (IllegalArgumentException e) {
+            throw new UsageException(e.getMessage());
+        }
+        List<ScenarioRunner.PhaseResult> phases = ScenarioRunner.run(script, phase -> System.err.println(phase.table()));
+        List<Object> phaseList = new ArrayList<>();
+        long errors = 0;
+        for (ScenarioRunner.PhaseResult phase : phases) {
+            List<Object> ops = new ArrayList<>();
+            for (Map.Entry<ScenarioRunner.Op, ScenarioRunner.OpStats> entry : phase.stats.entrySet()) {
+                LatencyHistogram.Snapshot h = entry.getValue().latency.snapshot();
+                Map<String, Object> op = new LinkedHashMap<>();
+                op.put("op", entry.getKey().label);
+                op.put("count", h.count);
+                op.put("errors", entry.getValue().errors.sum());
+                op.put("conflicts", entry.getValue().conflicts.sum());
+                op.put("p50Micros", h.p50Micros);
+                op.put("p90Micros", h.p90Micros);
+                op.put("p99Micros", h.p99Micros);
+                op.put("maxMicros", h.maxMicros);
+                ops.add(op);
+                errors += entry.getValue().errors.sum();
+            }
+            Map<String, Object> p = new LinkedHashMap<>();
+            p.put("name", phase.phase.name);
+            p.put("threads", phase.phase.threads);
+            p.put("elapsedMillis", phase.elapsedMillis);
+            p.put("ops", ops);
+            phaseList.add(p);
+        }
+        result.put("script", params.get(0));
+        result.put("seed", script.seed);
+        result.put("phases", phaseList);
+        return errors == 0 ? EXIT_OK : EXIT_PROBLEMS;
+    }
+
+    private static void expect(List<String> params, int count, String usage) throws UsageException {
+        if (params.size() != count) {
+            throw new UsageException("参数个数不正确，应为: " + usage);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * 职业数据访问类
+ *
+ * Job表的增删改，SQL语句都定义为常量（见Dao的说明）。
+ * 已聘人数只由匹配触发器维护，这里的UPDATE不修改hired_count；
+ * 统计表JobStats/CategoryStats由Job上的触发器同步，调用者不需要另外处理。
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 职业DAO
+ */
+final class JobDao {
+
+    static final String INSERT_SQL =
+            "INSERT INTO Job (category_id, employer, required_count, notes) VALUES (?, ?, ?, ?)";
+
+    static final String UPDATE_SQL =
+            "UPDATE Job SET category_id = ?, employer = ?, required_count = ?, notes = ? WHERE job_id = ?";
+
+    static final String DELETE_SQL = "DELETE FROM Job WHERE job_id = ?";
+
+    /** 按主键分页读取有空缺的职业（HTTP接口使用） */
+    static final String VACANT_PAGE_SQL =
+            "SELECT j.job_id, j.category_id, c.category_name, j.employer, j.required_count, j.hired_count, "
+                    + "j.required_count - j.hired_count AS vacancy "
+                    + "FROM Job j LEFT JOIN JobCategory c ON c.category_id = j.category_id "
+                    + "WHERE j.hired_count < j.required_count AND j.job_id > ? ORDER BY j.job_id LIMIT ?";
+
+    private JobDao() {
+    }
+
+    /**
+     * 添加职业（分类不存在时由外键约束拒绝）
+     *
+     * @return 新职业的job_id
+     */
+    static int insert(Connection conn, int categoryId, String employer, int requiredCount, String notes)
+            throws SQLException {
+        return Dao.insert(conn, INSERT_SQL, categoryId, employer, requiredCount, notes);
+    }
+
+    /**
+     * 修改职业
+     *
+     * @return 受影响的行数，0表示职业已不存在
+     */
+    static int update(Connection conn, int jobId, int categoryId, String employer, int requiredCount, String notes)
+            throws SQLException {
+        return Dao.update(conn, UPDATE_SQL, categoryId, employer, requiredCount, notes, jobId);
+    }
+
+    /**
+     * 删除职业
+     *
+     * @return 受影响的行数，0表示职业已不存在
+     */
+    static int delete(Connection conn, int jobId) throws SQLException {
+        return Dao.update(conn, DELETE_SQL, jobId);
+    }
+
+    /**
+     * 在一个事务中批量删除职业（相关匹配记录随外键级联删除）
+     *
+     * @return 删除结果，已被其他终端删除的主键不在其中
+     */
+    static Dao.Deleted deleteAll(Connection conn, int[] jobIds) throws SQLException {
+        return Dao.deleteAll(conn, "Job", "job_id", jobIds);
+    }
+
+    /**
+     * 读取job_id大于afterId的一页有空缺的职业
+     *
+     * @param handler 逐行处理VACANT_PAGE_SQL的各列
+     */
+    static void vacantPage(Connection conn, int afterId, int limit, Dao.RowHandler handler) throws SQLException {
+        Dao.query(conn, VACANT_PAGE_SQL, handler, afterId, limit);
+    }
+}
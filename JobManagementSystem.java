@@ -9,6 +9,7 @@
  * 4. 职业匹配 - 将求职者与职业进行匹配
  * 5. 费用管理 - 管理用人单位和求职者的费用信息
  * 6. 统计报表 - 生成各种统计报表
+ * 7. 诊断 - 每条SQL的执行次数和耗时分位数、连接池状态
  * 
  * 技术特点：
  * - 使用Swing构建图形用户界面
@@ -23,11 +24,24 @@
 
 // ==================== 导入必要的Java包 ====================
 import java.awt.*;                    // 导入AWT包，用于图形界面组件
+import java.io.File;                  // 导入File类，用于导出文件的默认文件名
+import java.io.IOException;           // 导入IOException类，导出文件写入失败时抛出
+import java.io.Writer;                // 导入Writer类，用于逐行写入导出文件
+import java.nio.charset.StandardCharsets;  // 导入字符集常量，导出文件使用UTF-8编码
+import java.nio.file.Files;           // 导入Files类，用于创建带缓冲的文件写入器
+import java.nio.file.Path;            // 导入Path接口，表示导出文件路径
 import java.sql.*;                    // 导入SQL包，用于数据库操作
-import java.util.Vector;              // 导入Vector类，用于存储表格数据
+import java.util.ArrayList;           // 导入ArrayList类，用于在后台线程收集下拉框数据和删除补丁
+import java.util.Arrays;              // 导入Arrays类，用于查找和显示批量删除的主键
+import java.util.List;                // 导入List接口（显式导入，避免与java.awt.List冲突）
+import java.util.concurrent.CancellationException;    // 导入取消异常，导出被取消时抛出
+import java.util.concurrent.atomic.AtomicBoolean;     // 导入AtomicBoolean类，EDT通知导出线程取消
+import java.util.function.Consumer;   // 导入Consumer接口，用于后台任务的结果回调
 import javax.swing.*;                 // 导入Swing包，用于现代图形界面组件
+import javax.swing.filechooser.FileNameExtensionFilter;  // 导入文件扩展名过滤器，用于导出文件选择
 import javax.swing.table.DefaultTableModel;  // 导入表格模型类
 import javax.swing.table.TableCellRenderer;  // 导入表格单元格渲染器接口
+import javax.swing.table.TableRowSorter;     // 导入表格排序器，诊断表格按列排序
 
 /**
  * 职业介绍信息管理系统主类
@@ -54,12 +68,12 @@ public class JobManagementSystem extends JFrame {
     private JTable jobTable, seekerTable, matchingTable, feeTable, categoryTable;
     
     /**
-     * 下拉选择框组件 - 用于选择不同的选项
+     * 下拉选择框组件 - 用于选择不同的选项，每一项都带有数据库ID（ComboItem）
      * categoryComboBox: 职业分类选择框
      * jobComboBox: 职业选择框
      * seekerComboBox: 求职者选择框
      */
-    private JComboBox<String> categoryComboBox, jobComboBox, seekerComboBox;
+    private JComboBox<ComboItem> categoryComboBox, jobComboBox, seekerComboBox;
     
     /**
      * 文本输入框组件 - 用于输入各种信息
@@ -101,6 +115,67 @@ public class JobManagementSystem extends JFrame {
      */
     private JComboBox<String> employedComboBox;
 
+    // ==================== 后台执行相关 ====================
+
+    /**
+     * 选项卡标题和索引
+     * 后台任务按选项卡显示忙碌状态，标题数组的下标即选项卡索引
+     */
+    private static final String[] TAB_TITLES = {"职业分类管理", "职业管理", "求职者管理", "职业匹配", "费用管理", "统计报表", "诊断"};
+    private static final int TAB_CATEGORY = 0, TAB_JOB = 1, TAB_SEEKER = 2, TAB_MATCHING = 3, TAB_FEE = 4, TAB_REPORT = 5,
+            TAB_DIAGNOSTICS = 6;
+
+    /** 诊断选项卡的刷新间隔（毫秒） */
+    private static final int DIAGNOSTICS_REFRESH_MILLIS = 1000;
+
+    /** 是否同时把启动时间线输出到stderr（系统属性jm.startup.report，默认false；诊断选项卡中始终显示） */
+    private static final boolean STARTUP_REPORT_TO_STDERR = Boolean.getBoolean("jm.startup.report");
+
+    /** 诊断选项卡中的启动时间线，初始数据全部加载完成后填入 */
+    private JTextArea startupReportArea;
+
+    /**
+     * 数据库后台执行器 - 所有JDBC操作都在其工作线程中执行，结果回到EDT更新界面
+     */
+    private final DbExecutor dbExecutor = new DbExecutor(DB_WORKER_THREADS);
+
+    /**
+     * 后台工作线程数
+     * 启动时8条初始查询（5张表+3个下拉框）需要同时执行，线程数不应超过连接池最大连接数
+     */
+    private static final int DB_WORKER_THREADS = 8;
+
+    /**
+     * 导入导出执行器 - 导入导出可能持续几分钟，单独使用一个线程，不占用表格刷新的工作线程；多个任务依次执行
+     */
+    private final DbExecutor fileExecutor = new DbExecutor(1);
+
+    /**
+     * 报表缓存 - 报表依赖的表被本终端修改或由增量同步发现修改时失效
+     */
+    private final ReportCache reportCache = new ReportCache();
+
+    /** 职业统计报表依赖的表 */
+    private static final String[] JOB_REPORT_TABLES = {"Job", "JobMatching", "JobCategory"};
+
+    /** 批量匹配预览中列出的配对数 */
+    private static final int BATCH_PREVIEW_ROWS = 200;
+
+    /**
+     * 每个选项卡正在执行的后台任务数，大于0时在选项卡标题上显示忙碌状态
+     */
+    private final int[] busyCounts = new int[TAB_TITLES.length];
+
+    /**
+     * 增量同步器 - 定期读取其他终端修改过的行并合并到表格和下拉框
+     */
+    private final DeltaSync deltaSync = new DeltaSync(dbExecutor);
+
+    /**
+     * 启动时间线 - 记录初始查询和首次可交互时间，全部初始数据加载完成后置为null
+     */
+    private StartupTimeline startupTimeline = new StartupTimeline();
+
     // ==================== 构造函数 ====================
     
     /**
@@ -112,7 +187,9 @@ public class JobManagementSystem extends JFrame {
      * 3. 设置窗口关闭操作为退出程序
      * 4. 将窗口居中显示
      * 5. 创建用户界面
-     * 6. 加载初始数据
+     * 6. 启动增量同步，定期合并其他终端的修改
+     * 7. 加载初始数据（后台并行执行，窗口无需等待数据即可显示）
+     * 8. 在后台检查数据库版本，落后时提示执行迁移
      */
     public JobManagementSystem() {
         super("职业介绍信息管理系统");  // 调用父类构造函数，设置窗口标题
@@ -122,9 +199,27 @@ public class JobManagementSystem extends JFrame {
 
         // 创建用户界面 - 调用createUI方法构建所有界面组件
         createUI();
+        startupTimeline.milestone("界面创建完成");
+
+        // 窗口第一次显示时记录里程碑，用于计算首次可交互时间
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowOpened(java.awt.event.WindowEvent e) {
+                if (startupTimeline != null) {
+                    startupTimeline.milestone(StartupTimeline.WINDOW_SHOWN);
+                    finishStartupIfComplete();
+                }
+            }
+        });
+
+        // 启动增量同步 - 先取得同步水位，之后加载的表格不会漏掉期间其他终端的修改
+        startDeltaSync();
 
         // 加载初始数据 - 从数据库加载各种数据到界面表格中
         loadInitialData();
+
+        // 检查数据库版本 - 只读查询，在后台执行，不阻塞窗口显示
+        checkSchemaVersion();
     }
 
     // ==================== UI创建方法 ====================
@@ -134,7 +229,7 @@ public class JobManagementSystem extends JFrame {
      * 
      * 主要功能：
      * 1. 创建主选项卡面板
-     * 2. 添加6个功能模块的选项卡
+     * 2. 添加7个功能模块的选项卡
      * 3. 将选项卡面板添加到主窗口
      * 
      * 选项卡说明：
@@ -144,19 +239,21 @@ public class JobManagementSystem extends JFrame {
      * - 职业匹配：将求职者与职业进行匹配
      * - 费用管理：管理费用信息
      * - 统计报表：生成各种统计报表
+     * - 诊断：查看数据库操作的耗时统计
      */
     private void createUI() {
         // 创建主选项卡面板 - 用于组织不同的功能模块
         tabbedPane = new JTabbedPane();
 
-        // 添加6个功能模块的选项卡
+        // 添加7个功能模块的选项卡
         // 每个选项卡对应一个功能模块，使用createXXXPanel()方法创建对应的面板
-        tabbedPane.addTab("职业分类管理", createCategoryManagementPanel());  // 第1个选项卡：职业分类管理
-        tabbedPane.addTab("职业管理", createJobManagementPanel());           // 第2个选项卡：职业管理
-        tabbedPane.addTab("求职者管理", createJobSeekerPanel());             // 第3个选项卡：求职者管理
-        tabbedPane.addTab("职业匹配", createMatchingPanel());                // 第4个选项卡：职业匹配
-        tabbedPane.addTab("费用管理", createFeePanel());                     // 第5个选项卡：费用管理
-        tabbedPane.addTab("统计报表", createReportPanel());                  // 第6个选项卡：统计报表
+        tabbedPane.addTab(TAB_TITLES[TAB_CATEGORY], createCategoryManagementPanel());  // 第1个选项卡：职业分类管理
+        tabbedPane.addTab(TAB_TITLES[TAB_JOB], createJobManagementPanel());            // 第2个选项卡：职业管理
+        tabbedPane.addTab(TAB_TITLES[TAB_SEEKER], createJobSeekerPanel());             // 第3个选项卡：求职者管理
+        tabbedPane.addTab(TAB_TITLES[TAB_MATCHING], createMatchingPanel());            // 第4个选项卡：职业匹配
+        tabbedPane.addTab(TAB_TITLES[TAB_FEE], createFeePanel());                      // 第5个选项卡：费用管理
+        tabbedPane.addTab(TAB_TITLES[TAB_REPORT], createReportPanel());                // 第6个选项卡：统计报表
+        tabbedPane.addTab(TAB_TITLES[TAB_DIAGNOSTICS], createDiagnosticsPanel());      // 第7个选项卡：诊断
 
         // 将选项卡面板添加到主窗口 - 作为主窗口的唯一内容组件
         add(tabbedPane);
@@ -241,7 +338,7 @@ public class JobManagementSystem extends JFrame {
 
         // 创建职业分类表格
         categoryTable = new JTable();  // 创建表格组件
-        categoryTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);  // 设置单选模式（一次只能选择一行）
+        categoryTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);  // 设置多选模式（可以一次删除多行）
         categoryTable.setRowHeight(25);  // 设置行高为25像素
         categoryTable.setForeground(Color.BLACK);  // 设置字体颜色为黑色
         
@@ -321,9 +418,8 @@ public class JobManagementSystem extends JFrame {
         formPanel.add(jobIdField);
 
         formPanel.add(new JLabel("职业类型:"));
-        categoryComboBox = new JComboBox<>();
+        categoryComboBox = new JComboBox<>(new ComboItem.Model());
         categoryComboBox.setForeground(Color.BLACK);
-        loadCategories();
         formPanel.add(categoryComboBox);
 
         formPanel.add(new JLabel("用人单位:"));
@@ -357,12 +453,20 @@ public class JobManagementSystem extends JFrame {
         buttonPanel.add(clearButton);
         buttonPanel.add(refreshButton);
 
+        JButton exportButton = createStyledButton("导出", new Color(70, 130, 180));
+        exportButton.addActionListener(e -> exportData(TAB_JOB, TableExporter.JOBS));
+        buttonPanel.add(exportButton);
+
+        JButton importButton = createStyledButton("导入", new Color(70, 130, 180));
+        importButton.addActionListener(e -> importData(TAB_JOB, CsvImporter.Kind.JOBS));
+        buttonPanel.add(importButton);
+
         // 表格面板
         JPanel tablePanel = new JPanel(new BorderLayout());
         tablePanel.setBorder(BorderFactory.createEmptyBorder(25, 0, 0, 0));
 
         jobTable = new JTable();
-        jobTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        jobTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
         jobTable.setRowHeight(25);
         jobTable.setForeground(Color.BLACK);
         JScrollPane scrollPane = new JScrollPane(jobTable);
@@ -386,7 +490,7 @@ public class JobManagementSystem extends JFrame {
                 int row = jobTable.getSelectedRow();
                 if (row >= 0) {
                     jobIdField.setText(jobTable.getValueAt(row, 0).toString());
-                    categoryComboBox.setSelectedItem(jobTable.getValueAt(row, 1).toString());
+                    selectComboItem(categoryComboBox, jobTable.getModel().getValueAt(row, JOB_CATEGORY_ID_COLUMN));
                     employerField.setText(jobTable.getValueAt(row, 2).toString());
                     requiredField.setText(jobTable.getValueAt(row, 3).toString());
                     notesField.setText(jobTable.getValueAt(row, 5).toString());
@@ -455,12 +559,20 @@ public class JobManagementSystem extends JFrame {
         buttonPanel.add(clearButton);
         buttonPanel.add(refreshButton);
 
+        JButton exportButton = createStyledButton("导出", new Color(70, 130, 180));
+        exportButton.addActionListener(e -> exportData(TAB_SEEKER, TableExporter.SEEKERS));
+        buttonPanel.add(exportButton);
+
+        JButton importButton = createStyledButton("导入", new Color(70, 130, 180));
+        importButton.addActionListener(e -> importData(TAB_SEEKER, CsvImporter.Kind.SEEKERS));
+        buttonPanel.add(importButton);
+
         // 表格面板
         JPanel tablePanel = new JPanel(new BorderLayout());
         tablePanel.setBorder(BorderFactory.createEmptyBorder(15, 0, 0, 0));
 
         seekerTable = new JTable();
-        seekerTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        seekerTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
         seekerTable.setRowHeight(25);
         seekerTable.setForeground(Color.BLACK);
         JScrollPane scrollPane = new JScrollPane(seekerTable);
@@ -511,15 +623,13 @@ public class JobManagementSystem extends JFrame {
         formPanel.setBackground(new Color(240, 248, 255));
 
         formPanel.add(new JLabel("选择职业:"));
-        jobComboBox = new JComboBox<>();
+        jobComboBox = new JComboBox<>(new ComboItem.Model());
         jobComboBox.setForeground(Color.BLACK);
-        loadJobs();
         formPanel.add(jobComboBox);
 
         formPanel.add(new JLabel("选择求职者:"));
-        seekerComboBox = new JComboBox<>();
+        seekerComboBox = new JComboBox<>(new ComboItem.Model());
         seekerComboBox.setForeground(Color.BLACK);
-        loadJobSeekers();
         formPanel.add(seekerComboBox);
 
         // 按钮面板
@@ -527,19 +637,25 @@ public class JobManagementSystem extends JFrame {
         buttonPanel.setBackground(new Color(240, 248, 255));
 
         JButton matchButton = createStyledButton("匹配", new Color(70, 130, 180));
+        JButton batchButton = createStyledButton("批量匹配", new Color(70, 130, 180));
         JButton deleteButton = createStyledButton("删除匹配", new Color(205, 92, 92));
         JButton refreshButton = createStyledButton("刷新数据", new Color(143, 188, 143));
 
         buttonPanel.add(matchButton);
+        buttonPanel.add(batchButton);
         buttonPanel.add(deleteButton);
         buttonPanel.add(refreshButton);
 
+        JButton exportButton = createStyledButton("导出", new Color(70, 130, 180));
+        exportButton.addActionListener(e -> exportData(TAB_MATCHING, TableExporter.MATCHINGS));
+        buttonPanel.add(exportButton);
+
         // 表格面板
         JPanel tablePanel = new JPanel(new BorderLayout());
         tablePanel.setBorder(BorderFactory.createEmptyBorder(25, 0, 0, 0));
 
         matchingTable = new JTable();
-        matchingTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        matchingTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
         matchingTable.setRowHeight(25);
         matchingTable.setForeground(Color.BLACK);
         JScrollPane scrollPane = new JScrollPane(matchingTable);
@@ -553,6 +669,7 @@ public class JobManagementSystem extends JFrame {
 
         // 事件处理
         matchButton.addActionListener(e -> matchJobSeeker());
+        batchButton.addActionListener(e -> batchMatch());
         deleteButton.addActionListener(e -> deleteMatching());
         refreshButton.addActionListener(e -> {
             loadMatchingData();
@@ -563,11 +680,9 @@ public class JobManagementSystem extends JFrame {
             if (!event.getValueIsAdjusting()) {
                 int row = matchingTable.getSelectedRow();
                 if (row >= 0) {
-                    String job = matchingTable.getValueAt(row, 1).toString();
-                    String seeker = matchingTable.getValueAt(row, 3).toString();
-
-                    jobComboBox.setSelectedItem(job);
-                    seekerComboBox.setSelectedItem(seeker);
+                    // 按隐藏的ID列选中（已聘用的求职者不在下拉框中，此时求职者下拉框不变）
+                    selectComboItem(jobComboBox, matchingTable.getModel().getValueAt(row, MATCHING_JOB_ID_COLUMN));
+                    selectComboItem(seekerComboBox, matchingTable.getModel().getValueAt(row, MATCHING_SEEKER_ID_COLUMN));
                 }
             }
         });
@@ -630,6 +745,10 @@ public class JobManagementSystem extends JFrame {
         buttonPanel.add(deleteButton);
         buttonPanel.add(clearButton);
         buttonPanel.add(refreshButton);
+
+        JButton exportButton = createStyledButton("导出", new Color(70, 130, 180));
+        exportButton.addActionListener(e -> exportData(TAB_FEE, TableExporter.FEES));
+        buttonPanel.add(exportButton);
     
         // 表格面板
         JPanel tablePanel = new JPanel(new BorderLayout());
@@ -647,13 +766,12 @@ public class JobManagementSystem extends JFrame {
         };
     
         feeTable = new JTable(feeTableModel);
-        feeTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        feeTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
         feeTable.setRowHeight(30);
         feeTable.setForeground(Color.BLACK);
     
         // 添加删除按钮列
-        feeTable.getColumnModel().getColumn(feeTable.getColumnCount() - 1).setCellRenderer(new ButtonRenderer());
-        feeTable.getColumnModel().getColumn(feeTable.getColumnCount() - 1).setCellEditor(new ButtonEditor(new JCheckBox()));
+        installFeeButtonColumn();
     
         JScrollPane scrollPane = new JScrollPane(feeTable);
         scrollPane.setBorder(BorderFactory.createTitledBorder("费用记录"));
@@ -689,6 +807,14 @@ public class JobManagementSystem extends JFrame {
         return panel;
     }
 
+    /**
+     * 为费用表格的最后一列（操作列）安装删除按钮的渲染器和编辑器
+     */
+    private void installFeeButtonColumn() {
+        feeTable.getColumnModel().getColumn(feeTable.getColumnCount() - 1).setCellRenderer(new ButtonRenderer());
+        feeTable.getColumnModel().getColumn(feeTable.getColumnCount() - 1).setCellEditor(new ButtonEditor(new JCheckBox()));
+    }
+
     private JPanel createReportPanel() {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
@@ -709,25 +835,33 @@ public class JobManagementSystem extends JFrame {
         JScrollPane jobScrollPane = new JScrollPane(jobReportArea);
         jobScrollPane.setBorder(BorderFactory.createTitledBorder("职业需求统计"));
 
+        JLabel jobCacheLabel = new JLabel(" ");  // 报表数据的时间（刚刚查询或缓存时间）
+
         JButton jobReportButton = createStyledButton("生成职业统计报表", new Color(70, 130, 180));
-        jobReportButton.addActionListener(e -> {
-            String report = generateJobReport();
-            jobReportArea.setText(report);
-        });
+        jobReportButton.addActionListener(e -> showJobReport(jobReportArea, jobCacheLabel));
+
+        JButton jobExportButton = createStyledButton("导出职业统计", new Color(70, 130, 180));
+        jobExportButton.addActionListener(e -> exportData(TAB_REPORT, TableExporter.JOB_STATS));
+
+        JButton rebuildStatsButton = createStyledButton("重建统计", new Color(169, 169, 169));
+        rebuildStatsButton.addActionListener(e -> rebuildJobStats(jobReportArea, jobCacheLabel));
 
         JPanel jobButtonPanel = new JPanel();
         jobButtonPanel.setBackground(new Color(253, 245, 230));
         jobButtonPanel.add(jobReportButton);
+        jobButtonPanel.add(jobExportButton);
+        jobButtonPanel.add(rebuildStatsButton);
+        jobButtonPanel.add(jobCacheLabel);
 
         jobStatsPanel.add(jobScrollPane, BorderLayout.CENTER);
         jobStatsPanel.add(jobButtonPanel, BorderLayout.SOUTH);
 
-        // 费用统计报表
+        // 费用统计报表：合计由数据库计算，明细分页显示，完整报表导出到文件
         JPanel feeStatsPanel = new JPanel(new BorderLayout(10, 10));
         feeStatsPanel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
         feeStatsPanel.setBackground(new Color(253, 245, 230));
 
-        JTextArea feeReportArea = new JTextArea();
+        JTextArea feeReportArea = new JTextArea(7, 40);
         feeReportArea.setEditable(false);
         feeReportArea.setFont(new Font("Monospaced", Font.PLAIN, 14));
         feeReportArea.setForeground(Color.BLACK);
@@ -735,17 +869,26 @@ public class JobManagementSystem extends JFrame {
         JScrollPane feeScrollPane = new JScrollPane(feeReportArea);
         feeScrollPane.setBorder(BorderFactory.createTitledBorder("费用收支统计"));
 
+        JTable feeDetailTable = new JTable();
+        JScrollPane feeDetailScrollPane = new JScrollPane(feeDetailTable);
+        feeDetailScrollPane.setBorder(BorderFactory.createTitledBorder("费用明细"));
+
+        JLabel feeCacheLabel = new JLabel(" ");
+
         JButton feeReportButton = createStyledButton("生成费用统计报表", new Color(70, 130, 180));
-        feeReportButton.addActionListener(e -> {
-            String report = generateFeeReport();
-            feeReportArea.setText(report);
-        });
+        feeReportButton.addActionListener(e -> generateFeeReport(feeReportArea, feeCacheLabel, feeDetailTable));
+
+        JButton feeExportButton = createStyledButton("导出费用报表", new Color(70, 130, 180));
+        feeExportButton.addActionListener(e -> exportFeeReport());
 
         JPanel feeButtonPanel = new JPanel();
         feeButtonPanel.setBackground(new Color(253, 245, 230));
         feeButtonPanel.add(feeReportButton);
+        feeButtonPanel.add(feeExportButton);
+        feeButtonPanel.add(feeCacheLabel);
 
-        feeStatsPanel.add(feeScrollPane, BorderLayout.CENTER);
+        feeStatsPanel.add(feeScrollPane, BorderLayout.NORTH);
+        feeStatsPanel.add(feeDetailScrollPane, BorderLayout.CENTER);
         feeStatsPanel.add(feeButtonPanel, BorderLayout.SOUTH);
 
         // 添加选项卡
@@ -756,6 +899,70 @@ public class JobManagementSystem extends JFrame {
         return panel;
     }
 
+    /**
+     * 创建诊断面板
+     *
+     * 表格中每条SQL一行（DiagnosticsTableModel），默认按累计耗时降序排列，鼠标悬停显示完整SQL；
+     * 上方显示借出连接的耗时分位数和连接池状态。
+     * 统计只在选项卡可见时每秒读取一次，其他选项卡上操作时不增加开销。
+     */
+    private JPanel createDiagnosticsPanel() {
+        JPanel panel = new JPanel(new BorderLayout(10, 10));
+        panel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+
+        DiagnosticsTableModel model = new DiagnosticsTableModel();
+        JTable table = new JTable(model) {
+            @Override
+            public String getToolTipText(java.awt.event.MouseEvent event) {
+                int row = rowAtPoint(event.getPoint());
+                return row < 0 ? null : model.sqlAt(convertRowIndexToModel(row));
+            }
+        };
+        TableRowSorter<DiagnosticsTableModel> sorter = new TableRowSorter<>(model);
+        sorter.setSortsOnUpdates(true);
+        sorter.setSortKeys(List.of(new RowSorter.SortKey(DiagnosticsTableModel.TOTAL_COLUMN, SortOrder.DESCENDING)));
+        table.setRowSorter(sorter);
+        table.getColumnModel().getColumn(0).setPreferredWidth(420);
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setBorder(BorderFactory.createTitledBorder("数据库操作（自程序启动起累计）"));
+
+        startupReportArea = new JTextArea("启动中……", 8, 80);
+        startupReportArea.setEditable(false);
+        startupReportArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        JScrollPane startupPane = new JScrollPane(startupReportArea);
+        startupPane.setBorder(BorderFactory.createTitledBorder("启动时间线"));
+
+        JLabel acquireLabel = new JLabel(" ");
+        JLabel poolLabel = new JLabel(" ");
+        JPanel summaryPanel = new JPanel(new GridLayout(2, 1));
+        summaryPanel.add(acquireLabel);
+        summaryPanel.add(poolLabel);
+
+        Runnable refresh = () -> {
+            model.refresh();
+            acquireLabel.setText("借出连接: " + DbMetrics.ACQUIRE.snapshot());
+            poolLabel.setText(DBConnector.getPoolStats().toString());
+        };
+        Timer timer = new Timer(DIAGNOSTICS_REFRESH_MILLIS, e -> {
+            if (panel.isShowing()) {
+                refresh.run();
+            }
+        });
+        timer.start();
+        // 切换到诊断选项卡时立即刷新，不等下一次定时器
+        panel.addComponentListener(new java.awt.event.ComponentAdapter() {
+            @Override
+            public void componentShown(java.awt.event.ComponentEvent e) {
+                refresh.run();
+            }
+        });
+
+        panel.add(summaryPanel, BorderLayout.NORTH);
+        panel.add(scrollPane, BorderLayout.CENTER);
+        panel.add(startupPane, BorderLayout.SOUTH);
+        return panel;
+    }
+
     // ==================== 数据库操作方法 ====================
     
     /**
@@ -768,15 +975,115 @@ public class JobManagementSystem extends JFrame {
      * 3. 求职者数据 - 用于求职者管理页面
      * 4. 匹配数据 - 用于职业匹配页面
      * 5. 费用数据 - 用于费用管理页面
+     * 6. 下拉框数据 - 职业分类、职业、未聘用求职者
+     * 
+     * 并行启动：
+     * - 8条查询同时提交到后台线程，各自从连接池借用独立的连接并行执行
+     * - 方法立即返回，窗口先显示“正在加载”占位表格，每个选项卡在结果到达时填充
+     * - 每个选项卡声明它依赖的查询，全部到达即就绪；默认显示的职业分类选项卡就绪
+     *   且窗口已显示的时刻记为首次可交互时间
+     * - 全部完成后在控制台输出启动时间线
      * 
      * 调用时机：构造函数中，在创建UI之后
      */
     private void loadInitialData() {
-        loadCategoryData();    // 加载职业分类数据
+        // 先放置占位表格，数据到达后被替换
+        for (JTable table : new JTable[]{categoryTable, jobTable, seekerTable, matchingTable}) {
+            table.setModel(createPlaceholderModel());
+        }
+
+        // 声明启动期间追踪的查询，以及每个选项卡就绪所依赖的查询
+        String[] keys = {"categoryTable", "jobTable", "seekerTable", "matchingTable", "feeTable",
+                "categoryComboBox", "jobComboBox", "seekerComboBox"};
+        for (String key : keys) {
+            startupTimeline.expect(key);
+        }
+        startupTimeline.dependsOn(TAB_TITLES[TAB_CATEGORY], "categoryTable");
+        startupTimeline.dependsOn(TAB_TITLES[TAB_JOB], "jobTable", "categoryComboBox");
+        startupTimeline.dependsOn(TAB_TITLES[TAB_SEEKER], "seekerTable");
+        startupTimeline.dependsOn(TAB_TITLES[TAB_MATCHING], "matchingTable", "jobComboBox", "seekerComboBox");
+        startupTimeline.dependsOn(TAB_TITLES[TAB_FEE], "feeTable");
+        startupTimeline.interactiveWhen(TAB_TITLES[TAB_CATEGORY]);
+
+        loadCategoryData();    // 加载职业分类数据（默认显示的选项卡，最先提交）
         loadJobData();         // 加载职业数据
         loadSeekerData();      // 加载求职者数据
         loadMatchingData();    // 加载匹配数据
         loadFeeData();         // 加载费用数据
+        loadCategories();      // 加载职业分类下拉框
+        loadJobs();            // 加载职业下拉框
+        loadJobSeekers();      // 加载求职者下拉框
+    }
+
+    /**
+     * 登记需要增量同步的表格并启动同步
+     * 表有变化时清空对应的实体缓存和依赖它的报表缓存，并刷新依赖它的下拉框；匹配表和费用表没有对应的下拉框
+     */
+    private void startDeltaSync() {
+        deltaSync.track("JobCategory", "category_id", CATEGORY_SPEC, categoryTable, this::loadCategoryData, () -> {
+            ReferenceData.CATEGORIES.invalidateAll();
+            reportCache.invalidate("JobCategory");
+            loadCategories();
+        });
+        deltaSync.track("Job", "job_id", JOB_SPEC, jobTable, this::loadJobData, () -> {
+            ReferenceData.JOBS.invalidateAll();
+            reportCache.invalidate("Job");
+            loadJobs();
+        });
+        deltaSync.track("JobSeeker", "seeker_id", SEEKER_SPEC, seekerTable, this::loadSeekerData,
+                this::loadJobSeekers);
+        deltaSync.track("JobMatching", "match_id", MATCHING_SPEC, matchingTable, this::loadMatchingData,
+                () -> reportCache.invalidate("JobMatching"));
+        deltaSync.track("Fee", "fee_id", FEE_SPEC, feeTable, this::loadFeeData, () -> reportCache.invalidate("Fee"));
+        deltaSync.start();
+    }
+
+    /**
+     * 创建“正在加载”占位表格模型
+     */
+    private static DefaultTableModel createPlaceholderModel() {
+        return new DefaultTableModel(new Object[][]{{"正在加载…"}}, new Object[]{"状态"}) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 检查数据库结构版本，低于当前代码需要的版本时提示管理员执行迁移
+     * 界面不自动迁移（迁移可能长时间锁表），旧表结构下界面仍可使用（增量同步会自动停用）
+     */
+    private void checkSchemaVersion() {
+        dbExecutor.submit(null, SchemaMigrator::currentVersion, version -> {
+            if (version < SchemaMigrator.latestVersion()) {
+                JOptionPane.showMessageDialog(this,
+                    "数据库结构版本为 " + version + "，当前程序需要版本 " + SchemaMigrator.latestVersion() + "。\n" +
+                    "部分功能可能不可用或较慢，请由管理员执行 “java JobCli migrate” 升级数据库。",
+                    "提示",
+                    JOptionPane.WARNING_MESSAGE);
+            }
+        }, e -> System.err.println("检查数据库版本失败: " + e.getMessage()), null);
+    }
+
+    /**
+     * 初始数据全部加载完成后在诊断选项卡中显示启动时间线并停止追踪（EDT调用）
+     */
+    private void finishStartupIfComplete() {
+        if (startupTimeline != null && startupTimeline.isComplete() && isShowing()) {
+            String report = startupTimeline.report();
+            startupReportArea.setText(report);
+            startupReportArea.setCaretPosition(0);
+            if (STARTUP_REPORT_TO_STDERR) {
+                System.err.println(report);
+            }
+            startupTimeline = null;
+
+            // 启动完成后再注册JMX统计（加载JMX类需要几十毫秒，不计入启动时间）
+            Thread jmx = new Thread(DbMetrics::registerJmx, "jmx-register");
+            jmx.setDaemon(true);
+            jmx.start();
+        }
     }
 
     /**
@@ -794,20 +1101,12 @@ public class JobManagementSystem extends JFrame {
      * - 如果SQL执行失败，显示具体的错误信息
      */
     private void loadCategoryData() {
-        try (Connection conn = DBConnector.getConnection();  // 获取数据库连接
-             Statement stmt = conn.createStatement();        // 创建SQL语句对象
-             ResultSet rs = stmt.executeQuery("SELECT category_id, category_name FROM JobCategory")) {  // 执行查询
-
-            // 将查询结果设置为表格的数据模型
-            categoryTable.setModel(buildTableModel(rs));
-            
-        } catch (SQLException e) {
-            // 捕获SQL异常，显示用户友好的错误信息
-            JOptionPane.showMessageDialog(this, 
-                "加载职业分类数据失败: " + e.getMessage(), 
-                "错误", 
-                JOptionPane.ERROR_MESSAGE);
-        }
+        runInBackground(TAB_CATEGORY, "categoryTable",
+                // 在后台线程中打开分页模型（与其他表格相同，便于增删改后按行打补丁）
+                () -> PagedTableModel.open(CATEGORY_SPEC, dbExecutor),
+                // 回到EDT后将查询结果设置为表格的数据模型
+                categoryTable::setModel,
+                "加载职业分类数据失败: ");
     }
 
     /**
@@ -818,8 +1117,8 @@ public class JobManagementSystem extends JFrame {
      * 操作流程：
      * 1. 获取用户输入的分类名称
      * 2. 验证输入不为空
-     * 3. 执行INSERT SQL语句
-     * 4. 刷新分类列表
+     * 3. 执行INSERT SQL语句，取得自增主键并读取新行
+     * 4. 把新行插入分类表格（不重新加载整张表）
      * 5. 清空表单
      * 6. 更新职业管理页面的分类下拉框
      * 
@@ -832,40 +1131,33 @@ public class JobManagementSystem extends JFrame {
      * - 输入验证失败：显示警告对话框
      */
     private void addCategory() {
-        try (Connection conn = DBConnector.getConnection()) {  // 获取数据库连接
-            // 获取用户输入的分类名称，并去除首尾空格
-            String categoryName = categoryNameField.getText().trim();
-            
-            // 验证输入不为空
-            if (categoryName.isEmpty()) {
-                JOptionPane.showMessageDialog(this, 
-                    "请输入分类名称", 
-                    "提示", 
-                    JOptionPane.WARNING_MESSAGE);
-                return;  // 输入为空，直接返回
-            }
+        // 获取用户输入的分类名称，并去除首尾空格
+        String categoryName = categoryNameField.getText().trim();
 
-            // 准备INSERT SQL语句，使用参数化查询防止SQL注入
-            String sql = "INSERT INTO JobCategory (category_name) VALUES (?)";
-            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, categoryName);  // 设置第一个参数为分类名称
-                pstmt.executeUpdate();              // 执行插入操作
-                
-                // 插入成功，显示成功消息
-                JOptionPane.showMessageDialog(this, "职业分类添加成功！");
-                
-                // 刷新相关数据
-                loadCategoryData();     // 重新加载分类列表
-                clearCategoryFields();  // 清空表单
-                loadCategories();       // 刷新职业管理页面的分类下拉框
-            }
-        } catch (SQLException e) {
-            // 捕获SQL异常，显示错误信息
+        // 验证输入不为空
+        if (categoryName.isEmpty()) {
             JOptionPane.showMessageDialog(this, 
-                "添加职业分类失败: " + e.getMessage(), 
-                "错误", 
-                JOptionPane.ERROR_MESSAGE);
+                "请输入分类名称", 
+                "提示", 
+                JOptionPane.WARNING_MESSAGE);
+            return;  // 输入为空，直接返回
         }
+
+        runInBackground(TAB_CATEGORY, null, () -> {
+            try (Connection conn = DBConnector.getConnection()) {  // 获取数据库连接
+                int categoryId = CategoryDao.insert(conn, categoryName);  // 执行插入操作，返回自增主键
+                ReferenceData.CATEGORIES.invalidateAll();  // 分类列表已变化
+                return PagedTableModel.RowPatch.inserted(conn, CATEGORY_SPEC, categoryId);
+            }
+        }, patch -> {
+            // 插入成功，显示成功消息
+            JOptionPane.showMessageDialog(this, "职业分类添加成功！");
+
+            // 刷新相关数据
+            applyPatch(categoryTable, patch);  // 把新行插入分类表格
+            clearCategoryFields();  // 清空表单
+            loadCategories();       // 刷新职业管理页面的分类下拉框
+        }, "添加职业分类失败: ");
     }
 
     /**
@@ -877,9 +1169,9 @@ public class JobManagementSystem extends JFrame {
      * 1. 验证是否选择了要更新的分类
      * 2. 获取分类ID和新的分类名称
      * 3. 验证输入不为空
-     * 4. 执行UPDATE SQL语句
+     * 4. 执行UPDATE SQL语句，并按主键重新读取该行
      * 5. 检查更新结果
-     * 6. 刷新相关数据
+     * 6. 替换表格中的该行，刷新下拉框
      * 
      * 数据验证：
      * - 必须选择要更新的分类（分类ID不为空）
@@ -899,148 +1191,80 @@ public class JobManagementSystem extends JFrame {
             return;
         }
 
-        try (Connection conn = DBConnector.getConnection()) {  // 获取数据库连接
+        final int categoryId;
+        try {
             // 解析分类ID（字符串转整数）
-            int categoryId = Integer.parseInt(categoryIdField.getText());
-            // 获取新的分类名称，并去除首尾空格
-            String categoryName = categoryNameField.getText().trim();
-            
-            // 验证新的分类名称不为空
-            if (categoryName.isEmpty()) {
-                JOptionPane.showMessageDialog(this, 
-                    "请输入分类名称", 
-                    "提示", 
-                    JOptionPane.WARNING_MESSAGE);
-                return;
-            }
-
-            // 准备UPDATE SQL语句
-            String sql = "UPDATE JobCategory SET category_name = ? WHERE category_id = ?";
-            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, categoryName);  // 设置新的分类名称
-                pstmt.setInt(2, categoryId);       // 设置分类ID
-                int rows = pstmt.executeUpdate();  // 执行更新操作，返回受影响的行数
-
-                // 检查更新结果
-                if (rows > 0) {
-                    // 更新成功
-                    JOptionPane.showMessageDialog(this, "职业分类更新成功！");
-                    loadCategoryData();     // 重新加载分类列表
-                    clearCategoryFields();  // 清空表单
-                    loadCategories();       // 刷新职业管理页面的分类下拉框
-                } else {
-                    // 没有记录被更新（可能记录已被删除）
-                    JOptionPane.showMessageDialog(this, 
-                        "更新失败，记录可能已被删除", 
-                        "错误", 
-                        JOptionPane.ERROR_MESSAGE);
-                }
-            }
+            categoryId = Integer.parseInt(categoryIdField.getText());
         } catch (NumberFormatException e) {
             // 分类ID格式错误
             JOptionPane.showMessageDialog(this, 
                 "无效的分类ID", 
                 "错误", 
                 JOptionPane.ERROR_MESSAGE);
-        } catch (SQLException e) {
-            // 数据库操作失败
-            JOptionPane.showMessageDialog(this, 
-                "更新职业分类失败: " + e.getMessage(), 
-                "错误", 
-                JOptionPane.ERROR_MESSAGE);
+            return;
         }
-    }
+        // 获取新的分类名称，并去除首尾空格
+        String categoryName = categoryNameField.getText().trim();
 
-    /**
-     * 删除职业分类
-     * 
-     * 删除用户选择的职业分类记录，但会先检查是否有关联的职业记录。
-     * 
-     * 安全机制：
-     * 1. 删除前会检查该分类下是否有职业记录
-     * 2. 如果有职业记录，会阻止删除并提示用户
-     * 3. 用户需要先删除相关职业记录才能删除分类
-     * 
-     * 操作流程：
-     * 1. 验证是否选择了要删除的分类
-     * 2. 显示确认对话框
-     * 3. 检查是否有关联的职业记录
-     * 4. 执行DELETE SQL语句
-     * 5. 刷新相关数据
-     * 
-     * 数据完整性保护：
-     * - 防止删除有外键引用的分类
-     * - 维护数据库的引用完整性
-     */
-    private void deleteCategory() {
-        // 验证是否选择了要删除的分类
-        if (categoryIdField.getText().isEmpty()) {
+        // 验证新的分类名称不为空
+        if (categoryName.isEmpty()) {
             JOptionPane.showMessageDialog(this, 
-                "请选择要删除的职业分类", 
+                "请输入分类名称", 
                 "提示", 
                 JOptionPane.WARNING_MESSAGE);
             return;
         }
 
-        // 显示确认对话框，提醒用户删除操作的后果
-        int confirm = JOptionPane.showConfirmDialog(this, 
-            "确定要删除这个职业分类吗？\n注意：删除分类可能会影响相关的职业记录。", 
-            "确认删除", 
-            JOptionPane.YES_NO_OPTION);
-            
-        if (confirm == JOptionPane.YES_OPTION) {  // 用户确认删除
+        runInBackground(TAB_CATEGORY, null, () -> {
             try (Connection conn = DBConnector.getConnection()) {  // 获取数据库连接
-                int categoryId = Integer.parseInt(categoryIdField.getText());  // 解析分类ID
-                
-                // ==================== 安全检查：检查是否有职业使用此分类 ====================
-                try (PreparedStatement checkStmt = conn.prepareStatement(
-                        "SELECT COUNT(*) FROM Job WHERE category_id = ?")) {
-                    checkStmt.setInt(1, categoryId);  // 设置分类ID参数
-                    ResultSet rs = checkStmt.executeQuery();  // 执行查询
-                    if (rs.next() && rs.getInt(1) > 0) {  // 如果有职业记录使用此分类
-                        JOptionPane.showMessageDialog(this, 
-                            "无法删除：该分类下还有职业记录，请先删除相关职业", 
-                            "错误", 
-                            JOptionPane.ERROR_MESSAGE);
-                        return;  // 阻止删除操作
-                    }
-                }
-
-                // ==================== 执行删除操作 ====================
-                String sql = "DELETE FROM JobCategory WHERE category_id = ?";
-                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                    pstmt.setInt(1, categoryId);  // 设置分类ID参数
-                    int rows = pstmt.executeUpdate();  // 执行删除操作
-
-                    // 检查删除结果
-                    if (rows > 0) {
-                        // 删除成功
-                        JOptionPane.showMessageDialog(this, "职业分类删除成功！");
-                        loadCategoryData();     // 重新加载分类列表
-                        clearCategoryFields();  // 清空表单
-                        loadCategories();       // 刷新职业管理页面的分类下拉框
-                    } else {
-                        // 没有记录被删除
-                        JOptionPane.showMessageDialog(this, 
-                            "删除失败，记录可能已被删除", 
-                            "错误", 
-                            JOptionPane.ERROR_MESSAGE);
-                    }
-                }
-            } catch (NumberFormatException e) {
-                // 分类ID格式错误
-                JOptionPane.showMessageDialog(this, 
-                    "无效的分类ID", 
-                    "错误", 
-                    JOptionPane.ERROR_MESSAGE);
-            } catch (SQLException e) {
-                // 数据库操作失败
+                CategoryDao.update(conn, categoryId, categoryName);  // 执行更新操作
+                ReferenceData.CATEGORIES.invalidateAll();  // 使缓存中的旧名称失效
+                reportCache.invalidate("JobCategory");             // 职业统计报表中的分类名称
+                return PagedTableModel.RowPatch.updated(conn, CATEGORY_SPEC, categoryId);  // 重新读取该行
+            }
+        }, patch -> {
+            applyPatch(categoryTable, patch);  // 替换表格中的该行（记录已不存在时移除该行）
+            // 检查更新结果
+            if (patch.rowExists()) {
+                // 更新成功
+                JOptionPane.showMessageDialog(this, "职业分类更新成功！");
+                clearCategoryFields();  // 清空表单
+                loadCategories();       // 刷新职业管理页面的分类下拉框
+            } else {
+                // 没有记录被更新（可能记录已被删除）
                 JOptionPane.showMessageDialog(this, 
-                    "删除职业分类失败: " + e.getMessage(), 
+                    "更新失败，记录可能已被删除", 
                     "错误", 
                     JOptionPane.ERROR_MESSAGE);
             }
-        }
+        }, "更新职业分类失败: ");
+    }
+
+    /**
+     * 删除职业分类
+     *
+     * 删除表格中选中的全部职业分类（可以多选），但会先检查是否有关联的职业记录。
+     *
+     * 安全机制：
+     * 1. 删除前用一次查询检查选中的分类中哪些还有职业记录
+     * 2. 只要有一个分类还有职业记录，整批都不删除并提示用户
+     * 3. 用户需要先删除相关职业记录才能删除分类
+     *
+     * 数据完整性保护：
+     * - 检查和删除在同一个事务中，分类行已锁定
+     * - 防止删除有外键引用的分类
+     */
+    private void deleteCategory() {
+        deleteRows(TAB_CATEGORY, categoryTable, CATEGORY_SPEC, "职业分类", selectedKeys(categoryTable),
+                (conn, keys) -> {
+                    Dao.Deleted deleted = CategoryDao.deleteAll(conn, keys);
+                    ReferenceData.CATEGORIES.invalidateAll();
+                    reportCache.invalidate("JobCategory");
+                    return deleted;
+                }, "下还有职业记录，请先删除相关职业", deleted -> {
+                    clearCategoryFields();  // 清空表单
+                    loadCategories();       // 刷新职业管理页面的分类下拉框
+                });
     }
 
     /**
@@ -1061,263 +1285,378 @@ public class JobManagementSystem extends JFrame {
     }
 
     private void loadCategories() {
-        try (Connection conn = DBConnector.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT * FROM JobCategory")) {
-
-            categoryComboBox.removeAllItems();
-            while (rs.next()) {
-                categoryComboBox.addItem(rs.getString("category_name"));
+        runInBackground(TAB_JOB, "categoryComboBox", () -> {
+            // 分类列表来自缓存，未命中时才读取数据库
+            List<ComboItem> items = new ArrayList<>();
+            for (ReferenceData.Category category : ReferenceData.CATEGORIES.all(null)) {
+                items.add(new ComboItem(category.id, category.name));
             }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "加载职业分类失败: " + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
-        }
+            return ComboItem.disambiguate(items);
+        }, items -> fillComboBox(categoryComboBox, items), "加载职业分类失败: ");
     }
 
     private void loadJobs() {
-        try (Connection conn = DBConnector.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT job_id, employer FROM Job")) {
-
-            jobComboBox.removeAllItems();
-            while (rs.next()) {
-                jobComboBox.addItem(rs.getString("employer"));
+        runInBackground(TAB_MATCHING, "jobComboBox", () -> {
+            // 职业列表来自缓存，未命中时才读取数据库
+            List<ComboItem> items = new ArrayList<>();
+            for (ReferenceData.Job job : ReferenceData.JOBS.all(null)) {
+                items.add(new ComboItem(job.id, job.employer));
             }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "加载职业列表失败: " + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
-        }
+            return ComboItem.disambiguate(items);
+        }, items -> fillComboBox(jobComboBox, items), "加载职业列表失败: ");
     }
 
     private void loadJobSeekers() {
-        try (Connection conn = DBConnector.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT seeker_id, name FROM JobSeeker WHERE employed = false")) {
+        runInBackground(TAB_MATCHING, "seekerComboBox",
+                () -> {
+                    List<ReferenceData.Seeker> seekers;
+                    try (Connection conn = DBConnector.getConnection()) {
+                        seekers = SeekerDao.unemployed(conn);
+                    }
+                    List<ComboItem> items = new ArrayList<>(seekers.size());
+                    for (ReferenceData.Seeker seeker : seekers) {
+                        items.add(new ComboItem(seeker.id, seeker.name));
+                    }
+                    return ComboItem.disambiguate(items);
+                },
+                items -> fillComboBox(seekerComboBox, items),
+                "加载求职者列表失败: ");
+    }
 
-            seekerComboBox.removeAllItems();
-            while (rs.next()) {
-                seekerComboBox.addItem(rs.getString("name"));
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "加载求职者列表失败: " + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
-        }
+    /**
+     * 用后台查询的结果替换下拉框内容（EDT调用）
+     * 原来选中的记录仍然存在时保持选中，增量同步定期刷新下拉框时不会打断用户的选择
+     */
+    private static void fillComboBox(JComboBox<ComboItem> comboBox, List<ComboItem> items) {
+        ((ComboItem.Model) comboBox.getModel()).setItems(items);
     }
 
-    private void loadJobData() {
-        try (Connection conn = DBConnector.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT j.job_id, c.category_name, j.employer, " +
-                     "j.required_count, j.hired_count, j.notes " +
-                     "FROM Job j JOIN JobCategory c ON j.category_id = c.category_id")) {
-
-            jobTable.setModel(buildTableModel(rs));
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "加载职业数据失败: " + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
+    /**
+     * 按表格隐藏列中的ID选中下拉框选项（EDT调用）
+     *
+     * @param comboBox 下拉框
+     * @param id 表格单元格的值，所在页面尚未加载时是占位符，此时不改变选择
+     */
+    private static void selectComboItem(JComboBox<ComboItem> comboBox, Object id) {
+        if (id instanceof Number) {
+            ((ComboItem.Model) comboBox.getModel()).selectId(((Number) id).intValue());
         }
     }
 
-    private void loadSeekerData() {
-        try (Connection conn = DBConnector.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT seeker_id, name, gender, employed FROM JobSeeker")) {
+    // ==================== 分页表格定义 ====================
+
+    /**
+     * 所有表格都使用分页懒加载模型，按主键键集分页，只读取滚动到的页面；
+     * 增删改后按主键读取单行补丁应用到模型（见applyPatch）
+     * 主键必须是第一列，from子句中不能包含WHERE
+     */
+    static final PagedTableModel.Spec CATEGORY_SPEC = new PagedTableModel.Spec(
+            "category_id, category_name", "JobCategory", "category_id");
+    static final PagedTableModel.Spec JOB_SPEC = new PagedTableModel.Spec(
+            "j.job_id, c.category_name, j.employer, j.required_count, j.hired_count, j.notes, j.category_id",
+            "Job j JOIN JobCategory c ON j.category_id = c.category_id",
+            "j.job_id");
+    static final PagedTableModel.Spec SEEKER_SPEC = new PagedTableModel.Spec(
+            "seeker_id, name, gender, employed", "JobSeeker", "seeker_id");
+    static final PagedTableModel.Spec MATCHING_SPEC = new PagedTableModel.Spec(
+            "m.match_id, j.employer AS job, s.name AS seeker, m.job_id, m.seeker_id",
+            "JobMatching m JOIN Job j ON m.job_id = j.job_id JOIN JobSeeker s ON m.seeker_id = s.seeker_id",
+            "m.match_id");
+    static final PagedTableModel.Spec FEE_SPEC = new PagedTableModel.Spec(
+            "fee_id, employer_name, employer_fee, seeker_name, seeker_fee", "Fee", "fee_id")
+            .withActionColumn("操作", "删除");  // 添加删除按钮列
 
-            seekerTable.setModel(buildTableModel(rs));
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "加载求职者数据失败: " + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
+    /**
+     * 隐藏的ID列（模型中的列号）：不显示在表格中，选中行时用于按ID同步下拉框
+     */
+    private static final int JOB_CATEGORY_ID_COLUMN = 6;
+    private static final int MATCHING_JOB_ID_COLUMN = 3, MATCHING_SEEKER_ID_COLUMN = 4;
+
+    /**
+     * 把后台读取的单行补丁应用到表格的分页模型（EDT调用）
+     * 表格仍是启动占位模型时忽略，模型加载完成后自然包含最新数据
+     */
+    private static void applyPatch(JTable table, PagedTableModel.RowPatch patch) {
+        if (patch != null && table.getModel() instanceof PagedTableModel) {
+            ((PagedTableModel) table.getModel()).apply(patch);
         }
     }
 
-    private void loadMatchingData() {
-        try (Connection conn = DBConnector.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT m.match_id, j.employer AS job, s.name AS seeker " +
-                     "FROM JobMatching m " +
-                     "JOIN Job j ON m.job_id = j.job_id " +
-                     "JOIN JobSeeker s ON m.seeker_id = s.seeker_id")) {
-
-            matchingTable.setModel(buildTableModel(rs));
-        } catch (SQLException e) {
-            // 修复这里的错误：将"极"改为"+"
-            JOptionPane.showMessageDialog(this, "加载匹配数据失败: " + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
+    /**
+     * 把一组补丁一次应用到表格的分页模型，只刷新一次表格（EDT调用）
+     */
+    private static void applyPatches(JTable table, List<PagedTableModel.RowPatch> patches) {
+        if (!patches.isEmpty() && table.getModel() instanceof PagedTableModel) {
+            ((PagedTableModel) table.getModel()).apply(patches);
         }
     }
 
-    private void loadFeeData() {
-        try (Connection conn = DBConnector.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT * FROM Fee")) {
-
-            // 构建基础表格模型
-            DefaultTableModel model = buildTableModel(rs);
+    /**
+     * 批量删除任务（后台线程调用）：在一个事务中删除给定主键，并使相关缓存失效
+     */
+    @FunctionalInterface
+    private interface DeleteTask {
+        Dao.Deleted delete(Connection conn, int[] keys) throws SQLException;
+    }
 
-            // 添加删除按钮列
-            model.addColumn("操作");
-            for (int i = 0; i < model.getRowCount(); i++) {
-                model.setValueAt("删除", i, model.getColumnCount() - 1);
+    /**
+     * 表格中选中行的主键（表格允许多选）
+     *
+     * @return 主键，没有选中行时长度为0；有选中行所在的页面尚未加载时返回null
+     */
+    private static int[] selectedKeys(JTable table) {
+        if (!(table.getModel() instanceof PagedTableModel)) {
+            return new int[0];  // 仍是启动占位模型
+        }
+        PagedTableModel model = (PagedTableModel) table.getModel();
+        int[] rows = table.getSelectedRows();
+        int[] keys = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            keys[i] = model.getKey(table.convertRowIndexToModel(rows[i]));
+            if (keys[i] < 0) {
+                return null;
             }
-
-            feeTable.setModel(model);
-        } catch (SQLException e) {
-            // 修复这里的错误：将"极"改为"+"
-            JOptionPane.showMessageDialog(this, "加载费用数据失败: " + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
         }
+        return keys;
     }
 
     /**
-     * 添加职业信息
+     * 批量删除（EDT调用）
      *
-     * 从表单获取用户输入，插入到Job表。自动根据职业分类名称查找category_id。
+     * 确认后在后台线程执行删除任务（一个事务），并读取删除补丁：被删除的行一次读取全部行号，
+     * 已被其他终端删除的行按主键重新读取（应用时同样移除）。补丁在EDT中一次应用到表格，只刷新一次。
      *
-     * 主要流程：
-     * 1. 获取表单输入（分类、用人单位、需求人数、备注）
-     * 2. 验证输入合法性（需求人数为数字，分类存在）
-     * 3. 查询分类ID
-     * 4. 执行INSERT语句
-     * 5. 刷新表格和下拉框
-     *
-     * 异常处理：
-     * - 需求人数非数字时提示
-     * - SQL异常弹窗提示
+     * @param tab 显示忙碌状态的选项卡索引
+     * @param table 表格
+     * @param spec 表格的分页定义
+     * @param noun 记录名称，用于提示信息
+     * @param keys 要删除的主键，为null表示选中的行中有尚未加载的行
+     * @param task 删除任务
+     * @param blockedReason 删除任务返回blocked时提示的原因，没有依赖检查时为null
+     * @param onDeleted 至少删除了一行时在EDT中执行
      */
-    private void addJob() {
-        try (Connection conn = DBConnector.getConnection()) {
-            String category = (String) categoryComboBox.getSelectedItem();
-            String employer = employerField.getText();
-            int required = Integer.parseInt(requiredField.getText());
-            String notes = notesField.getText();
-
-            // 获取category_id
-            int categoryId = 0;
-            try (PreparedStatement pstmt = conn.prepareStatement("SELECT category_id FROM JobCategory WHERE category_name = ?")) {
-                pstmt.setString(1, category);
-                ResultSet rs = pstmt.executeQuery();
-                if (rs.next()) {
-                    categoryId = rs.getInt("category_id");
+    private void deleteRows(int tab, JTable table, PagedTableModel.Spec spec, String noun, int[] keys,
+                            DeleteTask task, String blockedReason, Consumer<Dao.Deleted> onDeleted) {
+        if (keys == null) {
+            JOptionPane.showMessageDialog(this, "选中的行中有尚未加载的行，请滚动到这些行后再删除", "提示", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        if (keys.length == 0) {
+            JOptionPane.showMessageDialog(this, "请选择要删除的" + noun, "提示", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        String question = keys.length == 1
+                ? "确定要删除这个" + noun + "吗？"
+                : "确定要删除选中的 " + keys.length + " 个" + noun + "吗？";
+        if (JOptionPane.showConfirmDialog(this, question, "确认删除", JOptionPane.YES_NO_OPTION) != JOptionPane.YES_OPTION) {
+            return;
+        }
+
+        final Dao.Deleted[] result = new Dao.Deleted[1];
+        runInBackground(tab, null, () -> {
+            try (Connection conn = DBConnector.getConnection()) {
+                Dao.Deleted deleted = task.delete(conn, keys);
+                result[0] = deleted;
+                if (deleted.blocked.length > 0) {
+                    return new ArrayList<PagedTableModel.RowPatch>();
                 }
+                List<PagedTableModel.RowPatch> patches = PagedTableModel.RowPatch.deleted(conn, spec, deleted.keys);
+                for (int key : keys) {
+                    if (Arrays.binarySearch(deleted.keys, key) < 0) {
+                        patches.add(PagedTableModel.RowPatch.updated(conn, spec, key));  // 已被其他终端删除
+                    }
+                }
+                return patches;
             }
-
-            if (categoryId == 0) {
-                JOptionPane.showMessageDialog(this, "无效的职业分类", "错误", JOptionPane.ERROR_MESSAGE);
+        }, patches -> {
+            Dao.Deleted deleted = result[0];
+            if (deleted.blocked.length > 0) {
+                JOptionPane.showMessageDialog(this,
+                    "无法删除：" + noun + " " + Arrays.toString(deleted.blocked) + blockedReason,
+                    "错误",
+                    JOptionPane.ERROR_MESSAGE);
                 return;
             }
-
-            String sql = "INSERT INTO Job (category_id, employer, required_count, notes) VALUES (?, ?, ?, ?)";
-            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setInt(1, categoryId);
-                pstmt.setString(2, employer);
-                pstmt.setInt(3, required);
-                pstmt.setString(4, notes);
-                pstmt.executeUpdate();
-                JOptionPane.showMessageDialog(this, "职业添加成功！");
-                loadJobData();
-                clearJobFields();
-                loadJobs();
+            applyPatches(table, patches);
+            if (deleted.keys.length == 0) {
+                JOptionPane.showMessageDialog(this, "删除失败，记录可能已被删除", "错误", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            if (keys.length == 1) {
+                JOptionPane.showMessageDialog(this, noun + "删除成功！");
+            } else if (deleted.keys.length == keys.length) {
+                JOptionPane.showMessageDialog(this, "已删除 " + keys.length + " 个" + noun);
+            } else {
+                JOptionPane.showMessageDialog(this, "已删除 " + deleted.keys.length + " 个" + noun + "，其余 "
+                        + (keys.length - deleted.keys.length) + " 个已被其他终端删除");
+            }
+            if (onDeleted != null) {
+                onDeleted.accept(deleted);
+            }
+        }, "删除" + noun + "失败: ");
+    }
+
+    private void loadJobData() {
+        runInBackground(TAB_JOB, "jobTable", () -> PagedTableModel.open(JOB_SPEC, dbExecutor), model -> {
+            jobTable.setModel(model);
+            hideColumnsFrom(jobTable, JOB_CATEGORY_ID_COLUMN);
+        }, "加载职业数据失败: ");
+    }
+
+    private void loadSeekerData() {
+        runInBackground(TAB_SEEKER, "seekerTable", () -> PagedTableModel.open(SEEKER_SPEC, dbExecutor),
+                seekerTable::setModel, "加载求职者数据失败: ");
+    }
+
+    private void loadMatchingData() {
+        runInBackground(TAB_MATCHING, "matchingTable", () -> PagedTableModel.open(MATCHING_SPEC, dbExecutor), model -> {
+            matchingTable.setModel(model);
+            hideColumnsFrom(matchingTable, MATCHING_JOB_ID_COLUMN);
+        }, "加载匹配数据失败: ");
+    }
+
+    /**
+     * 从表格视图中移除模型列号不小于firstHidden的列（数据仍保留在模型中）
+     * 更换模型会重建全部列，每次setModel之后都要调用
+     */
+    private static void hideColumnsFrom(JTable table, int firstHidden) {
+        javax.swing.table.TableColumnModel columns = table.getColumnModel();
+        for (int i = columns.getColumnCount() - 1; i >= 0; i--) {
+            if (columns.getColumn(i).getModelIndex() >= firstHidden) {
+                columns.removeColumn(columns.getColumn(i));
             }
-        } catch (NumberFormatException e) {
-            JOptionPane.showMessageDialog(this, "需求人数必须是数字", "错误", JOptionPane.ERROR_MESSAGE);
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "添加职业失败: " + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
         }
     }
 
+    private void loadFeeData() {
+        runInBackground(TAB_FEE, "feeTable", () -> PagedTableModel.open(FEE_SPEC, dbExecutor), model -> {
+            feeTable.setModel(model);
+            // 更换模型会重建列，需要重新安装删除按钮列的渲染器和编辑器
+            installFeeButtonColumn();
+        }, "加载费用数据失败: ");
+    }
+
     /**
-     * 更新职业信息
+     * 添加职业信息
      *
-     * 根据表单内容和选中行的职业ID，更新Job表对应记录。
+     * 从表单获取用户输入，插入到Job表。分类ID直接取自分类下拉框的选项。
      *
      * 主要流程：
-     * 1. 获取表单输入和职业ID
-     * 2. 验证输入合法性
-     * 3. 查询分类ID
-     * 4. 执行UPDATE语句
-     * 5. 刷新表格和下拉框
+     * 1. 获取表单输入（分类、用人单位、需求人数、备注）
+     * 2. 验证输入合法性（需求人数为数字，已选择分类）
+     * 3. 从下拉框选项取得分类ID
+     * 4. 执行INSERT语句，取得自增主键并读取新行
+     * 5. 把新行插入表格，刷新下拉框
      *
      * 异常处理：
      * - 需求人数非数字时提示
      * - SQL异常弹窗提示
      */
-    private void updateJob() {
-        try (Connection conn = DBConnector.getConnection()) {
-            int jobId = Integer.parseInt(jobIdField.getText());
-            String category = (String) categoryComboBox.getSelectedItem();
-            String employer = employerField.getText();
-            int required = Integer.parseInt(requiredField.getText());
-            String notes = notesField.getText();
-
-            // 获取category_id
-            int categoryId = 0;
-            try (PreparedStatement pstmt = conn.prepareStatement("SELECT category_id FROM JobCategory WHERE category_name = ?")) {
-                pstmt.setString(1, category);
-                ResultSet rs = pstmt.executeQuery();
-                if (rs.next()) {
-                    categoryId = rs.getInt("category_id");
-                }
-            }
-
-            if (categoryId == 0) {
-                JOptionPane.showMessageDialog(this, "无效的职业分类", "错误", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-
-            String sql = "UPDATE Job SET category_id = ?, employer = ?, required_count = ?, notes = ? WHERE job_id = ?";
-            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setInt(1, categoryId);
-                pstmt.setString(2, employer);
-                pstmt.setInt(3, required);
-                pstmt.setString(4, notes);
-                pstmt.setInt(5, jobId);
-                pstmt.executeUpdate();
-                JOptionPane.showMessageDialog(this, "职业更新成功！");
-                loadJobData();
-                clearJobFields();
-                loadJobs();
-            }
+    private void addJob() {
+        ComboItem category = (ComboItem) categoryComboBox.getSelectedItem();
+        String employer = employerField.getText();
+        String notes = notesField.getText();
+        final int required;
+        try {
+            required = Integer.parseInt(requiredField.getText());
         } catch (NumberFormatException e) {
             JOptionPane.showMessageDialog(this, "需求人数必须是数字", "错误", JOptionPane.ERROR_MESSAGE);
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "更新职业失败: " + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
+            return;
         }
+        if (category == null) {
+            JOptionPane.showMessageDialog(this, "请选择职业分类", "错误", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        final int categoryId = category.id;  // 分类被其他终端删除时由外键约束拒绝
+
+        runInBackground(TAB_JOB, null, () -> {
+            try (Connection conn = DBConnector.getConnection()) {
+                int jobId = JobDao.insert(conn, categoryId, employer, required, notes);
+                ReferenceData.JOBS.invalidateAll();
+                reportCache.invalidate("Job");
+                return PagedTableModel.RowPatch.inserted(conn, JOB_SPEC, jobId);
+            }
+        }, patch -> {
+            JOptionPane.showMessageDialog(this, "职业添加成功！");
+            applyPatch(jobTable, patch);
+            clearJobFields();
+            loadJobs();
+        }, "添加职业失败: ");
     }
 
     /**
-     * 删除职业信息
+     * 更新职业信息
      *
-     * 根据表单选中的职业ID，删除Job表对应记录。
+     * 根据表单内容和选中行的职业ID，更新Job表对应记录。
      *
      * 主要流程：
-     * 1. 验证是否选择了要删除的职业
-     * 2. 弹窗确认
-     * 3. 执行DELETE语句
-     * 4. 刷新表格和下拉框
+     * 1. 获取表单输入和职业ID
+     * 2. 验证输入合法性（需求人数为数字，已选择分类）
+     * 3. 从下拉框选项取得分类ID
+     * 4. 执行UPDATE语句，并按主键重新读取该行
+     * 5. 替换表格中的该行，刷新下拉框
      *
      * 异常处理：
-     * - 职业ID格式错误
+     * - 需求人数非数字时提示
      * - SQL异常弹窗提示
      */
-    private void deleteJob() {
-        if (jobIdField.getText().isEmpty()) {
-            JOptionPane.showMessageDialog(this, "请选择要删除的职业", "提示", JOptionPane.WARNING_MESSAGE);
+    private void updateJob() {
+        ComboItem category = (ComboItem) categoryComboBox.getSelectedItem();
+        String employer = employerField.getText();
+        String notes = notesField.getText();
+        final int jobId, required;
+        try {
+            jobId = Integer.parseInt(jobIdField.getText());
+            required = Integer.parseInt(requiredField.getText());
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "需求人数必须是数字", "错误", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (category == null) {
+            JOptionPane.showMessageDialog(this, "请选择职业分类", "错误", JOptionPane.ERROR_MESSAGE);
             return;
         }
+        final int categoryId = category.id;  // 分类被其他终端删除时由外键约束拒绝
 
-        int confirm = JOptionPane.showConfirmDialog(this, "确定要删除这个职业吗？", "确认删除", JOptionPane.YES_NO_OPTION);
-        if (confirm == JOptionPane.YES_OPTION) {
+        runInBackground(TAB_JOB, null, () -> {
             try (Connection conn = DBConnector.getConnection()) {
-                int jobId = Integer.parseInt(jobIdField.getText());
-                String sql = "DELETE FROM Job WHERE job_id = ?";
-                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                    pstmt.setInt(1, jobId);
-                    pstmt.executeUpdate();
-                    JOptionPane.showMessageDialog(this, "职业删除成功！");
-                    loadJobData();
-                    clearJobFields();
-                    loadJobs();
-                }
-            } catch (NumberFormatException e) {
-                JOptionPane.showMessageDialog(this, "无效的职业ID", "错误", JOptionPane.ERROR_MESSAGE);
-            } catch (SQLException e) {
-                JOptionPane.showMessageDialog(this, "删除职业失败: " + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
+                JobDao.update(conn, jobId, categoryId, employer, required, notes);
+                ReferenceData.JOBS.invalidateAll();
+                reportCache.invalidate("Job");
+                return PagedTableModel.RowPatch.updated(conn, JOB_SPEC, jobId);
             }
-        }
+        }, patch -> {
+            applyPatch(jobTable, patch);
+            if (!patch.rowExists()) {
+                JOptionPane.showMessageDialog(this, "更新失败，记录可能已被删除", "错误", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            JOptionPane.showMessageDialog(this, "职业更新成功！");
+            clearJobFields();
+            loadJobs();
+        }, "更新职业失败: ");
+    }
+
+    /**
+     * 删除职业信息
+     *
+     * 删除表格中选中的全部职业（可以多选），相关匹配记录随外键级联删除。
+     *
+     * 主要流程：
+     * 1. 取得选中行的职业ID，弹窗确认
+     * 2. 在一个事务中批量删除（见deleteRows）
+     * 3. 从表格中移除这些行，刷新下拉框
+     */
+    private void deleteJob() {
+        deleteRows(TAB_JOB, jobTable, JOB_SPEC, "职业", selectedKeys(jobTable), (conn, keys) -> {
+            Dao.Deleted deleted = JobDao.deleteAll(conn, keys);
+            ReferenceData.JOBS.invalidateAll();
+            reportCache.invalidate("Job");
+            return deleted;
+        }, null, deleted -> {
+            clearJobFields();
+            loadJobs();
+        });
     }
 
     /**
@@ -1327,32 +1666,28 @@ public class JobManagementSystem extends JFrame {
      *
      * 主要流程：
      * 1. 获取表单输入（姓名、性别、聘用状态）
-     * 2. 执行INSERT语句
-     * 3. 刷新表格和下拉框
+     * 2. 执行INSERT语句，取得自增主键并读取新行
+     * 3. 把新行插入表格，刷新下拉框
      *
      * 异常处理：
      * - SQL异常弹窗提示
      */
     private void addJobSeeker() {
-        try (Connection conn = DBConnector.getConnection()) {
-            String name = seekerNameField.getText();
-            String gender = maleRadio.isSelected() ? "男" : "女";
-            boolean employed = employedComboBox.getSelectedItem().equals("聘用成功");
-
-            String sql = "INSERT INTO JobSeeker (name, gender, employed) VALUES (?, ?, ?)";
-            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, name);
-                pstmt.setString(2, gender);
-                pstmt.setBoolean(3, employed);
-                pstmt.executeUpdate();
-                JOptionPane.showMessageDialog(this, "求职者添加成功！");
-                loadSeekerData();
-                clearSeekerFields();
-                loadJobSeekers();
+        String name = seekerNameField.getText();
+        String gender = maleRadio.isSelected() ? "男" : "女";
+        boolean employed = employedComboBox.getSelectedItem().equals("聘用成功");
+
+        runInBackground(TAB_SEEKER, null, () -> {
+            try (Connection conn = DBConnector.getConnection()) {
+                int seekerId = SeekerDao.insert(conn, name, gender, employed);
+                return PagedTableModel.RowPatch.inserted(conn, SEEKER_SPEC, seekerId);
             }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "添加求职者失败: " + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
-        }
+        }, patch -> {
+            JOptionPane.showMessageDialog(this, "求职者添加成功！");
+            applyPatch(seekerTable, patch);
+            clearSeekerFields();
+            loadJobSeekers();
+        }, "添加求职者失败: ");
     }
 
     /**
@@ -1362,79 +1697,57 @@ public class JobManagementSystem extends JFrame {
      *
      * 主要流程：
      * 1. 获取表单输入和求职者ID
-     * 2. 执行UPDATE语句
-     * 3. 刷新表格和下拉框
+     * 2. 执行UPDATE语句，并按主键重新读取该行
+     * 3. 替换表格中的该行，刷新下拉框
      *
      * 异常处理：
      * - 求职者ID格式错误
      * - SQL异常弹窗提示
      */
     private void updateJobSeeker() {
-        try (Connection conn = DBConnector.getConnection()) {
-            int seekerId = Integer.parseInt(seekerIdField.getText());
-            String name = seekerNameField.getText();
-            String gender = maleRadio.isSelected() ? "男" : "女";
-            boolean employed = employedComboBox.getSelectedItem().equals("聘用成功");
-
-            String sql = "UPDATE JobSeeker SET name = ?, gender = ?, employed = ? WHERE seeker_id = ?";
-            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, name);
-                pstmt.setString(2, gender);
-                pstmt.setBoolean(3, employed);
-                pstmt.setInt(4, seekerId);
-                pstmt.executeUpdate();
-                JOptionPane.showMessageDialog(this, "求职者更新成功！");
-                loadSeekerData();
-                clearSeekerFields();
-                loadJobSeekers();
-            }
+        String name = seekerNameField.getText();
+        String gender = maleRadio.isSelected() ? "男" : "女";
+        boolean employed = employedComboBox.getSelectedItem().equals("聘用成功");
+        final int seekerId;
+        try {
+            seekerId = Integer.parseInt(seekerIdField.getText());
         } catch (NumberFormatException e) {
             JOptionPane.showMessageDialog(this, "无效的求职者ID", "错误", JOptionPane.ERROR_MESSAGE);
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "更新求职者失败: " + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
+            return;
         }
+
+        runInBackground(TAB_SEEKER, null, () -> {
+            try (Connection conn = DBConnector.getConnection()) {
+                SeekerDao.update(conn, seekerId, name, gender, employed);
+                return PagedTableModel.RowPatch.updated(conn, SEEKER_SPEC, seekerId);
+            }
+        }, patch -> {
+            applyPatch(seekerTable, patch);
+            if (!patch.rowExists()) {
+                JOptionPane.showMessageDialog(this, "更新失败，记录可能已被删除", "错误", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            JOptionPane.showMessageDialog(this, "求职者更新成功！");
+            clearSeekerFields();
+            loadJobSeekers();
+        }, "更新求职者失败: ");
     }
 
     /**
      * 删除求职者信息
      *
-     * 根据表单选中的求职者ID，删除JobSeeker表对应记录。
+     * 删除表格中选中的全部求职者（可以多选），相关匹配记录随外键级联删除。
      *
      * 主要流程：
-     * 1. 验证是否选择了要删除的求职者
-     * 2. 弹窗确认
-     * 3. 执行DELETE语句
-     * 4. 刷新表格和下拉框
-     *
-     * 异常处理：
-     * - 求职者ID格式错误
-     * - SQL异常弹窗提示
+     * 1. 取得选中行的求职者ID，弹窗确认
+     * 2. 在一个事务中批量删除（见deleteRows）
+     * 3. 从表格中移除这些行，刷新下拉框
      */
     private void deleteJobSeeker() {
-        if (seekerIdField.getText().isEmpty()) {
-            JOptionPane.showMessageDialog(this, "请选择要删除的求职者", "提示", JOptionPane.WARNING_MESSAGE);
-            return;
-        }
-
-        int confirm = JOptionPane.showConfirmDialog(this, "确定要删除这个求职者吗？", "确认删除", JOptionPane.YES_NO_OPTION);
-        if (confirm == JOptionPane.YES_OPTION) {
-            try (Connection conn = DBConnector.getConnection()) {
-                int seekerId = Integer.parseInt(seekerIdField.getText());
-                String sql = "DELETE FROM JobSeeker WHERE seeker_id = ?";
-                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                    pstmt.setInt(1, seekerId);
-                    pstmt.executeUpdate();
-                    JOptionPane.showMessageDialog(this, "求职者删除成功！");
-                    loadSeekerData();
-                    clearSeekerFields();
-                    loadJobSeekers();
-                }
-            } catch (NumberFormatException e) {
-                JOptionPane.showMessageDialog(this, "无效的求职者ID", "错误", JOptionPane.ERROR_MESSAGE);
-            } catch (SQLException e) {
-                JOptionPane.showMessageDialog(this, "删除求职者失败: " + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
-            }
-        }
+        deleteRows(TAB_SEEKER, seekerTable, SEEKER_SPEC, "求职者", selectedKeys(seekerTable), (conn, keys) -> SeekerDao.deleteAll(conn, keys), null, deleted -> {
+            clearSeekerFields();
+            loadJobSeekers();
+        });
     }
 
     /**
@@ -1444,195 +1757,151 @@ public class JobManagementSystem extends JFrame {
      *
      * 主要流程：
      * 1. 获取下拉框选中的职业和求职者
-     * 2. 查询对应ID
-     * 3. 检查职业需求人数和求职者聘用状态
-     * 4. 插入匹配记录
-     * 5. 更新职业已聘人数和求职者状态
-     * 6. 刷新相关表格和下拉框
+     * 2. 从下拉框选项直接取得job_id和seeker_id（不需要查询）
+     * 3. 调用JobMatcher在一个事务中锁定两行、检查条件并插入匹配记录
+     *    （已聘人数和聘用状态由AfterInsertMatching触发器更新）
+     * 4. 成功时按主键重新读取新匹配记录、职业行和求职者行
+     * 5. 根据MatchOutcome提示结果，成功时把三行补丁应用到对应表格并刷新求职者下拉框
      *
      * 异常处理：
      * - SQL异常弹窗提示
      */
     private void matchJobSeeker() {
-        try (Connection conn = DBConnector.getConnection()) {
-            String job = (String) jobComboBox.getSelectedItem();
-            String seeker = (String) seekerComboBox.getSelectedItem();
+        ComboItem job = (ComboItem) jobComboBox.getSelectedItem();
+        ComboItem seeker = (ComboItem) seekerComboBox.getSelectedItem();
 
-            if (job == null || seeker == null) {
-                JOptionPane.showMessageDialog(this, "请选择职业和求职者", "提示", JOptionPane.WARNING_MESSAGE);
-                return;
-            }
+        if (job == null || seeker == null) {
+            JOptionPane.showMessageDialog(this, "请选择职业和求职者", "提示", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
 
-            // 获取job_id
-            int jobId = 0;
-            try (PreparedStatement pstmt = conn.prepareStatement("SELECT job_id FROM Job WHERE employer = ?")) {
-                pstmt.setString(1, job);
-                ResultSet rs = pstmt.executeQuery();
-                if (rs.next()) {
-                    jobId = rs.getInt("job_id");
+        // 匹配成功时由后台任务填入：匹配表、职业表、求职者表的补丁
+        final PagedTableModel.RowPatch[] patches = new PagedTableModel.RowPatch[3];
+        runInBackground(TAB_MATCHING, null, () -> {
+            try (Connection conn = DBConnector.getConnection()) {
+                int[] ids = {job.id, seeker.id};  // 职业或求职者已被删除时JobMatcher返回NOT_FOUND
+                int[] matchId = new int[1];
+                MatchOutcome outcome = MatchingDao.match(conn, ids[0], ids[1], matchId);
+                if (outcome == MatchOutcome.OK) {
+                    reportCache.invalidate("JobMatching");
+                    patches[0] = PagedTableModel.RowPatch.inserted(conn, MATCHING_SPEC, matchId[0]);
+                    patches[1] = PagedTableModel.RowPatch.updated(conn, JOB_SPEC, ids[0]);
+                    patches[2] = PagedTableModel.RowPatch.updated(conn, SEEKER_SPEC, ids[1]);
                 }
+                return outcome;
             }
-
-            // 获取seeker_id
-            int seekerId = 0;
-            try (PreparedStatement pstmt = conn.prepareStatement("SELECT seeker_id FROM JobSeeker WHERE name = ?")) {
-                pstmt.setString(1, seeker);
-                ResultSet rs = pstmt.executeQuery();
-                if (rs.next()) {
-                    seekerId = rs.getInt("seeker_id");
-                }
+        }, outcome -> {
+            if (outcome != MatchOutcome.OK) {
+                JOptionPane.showMessageDialog(this, outcome.message, "提示", JOptionPane.WARNING_MESSAGE);
+                return;
             }
+            JOptionPane.showMessageDialog(this, outcome.message);
+            applyPatch(matchingTable, patches[0]);
+            applyPatch(jobTable, patches[1]);
+            applyPatch(seekerTable, patches[2]);
+            loadJobSeekers(); // 刷新可用的求职者列表
+        }, "匹配失败: ");
+    }
 
-            if (jobId == 0 || seekerId == 0) {
-                JOptionPane.showMessageDialog(this, "无效的职业或求职者", "错误", JOptionPane.ERROR_MESSAGE);
+    /**
+     * 批量自动匹配
+     *
+     * 把所有未聘用的求职者按选定策略分配到有空缺的职业。
+     * 策略可以是BatchMatcher的轮流分配策略，也可以是OptimalMatcher的最优分配（按得分求最大权匹配）。
+     *
+     * 主要流程：
+     * 1. 选择分配策略
+     * 2. 后台生成匹配方案（不写数据库）
+     * 3. 显示方案预览，用户确认后才提交
+     * 4. 后台分块提交，显示统计并刷新相关表格和下拉框
+     *
+     * 异常处理：
+     * - SQL异常弹窗提示（已提交的块保留）
+     */
+    private void batchMatch() {
+        Object[] strategies = {
+                BatchMatcher.Policy.FIFO, BatchMatcher.Policy.BY_CATEGORY, BatchMatcher.Policy.ROUND_ROBIN,
+                OptimalMatcher.STRATEGY
+        };
+        Object strategy = JOptionPane.showInputDialog(this,
+                "请选择分配策略:", "批量匹配", JOptionPane.QUESTION_MESSAGE, null,
+                strategies, BatchMatcher.Policy.FIFO);
+        if (strategy == null) {
+            return;
+        }
+        boolean optimal = strategy == OptimalMatcher.STRATEGY;
+
+        runInBackground(TAB_MATCHING, null, () -> {
+            try (Connection conn = DBConnector.getConnection()) {
+                return optimal
+                        ? OptimalMatcher.plan(conn, OptimalMatcher.WAITING_FIRST, OptimalMatcher.DEFAULT_CANDIDATES_PER_SEEKER)
+                        : BatchMatcher.plan(conn, (BatchMatcher.Policy) strategy);
+            }
+        }, plan -> {
+            if (plan.size() == 0) {
+                JOptionPane.showMessageDialog(this, "没有可匹配的职业或求职者", "提示", JOptionPane.WARNING_MESSAGE);
                 return;
             }
 
-            // 检查是否已满
-            try (PreparedStatement pstmt = conn.prepareStatement("SELECT required_count, hired_count FROM Job WHERE job_id = ?")) {
-                pstmt.setInt(1, jobId);
-                ResultSet rs = pstmt.executeQuery();
-                if (rs.next()) {
-                    int required = rs.getInt("required_count");
-                    int hired = rs.getInt("hired_count");
-                    if (hired >= required) {
-                        JOptionPane.showMessageDialog(this, "该职业需求已满，无法匹配", "提示", JOptionPane.WARNING_MESSAGE);
-                        return;
-                    }
-                }
+            JTextArea previewArea = new JTextArea(plan.preview(BATCH_PREVIEW_ROWS), 20, 60);
+            previewArea.setEditable(false);
+            previewArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+            int confirm = JOptionPane.showConfirmDialog(this, new JScrollPane(previewArea),
+                    "匹配方案预览（尚未写入数据库），确定提交吗？", JOptionPane.YES_NO_OPTION);
+            if (confirm != JOptionPane.YES_OPTION) {
+                return;
             }
 
-            // 检查求职者是否已被聘用
-            try (PreparedStatement pstmt = conn.prepareStatement("SELECT employed FROM JobSeeker WHERE seeker_id =?")) {
-                pstmt.setInt(1, seekerId);
-                ResultSet rs = pstmt.executeQuery();
-                if (rs.next() && rs.getBoolean("employed")) {
-                    JOptionPane.showMessageDialog(this, "该求职者已被聘用，无法再次匹配", "提示", JOptionPane.WARNING_MESSAGE);
-                    return;
+            runInBackground(TAB_MATCHING, null, () -> {
+                try (Connection conn = DBConnector.getConnection()) {
+                    return optimal
+                            ? OptimalMatcher.commit(conn, plan)
+                            : BatchMatcher.commit(conn, plan, BatchMatcher.DEFAULT_CHUNK_SIZE);
+                } finally {
+                    reportCache.invalidate("JobMatching");
                 }
-            }
-
-            String sql = "INSERT INTO JobMatching (job_id, seeker_id) VALUES (?, ?)";
-            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setInt(1, jobId);
-                pstmt.setInt(2, seekerId);
-                pstmt.executeUpdate();
-                JOptionPane.showMessageDialog(this, "匹配成功！");
-
-                // 更新已聘人数
-                updateHiredCount(conn, jobId, 1);
-
-                // 更新求职者状态
-                updateSeekerEmployedStatus(conn, seekerId, true);
-
+            }, result -> {
+                JOptionPane.showMessageDialog(this, result.toString(), "批量匹配完成", JOptionPane.INFORMATION_MESSAGE);
                 loadMatchingData();
                 loadJobData();
                 loadSeekerData();
                 loadJobSeekers(); // 刷新可用的求职者列表
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "匹配失败: " + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
-        }
-    }
-
-    /**
-     * 更新职业已聘人数
-     *
-     * @param conn 数据库连接
-     * @param jobId 职业ID
-     * @param increment 增加或减少的数量（+1/-1）
-     * @throws SQLException SQL异常
-     */
-    private void updateHiredCount(Connection conn, int jobId, int increment) throws SQLException {
-        String sql = "UPDATE Job SET hired_count = hired_count + ? WHERE job_id = ?";
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, increment);
-            pstmt.setInt(2, jobId);
-            pstmt.executeUpdate();
-        }
-    }
-
-    /**
-     * 更新求职者聘用状态
-     *
-     * @param conn 数据库连接
-     * @param seekerId 求职者ID
-     * @param employed 聘用状态
-     * @throws SQLException SQL异常
-     */
-    private void updateSeekerEmployedStatus(Connection conn, int seekerId, boolean employed) throws SQLException {
-        String sql = "UPDATE JobSeeker SET employed = ? WHERE seeker_id = ?";
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setBoolean(1, employed);
-            pstmt.setInt(2, seekerId);
-            pstmt.executeUpdate();
-        }
+            }, "批量匹配失败: ");
+        }, "生成匹配方案失败: ");
     }
 
     /**
      * 删除匹配记录
      *
-     * 删除选中的匹配记录，并同步更新职业已聘人数和求职者状态。
+     * 删除表格中选中的全部匹配记录（可以多选），职业已聘人数和求职者状态由AfterDeleteMatching触发器同步恢复。
      *
      * 主要流程：
-     * 1. 获取选中行的match_id
-     * 2. 查询对应的job_id和seeker_id
-     * 3. 执行DELETE语句
-     * 4. 更新职业和求职者状态
-     * 5. 刷新相关表格和下拉框
-     *
-     * 异常处理：
-     * - SQL异常弹窗提示
+     * 1. 取得选中行的match_id，弹窗确认
+     * 2. 在一个事务中锁定匹配记录、读取对应的job_id和seeker_id并批量删除
+     * 3. 从匹配表格移除这些行，按主键重新读取涉及的职业行和求职者行并替换，刷新下拉框
      */
     private void deleteMatching() {
-        int row = matchingTable.getSelectedRow();
-        if (row < 0) {
-            JOptionPane.showMessageDialog(this, "请选择要删除的匹配记录", "提示", JOptionPane.WARNING_MESSAGE);
-            return;
-        }
-
-        int confirm = JOptionPane.showConfirmDialog(this, "确定要删除这个匹配记录吗？", "确认删除", JOptionPane.YES_NO_OPTION);
-        if (confirm == JOptionPane.YES_OPTION) {
-            try (Connection conn = DBConnector.getConnection()) {
-                int matchId = (int) matchingTable.getValueAt(row, 0);
-
-                // 获取job_id和seeker_id
-                int jobId = 0, seekerId = 0;
-                try (PreparedStatement pstmt = conn.prepareStatement(
-                        "SELECT job_id, seeker_id FROM JobMatching WHERE match_id = ?")) {
-                    pstmt.setInt(1, matchId);
-                    ResultSet rs = pstmt.executeQuery();
-                    if (rs.next()) {
-                        jobId = rs.getInt("job_id");
-                        seekerId = rs.getInt("seeker_id");
-                    }
+        // 删除成功时由后台任务填入：职业表、求职者表的补丁
+        List<PagedTableModel.RowPatch> jobPatches = new ArrayList<>();
+        List<PagedTableModel.RowPatch> seekerPatches = new ArrayList<>();
+        deleteRows(TAB_MATCHING, matchingTable, MATCHING_SPEC, "匹配记录", selectedKeys(matchingTable), (conn, keys) -> {
+            List<int[]> removed = new ArrayList<>();  // {match_id, job_id, seeker_id}
+            Dao.Deleted deleted = MatchingDao.deleteAll(conn, keys, removed);
+            if (deleted.keys.length > 0) {
+                reportCache.invalidate("JobMatching");
+                for (int jobId : removed.stream().mapToInt(r -> r[1]).distinct().toArray()) {
+                    jobPatches.add(PagedTableModel.RowPatch.updated(conn, JOB_SPEC, jobId));
                 }
-
-                String sql = "DELETE FROM JobMatching WHERE match_id = ?";
-                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                    pstmt.setInt(1, matchId);
-                    pstmt.executeUpdate();
-
-                    // 更新已聘人数
-                    if (jobId > 0) {
-                        updateHiredCount(conn, jobId, -1);
-                    }
-
-                    // 更新求职者状态
-                    if (seekerId > 0) {
-                        updateSeekerEmployedStatus(conn, seekerId, false);
-                    }
-
-                    JOptionPane.showMessageDialog(this, "匹配记录删除成功！");
-                    loadMatchingData();
-                    loadJobData();
-                    loadSeekerData();
-                    loadJobSeekers(); // 刷新可用的求职者列表
+                for (int seekerId : removed.stream().mapToInt(r -> r[2]).distinct().toArray()) {
+                    seekerPatches.add(PagedTableModel.RowPatch.updated(conn, SEEKER_SPEC, seekerId));
                 }
-            } catch (SQLException e) {
-                JOptionPane.showMessageDialog(this, "删除匹配记录失败: " + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
             }
-        }
+            return deleted;
+        }, null, deleted -> {
+            applyPatches(jobTable, jobPatches);
+            applyPatches(seekerTable, seekerPatches);
+            loadJobSeekers(); // 刷新可用的求职者列表
+        });
     }
 
     /**
@@ -1643,36 +1912,36 @@ public class JobManagementSystem extends JFrame {
      * 主要流程：
      * 1. 获取表单输入（用人单位、用人单位费用、求职者、求职者费用）
      * 2. 验证费用为数字
-     * 3. 执行INSERT语句
-     * 4. 刷新表格和表单
+     * 3. 执行INSERT语句，取得自增主键并读取新行
+     * 4. 把新行插入表格，清空表单
      *
      * 异常处理：
      * - 费用非数字时提示
      * - SQL异常弹窗提示
      */
     private void addFeeRecord() {
-        try (Connection conn = DBConnector.getConnection()) {
-            String employerName = employerNameField.getText();
-            double employerFee = Double.parseDouble(employerFeeField.getText());
-            String seekerName = seekerNameField.getText();
-            double seekerFee = Double.parseDouble(seekerFeeField.getText());
-
-            String sql = "INSERT INTO Fee (employer_name, employer_fee, seeker_name, seeker_fee) VALUES (?, ?, ?, ?)";
-            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, employerName);
-                pstmt.setDouble(2, employerFee);
-                pstmt.setString(3, seekerName);
-                pstmt.setDouble(4, seekerFee);
-                pstmt.executeUpdate();
-                JOptionPane.showMessageDialog(this, "费用记录添加成功！");
-                loadFeeData();
-                clearFeeFields();
-            }
+        String employerName = employerNameField.getText();
+        String seekerName = seekerNameField.getText();
+        final double employerFee, seekerFee;
+        try {
+            employerFee = Double.parseDouble(employerFeeField.getText());
+            seekerFee = Double.parseDouble(seekerFeeField.getText());
         } catch (NumberFormatException e) {
             JOptionPane.showMessageDialog(this, "费用必须是数字", "错误", JOptionPane.ERROR_MESSAGE);
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "添加费用记录失败: " + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
+            return;
         }
+
+        runInBackground(TAB_FEE, null, () -> {
+            try (Connection conn = DBConnector.getConnection()) {
+                int feeId = FeeDao.insert(conn, employerName, employerFee, seekerName, seekerFee);
+                reportCache.invalidate("Fee");
+                return PagedTableModel.RowPatch.inserted(conn, FEE_SPEC, feeId);
+            }
+        }, patch -> {
+            JOptionPane.showMessageDialog(this, "费用记录添加成功！");
+            applyPatch(feeTable, patch);
+            clearFeeFields();
+        }, "添加费用记录失败: ");
     }
 
     /**
@@ -1683,8 +1952,8 @@ public class JobManagementSystem extends JFrame {
      * 主要流程：
      * 1. 获取表单输入和费用ID
      * 2. 验证费用为数字
-     * 3. 执行UPDATE语句
-     * 4. 刷新表格和表单
+     * 3. 执行UPDATE语句，并按主键重新读取该行
+     * 4. 替换表格中的该行，清空表单
      *
      * 异常处理：
      * - 费用非数字时提示
@@ -1696,221 +1965,394 @@ public class JobManagementSystem extends JFrame {
             return;
         }
 
-        try (Connection conn = DBConnector.getConnection()) {
-            int feeId = Integer.parseInt(feeIdField.getText());
-            String employerName = employerNameField.getText();
-            double employerFee = Double.parseDouble(employerFeeField.getText());
-            String seekerName = seekerNameField.getText();
-            double seekerFee = Double.parseDouble(seekerFeeField.getText());
-
-            String sql = "UPDATE Fee SET employer_name = ?, employer_fee = ?, seeker_name = ?, seeker_fee = ? WHERE fee_id = ?";
-            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, employerName);
-                pstmt.setDouble(2, employerFee);
-                pstmt.setString(3, seekerName);
-                pstmt.setDouble(4, seekerFee);
-                pstmt.setInt(5, feeId);
-                int rows = pstmt.executeUpdate();
-
-                if (rows > 0) {
-                    JOptionPane.showMessageDialog(this, "费用记录更新成功！");
-                    loadFeeData();
-                    clearFeeFields();
-                } else {
-                    JOptionPane.showMessageDialog(this, "更新失败，记录可能已被删除", "错误", JOptionPane.ERROR_MESSAGE);
-                }
-            }
+        String employerName = employerNameField.getText();
+        String seekerName = seekerNameField.getText();
+        final int feeId;
+        final double employerFee, seekerFee;
+        try {
+            feeId = Integer.parseInt(feeIdField.getText());
+            employerFee = Double.parseDouble(employerFeeField.getText());
+            seekerFee = Double.parseDouble(seekerFeeField.getText());
         } catch (NumberFormatException e) {
             JOptionPane.showMessageDialog(this, "费用必须是数字", "错误", JOptionPane.ERROR_MESSAGE);
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "更新费用记录失败: " + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
+            return;
         }
+
+        runInBackground(TAB_FEE, null, () -> {
+            try (Connection conn = DBConnector.getConnection()) {
+                FeeDao.update(conn, feeId, employerName, employerFee, seekerName, seekerFee);
+                reportCache.invalidate("Fee");
+                return PagedTableModel.RowPatch.updated(conn, FEE_SPEC, feeId);
+            }
+        }, patch -> {
+            applyPatch(feeTable, patch);
+            if (patch.rowExists()) {
+                JOptionPane.showMessageDialog(this, "费用记录更新成功！");
+                clearFeeFields();
+            } else {
+                JOptionPane.showMessageDialog(this, "更新失败，记录可能已被删除", "错误", JOptionPane.ERROR_MESSAGE);
+            }
+        }, "更新费用记录失败: ");
     }
 
     /**
-     * 删除选中的费用记录（通过表格按钮或外部按钮）
-     *
-     * 主要流程：
-     * 1. 获取选中行的fee_id
-     * 2. 调用deleteFeeRecord方法
+     * 删除选中的费用记录（外部删除按钮，可以多选）
      */
     private void deleteSelectedFeeRecord() {
-        int selectedRow = feeTable.getSelectedRow();
-        if (selectedRow < 0) {
-            JOptionPane.showMessageDialog(this, "请先选择要删除的费用记录", "提示", JOptionPane.WARNING_MESSAGE);
-            return;
-        }
-
-        int feeId = Integer.parseInt(feeTable.getValueAt(selectedRow, 0).toString());
-        deleteFeeRecord(feeId);
+        deleteFeeRecords(selectedKeys(feeTable));
     }
 
     /**
-     * 实际执行费用记录删除的逻辑
+     * 删除一条费用记录（表格中的行内删除按钮）
      *
      * @param feeId 费用ID
-     *
-     * 主要流程：
-     * 1. 弹窗确认
-     * 2. 执行DELETE语句
-     * 3. 刷新表格和表单
-     *
-     * 异常处理：
-     * - SQL异常弹窗提示
      */
     private void deleteFeeRecord(int feeId) {
-        int confirm = JOptionPane.showConfirmDialog(
-                this,
-                "确定要删除这个费用记录吗？",
-                "确认删除",
-                JOptionPane.YES_NO_OPTION // 修复常量名
-        );
-
-        if (confirm == JOptionPane.YES_OPTION) {
-            try (Connection conn = DBConnector.getConnection()) {
-                String sql = "DELETE FROM Fee WHERE fee_id = ?";
-                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                    pstmt.setInt(1, feeId);
-                    int rows = pstmt.executeUpdate();
-
-                    if (rows > 0) {
-                        JOptionPane.showMessageDialog(this, "费用记录删除成功！");
-                        loadFeeData();
-                        clearFeeFields();
-                    } else {
-                        JOptionPane.showMessageDialog(this, "删除失败，记录可能已被删除", "错误", JOptionPane.ERROR_MESSAGE);
-                    }
-                }
-            } catch (SQLException e) {
-                JOptionPane.showMessageDialog(this, "删除费用记录失败: " + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
-            }
-        }
+        deleteFeeRecords(new int[]{feeId});
+    }
+
+    /**
+     * 在一个事务中批量删除费用记录，从表格中移除这些行并清空表单
+     *
+     * @param feeIds 费用ID；为null表示选中的行中有尚未加载的行
+     */
+    private void deleteFeeRecords(int[] feeIds) {
+        deleteRows(TAB_FEE, feeTable, FEE_SPEC, "费用记录", feeIds, (conn, keys) -> {
+            Dao.Deleted deleted = FeeDao.deleteAll(conn, keys);
+            reportCache.invalidate("Fee");
+            return deleted;
+        }, null, deleted -> clearFeeFields());
     }
 
     /**
      * 生成职业统计报表
      *
-     * 调用存储过程GetJobStats，统计每个职业的需求人数、已聘人数、空缺人数。
+     * 调用存储过程GetJobStats，统计每个职业的需求人数、已聘人数、空缺人数；
+     * 再调用GetCategoryStats按职业分类汇总。两个存储过程都读取由触发器维护的统计表（见StatsDao、JobReport）。
      *
      * @return 报表字符串
+     * @throws SQLException SQL异常（失败的结果不能放入报表缓存，因此抛出而不是返回错误文本）
      */
-    private String generateJobReport() {
-        StringBuilder report = new StringBuilder();
-        report.append("========= 职业需求统计报表 =========\n");
-        report.append(String.format("%-20s %-15s %-15s %-15s\n", "职业名称", "需求人数", "已聘人数", "空缺人数"));
-
-        try (Connection conn = DBConnector.getConnection();
-             CallableStatement cstmt = conn.prepareCall("{call GetJobStats()}")) {
-            ResultSet rs = cstmt.executeQuery();
+    private String generateJobReport() throws SQLException {
+        try (Connection conn = DBConnector.getConnection()) {
+            return JobReport.generate(conn);
+        }
+    }
 
-            while (rs.next()) {
-                String jobName = rs.getString("employer");
-                int required = rs.getInt("required_count");
-                int hired = rs.getInt("hired_count");
-                int vacancy = required - hired;
+    /**
+     * 显示职业统计报表
+     *
+     * 先查报表缓存；职业、匹配、职业分类在上次生成后没有被修改时直接显示缓存的结果，
+     * 并在报表下方显示数据的时间。
+     *
+     * @param reportArea 显示报表的文本区
+     * @param cacheLabel 显示数据时间的标签
+     */
+    private void showJobReport(JTextArea reportArea, JLabel cacheLabel) {
+        runInBackground(TAB_REPORT, "jobReport",
+                () -> reportCache.get(ReportCache.key("jobReport"), this::generateJobReport, JOB_REPORT_TABLES),
+                entry -> showReport(reportArea, cacheLabel, entry), "报表生成失败: ");
+    }
 
-                report.append(String.format("%-20s %-15d %-15d %-15d\n",
-                        jobName, required, hired, vacancy));
-            }
+    /**
+     * 显示报表结果及其时间：“查询于”表示刚刚查询，“缓存于”表示缓存结果的查询时间
+     */
+    private static void showReport(JTextArea reportArea, JLabel cacheLabel, ReportCache.Entry<String> entry) {
+        reportArea.setText(entry.value);
+        cacheLabel.setText(String.format(entry.fromCache ? "缓存于 %tT" : "查询于 %tT", entry.cachedAt));
+    }
 
-            report.append("=====================================");
-        } catch (SQLException e) {
-            return "报表生成失败: " + e.getMessage();
+    /**
+     * 重建职业统计表
+     *
+     * 职业统计由触发器随职业和匹配的修改实时维护，一般不需要重建；
+     * 统计与职业表不一致时（例如直接在数据库中关闭触发器修改过数据），调用存储过程RebuildJobStats从职业表重新计算。
+     *
+     * @param reportArea 重建完成后重新生成报表的文本区
+     * @param cacheLabel 显示数据时间的标签
+     */
+    private void rebuildJobStats(JTextArea reportArea, JLabel cacheLabel) {
+        int confirm = JOptionPane.showConfirmDialog(this,
+            "从职业表重新计算全部职业统计？重建期间修改职业和匹配会等待重建完成。",
+            "确认重建",
+            JOptionPane.YES_NO_OPTION);
+        if (confirm != JOptionPane.YES_OPTION) {
+            return;
         }
-
-        return report.toString();
+        runInBackground(TAB_REPORT, null, () -> {
+            try (Connection conn = DBConnector.getConnection()) {
+                StatsDao.rebuild(conn);
+            }
+            reportCache.invalidate("Job");
+            return reportCache.get(ReportCache.key("jobReport"), this::generateJobReport, JOB_REPORT_TABLES);
+        }, entry -> {
+            showReport(reportArea, cacheLabel, entry);
+            JOptionPane.showMessageDialog(this, "职业统计重建完成！");
+        }, "重建职业统计失败: ");
     }
 
     /**
      * 生成费用统计报表
      *
-     * 查询Fee表，统计所有费用记录及总收入。
+     * 合计由数据库按DECIMAL精确计算（见FeeReport），明细表格使用分页模型，只读取滚动到的页面。
      *
-     * @return 报表字符串
+     * 合计先查报表缓存，费用记录在上次生成后没有被修改时直接显示缓存的结果。
+     *
+     * @param reportArea 显示标题和合计的文本区
+     * @param cacheLabel 显示数据时间的标签
+     * @param detailTable 显示明细的表格
      */
-    private String generateFeeReport() {
-        StringBuilder report = new StringBuilder();
-        report.append("========= 费用收支统计报表 =========\n");
-        report.append(String.format("%-15s %-20s %-15s %-20s %-15s\n",
-                "费用ID", "用人单位", "费用金额", "求职者", "费用金额"));
-
-        try (Connection conn = DBConnector.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT * FROM Fee")) {
-
-            double totalEmployerFee = 0;
-            double totalSeekerFee = 0;
-            int count = 0;
-
-            while (rs.next()) {
-                int feeId = rs.getInt("fee_id");
-                String employer = rs.getString("employer_name");
-                double employerFee = rs.getDouble("employer_fee");
-                String seeker = rs.getString("seeker_name");
-                double seekerFee = rs.getDouble("seeker_fee");
-
-                report.append(String.format("%-15d %-20s %-15.2f %-20s %-15.2f\n",
-                        feeId, employer, employerFee, seeker, seekerFee));
-
-                totalEmployerFee += employerFee;
-                totalSeekerFee += seekerFee;
-                count++;
+    private void generateFeeReport(JTextArea reportArea, JLabel cacheLabel, JTable detailTable) {
+        runInBackground(TAB_REPORT, "feeReport", () -> reportCache.get(ReportCache.key("feeSummary"), () -> {
+            try (Connection conn = DBConnector.getConnection()) {
+                return FeeReport.summary(FeeReport.totals(conn));
             }
+        }, "Fee"), entry -> showReport(reportArea, cacheLabel, entry), "费用报表生成失败: ");
+        runInBackground(TAB_REPORT, "feeReportDetail", () -> PagedTableModel.open(FeeReport.DETAIL_SPEC, dbExecutor),
+                detailTable::setModel, "费用明细加载失败: ");
+    }
+
+    /**
+     * 导出完整的费用统计报表到文本文件
+     *
+     * 明细按主键分批读取并逐行写入文件，不经过界面，记录再多也不会占用大量内存。
+     */
+    private void exportFeeReport() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("费用统计报表.txt"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path path = chooser.getSelectedFile().toPath();
+        runInBackground(TAB_REPORT, null, () -> {
+            try (Connection conn = DBConnector.getConnection();
+                 Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                return FeeReport.write(conn, out);
+            } catch (IOException e) {
+                throw new SQLException("写入文件失败: " + e.getMessage(), e);
+            }
+        }, totals -> JOptionPane.showMessageDialog(this,
+                "费用报表已导出（" + totals.count + " 条记录）：" + path),
+                "导出费用报表失败: ");
+    }
 
-            report.append("---------------------------------------------\n");
-            report.append(String.format("总计: %d 条记录\n", count));
-            report.append(String.format("用人单位总费用: %.2f\n", totalEmployerFee));
-            report.append(String.format("求职者总费用: %.2f\n", totalSeekerFee));
-            report.append(String.format("总收入: %.2f\n", totalEmployerFee + totalSeekerFee));
-            report.append("=============================================");
-        } catch (SQLException e) {
-            return "费用报表生成失败: " + e.getMessage();
+    /**
+     * 导出数据到CSV、CSV.GZ或XLSX文件（按文件扩展名选择格式）
+     *
+     * 导出在导出执行器中从数据库直接流式写入文件（见TableExporter），进度显示在进度对话框中，
+     * 点击对话框的取消按钮会中止导出并删除未写完的文件。
+     *
+     * @param tab 显示忙碌状态的选项卡索引
+     * @param export 导出内容
+     */
+    private void exportData(int tab, TableExporter.Export export) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV、CSV.GZ、XLSX", "csv", "gz", "xlsx"));
+        chooser.setSelectedFile(new File(export.name + TableExporter.Format.CSV.extension));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
         }
+        Path path = chooser.getSelectedFile().toPath();
+        TableExporter.Format format = TableExporter.Format.of(path);
+        if (format == null) {
+            JOptionPane.showMessageDialog(this,
+                "请使用 .csv、.csv.gz 或 .xlsx 扩展名",
+                "提示",
+                JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        ProgressMonitor monitor = new ProgressMonitor(this, "正在导出" + export.name, "准备中…", 0, 100);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        TableExporter.Progress progress = new TableExporter.Progress() {
+            @Override
+            public void update(long rows, long estimatedRows) {
+                SwingUtilities.invokeLater(() -> {
+                    if (monitor.isCanceled()) {
+                        cancelled.set(true);
+                    }
+                    monitor.setNote("已导出 " + rows + " 行");
+                    if (estimatedRows > 0) {
+                        // 估计行数来自统计信息，可能偏小，完成前最多显示99%
+                        monitor.setProgress((int) Math.min(99, rows * 100 / estimatedRows));
+                    }
+                });
+            }
+
+            @Override
+            public boolean cancelled() {
+                return cancelled.get();
+            }
+        };
 
-        return report.toString();
+        setBusy(tab, true);
+        fileExecutor.submit(null, () -> {
+            try {
+                return TableExporter.export(export, format, path, progress);
+            } catch (IOException e) {
+                throw new SQLException("写入文件失败: " + e.getMessage(), e);
+            }
+        }, rows -> JOptionPane.showMessageDialog(this, "已导出 " + rows + " 行到 " + path), e -> {
+            if (e instanceof CancellationException) {
+                JOptionPane.showMessageDialog(this, "导出已取消");
+            } else {
+                JOptionPane.showMessageDialog(this, "导出失败: " + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
+            }
+        }, () -> {
+            monitor.close();
+            setBusy(tab, false);
+        });
     }
 
-    // 辅助方法：从ResultSet构建TableModel
-    private DefaultTableModel buildTableModel(ResultSet rs) throws SQLException {
-        // 获取ResultSet的元数据信息，用于了解结果集的结构
-        ResultSetMetaData metaData = rs.getMetaData();
+    /**
+     * 从CSV或CSV.GZ文件批量导入求职者或职业
+     *
+     * 导入在导入导出执行器中流式读取文件并分块提交（见CsvImporter），进度和速度显示在进度对话框中。
+     * 点击取消会在当前块提交后停止，已提交的行保留。完成后重新加载表格和下拉框，
+     * 被拒绝的行写入拒绝文件，路径显示在结果对话框中。
+     *
+     * @param tab 显示忙碌状态的选项卡索引
+     * @param kind 导入内容
+     */
+    private void importData(int tab, CsvImporter.Kind kind) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV、CSV.GZ", "csv", "gz"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path path = chooser.getSelectedFile().toPath();
 
-        // ==================== 提取列名 ====================
-        // 获取结果集的列数
-        int columnCount = metaData.getColumnCount();
-        
-        // 创建列名向量，用于存储表格的表头
-        Vector<String> columnNames = new Vector<>();
-        
-        // 遍历所有列，提取列名
-        for (int column = 1; column <= columnCount; column++) {
-            // 使用getColumnName获取列名，列索引从1开始
-            columnNames.add(metaData.getColumnName(column));
+        ProgressMonitor monitor = new ProgressMonitor(this, "正在导入" + kind.name, "准备中…", 0, 100);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        CsvImporter.Progress progress = new CsvImporter.Progress() {
+            @Override
+            public void update(CsvImporter.Result result, int percent) {
+                // 统计对象仍在被导入线程修改，先在这里取出要显示的文本
+                String note = String.format("已读取 %d 行，导入 %d 行，拒绝 %d 行，约 %.0f 行/秒",
+                        result.read, result.inserted, result.rejected, result.rowsPerSecond());
+                SwingUtilities.invokeLater(() -> {
+                    if (monitor.isCanceled()) {
+                        cancelled.set(true);
+                    }
+                    monitor.setNote(note);
+                    monitor.setProgress(percent);
+                });
+            }
+
+            @Override
+            public boolean cancelled() {
+                return cancelled.get();
+            }
+        };
+
+        setBusy(tab, true);
+        fileExecutor.submit(null, () -> {
+            try {
+                return CsvImporter.importFile(kind, path, progress);
+            } catch (IOException e) {
+                throw new SQLException("读取文件失败: " + e.getMessage(), e);
+            } finally {
+                // 部分块可能已经提交
+                if (kind == CsvImporter.Kind.JOBS) {
+                    ReferenceData.JOBS.invalidateAll();
+                    reportCache.invalidate("Job");
+                }
+            }
+        }, result -> JOptionPane.showMessageDialog(this, result.toString(), kind.name + "导入完成",
+                result.rejected > 0 ? JOptionPane.WARNING_MESSAGE : JOptionPane.INFORMATION_MESSAGE), e ->
+                JOptionPane.showMessageDialog(this, "导入失败: " + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE),
+                () -> {
+                    monitor.close();
+                    setBusy(tab, false);
+                    if (kind == CsvImporter.Kind.JOBS) {
+                        loadJobData();
+                        loadJobs();
+                    } else {
+                        loadSeekerData();
+                        loadJobSeekers();
+                    }
+                });
+    }
+
+    /**
+     * 在后台线程执行数据库任务，并在EDT中处理结果
+     * 
+     * 执行期间对应选项卡显示忙碌状态；任务失败时弹出错误对话框。
+     * 
+     * @param tab 显示忙碌状态的选项卡索引
+     * @param staleKey 过期判断的键，同一张表/下拉框的刷新使用相同的键，新刷新会丢弃旧结果；增删改操作传null
+     * @param task 在后台线程执行的数据库任务
+     * @param onSuccess 成功回调，在EDT中执行
+     * @param errorMessage 失败时错误对话框的消息前缀
+     * @param <T> 任务结果类型
+     */
+    private <T> void runInBackground(int tab, String staleKey, Dao.SqlWork<T> task,
+                                     Consumer<? super T> onSuccess, String errorMessage) {
+        setBusy(tab, true);
+
+        // 启动期间的第一次加载记入启动时间线
+        final StartupTimeline timeline = startupTimeline != null && startupTimeline.isPending(staleKey)
+                ? startupTimeline : null;
+        if (timeline == null) {
+            dbExecutor.submit(staleKey, task, onSuccess,
+                    e -> JOptionPane.showMessageDialog(this, errorMessage + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE),
+                    () -> setBusy(tab, false));
+            return;
         }
 
-        // ==================== 提取数据行 ====================
-        // 创建数据向量，用于存储所有行的数据
-        Vector<Vector<Object>> data = new Vector<>();
-        
-        // 遍历ResultSet的每一行数据
-        while (rs.next()) {
-            // 为当前行创建一个向量，用于存储该行的所有列值
-            Vector<Object> vector = new Vector<>();
-            
-            // 遍历当前行的所有列
-            for (int columnIndex = 1; columnIndex <= columnCount; columnIndex++) {
-                // 使用getObject获取列值，支持所有数据类型
-                vector.add(rs.getObject(columnIndex));
+        timeline.submitted(staleKey);
+        dbExecutor.submit(staleKey, () -> {
+            timeline.queryStarted(staleKey);
+            try {
+                return task.call();
+            } finally {
+                timeline.queryFinished(staleKey);
             }
-            
-            // 将当前行数据添加到数据向量中
-            data.add(vector);
+        }, result -> {
+            onSuccess.accept(result);
+            timeline.applied(staleKey, countRows(result), false);
+            finishStartupIfComplete();
+        }, e -> {
+            timeline.applied(staleKey, -1, true);
+            finishStartupIfComplete();
+            JOptionPane.showMessageDialog(this, errorMessage + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
+        }, () -> setBusy(tab, false));
+    }
+
+    /**
+     * 统计后台任务结果的行数（表格模型或列表），用于启动时间线
+     */
+    private static int countRows(Object result) {
+        if (result instanceof javax.swing.table.TableModel) {
+            return ((javax.swing.table.TableModel) result).getRowCount();
+        }
+        if (result instanceof List) {
+            return ((List<?>) result).size();
         }
+        return -1;
+    }
+
+    /**
+     * 增减选项卡的后台任务计数，并刷新忙碌状态显示（EDT调用）
+     */
+    private void setBusy(int tab, boolean busy) {
+        busyCounts[tab] += busy ? 1 : -1;
+        updateBusyIndicator(tab);
+    }
 
-        // 创建并返回DefaultTableModel对象
-        // 参数1：数据向量（所有行的数据）
-        // 参数2：列名向量（表格表头）
-        return new DefaultTableModel(data, columnNames);
+    /**
+     * 刷新选项卡的忙碌状态显示
+     * 有后台任务时在标题后追加“加载中”并显示等待光标
+     */
+    private void updateBusyIndicator(int tab) {
+        if (tabbedPane == null || tab >= tabbedPane.getTabCount()) {
+            return;  // 选项卡尚未创建，createUI结束时会统一刷新
+        }
+        boolean busy = busyCounts[tab] > 0;
+        tabbedPane.setTitleAt(tab, busy ? TAB_TITLES[tab] + " (加载中…)" : TAB_TITLES[tab]);
+        tabbedPane.getComponentAt(tab).setCursor(busy
+                ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR)
+                : Cursor.getDefaultCursor());
     }
 
     /**
@@ -2108,7 +2550,7 @@ public class JobManagementSystem extends JFrame {
             // 检查按钮是否被点击
             if (isPushed) {
                 // 获取当前行的费用ID（第0列）
-                int feeId = Integer.parseInt(feeTable.getValueAt(row, 0).toString());
+                int feeId = ((TypedTableModel) feeTable.getModel()).getInt(row, 0);
                 
                 // 调用删除方法，执行实际的删除操作
                 deleteFeeRecord(feeId);
@@ -2146,10 +2588,12 @@ public class JobManagementSystem extends JFrame {
      * 这是Swing应用程序的标准做法，避免线程安全问题。
      * 
      * 启动流程：
-     * 1. 使用SwingUtilities.invokeLater确保在EDT（事件调度线程）中运行
-     * 2. 设置系统UI风格，使界面看起来更现代化
-     * 3. 创建JobManagementSystem实例
-     * 4. 显示主窗口
+     * 1. 指定-Djm.migrate=true时执行未完成的数据库迁移（SchemaMigrator，在主线程中执行，不占用EDT）；
+     *    默认不迁移，窗口创建后在后台检查版本（迁移通过“JobCli migrate”执行）
+     * 2. 使用SwingUtilities.invokeLater确保在EDT（事件调度线程）中运行
+     * 3. 设置系统UI风格，使界面看起来更现代化
+     * 4. 创建JobManagementSystem实例
+     * 5. 显示主窗口
      * 
      * 技术要点：
      * - SwingUtilities.invokeLater：确保GUI代码在EDT中执行，避免线程安全问题
@@ -2161,9 +2605,31 @@ public class JobManagementSystem extends JFrame {
      * Swing组件必须在EDT中创建和操作，否则可能导致不可预期的行为。
      * invokeLater方法将Runnable任务提交到EDT队列中，确保在正确的线程中执行。
      * 
-     * @param args 命令行参数（本程序未使用，但保留标准main方法签名）
+     * @param args 命令行参数；有参数时按命令行模式执行（见JobCli），不创建窗口
      */
     public static void main(String[] args) {
+        // 带参数启动时转到无界面的命令行模式（计划任务应直接运行JobCli，避免加载本类的界面依赖）
+        if (args.length > 0) {
+            JobCli.main(args);
+            return;
+        }
+
+        // 显式指定jm.migrate=true时先执行数据库迁移，界面打开时表结构和索引已经是最新的
+        // 迁移失败时提示后继续启动，旧表结构下界面仍可使用（增量同步会自动停用）
+        if (SchemaMigrator.ENABLED) {
+            try {
+                for (String migration : SchemaMigrator.migrate()) {
+                    System.err.println("已执行数据库迁移: " + migration);
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
+                JOptionPane.showMessageDialog(null,
+                    "数据库迁移失败: " + e.getMessage(),
+                    "错误",
+                    JOptionPane.ERROR_MESSAGE);
+            }
+        }
+
         // 使用SwingUtilities.invokeLater确保在事件调度线程(EDT)中运行GUI代码
         // 这是Swing应用程序的标准做法，避免线程安全问题
         SwingUtilities.invokeLater(() -> {
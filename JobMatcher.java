@@ -0,0 +1,180 @@
+/**
+ * 职业匹配执行类
+ *
+ * 该类在一个事务中完成“求职者匹配到职业”的全部数据库操作，
+ * 多个终端同时匹配同一职业时也不会超出需求人数。
+ *
+ * 匹配流程（一个事务，3次往返）：
+ * 1. SELECT ... FOR UPDATE 一次查询同时锁定职业行和求职者行，并读取空缺人数和聘用状态
+ * 2. 检查空缺人数和聘用状态，不满足时回滚并返回对应的MatchOutcome
+ * 3. INSERT JobMatching，由AfterInsertMatching触发器增加已聘人数并把求职者标记为已聘用
+ * 4. COMMIT
+ *
+ * 注意：
+ * - 已聘人数和聘用状态只由job_management.sql中的触发器维护，
+ *   Java代码不能再手动UPDATE，否则会重复计数
+ * - 发生死锁（SQLState 40001）时自动重试
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 职业匹配执行器
+ */
+class JobMatcher {
+
+    /** 死锁时的最大尝试次数 */
+    private static final int MAX_ATTEMPTS = 3;
+
+    /** MySQL死锁/序列化失败的SQLState */
+    private static final String DEADLOCK_SQL_STATE = "40001";
+
+    /**
+     * 锁定职业行和求职者行并读取匹配条件
+     * 两个主键等值条件，MySQL按常量表处理，只锁定这两行
+     */
+    static final String LOCK_SQL =
+            "SELECT j.required_count - j.hired_count AS vacancy, s.employed " +
+            "FROM Job j JOIN JobSeeker s ON s.seeker_id = ? " +
+            "WHERE j.job_id = ? FOR UPDATE";
+
+    private static final String INSERT_SQL = "INSERT INTO JobMatching (job_id, seeker_id) VALUES (?, ?)";
+
+    private static final String DELETE_SQL = "DELETE FROM JobMatching WHERE match_id = ?";
+
+    private static final DbMetrics.Operation LOCK = DbMetrics.operation(LOCK_SQL);
+    private static final DbMetrics.Operation INSERT = DbMetrics.operation(INSERT_SQL);
+    private static final DbMetrics.Operation DELETE = DbMetrics.operation(DELETE_SQL);
+
+    private JobMatcher() {
+    }
+
+    /**
+     * 在一个事务中把求职者匹配到职业
+     *
+     * @param conn 数据库连接（方法内部会临时关闭自动提交，结束后恢复）
+     * @param jobId 职业ID
+     * @param seekerId 求职者ID
+     * @return 匹配结果
+     * @throws SQLException SQL异常（重试后仍然死锁也会抛出）
+     */
+    static MatchOutcome match(Connection conn, int jobId, int seekerId) throws SQLException {
+        return match(conn, jobId, seekerId, null);
+    }
+
+    /**
+     * 在一个事务中把求职者匹配到职业，并返回新匹配记录的ID
+     *
+     * @param conn 数据库连接（方法内部会临时关闭自动提交，结束后恢复）
+     * @param jobId 职业ID
+     * @param seekerId 求职者ID
+     * @param matchId 不为null时，匹配成功后matchId[0]为新匹配记录的match_id
+     * @return 匹配结果
+     * @throws SQLException SQL异常（重试后仍然死锁也会抛出）
+     */
+    static MatchOutcome match(Connection conn, int jobId, int seekerId, int[] matchId) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    MatchOutcome outcome = tryMatch(conn, jobId, seekerId, matchId);
+                    if (outcome == MatchOutcome.OK) {
+                        conn.commit();
+                    } else {
+                        conn.rollback();
+                    }
+                    return outcome;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    if (attempt >= MAX_ATTEMPTS || !DEADLOCK_SQL_STATE.equals(e.getSQLState())) {
+                        throw e;
+                    }
+                    // 死锁时InnoDB已回滚其中一个事务，重新执行即可
+                } catch (RuntimeException e) {
+                    // 程序错误不重试，但同样要回滚，不能把锁和半完成的事务留在连接上
+                    conn.rollback();
+                    throw e;
+                }
+            }
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * 执行一次匹配尝试（调用者负责提交或回滚）
+     */
+    private static MatchOutcome tryMatch(Connection conn, int jobId, int seekerId, int[] matchId) throws SQLException {
+        try (PreparedStatement lock = conn.prepareStatement(LOCK_SQL)) {
+            lock.setInt(1, seekerId);
+            lock.setInt(2, jobId);
+            long start = System.nanoTime();
+            try (ResultSet rs = LOCK.executed(start, lock.executeQuery())) {
+                long fetchStart = System.nanoTime();
+                boolean found = rs.next();
+                LOCK.fetched(fetchStart, found ? 1 : 0);
+                if (!found) {
+                    return MatchOutcome.NOT_FOUND;
+                }
+                if (rs.getInt("vacancy") <= 0) {
+                    return MatchOutcome.JOB_FULL;
+                }
+                if (rs.getBoolean("employed")) {
+                    return MatchOutcome.SEEKER_EMPLOYED;
+                }
+            } catch (SQLException e) {
+                LOCK.failed();
+                throw e;
+            }
+        }
+
+        try (PreparedStatement insert = conn.prepareStatement(INSERT_SQL,
+                matchId == null ? Statement.NO_GENERATED_KEYS : Statement.RETURN_GENERATED_KEYS)) {
+            insert.setInt(1, jobId);
+            insert.setInt(2, seekerId);
+            long start = System.nanoTime();
+            try {
+                INSERT.updated(start, insert.executeUpdate());
+            } catch (SQLException e) {
+                INSERT.failed();
+                throw e;
+            }
+            if (matchId != null) {
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    matchId[0] = keys.getInt(1);
+                }
+            }
+        }
+        return MatchOutcome.OK;
+    }
+
+    /**
+     * 删除匹配记录
+     * 已聘人数和聘用状态由AfterDeleteMatching触发器在同一语句中恢复
+     *
+     * @param conn 数据库连接
+     * @param matchId 匹配ID
+     * @return 是否删除了记录
+     * @throws SQLException SQL异常
+     */
+    static boolean unmatch(Connection conn, int matchId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(DELETE_SQL)) {
+            pstmt.setInt(1, matchId);
+            long start = System.nanoTime();
+            return DELETE.updated(start, pstmt.executeUpdate()) > 0;
+        } catch (SQLException e) {
+            DELETE.failed();
+            throw e;
+        }
+    }
+}
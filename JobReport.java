@@ -0,0 +1,57 @@
+/**
+ * 职业统计报表类
+ *
+ * 读取职业统计和分类汇总（见StatsDao）并格式化为报表面板中显示的文本。
+ * 读取和格式化分为两步，格式化不需要数据库，可以单独测量（见HotPathBenchmark）。
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * 职业需求统计报表
+ */
+final class JobReport {
+
+    private JobReport() {
+    }
+
+    /**
+     * 读取统计并生成报表
+     *
+     * @param conn 数据库连接
+     * @return 报表字符串
+     * @throws SQLException SQL异常
+     */
+    static String generate(Connection conn) throws SQLException {
+        return format(StatsDao.jobStats(conn), StatsDao.categoryStats(conn));
+    }
+
+    /**
+     * 格式化报表：每个职业一行，之后是分类汇总
+     */
+    static String format(List<StatsDao.JobStat> jobs, List<StatsDao.CategoryStat> categories) {
+        StringBuilder report = new StringBuilder();
+        report.append("========= 职业需求统计报表 =========\n");
+        report.append(String.format("%-20s %-15s %-15s %-15s\n", "职业名称", "需求人数", "已聘人数", "空缺人数"));
+        for (StatsDao.JobStat stat : jobs) {
+            report.append(String.format("%-20s %-15d %-15d %-15d\n",
+                    stat.employer, stat.required, stat.hired, stat.vacancy));
+        }
+
+        report.append("------------- 分类汇总 -------------\n");
+        report.append(String.format("%-20s %-10s %-15s %-15s %-15s\n", "职业分类", "职业数", "需求人数", "已聘人数", "空缺人数"));
+        for (StatsDao.CategoryStat stat : categories) {
+            report.append(String.format("%-20s %-10d %-15d %-15d %-15d\n",
+                    stat.categoryName, stat.jobCount, stat.required, stat.hired, stat.vacancy));
+        }
+
+        report.append("=====================================");
+        return report.toString();
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * JSON输出类
+ *
+ * 命令行模式和HTTP接口的结果都是由Map、List和基本值组成的树，
+ * 这里把它序列化为紧凑的一行JSON，不依赖第三方库。
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 最小的JSON序列化：Map、List、int[]、数字（BigDecimal按原样输出）、布尔、字符串和null，
+ * 其他对象按toString()输出为字符串
+ * 只输出ASCII字符，中文等字符写成\\uXXXX，结果与控制台或传输编码无关
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    static String of(Object value) {
+        StringBuilder sb = new StringBuilder();
+        append(sb, value);
+        return sb.toString();
+    }
+
+    private static void append(StringBuilder sb, Object value) {
+        if (value == null) {
+            sb.append("null");
+        } else if (value instanceof Map) {
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                appendString(sb, String.valueOf(entry.getKey()));
+                sb.append(':');
+                append(sb, entry.getValue());
+            }
+            sb.append('}');
+        } else if (value instanceof List) {
+            sb.append('[');
+            boolean first = true;
+            for (Object item : (List<?>) value) {
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                append(sb, item);
+            }
+            sb.append(']');
+        } else if (value instanceof int[]) {
+            sb.append('[');
+            int[] items = (int[]) value;
+            for (int i = 0; i < items.length; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append(items[i]);
+            }
+            sb.append(']');
+        } else if (value instanceof BigDecimal) {
+            sb.append(((BigDecimal) value).toPlainString());
+        } else if (value instanceof Number || value instanceof Boolean) {
+            sb.append(value);
+        } else {
+            appendString(sb, value.toString());
+        }
+    }
+
+    private static void appendString(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c > 0x7e) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+}
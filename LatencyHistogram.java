@@ -0,0 +1,140 @@
+/**
+ * 延迟直方图类
+ *
+ * 记录请求耗时的分布，用于计算p50/p90/p95/p99等分位数。
+ * 桶按对数-线性划分（与HdrHistogram相同的思路）：每个2的幂区间再均分为SUB_BUCKETS个桶，
+ * 相对误差不超过1/SUB_BUCKETS，1微秒到约12天的范围只需要三百多个计数器。
+ *
+ * 线程安全：
+ * - record只做几次原子加，不加锁、不分配对象，可以在每个请求线程中直接调用
+ * - snapshot复制计数器时记录仍在进行，快照中的各项之间可能相差正在记录的几次，不影响统计用途
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 延迟直方图（单位：微秒）
+ */
+final class LatencyHistogram {
+
+    /** 每个2的幂区间的子桶数（2^SUB_BITS） */
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    /** 可记录的最大值为2^MAX_EXPONENT - 1微秒，更大的值计入最后一个桶 */
+    private static final int MAX_EXPONENT = 40;
+
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * 分位数快照（只读）
+     */
+    static final class Snapshot {
+        final long count;
+        final long meanMicros;
+        final long p50Micros;
+        final long p90Micros;
+        final long p95Micros;
+        final long p99Micros;
+        final long p999Micros;
+        final long maxMicros;
+
+        private Snapshot(long[] counts, long count, long totalMicros, long maxMicros) {
+            this.count = count;
+            this.meanMicros = count == 0 ? 0 : totalMicros / count;
+            this.maxMicros = maxMicros;
+            this.p50Micros = percentile(counts, count, 0.50, maxMicros);
+            this.p90Micros = percentile(counts, count, 0.90, maxMicros);
+            this.p95Micros = percentile(counts, count, 0.95, maxMicros);
+            this.p99Micros = percentile(counts, count, 0.99, maxMicros);
+            this.p999Micros = percentile(counts, count, 0.999, maxMicros);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d 次，平均 %.2fms，p50 %.2fms，p90 %.2fms，p99 %.2fms，p99.9 %.2fms，最大 %.2fms",
+                    count, meanMicros / 1000.0, p50Micros / 1000.0, p90Micros / 1000.0,
+                    p99Micros / 1000.0, p999Micros / 1000.0, maxMicros / 1000.0);
+        }
+    }
+
+    /**
+     * 记录一次耗时
+     *
+     * @param nanos 耗时（纳秒，通常为两次System.nanoTime()之差）
+     */
+    void recordNanos(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        counts.incrementAndGet(index(micros));
+        totalMicros.add(micros);
+        long max = maxMicros.get();
+        while (micros > max && !maxMicros.compareAndSet(max, micros)) {
+            max = maxMicros.get();
+        }
+    }
+
+    /**
+     * 当前分布的快照
+     */
+    Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new Snapshot(copy, count, totalMicros.sum(), maxMicros.get());
+    }
+
+    /**
+     * 微秒数所在的桶
+     */
+    private static int index(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent >= MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int shift = exponent - SUB_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((micros >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * 桶中最大的微秒数（分位数取桶的上界，不会低估）
+     */
+    private static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    private static long percentile(long[] counts, long count, double quantile, long maxMicros) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * count);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), maxMicros);
+            }
+        }
+        return maxMicros;
+    }
+}
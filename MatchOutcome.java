@@ -0,0 +1,35 @@
+/**
+ * 匹配结果枚举
+ *
+ * JobMatcher.match()的返回值，调用者根据结果决定提示信息，
+ * 不再需要在界面代码中逐项查询职业和求职者的状态。
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+/**
+ * 匹配结果
+ */
+enum MatchOutcome {
+
+    /** 匹配成功，匹配记录已插入并提交 */
+    OK("匹配成功！"),
+
+    /** 职业的已聘人数已达到需求人数 */
+    JOB_FULL("该职业需求已满，无法匹配"),
+
+    /** 求职者已被聘用 */
+    SEEKER_EMPLOYED("该求职者已被聘用，无法再次匹配"),
+
+    /** 职业或求职者不存在 */
+    NOT_FOUND("无效的职业或求职者");
+
+    /** 显示给用户的提示信息 */
+    final String message;
+
+    MatchOutcome(String message) {
+        this.message = message;
+    }
+}
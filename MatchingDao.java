@@ -0,0 +1,89 @@
+/**
+ * 匹配记录数据访问类
+ *
+ * 匹配和取消匹配需要加锁和事务，仍由JobMatcher完成，这里只是统一的入口；
+ * 另外提供按match_id读取匹配双方的查询。
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 匹配记录DAO
+ */
+final class MatchingDao {
+
+    static final String FIND_SQL = "SELECT job_id, seeker_id FROM JobMatching WHERE match_id = ?";
+
+    /** 直接插入匹配记录，不检查空缺和聘用状态（只用于测试数据生成，调用者保证不超过需求人数） */
+    static final String INSERT_SQL = "INSERT INTO JobMatching (job_id, seeker_id) VALUES (?, ?)";
+
+    /** match_id大于给定值的第一条匹配记录 */
+    static final String NEXT_ID_SQL = "SELECT match_id FROM JobMatching WHERE match_id > ? ORDER BY match_id LIMIT 1";
+
+    /** 锁定一组匹配记录并读取匹配双方（%s为IN列表） */
+    static final String LOCK_ALL_SQL = "SELECT match_id, job_id, seeker_id FROM JobMatching "
+            + "WHERE match_id IN (%s) ORDER BY match_id FOR UPDATE";
+
+    private MatchingDao() {
+    }
+
+    /**
+     * 读取匹配记录的职业ID和求职者ID
+     *
+     * @return {job_id, seeker_id}，记录不存在时为null
+     */
+    static int[] find(Connection conn, int matchId) throws SQLException {
+        int[][] found = {null};
+        Dao.query(conn, FIND_SQL, rs -> found[0] = new int[]{rs.getInt(1), rs.getInt(2)}, matchId);
+        return found[0];
+    }
+
+    /**
+     * 在一个事务中把求职者匹配到职业（见JobMatcher.match）
+     *
+     * @param matchId 不为null时，匹配成功后matchId[0]为新匹配记录的match_id
+     */
+    static MatchOutcome match(Connection conn, int jobId, int seekerId, int[] matchId) throws SQLException {
+        return JobMatcher.match(conn, jobId, seekerId, matchId);
+    }
+
+    /**
+     * 删除匹配记录（见JobMatcher.unmatch）
+     *
+     * @return 删除了记录时为true
+     */
+    static boolean delete(Connection conn, int matchId) throws SQLException {
+        return JobMatcher.unmatch(conn, matchId);
+    }
+
+    /**
+     * 在一个事务中批量删除匹配记录
+     * AfterDeleteMatching触发器对每一行恢复已聘人数和聘用状态
+     *
+     * @param matchIds 要删除的匹配ID
+     * @param removed 不为null时加入每条被删除记录的{match_id, job_id, seeker_id}
+     * @return 删除结果，已被其他终端删除的记录不在其中
+     */
+    static Dao.Deleted deleteAll(Connection conn, int[] matchIds, List<int[]> removed) throws SQLException {
+        return Dao.inTransaction(conn, () -> {
+            int[] existing = new int[matchIds.length];
+            int[] count = {0};
+            Dao.queryInList(conn, LOCK_ALL_SQL, Dao.sorted(matchIds), rs -> {
+                existing[count[0]++] = rs.getInt(1);
+                if (removed != null) {
+                    removed.add(new int[]{rs.getInt(1), rs.getInt(2), rs.getInt(3)});
+                }
+            });
+            int[] keys = Arrays.copyOf(existing, count[0]);
+            Dao.updateKeys(conn, Dao.deleteSql("JobMatching", "match_id"), keys);
+            return new Dao.Deleted(keys, new int[0]);
+        });
+    }
+}
@@ -0,0 +1,286 @@
+/**
+ * 最优匹配类
+ *
+ * 该类把AssignmentSolver接入数据库：读取有空缺的职业和未聘用的求职者（与BatchMatcher相同），
+ * 用可替换的评分函数为每个求职者生成得分最高的若干条候选边，求解最大权分配，
+ * 再通过JobMatcher.match()逐对写入JobMatching——与界面上单个“匹配”按钮走同一条路径，
+ * 因此行锁、空缺检查和触发器计数的规则完全一致。
+ *
+ * 候选边稀疏生成：评分函数同时提供候选职业来源（Scorer.candidates），plan只对来源列出的职业评分，
+ * 工作量与保留的边数成正比，而不是求职者数×职业数（10万×1万时是10亿次评分）。
+ * 默认评分WAITING_FIRST按职业得分分桶，每个求职者从最高的桶开始取，
+ * 同分的职业在求职者之间轮换起点，不同求职者的候选边分散到不同职业上。
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * 最优匹配执行器
+ */
+class OptimalMatcher {
+
+    /** 界面显示的策略名称 */
+    static final String STRATEGY = "最优分配（最小费用流）";
+
+    /** 默认每个求职者保留的候选职业数 */
+    static final int DEFAULT_CANDIDATES_PER_SEEKER = 20;
+
+    /**
+     * 一个求职者的候选职业来源
+     */
+    @FunctionalInterface
+    interface CandidateSource {
+        /**
+         * 把求职者的候选职业下标依次交给sink
+         *
+         * @param seeker 求职者下标
+         * @param limit 需要的候选职业数
+         * @param sink 返回true表示该职业被保留（评分不是REJECT）；
+         *             按得分从高到低列出的来源在保留了limit个之后即可停止
+         */
+        void forSeeker(int seeker, int limit, IntPredicate sink);
+    }
+
+    /**
+     * 评分函数
+     * 下标是Candidates中的数组下标，返回REJECT表示该求职者不考虑该职业
+     */
+    @FunctionalInterface
+    interface Scorer {
+        int REJECT = Integer.MIN_VALUE;
+
+        int score(BatchMatcher.Candidates c, int seeker, int job);
+
+        /**
+         * 为一次plan准备候选职业来源
+         * 默认列出全部职业（每个求职者都要对全部职业评分），只适合小规模数据；
+         * 评分规则允许时应覆盖为只列出可能进入前limit名的职业
+         */
+        default CandidateSource candidates(BatchMatcher.Candidates c) {
+            int jobs = c.jobIds.length;
+            return (seeker, limit, sink) -> {
+                for (int j = 0; j < jobs; j++) {
+                    sink.test(j);
+                }
+            };
+        }
+    }
+
+    /**
+     * 默认评分：登记越早的求职者得分越高（优先安置等待最久的人），
+     * 同一求职者优先分配到剩余空缺较多的职业（0~9分）
+     */
+    static final Scorer WAITING_FIRST = new WaitingFirst();
+
+    /**
+     * WAITING_FIRST的实现
+     * 求职者部分对同一求职者的所有职业相同，职业的排名只取决于职业部分（空缺数，最多9），
+     * 因此按职业部分分桶后从高到低取即可得到得分最高的职业，不需要逐个评分
+     */
+    private static final class WaitingFirst implements Scorer {
+        private static final int MAX_JOB_SCORE = 9;
+
+        @Override
+        public int score(BatchMatcher.Candidates c, int seeker, int job) {
+            return (c.seekerIds.length - seeker) * 10 + jobScore(c, job);
+        }
+
+        private static int jobScore(BatchMatcher.Candidates c, int job) {
+            return Math.min(c.vacancies[job], MAX_JOB_SCORE);
+        }
+
+        @Override
+        public CandidateSource candidates(BatchMatcher.Candidates c) {
+            // 按职业得分从高到低排列职业下标（计数排序，同分保持下标顺序），bucketStart[b]为第b个桶的起点
+            int jobs = c.jobIds.length;
+            int[] counts = new int[MAX_JOB_SCORE + 2];
+            for (int j = 0; j < jobs; j++) {
+                counts[MAX_JOB_SCORE - Math.max(0, jobScore(c, j)) + 1]++;
+            }
+            int[] bucketStart = new int[MAX_JOB_SCORE + 2];
+            for (int b = 1; b < bucketStart.length; b++) {
+                bucketStart[b] = bucketStart[b - 1] + counts[b];
+            }
+            int[] order = new int[jobs];
+            int[] next = Arrays.copyOf(bucketStart, bucketStart.length);
+            for (int j = 0; j < jobs; j++) {
+                order[next[MAX_JOB_SCORE - Math.max(0, jobScore(c, j))]++] = j;
+            }
+
+            return (seeker, limit, sink) -> {
+                int kept = 0;
+                for (int b = 0; b + 1 < bucketStart.length && kept < limit; b++) {
+                    int from = bucketStart[b];
+                    int size = bucketStart[b + 1] - from;
+                    if (size == 0) {
+                        continue;
+                    }
+                    // 同分职业对该求职者等价：轮换起点，相邻的求职者取到不同的职业
+                    int offset = (int) ((long) seeker * limit % size);
+                    for (int i = 0; i < size && kept < limit; i++) {
+                        if (sink.test(order[from + (offset + i) % size])) {
+                            kept++;
+                        }
+                    }
+                }
+            };
+        }
+    }
+
+    private OptimalMatcher() {
+    }
+
+    /**
+     * 读取候选数据、生成候选边并求解（不写数据库）
+     *
+     * @param conn 数据库连接
+     * @param scorer 评分函数
+     * @param candidatesPerSeeker 每个求职者保留得分最高的候选职业数
+     * @return 匹配方案
+     * @throws SQLException SQL异常
+     */
+    static BatchMatcher.Plan plan(Connection conn, Scorer scorer, int candidatesPerSeeker) throws SQLException {
+        return plan(BatchMatcher.loadCandidates(conn), scorer, candidatesPerSeeker);
+    }
+
+    /**
+     * 生成候选边并求解最大权分配（纯内存计算）
+     * 评分函数只对候选来源列出的职业调用，求解器只看到每个求职者得分最高的candidatesPerSeeker条边
+     */
+    static BatchMatcher.Plan plan(BatchMatcher.Candidates c, Scorer scorer, int candidatesPerSeeker) {
+        long start = System.nanoTime();
+        int seekers = c.seekerIds.length;
+        int jobs = c.jobIds.length;
+        int k = Math.min(candidatesPerSeeker, jobs);
+
+        int[] edgeSeeker = new int[seekers * k];
+        int[] edgeJob = new int[seekers * k];
+        int[] edgeScore = new int[seekers * k];
+        int edges = 0;
+
+        // 每个求职者用大小为k的最小堆保留得分最高的k个职业
+        int[] heapJob = new int[k];
+        int[] heapScore = new int[k];
+        int[] state = new int[2];  // {当前求职者, 堆大小}，sink在循环外创建一次
+        IntPredicate sink = j -> {
+            int score = scorer.score(c, state[0], j);
+            if (score == Scorer.REJECT) {
+                return false;
+            }
+            if (state[1] < k) {
+                siftUp(heapJob, heapScore, state[1]++, j, score);
+            } else if (score > heapScore[0]) {
+                siftDown(heapJob, heapScore, state[1], j, score);
+            }
+            return true;
+        };
+        CandidateSource source = scorer.candidates(c);
+        for (int s = 0; s < seekers; s++) {
+            state[0] = s;
+            state[1] = 0;
+            if (k > 0) {
+                source.forSeeker(s, k, sink);
+            }
+            int size = state[1];
+            for (int i = 0; i < size; i++) {
+                edgeSeeker[edges] = s;
+                edgeJob[edges] = heapJob[i];
+                edgeScore[edges] = heapScore[i];
+                edges++;
+            }
+        }
+
+        AssignmentSolver.Solution solution = new AssignmentSolver(seekers, c.vacancies,
+                Arrays.copyOf(edgeSeeker, edges), Arrays.copyOf(edgeJob, edges),
+                Arrays.copyOf(edgeScore, edges)).solve();
+
+        int[] jobIds = new int[solution.matched];
+        int[] seekerIds = new int[solution.matched];
+        String[] employers = new String[solution.matched];
+        String[] seekerNames = new String[solution.matched];
+        int n = 0;
+        for (int s = 0; s < seekers; s++) {
+            int j = solution.seekerJob[s];
+            if (j >= 0) {
+                jobIds[n] = c.jobIds[j];
+                employers[n] = c.employers[j];
+                seekerIds[n] = c.seekerIds[s];
+                seekerNames[n] = c.seekerNames[s];
+                n++;
+            }
+        }
+        return new BatchMatcher.Plan(STRATEGY + "，总得分 " + solution.totalScore, c,
+                jobIds, seekerIds, employers, seekerNames, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * 通过JobMatcher逐对写入匹配方案（每对一个事务）
+     *
+     * @param conn 数据库连接
+     * @param plan 匹配方案
+     * @return 提交统计，期间被其他终端占用的配对计为跳过
+     * @throws SQLException SQL异常（已提交的配对不会回滚）
+     */
+    static BatchMatcher.Result commit(Connection conn, BatchMatcher.Plan plan) throws SQLException {
+        BatchMatcher.Result result = new BatchMatcher.Result();
+        result.planned = plan.size();
+        long start = System.nanoTime();
+        for (int i = 0; i < plan.size(); i++) {
+            if (JobMatcher.match(conn, plan.jobIds[i], plan.seekerIds[i]) == MatchOutcome.OK) {
+                result.inserted++;
+            } else {
+                result.skipped++;
+            }
+            result.chunks++;
+        }
+        result.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return result;
+    }
+
+    // ==================== 候选职业的最小堆 ====================
+
+    private static void siftUp(int[] jobs, int[] scores, int i, int job, int score) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (scores[parent] <= score) {
+                break;
+            }
+            jobs[i] = jobs[parent];
+            scores[i] = scores[parent];
+            i = parent;
+        }
+        jobs[i] = job;
+        scores[i] = score;
+    }
+
+    /**
+     * 用新元素替换堆顶（当前最低分）并下沉
+     */
+    private static void siftDown(int[] jobs, int[] scores, int size, int job, int score) {
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && scores[child + 1] < scores[child]) {
+                child++;
+            }
+            if (scores[child] >= score) {
+                break;
+            }
+            jobs[i] = jobs[child];
+            scores[i] = scores[child];
+            i = child;
+        }
+        jobs[i] = job;
+        scores[i] = score;
+    }
+}
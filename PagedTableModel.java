@@ -0,0 +1,772 @@
+/**
+ * 分页懒加载表格模型类
+ *
+ * 该类替代buildTableModel的全量加载方式：表格只在需要显示某一页时才从数据库读取该页，
+ * 数据量很大（例如几十万求职者）时也不需要把所有行一次性放进内存。
+ * 主要功能：
+ * 1. 使用COUNT(*)获取总行数，JTable据此计算滚动条范围
+ * 2. 按主键进行键集分页（WHERE key >= ? ORDER BY key LIMIT n），
+ *    顺序滚动时每一页都从上一页的最后一个主键继续读取
+ * 3. 跳转到尚未知道起始主键的页面时，用一次OFFSET查询定位，之后记住该页的起始主键
+ * 4. 只在内存中保留最近使用的若干页（LRU），其余页面被淘汰后需要时重新读取
+ * 5. 页面未到达时单元格显示占位符，页面在后台线程读取，到达后刷新对应行；
+ *    从数据库读到的页面不满一页说明已到表尾，缓存的行数（COUNT）偏大时
+ *    （其他终端删除了行而增量同步尚未合并，或同步已停用）按实际读到的行数缩减，不再反复读取该页
+ * 6. 每一页以列式模型（ColumnarTableModel）保存，并通过TypedTableModel提供类型化读取
+ * 7. 增删改补丁：增删改操作后只按主键重新读取受影响的一行（RowPatch），
+ *    在已缓存的页面中原地替换/插入/删除，并触发fireTableRowsInserted/Updated/Deleted，
+ *    表格的滚动位置和选中行保持不变，不需要重新加载整张表；
+ *    批量删除的一组补丁通过apply(List)一次应用，只触发一次表格事件
+ * 8. 每条查询的执行耗时、读取和构建列式模型的耗时、行数记录到DbMetrics
+ * 9. 其他终端的修改（DeltaSync）以CHANGED/DELETED补丁合并进来：
+ *    已缓存的行原地替换；主键大于已知最大主键、或所在页已缓存的新行插入；
+ *    其余行所在页未缓存，以后读取时自然是最新数据
+ *
+ * 线程模型：
+ * - 除open()以外的所有方法都在EDT中调用
+ * - 页面读取通过DbExecutor在后台线程执行，结果回到EDT写入缓存
+ *
+ * 使用限制：
+ * - 主键必须是int类型，并且是查询结果的第一列
+ * - from子句中不能包含WHERE（分页条件由本类拼接）
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * 分页懒加载表格模型
+ */
+class PagedTableModel extends AbstractTableModel implements TypedTableModel {
+
+    /** 页面尚未到达时单元格显示的占位符 */
+    static final String LOADING = "…";
+
+    /** 默认每页行数 */
+    static final int DEFAULT_PAGE_SIZE = 200;
+
+    /** 默认最多缓存的页数 */
+    static final int DEFAULT_MAX_PAGES = 50;
+
+    /**
+     * 分页查询的定义
+     * 例如职业表：列 = "j.job_id, c.category_name, ..."，来源 = "Job j JOIN JobCategory c ON ..."，主键 = "j.job_id"
+     */
+    static final class Spec {
+        final String columns;
+        final String from;
+        final String keyColumn;
+
+        /** 追加在最后的操作列（例如费用表的“删除”按钮列），为null表示没有 */
+        final String actionColumn;
+        final Object actionValue;
+
+        Spec(String columns, String from, String keyColumn) {
+            this(columns, from, keyColumn, null, null);
+        }
+
+        private Spec(String columns, String from, String keyColumn, String actionColumn, Object actionValue) {
+            this.columns = columns;
+            this.from = from;
+            this.keyColumn = keyColumn;
+            this.actionColumn = actionColumn;
+            this.actionValue = actionValue;
+        }
+
+        /**
+         * 返回追加了操作列的新定义，操作列的每一行都显示同一个值且可编辑
+         */
+        Spec withActionColumn(String name, Object value) {
+            return new Spec(columns, from, keyColumn, name, value);
+        }
+
+        /** 总行数和最大主键 */
+        String countSql() {
+            return "SELECT COUNT(*), MAX(" + keyColumn + ") FROM " + from;
+        }
+
+        String keysetSql(int limit) {
+            return "SELECT " + columns + " FROM " + from + " WHERE " + keyColumn + " >= ? ORDER BY " + keyColumn
+                    + " LIMIT " + limit;
+        }
+
+        String offsetSql(int limit) {
+            return "SELECT " + columns + " FROM " + from + " ORDER BY " + keyColumn + " LIMIT " + limit + " OFFSET ?";
+        }
+
+        String rowSql() {
+            return "SELECT " + columns + " FROM " + from + " WHERE " + keyColumn + " = ?";
+        }
+
+        /** 主键小于给定值的行数，即该主键在表中的行号 */
+        String positionSql() {
+            return "SELECT COUNT(*) FROM " + from + " WHERE " + keyColumn + " < ?";
+        }
+
+        /** 两个主键之间（不含两端）的全部主键 */
+        String keysBetweenSql() {
+            return "SELECT " + keyColumn + " FROM " + from + " WHERE " + keyColumn + " > ? AND " + keyColumn + " < ?"
+                    + " ORDER BY " + keyColumn;
+        }
+    }
+
+    // ==================== 增删改补丁 ====================
+
+    /**
+     * 单行补丁：在后台线程读取，在EDT中通过apply()应用到模型
+     */
+    static final class RowPatch {
+
+        /**
+         * INSERTED/UPDATED/DELETED：本终端的增删改
+         * CHANGED：DeltaSync读取的其他终端修改，不知道是新增还是修改（同时读取行号和该行数据）
+         */
+        enum Kind { INSERTED, UPDATED, DELETED, CHANGED }
+
+        final Kind kind;
+        final int key;
+
+        /** 该主键在表中的行号（INSERTED/DELETED时读取，UPDATED时为-1） */
+        final int position;
+
+        /** 重新读取的行（0或1行），DELETED时为null */
+        final ColumnarTableModel row;
+
+        /** 开始读取补丁的时刻（System.nanoTime），晚于该时刻打开的模型已经包含这次修改 */
+        final long readNanos;
+
+        private RowPatch(Kind kind, int key, long readNanos, int position, ColumnarTableModel row) {
+            this.kind = kind;
+            this.key = key;
+            this.readNanos = readNanos;
+            this.position = position;
+            this.row = row;
+        }
+
+        /**
+         * 重新读取时该行是否仍然存在（UPDATED时为false表示记录已被其他终端删除）
+         */
+        boolean rowExists() {
+            return row != null && row.getRowCount() > 0;
+        }
+
+        /**
+         * 新增一行后读取补丁（后台线程调用）：读取行号和该行数据
+         */
+        static RowPatch inserted(Connection conn, Spec spec, int key) throws SQLException {
+            long start = System.nanoTime();
+            return new RowPatch(Kind.INSERTED, key, start, readPosition(conn, spec, key), readRow(conn, spec, key));
+        }
+
+        /**
+         * 修改一行后读取补丁（后台线程调用）：只读取该行数据，行号在EDT中从已缓存页面查找
+         */
+        static RowPatch updated(Connection conn, Spec spec, int key) throws SQLException {
+            long start = System.nanoTime();
+            return new RowPatch(Kind.UPDATED, key, start, -1, readRow(conn, spec, key));
+        }
+
+        /**
+         * 删除一行后读取补丁（后台线程调用）：只读取行号
+         */
+        static RowPatch deleted(Connection conn, Spec spec, int key) throws SQLException {
+            long start = System.nanoTime();
+            return new RowPatch(Kind.DELETED, key, start, readPosition(conn, spec, key), null);
+        }
+
+        /**
+         * 批量删除多行后读取补丁（后台线程调用）
+         *
+         * 不逐行查询行号：只查询最小主键的行号，再读取最小和最大主键之间剩余的主键，
+         * 由此算出每个被删除的主键在删除前的行号。补丁按主键降序排列，依次应用时行号都有效。
+         *
+         * @param keys 已删除的主键
+         * @return 每个主键一个DELETED补丁
+         */
+        static List<RowPatch> deleted(Connection conn, Spec spec, int[] keys) throws SQLException {
+            long start = System.nanoTime();
+            int[] sorted = keys.clone();
+            Arrays.sort(sorted);
+            List<RowPatch> patches = new ArrayList<>(sorted.length);
+            if (sorted.length == 0) {
+                return patches;
+            }
+            int base = readPosition(conn, spec, sorted[0]);  // 最小主键之前剩余的行数
+            int[] positions = new int[sorted.length];
+            String sql = spec.keysBetweenSql();
+            DbMetrics.Operation operation = DbMetrics.operation(sql);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, sorted[0]);
+                pstmt.setInt(2, sorted[sorted.length - 1]);
+                long executeStart = System.nanoTime();
+                try (ResultSet rs = operation.executed(executeStart, pstmt.executeQuery())) {
+                    long fetchStart = System.nanoTime();
+                    int remaining = 0;  // 已经过的剩余主键数
+                    int i = 0;
+                    positions[0] = base;
+                    while (rs.next()) {
+                        int key = rs.getInt(1);
+                        while (i + 1 < sorted.length && sorted[i + 1] < key) {
+                            i++;
+                            positions[i] = base + i + remaining;
+                        }
+                        remaining++;
+                    }
+                    while (++i < sorted.length) {
+                        positions[i] = base + i + remaining;
+                    }
+                    operation.fetched(fetchStart, remaining);
+                } catch (SQLException e) {
+                    operation.failed();
+                    throw e;
+                }
+            }
+            for (int i = sorted.length - 1; i >= 0; i--) {
+                patches.add(new RowPatch(Kind.DELETED, sorted[i], start, positions[i], null));
+            }
+            return patches;
+        }
+
+        /**
+         * 其他终端新增或修改了一行后读取补丁（后台线程调用）：读取行号和该行数据
+         */
+        static RowPatch changed(Connection conn, Spec spec, int key) throws SQLException {
+            long start = System.nanoTime();
+            return new RowPatch(Kind.CHANGED, key, start, readPosition(conn, spec, key), readRow(conn, spec, key));
+        }
+
+        private static int readPosition(Connection conn, Spec spec, int key) throws SQLException {
+            String sql = spec.positionSql();
+            DbMetrics.Operation operation = DbMetrics.operation(sql);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, key);
+                long executeStart = System.nanoTime();
+                try (ResultSet rs = operation.executed(executeStart, pstmt.executeQuery())) {
+                    long fetchStart = System.nanoTime();
+                    rs.next();
+                    int position = rs.getInt(1);
+                    operation.fetched(fetchStart, 1);
+                    return position;
+                } catch (SQLException e) {
+                    operation.failed();
+                    throw e;
+                }
+            }
+        }
+
+        private static ColumnarTableModel readRow(Connection conn, Spec spec, int key) throws SQLException {
+            String sql = spec.rowSql();
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, key);
+                return readModel(DbMetrics.operation(sql), pstmt, 1);
+            }
+        }
+    }
+
+    // ==================== 模型状态 ====================
+
+    private final Spec spec;
+    private final DbExecutor executor;
+    private final int pageSize;
+    private final int maxPages;
+    private final String[] columnNames;
+    private final int dataColumnCount;
+    private int rowCount;
+
+    /** 模型中已知的最大主键（打开时的MAX(key)，之后随插入和读取的页面增大） */
+    private int maxKey;
+
+    /** 开始打开模型的时刻（System.nanoTime），早于该时刻读取的补丁可能已经包含在COUNT(*)中 */
+    private final long openedNanos;
+
+    /** 正在通过apply(List)应用一组补丁：行事件不单独触发，结束后合并为一次 */
+    private boolean batching;
+
+    /** 本组补丁是否改变了表格 */
+    private boolean batchChanged;
+
+    /** 已从模型中删除的主键，同一删除补丁重复到达（本终端删除后又被DeltaSync读到）时不再删除 */
+    private final Set<Integer> removedKeys = new HashSet<>();
+
+    /** 页号 -> 页面数据，访问顺序排列，超过maxPages时淘汰最久未访问的页 */
+    private final LinkedHashMap<Integer, ColumnarTableModel> pages;
+
+    /** 页号 -> 该页第一行的主键（键集分页的起点），淘汰页面时保留 */
+    private final TreeMap<Integer, Integer> anchors = new TreeMap<>();
+
+    /** 正在后台读取的页号，避免重复请求 */
+    private final Set<Integer> inFlight = new HashSet<>();
+
+    /**
+     * 结构版本：每次插入或删除行后递增
+     * 插入/删除会使后续页面的行号偏移，版本变化前发出的页面请求结果直接丢弃
+     */
+    private int structureVersion;
+
+    private PagedTableModel(Spec spec, DbExecutor executor, int pageSize, int maxPages, long openedNanos,
+                            String[] dataColumns, int rowCount, int maxKey, ColumnarTableModel firstPage) {
+        this.spec = spec;
+        this.executor = executor;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        this.dataColumnCount = dataColumns.length;
+        this.columnNames = new String[dataColumns.length + (spec.actionColumn == null ? 0 : 1)];
+        System.arraycopy(dataColumns, 0, columnNames, 0, dataColumns.length);
+        if (spec.actionColumn != null) {
+            columnNames[dataColumns.length] = spec.actionColumn;
+        }
+        // 第一页不满一页时以实际行数为准（COUNT与第一页之间可能有其他终端删除了行）
+        this.rowCount = firstPage.getRowCount() < pageSize ? Math.min(rowCount, firstPage.getRowCount()) : rowCount;
+        this.maxKey = maxKey;
+        this.openedNanos = openedNanos;
+        this.pages = new LinkedHashMap<Integer, ColumnarTableModel>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, ColumnarTableModel> eldest) {
+                return size() > PagedTableModel.this.maxPages;
+            }
+        };
+        anchors.put(0, Integer.MIN_VALUE);
+        if (firstPage.getRowCount() > 0) {
+            storePage(0, firstPage);
+        }
+    }
+
+    /**
+     * 打开分页模型（后台线程调用）
+     *
+     * 执行COUNT(*)获取总行数和最大主键，并读取第一页（同时得到列名），
+     * 返回的模型可以直接设置到JTable上。
+     *
+     * @param spec 分页查询定义
+     * @param executor 后续页面读取使用的后台执行器
+     * @return 已包含总行数和第一页数据的模型
+     * @throws SQLException SQL异常
+     */
+    static PagedTableModel open(Spec spec, DbExecutor executor) throws SQLException {
+        return open(spec, executor, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES);
+    }
+
+    static PagedTableModel open(Spec spec, DbExecutor executor, int pageSize, int maxPages) throws SQLException {
+        long openedNanos = System.nanoTime();
+        try (Connection conn = DBConnector.getConnection()) {
+            int count, maxKey;
+            String countSql = spec.countSql();
+            DbMetrics.Operation countOperation = DbMetrics.operation(countSql);
+            long countStart = System.nanoTime();
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = countOperation.executed(countStart, stmt.executeQuery(countSql))) {
+                long fetchStart = System.nanoTime();
+                rs.next();
+                count = rs.getInt(1);
+                maxKey = rs.getInt(2);  // 空表时为NULL，getInt返回0
+                countOperation.fetched(fetchStart, 1);
+            } catch (SQLException e) {
+                countOperation.failed();
+                throw e;
+            }
+
+            String sql = spec.keysetSql(pageSize);
+            DbMetrics.Operation operation = DbMetrics.operation(sql);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, Integer.MIN_VALUE);
+                long executeStart = System.nanoTime();
+                try (ResultSet rs = operation.executed(executeStart, pstmt.executeQuery())) {
+                    long fetchStart = System.nanoTime();
+                    ResultSetMetaData metaData = rs.getMetaData();
+                    String[] names = new String[metaData.getColumnCount()];
+                    for (int i = 0; i < names.length; i++) {
+                        names[i] = metaData.getColumnLabel(i + 1);
+                    }
+                    ColumnarTableModel firstPage = ColumnarTableModel.from(rs, pageSize);
+                    operation.fetched(fetchStart, firstPage.getRowCount());
+                    return new PagedTableModel(spec, executor, pageSize, maxPages, openedNanos, names,
+                            Math.max(count, firstPage.getRowCount()), maxKey, firstPage);
+                } catch (SQLException e) {
+                    operation.failed();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    // ==================== TableModel接口 ====================
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return column >= dataColumnCount;  // 只有操作列可编辑（用于行内按钮）
+    }
+
+    @Override
+    public void setValueAt(Object value, int row, int column) {
+        // 数据只读，操作列的编辑由按钮编辑器处理，这里不需要保存
+    }
+
+    /**
+     * 获取单元格的值
+     * 所在页已缓存时直接返回；否则请求后台读取该页并暂时返回占位符
+     */
+    @Override
+    public Object getValueAt(int row, int column) {
+        if (column >= dataColumnCount) {
+            return spec.actionValue;
+        }
+        ColumnarTableModel page = pageIfLoaded(row);
+        if (page == null) {
+            requestPage(row / pageSize);
+            return LOADING;
+        }
+        return page.getValueAt(row % pageSize, column);
+    }
+
+    /**
+     * 获取某一行的主键
+     *
+     * @param row 行索引
+     * @return 主键；该行所在页尚未加载时返回-1
+     */
+    int getKey(int row) {
+        ColumnarTableModel page = pageIfLoaded(row);
+        return page == null ? -1 : page.getInt(row % pageSize, 0);
+    }
+
+    // ==================== 类型化读取 ====================
+    // 只能读取已加载页面中的行（例如用户选中的可见行），未加载时抛出IllegalStateException
+
+    @Override
+    public int getInt(int row, int column) {
+        return loadedPage(row).getInt(row % pageSize, column);
+    }
+
+    @Override
+    public long getLong(int row, int column) {
+        return loadedPage(row).getLong(row % pageSize, column);
+    }
+
+    @Override
+    public boolean getBoolean(int row, int column) {
+        return loadedPage(row).getBoolean(row % pageSize, column);
+    }
+
+    @Override
+    public String getString(int row, int column) {
+        return loadedPage(row).getString(row % pageSize, column);
+    }
+
+    @Override
+    public boolean isNull(int row, int column) {
+        return loadedPage(row).isNull(row % pageSize, column);
+    }
+
+    // ==================== 页面读取 ====================
+
+    /**
+     * 返回行所在的已加载页面，页面未加载或该行超出页面实际行数时返回null
+     */
+    private ColumnarTableModel pageIfLoaded(int row) {
+        ColumnarTableModel page = pages.get(row / pageSize);
+        return page == null || row % pageSize >= page.getRowCount() ? null : page;
+    }
+
+    private ColumnarTableModel loadedPage(int row) {
+        ColumnarTableModel page = pageIfLoaded(row);
+        if (page == null) {
+            throw new IllegalStateException("第" + row + "行所在的页面尚未加载");
+        }
+        return page;
+    }
+
+    /**
+     * 请求后台读取指定页
+     * 已知起始主键时使用键集查询，否则使用OFFSET查询定位
+     */
+    private void requestPage(int page) {
+        if (!inFlight.add(page)) {
+            return;
+        }
+        final Integer anchor = anchors.get(page);
+        final int version = structureVersion;
+        executor.submit(null, () -> fetchPage(page, anchor), rows -> {
+            inFlight.remove(page);
+            if (version != structureVersion) {
+                return;  // 读取期间有行插入或删除，结果的行号已失效，下次绘制时重新请求
+            }
+            storePage(page, rows);
+            int first = page * pageSize;
+            trimAfterShortPage(first, rows.getRowCount());
+            int last = Math.min(rowCount, first + pageSize) - 1;
+            if (last >= first) {
+                fireTableRowsUpdated(first, last);
+            }
+        }, e -> {
+            inFlight.remove(page);  // 允许下次绘制时重试
+            System.err.println("读取第" + page + "页失败: " + e.getMessage());
+        }, null);
+    }
+
+    /**
+     * 从数据库读到的页面不满一页时，表在该页之后已经没有行：
+     * 行数大于实际行数时缩减并通知表格删除多出的行，否则这些行所在的页会在每次绘制时被重新请求
+     *
+     * @param first 该页第一行的行号
+     * @param size 该页实际读到的行数
+     */
+    private void trimAfterShortPage(int first, int size) {
+        int end = first + size;
+        if (size >= pageSize || rowCount <= end) {
+            return;
+        }
+        int oldCount = rowCount;
+        rowCount = end;
+        structureVersion++;
+        dropPagesAfter(first / pageSize);
+        fireTableRowsDeleted(end, oldCount - 1);
+    }
+
+    /**
+     * 读取一页数据（后台线程调用）
+     */
+    private ColumnarTableModel fetchPage(int page, Integer anchor) throws SQLException {
+        try (Connection conn = DBConnector.getConnection()) {
+            String sql = anchor != null ? spec.keysetSql(pageSize) : spec.offsetSql(pageSize);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                if (anchor != null) {
+                    pstmt.setInt(1, anchor);
+                } else {
+                    pstmt.setLong(1, (long) page * pageSize);
+                }
+                return readModel(DbMetrics.operation(sql), pstmt, pageSize);
+            }
+        }
+    }
+
+    /**
+     * 执行查询并构建列式模型，记录执行耗时、读取和构建耗时及行数
+     */
+    private static ColumnarTableModel readModel(DbMetrics.Operation operation, PreparedStatement pstmt, int limit)
+            throws SQLException {
+        long executeStart = System.nanoTime();
+        try (ResultSet rs = operation.executed(executeStart, pstmt.executeQuery())) {
+            long fetchStart = System.nanoTime();
+            ColumnarTableModel model = ColumnarTableModel.from(rs, limit);
+            operation.fetched(fetchStart, model.getRowCount());
+            return model;
+        } catch (SQLException e) {
+            operation.failed();
+            throw e;
+        }
+    }
+
+    // ==================== 应用补丁（EDT） ====================
+
+    /**
+     * 应用单行补丁
+     *
+     * - 只修改已缓存的页面；未缓存的页面以后按需读取时自然是最新数据
+     * - 插入/删除会丢弃该行之后的已缓存页面（它们的行号整体偏移了一行），可见时再重新读取
+     * - 补丁已经反映在模型中时（例如模型在操作后刚刚重新加载，或同一删除补丁再次到达）不会重复应用
+     *
+     * @param patch 后台读取的补丁
+     */
+    void apply(RowPatch patch) {
+        int cached = findCachedRow(patch.key);
+        switch (patch.kind) {
+            case INSERTED:
+                if (cached >= 0) {
+                    replaceRow(cached, patch.row);
+                } else if (patch.readNanos > openedNanos && patch.row.getRowCount() > 0) {
+                    insertRow(patch.position, patch.key, patch.row);
+                }
+                break;
+            case UPDATED:
+                if (cached >= 0) {
+                    replaceRow(cached, patch.row);
+                }
+                break;
+            case DELETED:
+                if (!removedKeys.add(patch.key)) {
+                    break;  // 已经删除过
+                }
+                if (cached >= 0) {
+                    removeRow(cached);
+                } else if (patch.readNanos > openedNanos
+                        && pageIfLoaded(patch.position) == null && patch.position < rowCount) {
+                    removeRow(patch.position);  // 所在页未缓存，按行号删除
+                }
+                break;
+            case CHANGED:
+                if (cached >= 0) {
+                    replaceRow(cached, patch.row);
+                } else if (patch.readNanos > openedNanos && patch.row.getRowCount() > 0
+                        && (patch.key > maxKey || pages.containsKey(patch.position / pageSize))) {
+                    // 比已知主键都大的一定是新行；所在页已缓存却找不到的也是新行
+                    insertRow(patch.position, patch.key, patch.row);
+                }
+                break;
+        }
+    }
+
+    /**
+     * 应用一组补丁（例如批量删除），全部应用后只触发一次fireTableDataChanged
+     *
+     * @param patches 按顺序应用的补丁
+     */
+    void apply(List<RowPatch> patches) {
+        batching = true;
+        try {
+            for (RowPatch patch : patches) {
+                apply(patch);
+            }
+        } finally {
+            batching = false;
+        }
+        if (batchChanged) {
+            batchChanged = false;
+            fireTableDataChanged();
+        }
+    }
+
+    /**
+     * 触发单行事件；正在应用一组补丁时只记录表格已改变
+     *
+     * @param type TableModelEvent.INSERT/UPDATE/DELETE
+     */
+    private void fireRowChanged(int row, int type) {
+        if (batching) {
+            batchChanged = true;
+        } else {
+            fireTableChanged(new TableModelEvent(this, row, row, TableModelEvent.ALL_COLUMNS, type));
+        }
+    }
+
+    /**
+     * 在已缓存的页面中查找主键所在的行
+     *
+     * @return 行号，未缓存时返回-1
+     */
+    private int findCachedRow(int key) {
+        for (Map.Entry<Integer, ColumnarTableModel> entry : pages.entrySet()) {
+            ColumnarTableModel page = entry.getValue();
+            int low = 0, high = page.getRowCount() - 1;
+            if (high < 0 || key < page.getInt(0, 0) || key > page.getInt(high, 0)) {
+                continue;
+            }
+            while (low <= high) {  // 页内按主键升序排列
+                int mid = (low + high) >>> 1;
+                int midKey = page.getInt(mid, 0);
+                if (midKey < key) {
+                    low = mid + 1;
+                } else if (midKey > key) {
+                    high = mid - 1;
+                } else {
+                    return entry.getKey() * pageSize + mid;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 替换一行（修改后的行为空表示该行已被删除）
+     */
+    private void replaceRow(int row, ColumnarTableModel replacement) {
+        if (replacement.getRowCount() == 0) {
+            removeRow(row);
+            return;
+        }
+        int page = row / pageSize;
+        pages.put(page, pages.get(page).splice(row % pageSize, 1, replacement));
+        fireRowChanged(row, TableModelEvent.UPDATE);
+    }
+
+    private void insertRow(int row, int key, ColumnarTableModel inserted) {
+        int page = row / pageSize;
+        int offset = row % pageSize;
+        structureVersion++;
+        dropPagesAfter(page);
+
+        ColumnarTableModel cached = pages.get(page);
+        if (cached != null && offset <= cached.getRowCount()) {
+            ColumnarTableModel spliced = cached.splice(offset, 0, inserted);
+            if (spliced.getRowCount() > pageSize) {
+                spliced = spliced.splice(pageSize, spliced.getRowCount() - pageSize, null);  // 挤出的最后一行属于下一页
+            }
+            storePage(page, spliced);
+        } else if (offset == 0) {
+            anchors.put(page, key);  // 新行成为该页第一行
+        }
+        rowCount++;
+        maxKey = Math.max(maxKey, key);
+        fireRowChanged(row, TableModelEvent.INSERT);
+    }
+
+    private void removeRow(int row) {
+        int page = row / pageSize;
+        structureVersion++;
+        dropPagesAfter(page);
+
+        ColumnarTableModel cached = pages.get(page);
+        if (cached != null && row % pageSize < cached.getRowCount()) {
+            // 删除后该页少一行，若不是最后一页，缺的那一行在绘制时会触发整页重新读取；
+            // 起始主键仍然有效（被删除的主键不再存在，>= 查询自然从下一行开始）
+            pages.put(page, cached.splice(row % pageSize, 1, null));
+        }
+        rowCount--;
+        fireRowChanged(row, TableModelEvent.DELETE);
+    }
+
+    /**
+     * 丢弃指定页之后的缓存页面和起始主键
+     */
+    private void dropPagesAfter(int page) {
+        pages.keySet().removeIf(p -> p > page);
+        anchors.tailMap(page, false).clear();
+    }
+
+    /**
+     * 缓存页面，并记录该页和下一页的起始主键
+     */
+    private void storePage(int page, ColumnarTableModel rows) {
+        pages.put(page, rows);
+        int size = rows.getRowCount();
+        if (size > 0) {
+            anchors.put(page, rows.getInt(0, 0));
+            maxKey = Math.max(maxKey, rows.getInt(size - 1, 0));
+            if (size == pageSize) {
+                anchors.put(page + 1, rows.getInt(size - 1, 0) + 1);
+            }
+        }
+    }
+}
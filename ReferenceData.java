@@ -0,0 +1,90 @@
+/**
+ * 参考数据缓存类
+ *
+ * 该类定义职业分类、职业、求职者三种参考数据的实体，以及职业分类和职业的进程内缓存（EntityCache）。
+ * 职业分类和职业下拉框的选项先查缓存。
+ * 求职者不缓存：求职者可能很多，聘用状态随匹配频繁变化，下拉框直接查询未聘用的求职者（SeekerDao.unemployed）。
+ *
+ * 失效规则：本终端增删改职业分类或职业、导入职业，以及其他终端的修改（增量同步）后调用对应缓存的invalidateAll()
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+/**
+ * 参考数据实体和缓存
+ */
+final class ReferenceData {
+
+    /**
+     * 职业分类
+     */
+    static final class Category {
+        final int id;
+        final String name;
+
+        Category(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    /**
+     * 职业（只缓存不常变化的字段，已聘人数以数据库为准）
+     */
+    static final class Job {
+        final int id;
+        final int categoryId;
+        final String employer;
+
+        Job(int id, int categoryId, String employer) {
+            this.id = id;
+            this.categoryId = categoryId;
+            this.employer = employer;
+        }
+    }
+
+    /**
+     * 求职者
+     */
+    static final class Seeker {
+        final int id;
+        final String name;
+        final boolean employed;
+
+        Seeker(int id, String name, boolean employed) {
+            this.id = id;
+            this.name = name;
+            this.employed = employed;
+        }
+    }
+
+    /** 职业分类缓存 */
+    static final EntityCache<Category> CATEGORIES = new EntityCache<>("职业分类",
+            "SELECT category_id, category_name FROM JobCategory ORDER BY category_id",
+            rs -> new Category(rs.getInt("category_id"), rs.getString("category_name")));
+
+    /** 职业缓存 */
+    static final EntityCache<Job> JOBS = new EntityCache<>("职业",
+            "SELECT job_id, category_id, employer FROM Job ORDER BY job_id",
+            rs -> new Job(rs.getInt("job_id"), rs.getInt("category_id"), rs.getString("employer")));
+
+    private ReferenceData() {
+    }
+
+    /**
+     * 清空全部缓存
+     */
+    static void invalidateAll() {
+        CATEGORIES.invalidateAll();
+        JOBS.invalidateAll();
+    }
+
+    /**
+     * 两个缓存的命中统计，每个缓存一行
+     */
+    static String stats() {
+        return CATEGORIES + "\n" + JOBS;
+    }
+}
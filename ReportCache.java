@@ -0,0 +1,128 @@
+/**
+ * 报表缓存类
+ *
+ * 统计报表的结果按“报表类型 + 参数”缓存，数据没有变化时再次生成报表直接显示缓存结果。
+ * 每个缓存条目登记它依赖的表，某张表被修改时只丢弃依赖该表的条目：
+ * - 本终端的增删改在提交后调用invalidate(表名)
+ * - 其他终端的修改由增量同步发现后调用invalidate(表名)
+ * - 关闭增量同步或同步出错时，条目超过jm.reportCache.ttlMillis后也视为失效
+ *
+ * 线程安全：所有方法都可以在任意线程调用；报表在后台线程生成期间依赖的表被修改时，
+ * 生成的结果仍然返回给调用者显示，但不放入缓存（与EntityCache相同的做法）。
+ *
+ * 配置（系统属性）：
+ * - jm.reportCache.ttlMillis：条目最长保留时间，默认300000毫秒
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 报表结果缓存
+ */
+final class ReportCache {
+
+    /** 条目最长保留时间（毫秒） */
+    static final long TTL_MILLIS = Long.getLong("jm.reportCache.ttlMillis", 300_000L);
+
+    /**
+     * 缓存的报表结果
+     *
+     * @param <T> 报表结果类型
+     */
+    static final class Entry<T> {
+        final T value;
+
+        /** 生成该结果的查询开始的时间（毫秒） */
+        final long cachedAt;
+
+        /** 为true表示结果来自缓存，为false表示刚刚查询 */
+        final boolean fromCache;
+
+        private final String[] tables;
+
+        Entry(T value, long cachedAt, boolean fromCache, String[] tables) {
+            this.value = value;
+            this.cachedAt = cachedAt;
+            this.fromCache = fromCache;
+            this.tables = tables;
+        }
+    }
+
+    /**
+     * 报表查询（在后台线程执行）
+     */
+    @FunctionalInterface
+    interface Query<T> {
+        T run() throws SQLException;
+    }
+
+    /** 报表键 -> 条目 */
+    private final Map<String, Entry<?>> entries = new HashMap<>();
+
+    /** 表名 -> 失效次数；报表生成前后依赖表的失效次数之和不变，结果才放入缓存 */
+    private final Map<String, Long> versions = new HashMap<>();
+
+    /**
+     * 报表键：报表类型加参数
+     */
+    static String key(String type, Object... params) {
+        return params.length == 0 ? type : type + Arrays.toString(params);
+    }
+
+    /**
+     * 读取缓存，没有有效的缓存时执行查询并缓存结果（在后台线程调用）
+     *
+     * @param key 报表键
+     * @param query 生成报表的查询
+     * @param tables 报表依赖的表
+     * @return 报表结果及其时间
+     * @throws SQLException 查询失败
+     */
+    <T> Entry<T> get(String key, Query<T> query, String... tables) throws SQLException {
+        long stamp;
+        synchronized (this) {
+            @SuppressWarnings("unchecked")
+            Entry<T> entry = (Entry<T>) entries.get(key);
+            if (entry != null && System.currentTimeMillis() - entry.cachedAt < TTL_MILLIS) {
+                return new Entry<>(entry.value, entry.cachedAt, true, entry.tables);
+            }
+            stamp = stamp(tables);
+        }
+        long startedAt = System.currentTimeMillis();
+        Entry<T> entry = new Entry<>(query.run(), startedAt, false, tables);
+        synchronized (this) {
+            if (stamp(tables) == stamp) {
+                entries.put(key, entry);
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * 表被修改后调用：丢弃依赖该表的全部条目
+     */
+    synchronized void invalidate(String table) {
+        versions.merge(table, 1L, Long::sum);
+        for (Iterator<Entry<?>> it = entries.values().iterator(); it.hasNext(); ) {
+            if (Arrays.asList(it.next().tables).contains(table)) {
+                it.remove();
+            }
+        }
+    }
+
+    private long stamp(String[] tables) {
+        long sum = 0;
+        for (String table : tables) {
+            sum += versions.getOrDefault(table, 0L);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,445 @@
+/**
+ * 场景压力测试类
+ *
+ * 按脚本分阶段运行混合负载：每个阶段用指定数量的线程并发执行若干种操作，
+ * 操作按权重随机选择，每种操作都经过与界面相同的DAO和报表代码，各自从连接池借用连接。
+ * 每个阶段结束后输出各操作的次数、错误数、冲突数、吞吐量和p50/p90/p99延迟。
+ *
+ * 脚本格式（#开头为注释）：
+ * <pre>
+ * seed 42
+ * phase 预热 10 8
+ * op vacant-page 50
+ * op job-report 5
+ * phase 高峰 60 32
+ * op vacant-page 40
+ * op unemployed-page 20
+ * op match 10
+ * op unmatch 5
+ * op insert-seeker 10
+ * op job-report 5
+ * op fee-totals 5
+ * </pre>
+ * phase后面是名称、秒数和线程数，其后的op行属于该阶段，op后面是操作名称和权重。
+ *
+ * 操作：
+ * - vacant-page / unemployed-page：从随机位置读取一页空缺职业 / 未聘用求职者（HTTP接口的查询）
+ * - match：随机选择有空缺的职业和未聘用的求职者匹配；并发下职业已满或求职者已被聘用计为冲突
+ * - unmatch：随机删除一条匹配记录
+ * - batch-match：按先到先得策略批量匹配全部空缺
+ * - job-report / fee-totals：职业统计报表 / 费用合计
+ * - insert-seeker / insert-job / insert-fee：新增一条记录
+ * - check：数据一致性检查
+ *
+ * 线程数超过连接池大小（jm.pool.maxSize）时，多出的线程在借连接时等待，等待时间计入延迟。
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 场景运行器
+ */
+final class ScenarioRunner {
+
+    /** 分页操作每页的行数 */
+    private static final int PAGE_SIZE = 100;
+
+    /**
+     * 操作
+     */
+    enum Op {
+        VACANT_PAGE("vacant-page"),
+        UNEMPLOYED_PAGE("unemployed-page"),
+        MATCH("match"),
+        UNMATCH("unmatch"),
+        BATCH_MATCH("batch-match"),
+        JOB_REPORT("job-report"),
+        FEE_TOTALS("fee-totals"),
+        INSERT_SEEKER("insert-seeker"),
+        INSERT_JOB("insert-job"),
+        INSERT_FEE("insert-fee"),
+        CHECK("check");
+
+        /** 脚本中的名称 */
+        final String label;
+
+        Op(String label) {
+            this.label = label;
+        }
+
+        static Op of(String label) {
+            for (Op op : values()) {
+                if (op.label.equals(label)) {
+                    return op;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 一个阶段：名称、时长、线程数和操作权重
+     */
+    static final class Phase {
+        final String name;
+        final int seconds;
+        final int threads;
+        final List<Op> ops = new ArrayList<>();
+        final List<Integer> weights = new ArrayList<>();
+
+        Phase(String name, int seconds, int threads) {
+            this.name = name;
+            this.seconds = seconds;
+            this.threads = threads;
+        }
+    }
+
+    /**
+     * 解析后的脚本
+     */
+    static final class Script {
+        long seed = 42;
+        final List<Phase> phases = new ArrayList<>();
+    }
+
+    /**
+     * 一种操作的统计
+     */
+    static final class OpStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+        /** 并发冲突或没有可操作的数据（例如没有空缺），不算错误 */
+        final LongAdder conflicts = new LongAdder();
+        /** 第一个错误的说明 */
+        volatile String firstError;
+    }
+
+    /**
+     * 一个阶段的结果
+     */
+    static final class PhaseResult {
+        final Phase phase;
+        final Map<Op, OpStats> stats = new EnumMap<>(Op.class);
+        long elapsedMillis;
+
+        PhaseResult(Phase phase) {
+            this.phase = phase;
+            for (Op op : phase.ops) {
+                stats.put(op, new OpStats());
+            }
+        }
+
+        /**
+         * 延迟表（毫秒）
+         */
+        String table() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("阶段 %s：%d 个线程，%.1f 秒%n", phase.name, phase.threads, elapsedMillis / 1000.0));
+            sb.append(String.format("%-16s %10s %8s %8s %10s %10s %10s %10s %10s%n",
+                    "操作", "次数", "错误", "冲突", "次/秒", "p50(ms)", "p90(ms)", "p99(ms)", "最大(ms)"));
+            for (Map.Entry<Op, OpStats> entry : stats.entrySet()) {
+                OpStats s = entry.getValue();
+                LatencyHistogram.Snapshot h = s.latency.snapshot();
+                sb.append(String.format("%-16s %10d %8d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                        entry.getKey().label, h.count, s.errors.sum(), s.conflicts.sum(),
+                        elapsedMillis == 0 ? 0 : h.count * 1000.0 / elapsedMillis,
+                        h.p50Micros / 1000.0, h.p90Micros / 1000.0, h.p99Micros / 1000.0, h.maxMicros / 1000.0));
+                if (s.firstError != null) {
+                    sb.append("    首个错误: ").append(s.firstError).append('\n');
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * 阶段开始时读取的主键范围，操作在范围内随机选择位置
+     */
+    private static final class Context {
+        final int maxJobId;
+        final int maxSeekerId;
+        final int maxMatchId;
+        final int maxCategoryId;
+
+        Context(Connection conn) throws SQLException {
+            maxJobId = Dao.queryInt(conn, "SELECT COALESCE(MAX(job_id), 0) FROM Job");
+            maxSeekerId = Dao.queryInt(conn, "SELECT COALESCE(MAX(seeker_id), 0) FROM JobSeeker");
+            maxMatchId = Dao.queryInt(conn, "SELECT COALESCE(MAX(match_id), 0) FROM JobMatching");
+            maxCategoryId = Dao.queryInt(conn, "SELECT COALESCE(MAX(category_id), 0) FROM JobCategory");
+        }
+    }
+
+    /**
+     * 操作没有执行（冲突或没有数据）
+     */
+    private static final class ConflictException extends Exception {
+        ConflictException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private ScenarioRunner() {
+    }
+
+    /**
+     * 解析脚本
+     *
+     * @throws IOException 读取失败
+     * @throws IllegalArgumentException 脚本格式错误（说明中包含行号）
+     */
+    static Script parse(Path path) throws IOException {
+        Script script = new Script();
+        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] words = line.split("\\s+");
+            try {
+                switch (words[0]) {
+                    case "seed":
+                        expectWords(words, 2);
+                        script.seed = Long.parseLong(words[1]);
+                        break;
+                    case "phase": {
+                        expectWords(words, 4);
+                        int seconds = Integer.parseInt(words[2]);
+                        int threads = Integer.parseInt(words[3]);
+                        if (seconds < 1 || threads < 1) {
+                            throw new IllegalArgumentException("秒数和线程数必须大于0");
+                        }
+                        script.phases.add(new Phase(words[1], seconds, threads));
+                        break;
+                    }
+                    case "op": {
+                        expectWords(words, 3);
+                        if (script.phases.isEmpty()) {
+                            throw new IllegalArgumentException("op必须在phase之后");
+                        }
+                        Op op = Op.of(words[1]);
+                        if (op == null) {
+                            throw new IllegalArgumentException("未知的操作: " + words[1]);
+                        }
+                        int weight = Integer.parseInt(words[2]);
+                        if (weight < 1) {
+                            throw new IllegalArgumentException("权重必须大于0");
+                        }
+                        Phase phase = script.phases.get(script.phases.size() - 1);
+                        if (phase.ops.contains(op)) {
+                            throw new IllegalArgumentException("同一阶段中重复的操作: " + words[1]);
+                        }
+                        phase.ops.add(op);
+                        phase.weights.add(weight);
+                        break;
+                    }
+                    default:
+                        throw new IllegalArgumentException("未知的指令: " + words[0]);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(path + " 第" + (i + 1) + "行: 数字格式错误: " + line);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(path + " 第" + (i + 1) + "行: " + e.getMessage());
+            }
+        }
+        if (script.phases.isEmpty()) {
+            throw new IllegalArgumentException(path + ": 脚本中没有phase");
+        }
+        for (Phase phase : script.phases) {
+            if (phase.ops.isEmpty()) {
+                throw new IllegalArgumentException(path + ": 阶段" + phase.name + "没有op");
+            }
+        }
+        return script;
+    }
+
+    private static void expectWords(String[] words, int count) {
+        if (words.length != count) {
+            throw new IllegalArgumentException(words[0] + "需要" + (count - 1) + "个参数");
+        }
+    }
+
+    /**
+     * 依次运行全部阶段
+     *
+     * @param onPhaseDone 每个阶段结束后调用
+     * @return 各阶段的结果
+     * @throws SQLException 读取主键范围失败
+     */
+    static List<PhaseResult> run(Script script, Consumer<PhaseResult> onPhaseDone) throws SQLException {
+        List<PhaseResult> results = new ArrayList<>();
+        for (int p = 0; p < script.phases.size(); p++) {
+            PhaseResult result = runPhase(script.phases.get(p), script.seed + p * 1000L);
+            results.add(result);
+            onPhaseDone.accept(result);
+        }
+        return results;
+    }
+
+    private static PhaseResult runPhase(Phase phase, long seed) throws SQLException {
+        Context context;
+        try (Connection conn = DBConnector.getConnection()) {
+            context = new Context(conn);
+        }
+        PhaseResult result = new PhaseResult(phase);
+        int[] cumulative = new int[phase.weights.size()];
+        int total = 0;
+        for (int i = 0; i < cumulative.length; i++) {
+            total += phase.weights.get(i);
+            cumulative[i] = total;
+        }
+        int totalWeight = total;
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(phase.seconds);
+        ExecutorService workers = Executors.newFixedThreadPool(phase.threads);
+        for (int t = 0; t < phase.threads; t++) {
+            SplittableRandom random = new SplittableRandom(seed + t);
+            workers.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    int u = random.nextInt(totalWeight);
+                    int k = 0;
+                    while (cumulative[k] <= u) {
+                        k++;
+                    }
+                    Op op = phase.ops.get(k);
+                    OpStats stats = result.stats.get(op);
+                    long begin = System.nanoTime();
+                    try {
+                        execute(op, context, random);
+                    } catch (ConflictException e) {
+                        stats.conflicts.increment();
+                    } catch (SQLException | RuntimeException e) {
+                        stats.errors.increment();
+                        if (stats.firstError == null) {
+                            stats.firstError = String.valueOf(e.getMessage());
+                        }
+                    }
+                    stats.latency.recordNanos(System.nanoTime() - begin);
+                }
+            });
+        }
+        workers.shutdown();
+        try {
+            // 正在执行的操作（例如批量匹配）可能超过阶段时长，等待它们结束
+            while (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                System.err.println("阶段 " + phase.name + " 等待未完成的操作……");
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        result.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return result;
+    }
+
+    // ==================== 操作 ====================
+
+    private static void execute(Op op, Context context, SplittableRandom random)
+            throws SQLException, ConflictException {
+        try (Connection conn = DBConnector.getConnection()) {
+            switch (op) {
+                case VACANT_PAGE:
+                    JobDao.vacantPage(conn, randomId(random, context.maxJobId), PAGE_SIZE, rs -> { });
+                    break;
+                case UNEMPLOYED_PAGE:
+                    SeekerDao.unemployedPage(conn, randomId(random, context.maxSeekerId), PAGE_SIZE, rs -> { });
+                    break;
+                case MATCH: {
+                    int jobId = first(conn, random, context.maxJobId, true);
+                    int seekerId = first(conn, random, context.maxSeekerId, false);
+                    if (jobId == 0 || seekerId == 0
+                            || MatchingDao.match(conn, jobId, seekerId, null) != MatchOutcome.OK) {
+                        throw new ConflictException();
+                    }
+                    break;
+                }
+                case UNMATCH: {
+                    int matchId = Dao.queryInt(conn, MatchingDao.NEXT_ID_SQL, randomId(random, context.maxMatchId));
+                    if (matchId == 0 || !MatchingDao.delete(conn, matchId)) {
+                        throw new ConflictException();
+                    }
+                    break;
+                }
+                case BATCH_MATCH:
+                    BatchMatcher.commit(conn, BatchMatcher.plan(conn, BatchMatcher.Policy.FIFO),
+                            BatchMatcher.DEFAULT_CHUNK_SIZE);
+                    break;
+                case JOB_REPORT:
+                    JobReport.generate(conn);
+                    break;
+                case FEE_TOTALS:
+                    FeeReport.totals(conn);
+                    break;
+                case INSERT_SEEKER:
+                    SeekerDao.insert(conn, DataGenerator.seekerName(random), random.nextBoolean() ? "男" : "女", false);
+                    break;
+                case INSERT_JOB:
+                    if (context.maxCategoryId == 0) {
+                        throw new ConflictException();
+                    }
+                    try {
+                        JobDao.insert(conn, 1 + random.nextInt(context.maxCategoryId), DataGenerator.employerName(random),
+                                DataGenerator.requiredCount(random), null);
+                    } catch (SQLException e) {
+                        // 随机选中已删除的分类时外键拒绝，计为冲突
+                        if (e.getSQLState() != null && e.getSQLState().startsWith("23")) {
+                            throw new ConflictException();
+                        }
+                        throw e;
+                    }
+                    break;
+                case INSERT_FEE:
+                    FeeDao.insert(conn, DataGenerator.employerName(random),
+                            DataGenerator.logNormalMoney(random, 800, 0.5).doubleValue(),
+                            DataGenerator.seekerName(random), DataGenerator.logNormalMoney(random, 150, 0.4).doubleValue());
+                    break;
+                default:
+                    ConsistencyCheck.run(conn);
+                    break;
+            }
+        }
+    }
+
+    private static int randomId(SplittableRandom random, int maxId) {
+        return maxId == 0 ? 0 : random.nextInt(maxId);
+    }
+
+    /**
+     * 从随机位置开始找第一个有空缺的职业或未聘用的求职者，到末尾时从头再找一次
+     *
+     * @return 主键，没有时为0
+     */
+    private static int first(Connection conn, SplittableRandom random, int maxId, boolean job) throws SQLException {
+        int[] found = {0};
+        int after = randomId(random, maxId);
+        for (int attempt = 0; attempt < 2 && found[0] == 0; attempt++) {
+            if (job) {
+                JobDao.vacantPage(conn, after, 1, rs -> found[0] = rs.getInt(1));
+            } else {
+                SeekerDao.unemployedPage(conn, after, 1, rs -> found[0] = rs.getInt(1));
+            }
+            after = 0;
+        }
+        return found[0];
+    }
+}
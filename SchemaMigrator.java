@@ -0,0 +1,526 @@
+/**
+ * 数据库结构迁移类
+ *
+ * 该类把已有的数据库升级到当前代码需要的结构，不需要手工执行ALTER语句。
+ * 迁移会修改大表的索引、重建统计表，可能运行很长时间，因此只通过“JobCli migrate”执行；
+ * 图形界面启动时只在后台检查版本（currentVersion），版本落后时提示，不修改数据库，
+ * 除非显式指定-Djm.migrate=true。
+ * 主要功能：
+ * 1. schema_version表记录已执行的迁移版本、说明、执行时间和耗时
+ * 2. 只执行版本号大于当前版本的迁移，按版本号顺序执行，每个迁移成功后立即记录
+ * 3. 每个步骤先检查information_schema再执行（列、索引、表已存在时跳过），
+ *    迁移中途失败后重新运行也是安全的
+ * 4. 多个终端同时启动时用MySQL命名锁（GET_LOCK）串行化，只有一个终端执行迁移
+ *
+ * 迁移列表：
+ * - 1 基线：job_management.sql创建的原始结构（只检查表是否存在）
+ * - 2 增量同步：version/updated_at列、DeletedRow墓碑表和相关触发器
+ * - 3 性能索引：下拉框、按名称查找、统计报表使用的索引，以及JobMatching(seeker_id)唯一约束
+ *   （存在同一求职者的重复匹配时中止并列出这些求职者，由管理员处理后重新执行，不自动删除数据）
+ * - 4 职业统计表：JobStats/CategoryStats及维护它们的触发器，统计存储过程改为读取统计表
+ *
+ * 新建数据库直接执行job_management.sql，其中已包含全部迁移的结果并写入了对应的schema_version记录；
+ * 增加迁移时需要同时修改job_management.sql。
+ *
+ * 配置（系统属性）：
+ * - jm.migrate：图形界面启动时是否执行迁移，默认false（只检查版本）
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 数据库结构迁移执行器
+ */
+class SchemaMigrator {
+
+    /** 图形界面启动时是否执行迁移（默认只检查版本） */
+    static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("jm.migrate", "false"));
+
+    /** 迁移使用的MySQL命名锁 */
+    private static final String LOCK_NAME = "job_management.schema_migration";
+
+    /** 等待其他终端完成迁移的最长时间（秒） */
+    private static final int LOCK_TIMEOUT_SECONDS = 120;
+
+    /** 迁移3中止时最多列出的重复求职者数 */
+    private static final int MAX_LISTED_DUPLICATES = 50;
+
+    /**
+     * 迁移中的一个步骤
+     */
+    @FunctionalInterface
+    interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    /**
+     * 一个版本的迁移
+     */
+    static final class Migration {
+        final int version;
+        final String description;
+        final List<Step> steps;
+
+        Migration(int version, String description, Step... steps) {
+            this.version = version;
+            this.description = description;
+            this.steps = Arrays.asList(steps);
+        }
+    }
+
+    /** 增量同步的表及其索引名前缀（迁移2） */
+    private static final String[][] SYNCED_TABLES = {
+            {"JobCategory", "category"},
+            {"Job", "job"},
+            {"JobSeeker", "seeker"},
+            {"JobMatching", "matching"},
+            {"Fee", "fee"},
+    };
+
+    /** 全部迁移，按版本号排列 */
+    static final List<Migration> MIGRATIONS = Arrays.asList(
+            new Migration(1, "基线结构（job_management.sql）",
+                    requireTables("JobCategory", "Job", "JobSeeker", "JobMatching", "Fee")),
+            new Migration(2, "增量同步：version/updated_at列、DeletedRow墓碑表和触发器", syncSteps()),
+            new Migration(3, "性能索引和JobMatching(seeker_id)唯一约束",
+                    // 下拉框：未聘用的求职者（InnoDB二级索引包含主键，按seeker_id排序不需要额外排序）
+                    addIndex("JobSeeker", "idx_seeker_employed", "employed"),
+                    // 按姓名查找求职者，同名时优先未聘用的（ORDER BY employed）
+                    addIndex("JobSeeker", "idx_seeker_name", "name, employed"),
+                    // 按用人单位查找职业
+                    addIndex("Job", "idx_job_employer", "employer"),
+                    // GetJobStats按需求人数排序，覆盖索引不需要回表和额外排序
+                    addIndex("Job", "idx_job_required", "required_count, hired_count, employer"),
+                    // 按名称查找职业分类
+                    addIndex("JobCategory", "idx_category_name", "category_name"),
+                    // 一个求职者只能有一条匹配记录：存在历史上重复的匹配时中止，由管理员处理
+                    SchemaMigrator::requireNoDuplicateMatchings,
+                    addUniqueIndex("JobMatching", "uq_matching_seeker", "seeker_id")),
+            new Migration(4, "职业统计表和分类统计表", statsSteps())
+    );
+
+    private SchemaMigrator() {
+    }
+
+    /**
+     * 当前代码需要的数据库版本
+     */
+    static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    /**
+     * 查询数据库的当前版本（只读，不加锁，供界面启动时在后台检查）
+     *
+     * @return schema_version中的最大版本号，没有该表时为0
+     */
+    static int currentVersion() throws SQLException {
+        try (Connection conn = DBConnector.getConnection()) {
+            if (!exists(conn, "SELECT 1 FROM information_schema.TABLES " +
+                    "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?", "schema_version")) {
+                return 0;
+            }
+            return currentVersion(conn);
+        }
+    }
+
+    /**
+     * 把数据库升级到最新版本
+     *
+     * @return 本次执行的迁移说明，已是最新版本时为空列表
+     * @throws SQLException 迁移失败（已成功的迁移保留记录，下次启动从失败的迁移继续）
+     */
+    static List<String> migrate() throws SQLException {
+        try (Connection conn = DBConnector.getConnection()) {
+            if (!acquireLock(conn)) {
+                throw new SQLException("等待其他终端完成数据库迁移超时");
+            }
+            try {
+                return migrate(conn);
+            } finally {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("DO RELEASE_LOCK('" + LOCK_NAME + "')");
+                }
+            }
+        }
+    }
+
+    private static List<String> migrate(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                    "version INT PRIMARY KEY, " +
+                    "description VARCHAR(200) NOT NULL, " +
+                    "installed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+                    "execution_millis INT NOT NULL)");
+        }
+        int current = currentVersion(conn);
+
+        List<String> applied = new ArrayList<>();
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version <= current) {
+                continue;
+            }
+            long start = System.nanoTime();
+            for (Step step : migration.steps) {
+                step.apply(conn);
+            }
+            int millis = (int) ((System.nanoTime() - start) / 1_000_000);
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO schema_version (version, description, execution_millis) VALUES (?, ?, ?)")) {
+                pstmt.setInt(1, migration.version);
+                pstmt.setString(2, migration.description);
+                pstmt.setInt(3, millis);
+                pstmt.executeUpdate();
+            }
+            applied.add(migration.version + " " + migration.description + "（" + millis + "ms）");
+        }
+        return applied;
+    }
+
+    /**
+     * 当前数据库版本（schema_version中的最大版本号，没有记录时为0）
+     */
+    static int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static boolean acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    // ==================== 迁移2：增量同步 ====================
+
+    private static Step[] syncSteps() {
+        List<Step> steps = new ArrayList<>();
+        for (String[] table : SYNCED_TABLES) {
+            String name = table[0], prefix = table[1];
+            steps.add(addColumn(name, "version", "INT NOT NULL DEFAULT 1"));
+            steps.add(addColumn(name, "updated_at",
+                    "TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)"));
+            steps.add(addIndex(name, "idx_" + prefix + "_updated_at", "updated_at"));
+        }
+        steps.add(sql("CREATE TABLE IF NOT EXISTS DeletedRow (" +
+                "tombstone_id BIGINT PRIMARY KEY AUTO_INCREMENT, " +
+                "table_name VARCHAR(32) NOT NULL, " +
+                "row_id INT NOT NULL, " +
+                "deleted_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3), " +
+                "INDEX idx_deleted_at (deleted_at))"));
+
+        // 版本号触发器
+        String[] versionTriggers = {"BeforeUpdateCategory", "BeforeUpdateJob", "BeforeUpdateSeeker",
+                "BeforeUpdateMatching", "BeforeUpdateFee"};
+        for (int i = 0; i < SYNCED_TABLES.length; i++) {
+            steps.add(replaceTrigger(versionTriggers[i], "CREATE TRIGGER " + versionTriggers[i] +
+                    " BEFORE UPDATE ON " + SYNCED_TABLES[i][0] +
+                    " FOR EACH ROW SET NEW.version = OLD.version + 1"));
+        }
+
+        // 墓碑触发器（AfterDeleteMatching在原有内容后增加墓碑记录）
+        steps.add(replaceTrigger("AfterDeleteMatching", "CREATE TRIGGER AfterDeleteMatching " +
+                "AFTER DELETE ON JobMatching FOR EACH ROW BEGIN " +
+                "UPDATE Job SET hired_count = hired_count - 1 WHERE job_id = OLD.job_id; " +
+                "UPDATE JobSeeker SET employed = false WHERE seeker_id = OLD.seeker_id; " +
+                "INSERT INTO DeletedRow (table_name, row_id) VALUES ('JobMatching', OLD.match_id); END"));
+        steps.add(replaceTrigger("BeforeDeleteJob", "CREATE TRIGGER BeforeDeleteJob " +
+                "BEFORE DELETE ON Job FOR EACH ROW BEGIN " +
+                "INSERT INTO DeletedRow (table_name, row_id) " +
+                "SELECT 'JobMatching', match_id FROM JobMatching WHERE job_id = OLD.job_id; " +
+                "INSERT INTO DeletedRow (table_name, row_id) VALUES ('Job', OLD.job_id); END"));
+        steps.add(replaceTrigger("BeforeDeleteSeeker", "CREATE TRIGGER BeforeDeleteSeeker " +
+                "BEFORE DELETE ON JobSeeker FOR EACH ROW BEGIN " +
+                "INSERT INTO DeletedRow (table_name, row_id) " +
+                "SELECT 'JobMatching', match_id FROM JobMatching WHERE seeker_id = OLD.seeker_id; " +
+                "INSERT INTO DeletedRow (table_name, row_id) VALUES ('JobSeeker', OLD.seeker_id); END"));
+        steps.add(replaceTrigger("AfterDeleteCategory", "CREATE TRIGGER AfterDeleteCategory " +
+                "AFTER DELETE ON JobCategory FOR EACH ROW " +
+                "INSERT INTO DeletedRow (table_name, row_id) VALUES ('JobCategory', OLD.category_id)"));
+        steps.add(replaceTrigger("AfterDeleteFee", "CREATE TRIGGER AfterDeleteFee " +
+                "AFTER DELETE ON Fee FOR EACH ROW " +
+                "INSERT INTO DeletedRow (table_name, row_id) VALUES ('Fee', OLD.fee_id)"));
+        return steps.toArray(new Step[0]);
+    }
+
+    // ==================== 迁移3：检查重复匹配 ====================
+
+    /**
+     * 检查同一求职者是否有多条匹配记录，有则中止迁移
+     * 保留哪一条匹配是业务决定（涉及已聘人数和费用），迁移不自动删除，
+     * 异常信息中列出这些求职者的ID，处理后重新执行迁移即可从迁移3继续
+     */
+    private static void requireNoDuplicateMatchings(Connection conn) throws SQLException {
+        if (indexExists(conn, "JobMatching", "uq_matching_seeker")) {
+            return;
+        }
+        List<Integer> seekerIds = new ArrayList<>();
+        int total = 0;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT seeker_id FROM JobMatching " +
+                     "GROUP BY seeker_id HAVING COUNT(*) > 1 ORDER BY seeker_id")) {
+            while (rs.next()) {
+                if (total++ < MAX_LISTED_DUPLICATES) {
+                    seekerIds.add(rs.getInt(1));
+                }
+            }
+        }
+        if (total > 0) {
+            throw new SQLException("JobMatching中有 " + total + " 个求职者存在多条匹配记录，" +
+                    "无法添加唯一约束uq_matching_seeker，请处理后重新执行迁移。求职者ID: " + seekerIds +
+                    (total > seekerIds.size() ? " 等" : ""));
+        }
+    }
+
+    // ==================== 迁移4：职业统计表 ====================
+
+    private static Step[] statsSteps() {
+        return new Step[] {
+            sql(
+                "CREATE TABLE IF NOT EXISTS JobStats ( " +
+                "job_id INT PRIMARY KEY, " +
+                "category_id INT, " +
+                "employer VARCHAR(100) NOT NULL, " +
+                "required_count INT NOT NULL, " +
+                "hired_count INT NOT NULL, " +
+                "vacancy INT AS (required_count - hired_count) STORED, " +
+                "INDEX idx_jobstats_required (required_count, employer, hired_count, vacancy), " +
+                "FOREIGN KEY (job_id) REFERENCES Job(job_id) ON DELETE CASCADE " +
+                ")"),
+            sql(
+                "CREATE TABLE IF NOT EXISTS CategoryStats ( " +
+                "category_id INT PRIMARY KEY, " +
+                "job_count INT NOT NULL, " +
+                "required_total INT NOT NULL, " +
+                "hired_total INT NOT NULL, " +
+                "vacancy_total INT AS (required_total - hired_total) STORED, " +
+                "FOREIGN KEY (category_id) REFERENCES JobCategory(category_id) ON DELETE CASCADE " +
+                ")"),
+            replaceTrigger("AfterInsertJob",
+                "CREATE TRIGGER AfterInsertJob " +
+                "AFTER INSERT ON Job " +
+                "FOR EACH ROW " +
+                "BEGIN " +
+                "INSERT INTO JobStats (job_id, category_id, employer, required_count, hired_count) " +
+                "VALUES (NEW.job_id, NEW.category_id, NEW.employer, NEW.required_count, COALESCE(NEW.hired_count, 0)); " +
+                "IF NEW.category_id IS NOT NULL THEN " +
+                "INSERT INTO CategoryStats (category_id, job_count, required_total, hired_total) " +
+                "VALUES (NEW.category_id, 1, NEW.required_count, COALESCE(NEW.hired_count, 0)) " +
+                "ON DUPLICATE KEY UPDATE " +
+                "job_count = job_count + 1, " +
+                "required_total = required_total + NEW.required_count, " +
+                "hired_total = hired_total + COALESCE(NEW.hired_count, 0); " +
+                "END IF; " +
+                "END"),
+            replaceTrigger("AfterUpdateJob",
+                "CREATE TRIGGER AfterUpdateJob " +
+                "AFTER UPDATE ON Job " +
+                "FOR EACH ROW " +
+                "BEGIN " +
+                "UPDATE JobStats " +
+                "SET category_id = NEW.category_id, " +
+                "employer = NEW.employer, " +
+                "required_count = NEW.required_count, " +
+                "hired_count = COALESCE(NEW.hired_count, 0) " +
+                "WHERE job_id = NEW.job_id; " +
+                "IF OLD.category_id <=> NEW.category_id THEN " +
+                "UPDATE CategoryStats " +
+                "SET required_total = required_total + NEW.required_count - OLD.required_count, " +
+                "hired_total = hired_total + COALESCE(NEW.hired_count, 0) - COALESCE(OLD.hired_count, 0) " +
+                "WHERE category_id = NEW.category_id; " +
+                "ELSE " +
+                "UPDATE CategoryStats " +
+                "SET job_count = job_count - 1, " +
+                "required_total = required_total - OLD.required_count, " +
+                "hired_total = hired_total - COALESCE(OLD.hired_count, 0) " +
+                "WHERE category_id = OLD.category_id; " +
+                "IF NEW.category_id IS NOT NULL THEN " +
+                "INSERT INTO CategoryStats (category_id, job_count, required_total, hired_total) " +
+                "VALUES (NEW.category_id, 1, NEW.required_count, COALESCE(NEW.hired_count, 0)) " +
+                "ON DUPLICATE KEY UPDATE " +
+                "job_count = job_count + 1, " +
+                "required_total = required_total + NEW.required_count, " +
+                "hired_total = hired_total + COALESCE(NEW.hired_count, 0); " +
+                "END IF; " +
+                "END IF; " +
+                "END"),
+            // 在迁移2的内容后增加分类统计的扣减
+            replaceTrigger("BeforeDeleteJob",
+                "CREATE TRIGGER BeforeDeleteJob " +
+                "BEFORE DELETE ON Job " +
+                "FOR EACH ROW " +
+                "BEGIN " +
+                "INSERT INTO DeletedRow (table_name, row_id) " +
+                "SELECT 'JobMatching', match_id FROM JobMatching WHERE job_id = OLD.job_id; " +
+                "INSERT INTO DeletedRow (table_name, row_id) VALUES ('Job', OLD.job_id); " +
+                "UPDATE CategoryStats " +
+                "SET job_count = job_count - 1, " +
+                "required_total = required_total - OLD.required_count, " +
+                "hired_total = hired_total - COALESCE(OLD.hired_count, 0) " +
+                "WHERE category_id = OLD.category_id; " +
+                "END"),
+            replaceProcedure("GetJobStats",
+                "CREATE PROCEDURE GetJobStats() " +
+                "BEGIN " +
+                "SELECT employer, required_count, hired_count, vacancy " +
+                "FROM JobStats " +
+                "ORDER BY required_count DESC; " +
+                "END"),
+            replaceProcedure("GetCategoryStats",
+                "CREATE PROCEDURE GetCategoryStats() " +
+                "BEGIN " +
+                "SELECT c.category_name, s.job_count, s.required_total, s.hired_total, s.vacancy_total " +
+                "FROM CategoryStats s JOIN JobCategory c ON c.category_id = s.category_id " +
+                "ORDER BY s.vacancy_total DESC; " +
+                "END"),
+            replaceProcedure("RebuildJobStats",
+                "CREATE PROCEDURE RebuildJobStats() " +
+                "BEGIN " +
+                "DECLARE EXIT HANDLER FOR SQLEXCEPTION " +
+                "BEGIN " +
+                "ROLLBACK; " +
+                "RESIGNAL; " +
+                "END; " +
+                "START TRANSACTION; " +
+                "DELETE FROM JobStats; " +
+                "INSERT INTO JobStats (job_id, category_id, employer, required_count, hired_count) " +
+                "SELECT job_id, category_id, employer, required_count, COALESCE(hired_count, 0) FROM Job; " +
+                "DELETE FROM CategoryStats; " +
+                "INSERT INTO CategoryStats (category_id, job_count, required_total, hired_total) " +
+                "SELECT category_id, COUNT(*), SUM(required_count), SUM(COALESCE(hired_count, 0)) " +
+                "FROM Job WHERE category_id IS NOT NULL GROUP BY category_id; " +
+                "COMMIT; " +
+                "END"),
+            // GetJobStats不再读取Job表，去掉迁移3为它增加的索引，减少Job的写入开销
+            dropIndex("Job", "idx_job_required"),
+            sql("CALL RebuildJobStats()")
+        };
+    }
+
+    // ==================== 步骤构造 ====================
+
+    /**
+     * 执行一条SQL（语句本身必须可以重复执行，例如CREATE TABLE IF NOT EXISTS）
+     */
+    static Step sql(String statement) {
+        return conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(statement);
+            }
+        };
+    }
+
+    /**
+     * 要求表已存在（基线检查）
+     */
+    static Step requireTables(String... tables) {
+        return conn -> {
+            for (String table : tables) {
+                if (!exists(conn, "SELECT 1 FROM information_schema.TABLES " +
+                        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?", table)) {
+                    throw new SQLException("数据库中没有" + table + "表，请先执行job_management.sql创建数据库");
+                }
+            }
+        };
+    }
+
+    /**
+     * 列不存在时添加列
+     */
+    static Step addColumn(String table, String column, String definition) {
+        return conn -> {
+            if (!exists(conn, "SELECT 1 FROM information_schema.COLUMNS " +
+                    "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?", table, column)) {
+                sql("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition).apply(conn);
+            }
+        };
+    }
+
+    /**
+     * 索引不存在时创建索引
+     */
+    static Step addIndex(String table, String index, String columns) {
+        return conn -> {
+            if (!indexExists(conn, table, index)) {
+                sql("CREATE INDEX " + index + " ON " + table + " (" + columns + ")").apply(conn);
+            }
+        };
+    }
+
+    /**
+     * 唯一索引不存在时创建唯一索引
+     */
+    static Step addUniqueIndex(String table, String index, String columns) {
+        return conn -> {
+            if (!indexExists(conn, table, index)) {
+                sql("CREATE UNIQUE INDEX " + index + " ON " + table + " (" + columns + ")").apply(conn);
+            }
+        };
+    }
+
+    /**
+     * 删除并重新创建触发器（MySQL没有CREATE OR REPLACE TRIGGER）
+     * 两条语句之间其他终端的写入不会经过该触发器；迁移只在升级时执行一次，影响可以忽略
+     */
+    static Step replaceTrigger(String name, String ddl) {
+        return conn -> {
+            sql("DROP TRIGGER IF EXISTS " + name).apply(conn);
+            sql(ddl).apply(conn);
+        };
+    }
+
+    /**
+     * 索引存在时删除索引
+     */
+    static Step dropIndex(String table, String index) {
+        return conn -> {
+            if (indexExists(conn, table, index)) {
+                sql("DROP INDEX " + index + " ON " + table).apply(conn);
+            }
+        };
+    }
+
+    /**
+     * 删除并重新创建存储过程
+     */
+    static Step replaceProcedure(String name, String ddl) {
+        return conn -> {
+            sql("DROP PROCEDURE IF EXISTS " + name).apply(conn);
+            sql(ddl).apply(conn);
+        };
+    }
+
+    static boolean indexExists(Connection conn, String table, String index) throws SQLException {
+        return exists(conn, "SELECT 1 FROM information_schema.STATISTICS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND INDEX_NAME = ?", table, index);
+    }
+
+    private static boolean exists(Connection conn, String query, String... params) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            for (int i = 0; i < params.length; i++) {
+                pstmt.setString(i + 1, params[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+}
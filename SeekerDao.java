@@ -0,0 +1,96 @@
+/**
+ * 求职者数据访问类
+ *
+ * JobSeeker表的增删改，SQL语句都定义为常量（见Dao的说明）。
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 求职者DAO
+ */
+final class SeekerDao {
+
+    static final String INSERT_SQL = "INSERT INTO JobSeeker (name, gender, employed) VALUES (?, ?, ?)";
+
+    static final String UPDATE_SQL = "UPDATE JobSeeker SET name = ?, gender = ?, employed = ? WHERE seeker_id = ?";
+
+    static final String DELETE_SQL = "DELETE FROM JobSeeker WHERE seeker_id = ?";
+
+    /** 匹配页面的求职者下拉框只列出未聘用的求职者（使用idx_seeker_employed索引） */
+    static final String UNEMPLOYED_SQL =
+            "SELECT seeker_id, name FROM JobSeeker WHERE employed = false ORDER BY seeker_id";
+
+    /** 按主键分页读取未聘用的求职者（HTTP接口使用，idx_seeker_employed索引上的范围扫描） */
+    static final String UNEMPLOYED_PAGE_SQL =
+            "SELECT seeker_id, name, gender FROM JobSeeker WHERE employed = false AND seeker_id > ? "
+                    + "ORDER BY seeker_id LIMIT ?";
+
+    private SeekerDao() {
+    }
+
+    /**
+     * 添加求职者
+     *
+     * @param gender "男"或"女"
+     * @return 新求职者的seeker_id
+     */
+    static int insert(Connection conn, String name, String gender, boolean employed) throws SQLException {
+        return Dao.insert(conn, INSERT_SQL, name, gender, employed);
+    }
+
+    /**
+     * 修改求职者
+     *
+     * @return 受影响的行数，0表示求职者已不存在
+     */
+    static int update(Connection conn, int seekerId, String name, String gender, boolean employed)
+            throws SQLException {
+        return Dao.update(conn, UPDATE_SQL, name, gender, employed, seekerId);
+    }
+
+    /**
+     * 删除求职者（相关匹配记录随外键级联删除，与deleteAll相同）
+     *
+     * @return 受影响的行数，0表示求职者已不存在
+     */
+    static int delete(Connection conn, int seekerId) throws SQLException {
+        return Dao.update(conn, DELETE_SQL, seekerId);
+    }
+
+    /**
+     * 在一个事务中批量删除求职者（相关匹配记录随外键级联删除）
+     *
+     * @return 删除结果，已被其他终端删除的主键不在其中
+     */
+    static Dao.Deleted deleteAll(Connection conn, int[] seekerIds) throws SQLException {
+        return Dao.deleteAll(conn, "JobSeeker", "seeker_id", seekerIds);
+    }
+
+    /**
+     * 全部未聘用的求职者（匹配页面的下拉框由界面据此构建）
+     *
+     * @return 按seeker_id排列的求职者
+     */
+    static List<ReferenceData.Seeker> unemployed(Connection conn) throws SQLException {
+        List<ReferenceData.Seeker> seekers = new ArrayList<>();
+        Dao.query(conn, UNEMPLOYED_SQL, rs -> seekers.add(new ReferenceData.Seeker(rs.getInt(1), rs.getString(2), false)));
+        return seekers;
+    }
+
+    /**
+     * 读取seeker_id大于afterId的一页未聘用求职者
+     *
+     * @param handler 逐行处理seeker_id、name、gender
+     */
+    static void unemployedPage(Connection conn, int afterId, int limit, Dao.RowHandler handler) throws SQLException {
+        Dao.query(conn, UNEMPLOYED_PAGE_SQL, handler, afterId, limit);
+    }
+}
@@ -0,0 +1,224 @@
+/**
+ * 启动时间线类
+ *
+ * 该类记录系统冷启动过程中各个阶段和各条初始查询的耗时，
+ * 用于追踪启动性能的回归。
+ * 主要功能：
+ * 1. 记录里程碑（界面创建完成、窗口显示等）相对启动时刻的时间
+ * 2. 记录每条初始查询的提交、开始执行、执行结束、结果应用到界面的时间
+ * 3. 按依赖关系定义每个选项卡需要的数据，计算各选项卡的可交互时间
+ * 4. 计算首次可交互时间（窗口已显示且初始选项卡的数据全部到达）
+ *
+ * 线程安全：
+ * - 所有方法都是同步方法，可以在工作线程和EDT中调用
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 启动时间线
+ * 所有时间均为相对于创建本对象时刻的毫秒数
+ */
+class StartupTimeline {
+
+    /** 时间线起点（纳秒） */
+    private final long startNanos = System.nanoTime();
+
+    /** JVM启动到时间线起点的毫秒数，用于评估类加载等JVM自身开销 */
+    private final long jvmOffsetMillis =
+            System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+
+    /** 里程碑名称 -> 时间（毫秒） */
+    private final Map<String, Long> milestones = new LinkedHashMap<>();
+
+    /** 查询键 -> 查询记录，按期望顺序保存 */
+    private final Map<String, QueryEntry> queries = new LinkedHashMap<>();
+
+    /** 就绪分组（一般对应选项卡）-> 该分组依赖的查询键 */
+    private final Map<String, String[]> groups = new LinkedHashMap<>();
+
+    /** 就绪分组 -> 就绪时间（毫秒） */
+    private final Map<String, Long> groupReady = new LinkedHashMap<>();
+
+    /** 判定首次可交互所依据的分组 */
+    private String interactiveGroup;
+
+    /** 首次可交互时间（毫秒），-1表示尚未可交互 */
+    private long firstInteractive = -1;
+
+    // ==================== 定义期望 ====================
+
+    /**
+     * 声明一条启动期间需要追踪的查询
+     *
+     * @param key 查询键（与DbExecutor的过期判断键相同）
+     */
+    synchronized void expect(String key) {
+        queries.put(key, new QueryEntry());
+    }
+
+    /**
+     * 声明一个就绪分组及其依赖的查询
+     *
+     * @param name 分组名称（一般为选项卡标题）
+     * @param keys 分组依赖的查询键，全部应用到界面后分组即就绪
+     */
+    synchronized void dependsOn(String name, String... keys) {
+        groups.put(name, keys);
+    }
+
+    /**
+     * 指定判定首次可交互的分组（一般为启动后默认显示的选项卡）
+     */
+    synchronized void interactiveWhen(String group) {
+        interactiveGroup = group;
+    }
+
+    // ==================== 记录事件 ====================
+
+    /**
+     * 记录一个里程碑
+     */
+    synchronized void milestone(String name) {
+        milestones.put(name, now());
+        checkInteractive();
+    }
+
+    /**
+     * 查询是否仍在等待提交（只追踪启动期间的第一次提交，之后的刷新不计入）
+     */
+    synchronized boolean isPending(String key) {
+        QueryEntry entry = key == null ? null : queries.get(key);
+        return entry != null && entry.submitted < 0;
+    }
+
+    synchronized void submitted(String key) {
+        queries.get(key).submitted = now();
+    }
+
+    synchronized void queryStarted(String key) {
+        queries.get(key).started = now();
+    }
+
+    synchronized void queryFinished(String key) {
+        queries.get(key).finished = now();
+    }
+
+    /**
+     * 查询结果已应用到界面（或失败）
+     *
+     * @param key 查询键
+     * @param rows 结果行数，未知时传-1
+     * @param failed 是否失败
+     */
+    synchronized void applied(String key, int rows, boolean failed) {
+        QueryEntry entry = queries.get(key);
+        entry.applied = now();
+        entry.rows = rows;
+        entry.failed = failed;
+
+        for (Map.Entry<String, String[]> group : groups.entrySet()) {
+            if (!groupReady.containsKey(group.getKey()) && allApplied(group.getValue())) {
+                groupReady.put(group.getKey(), entry.applied);
+            }
+        }
+        checkInteractive();
+    }
+
+    /**
+     * 所有期望的查询是否都已应用到界面
+     */
+    synchronized boolean isComplete() {
+        for (QueryEntry entry : queries.values()) {
+            if (entry.applied < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ==================== 报告 ====================
+
+    /**
+     * 生成启动时间线报告
+     *
+     * @return 多行文本，包含里程碑、每条查询的时间点和各分组的就绪时间
+     */
+    synchronized String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("========= 启动时间线（毫秒，相对构造开始；JVM启动至构造开始 ")
+                .append(jvmOffsetMillis).append("ms） =========\n");
+        for (Map.Entry<String, Long> m : milestones.entrySet()) {
+            sb.append(String.format("%-24s %6d\n", m.getKey(), m.getValue()));
+        }
+        sb.append(String.format("%-24s %6s %6s %6s %6s %8s %8s\n",
+                "查询", "提交", "开始", "结束", "应用", "执行耗时", "行数"));
+        for (Map.Entry<String, QueryEntry> q : queries.entrySet()) {
+            QueryEntry e = q.getValue();
+            sb.append(String.format("%-24s %6d %6d %6d %6d %8s %8s\n",
+                    q.getKey(), e.submitted, e.started, e.finished, e.applied,
+                    e.started >= 0 && e.finished >= 0 ? String.valueOf(e.finished - e.started) : "-",
+                    e.failed ? "失败" : e.rows >= 0 ? String.valueOf(e.rows) : "-"));
+        }
+        for (Map.Entry<String, Long> g : groupReady.entrySet()) {
+            sb.append(String.format("%-24s %6d\n", "就绪: " + g.getKey(), g.getValue()));
+        }
+        sb.append(String.format("%-24s %6s\n", "首次可交互",
+                firstInteractive >= 0 ? String.valueOf(firstInteractive) : "-"));
+        long allDone = -1;
+        for (QueryEntry e : queries.values()) {
+            allDone = Math.max(allDone, e.applied);
+        }
+        sb.append(String.format("%-24s %6d\n", "全部数据加载完成", allDone));
+        sb.append("=============================================");
+        return sb.toString();
+    }
+
+    // ==================== 内部方法 ====================
+
+    private long now() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private boolean allApplied(String[] keys) {
+        for (String key : keys) {
+            QueryEntry entry = queries.get(key);
+            if (entry == null || entry.applied < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 首次可交互 = 窗口已显示 且 判定分组已就绪，取两者中较晚的时间
+     */
+    private void checkInteractive() {
+        if (firstInteractive >= 0 || interactiveGroup == null) {
+            return;
+        }
+        Long shown = milestones.get(StartupTimeline.WINDOW_SHOWN);
+        Long ready = groupReady.get(interactiveGroup);
+        if (shown != null && ready != null) {
+            firstInteractive = Math.max(shown, ready);
+        }
+    }
+
+    /** 窗口显示里程碑的名称，首次可交互的判定依赖它 */
+    static final String WINDOW_SHOWN = "窗口显示";
+
+    /**
+     * 单条查询的时间记录，-1表示该事件尚未发生
+     */
+    private static final class QueryEntry {
+        long submitted = -1, started = -1, finished = -1, applied = -1;
+        int rows = -1;
+        boolean failed;
+    }
+}
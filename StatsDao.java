@@ -0,0 +1,94 @@
+/**
+ * 统计数据访问类
+ *
+ * 职业统计和分类统计都由触发器维护在JobStats/CategoryStats表中，
+ * 这里调用读取和重建统计的存储过程，供报表面板和命令行模式共用。
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 统计DAO
+ */
+final class StatsDao {
+
+    static final String JOB_STATS_CALL = "{call GetJobStats()}";
+
+    static final String CATEGORY_STATS_CALL = "{call GetCategoryStats()}";
+
+    static final String REBUILD_CALL = "{call RebuildJobStats()}";
+
+    /**
+     * 一个职业的统计（按需求人数降序）
+     */
+    static final class JobStat {
+        final String employer;
+        final int required;
+        final int hired;
+        final int vacancy;
+
+        JobStat(String employer, int required, int hired, int vacancy) {
+            this.employer = employer;
+            this.required = required;
+            this.hired = hired;
+            this.vacancy = vacancy;
+        }
+    }
+
+    /**
+     * 一个职业分类的汇总（按空缺人数降序）
+     */
+    static final class CategoryStat {
+        final String categoryName;
+        final int jobCount;
+        final int required;
+        final int hired;
+        final int vacancy;
+
+        CategoryStat(String categoryName, int jobCount, int required, int hired, int vacancy) {
+            this.categoryName = categoryName;
+            this.jobCount = jobCount;
+            this.required = required;
+            this.hired = hired;
+            this.vacancy = vacancy;
+        }
+    }
+
+    private StatsDao() {
+    }
+
+    /**
+     * 读取职业统计（存储过程GetJobStats）
+     */
+    static List<JobStat> jobStats(Connection conn) throws SQLException {
+        List<JobStat> stats = new ArrayList<>();
+        Dao.call(conn, JOB_STATS_CALL, rs -> stats.add(new JobStat(rs.getString("employer"),
+                rs.getInt("required_count"), rs.getInt("hired_count"), rs.getInt("vacancy"))));
+        return stats;
+    }
+
+    /**
+     * 读取分类汇总（存储过程GetCategoryStats）
+     */
+    static List<CategoryStat> categoryStats(Connection conn) throws SQLException {
+        List<CategoryStat> stats = new ArrayList<>();
+        Dao.call(conn, CATEGORY_STATS_CALL, rs -> stats.add(new CategoryStat(rs.getString("category_name"),
+                rs.getInt("job_count"), rs.getInt("required_total"), rs.getInt("hired_total"),
+                rs.getInt("vacancy_total"))));
+        return stats;
+    }
+
+    /**
+     * 从职业表重建职业统计和分类统计（存储过程RebuildJobStats，自带事务）
+     */
+    static void rebuild(Connection conn) throws SQLException {
+        Dao.call(conn, REBUILD_CALL);
+    }
+}
@@ -0,0 +1,492 @@
+/**
+ * 数据导出类
+ *
+ * 把求职者、职业、匹配记录、费用记录和职业统计报表导出为CSV或XLSX文件。
+ * 导出直接从数据库结果集逐行写入文件，不经过界面表格：
+ * 1. 查询使用MySQL驱动的流式结果集（fetchSize = Integer.MIN_VALUE），驱动不会把全部行读入内存；
+ *    其他数据库（测试使用的H2）按驱动默认的方式读取
+ * 2. 文件通过FileChannel写入，外面包一层缓冲；CSV可以再包一层gzip压缩
+ * 3. XLSX不依赖第三方库：用ZipOutputStream直接写出工作表XML，单元格使用内联字符串；
+ *    超过Excel单个工作表的行数上限时自动续写到下一个工作表
+ * 4. 导出过程中定期回调Progress报告进度，Progress返回已取消时中止查询并删除未写完的文件
+ *
+ * 内存占用与导出的行数无关，几百万行费用记录也不需要先加载到界面。
+ * 流式结果集读完之前连接不能执行其他语句，导出期间单独占用一个连接。
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 流式导出
+ */
+final class TableExporter {
+
+    /** 写文件的缓冲区大小 */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** 每写出多少行回调一次进度 */
+    private static final int PROGRESS_INTERVAL = 5_000;
+
+    /** 表的估计行数（InnoDB统计信息） */
+    private static final String ESTIMATE_ROWS_SQL =
+            "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?";
+
+    /**
+     * 文件格式，按文件扩展名选择
+     */
+    enum Format {
+        CSV(".csv"), CSV_GZIP(".csv.gz"), XLSX(".xlsx");
+
+        final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        /**
+         * 按文件名判断格式，无法识别时返回null
+         */
+        static Format of(Path path) {
+            String name = path.getFileName().toString().toLowerCase();
+            for (Format format : new Format[] {CSV_GZIP, CSV, XLSX}) {
+                if (name.endsWith(format.extension)) {
+                    return format;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 一种导出：名称、查询和表头
+     */
+    static final class Export {
+        final String name;
+        final String sql;
+
+        /** 为true时sql是存储过程调用 */
+        final boolean call;
+
+        /** 用于估计总行数的表 */
+        final String sizeTable;
+
+        /** 表头，与查询的列一一对应 */
+        final String[] headers;
+
+        Export(String name, String sql, boolean call, String sizeTable, String... headers) {
+            this.name = name;
+            this.sql = sql;
+            this.call = call;
+            this.sizeTable = sizeTable;
+            this.headers = headers;
+        }
+    }
+
+    static final Export SEEKERS = new Export("求职者",
+            "SELECT seeker_id, name, gender, employed FROM JobSeeker ORDER BY seeker_id", false, "JobSeeker",
+            "求职者ID", "姓名", "性别", "已聘用");
+
+    /** 分类为空的职业也要导出（分类单元格为空），所以用LEFT JOIN */
+    static final Export JOBS = new Export("职业",
+            "SELECT j.job_id, c.category_name, j.employer, j.required_count, j.hired_count, j.notes "
+                    + "FROM Job j LEFT JOIN JobCategory c ON j.category_id = c.category_id ORDER BY j.job_id", false, "Job",
+            "职业ID", "职业分类", "用人单位", "需求人数", "已聘人数", "备注");
+
+    static final Export MATCHINGS = new Export("匹配记录",
+            "SELECT m.match_id, j.employer, s.name FROM JobMatching m "
+                    + "JOIN Job j ON m.job_id = j.job_id JOIN JobSeeker s ON m.seeker_id = s.seeker_id "
+                    + "ORDER BY m.match_id", false, "JobMatching",
+            "匹配ID", "用人单位", "求职者");
+
+    static final Export FEES = new Export("费用记录",
+            "SELECT fee_id, employer_name, employer_fee, seeker_name, seeker_fee FROM Fee ORDER BY fee_id", false, "Fee",
+            "费用ID", "用人单位", "用人单位费用", "求职者", "求职者费用");
+
+    static final Export JOB_STATS = new Export("职业统计",
+            "{call GetJobStats()}", true, "Job",
+            "用人单位", "需求人数", "已聘人数", "空缺人数");
+
+    /**
+     * 进度回调（在导出线程中调用）
+     */
+    interface Progress {
+        /**
+         * @param rows 已写出的行数
+         * @param estimatedRows 估计的总行数，无法估计时为0
+         */
+        void update(long rows, long estimatedRows);
+
+        /** 返回true时中止导出 */
+        boolean cancelled();
+    }
+
+    private TableExporter() {
+    }
+
+    /**
+     * 导出到文件
+     *
+     * @param export 导出内容
+     * @param format 文件格式
+     * @param path 文件路径，已存在时覆盖
+     * @param progress 进度回调
+     * @return 导出的行数（不含表头）
+     * @throws SQLException SQL异常
+     * @throws IOException 写入失败
+     * @throws CancellationException 导出被取消（未写完的文件已删除）
+     */
+    static long export(Export export, Format format, Path path, Progress progress) throws SQLException, IOException {
+        boolean completed = false;
+        try (Connection conn = DBConnector.getConnection()) {
+            long estimated = estimateRows(conn, export.sizeTable);
+            DbMetrics.Operation operation = DbMetrics.operation(export.sql);
+            try (PreparedStatement stmt = export.call
+                    ? conn.prepareCall(export.sql)
+                    : conn.prepareStatement(export.sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                if (!export.call && conn.getMetaData().getURL().startsWith("jdbc:mysql:")) {
+                    stmt.setFetchSize(Integer.MIN_VALUE);  // MySQL驱动的流式结果集：逐行从服务器读取
+                }
+                long rows;
+                long start = System.nanoTime();
+                try (ResultSet rs = operation.executed(start, stmt.executeQuery());
+                     Sink sink = open(format, path, export.name)) {
+                    // 读取耗时包括写入文件
+                    long fetchStart = System.nanoTime();
+                    rows = copy(rs, sink, export.headers, estimated, progress, stmt);
+                    operation.fetched(fetchStart, rows);
+                } catch (CancellationException e) {
+                    throw e;  // 用户取消不算失败
+                } catch (SQLException | RuntimeException e) {
+                    operation.failed();
+                    throw e;
+                }
+                completed = true;
+                return rows;
+            }
+        } finally {
+            if (!completed) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * 逐行复制结果集
+     */
+    private static long copy(ResultSet rs, Sink sink, String[] headers, long estimated, Progress progress,
+                             Statement stmt) throws SQLException, IOException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int columns = metaData.getColumnCount();
+        Kind[] kinds = new Kind[columns];
+        for (int i = 0; i < columns; i++) {
+            kinds[i] = Kind.of(metaData.getColumnType(i + 1));
+        }
+        String[] values = new String[columns];
+
+        sink.header(headers);
+        long rows = 0;
+        while (rs.next()) {
+            for (int i = 0; i < columns; i++) {
+                values[i] = kinds[i].read(rs, i + 1);
+            }
+            sink.row(values, kinds);
+            rows++;
+            if (rows % PROGRESS_INTERVAL == 0) {
+                progress.update(rows, estimated);
+                if (progress.cancelled()) {
+                    // 关闭流式结果集会读完剩余的行，先让服务器中止查询
+                    stmt.cancel();
+                    throw new CancellationException("导出已取消");
+                }
+            }
+        }
+        progress.update(rows, estimated);
+        return rows;
+    }
+
+    /**
+     * 估计表的行数（InnoDB统计信息，不扫描表），只用于显示进度
+     *
+     * @return 估计的行数，数据库不提供统计信息时为0（进度只显示已写出的行数）
+     */
+    private static long estimateRows(Connection conn, String table) {
+        long[] rows = {0};
+        try {
+            Dao.query(conn, ESTIMATE_ROWS_SQL, rs -> rows[0] = rs.getLong(1), table);
+        } catch (SQLException e) {
+            return 0;
+        }
+        return rows[0];
+    }
+
+    // ==================== 单元格 ====================
+
+    /**
+     * 列的种类：决定如何读取和在XLSX中写成数字还是文本
+     */
+    enum Kind {
+        NUMBER, BOOLEAN, TEXT;
+
+        static Kind of(int sqlType) {
+            switch (sqlType) {
+                case Types.TINYINT: case Types.SMALLINT: case Types.INTEGER: case Types.BIGINT:
+                case Types.DECIMAL: case Types.NUMERIC: case Types.FLOAT: case Types.REAL: case Types.DOUBLE:
+                    return NUMBER;
+                case Types.BIT: case Types.BOOLEAN:
+                    return BOOLEAN;
+                default:
+                    return TEXT;
+            }
+        }
+
+        /**
+         * 读取单元格文本，NULL返回null；数字按数据库的文本形式读取，DECIMAL不会丢失精度
+         */
+        String read(ResultSet rs, int column) throws SQLException {
+            if (this == BOOLEAN) {
+                boolean value = rs.getBoolean(column);
+                return rs.wasNull() ? null : value ? "是" : "否";
+            }
+            return rs.getString(column);
+        }
+    }
+
+    // ==================== 文件写入 ====================
+
+    /**
+     * 行输出
+     */
+    private interface Sink extends Closeable {
+        void header(String[] headers) throws IOException;
+
+        void row(String[] values, Kind[] kinds) throws IOException;
+    }
+
+    private static Sink open(Format format, Path path, String sheetName) throws IOException {
+        OutputStream out = new BufferedOutputStream(Channels.newOutputStream(FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)),
+                BUFFER_SIZE);
+        switch (format) {
+            case CSV_GZIP:
+                return new CsvSink(new GZIPOutputStream(out, BUFFER_SIZE));
+            case XLSX:
+                return new XlsxSink(out, sheetName);
+            default:
+                return new CsvSink(out);
+        }
+    }
+
+    /**
+     * CSV（RFC 4180），UTF-8编码并带BOM，Excel打开时中文不会乱码
+     */
+    private static final class CsvSink implements Sink {
+        private final Writer writer;
+
+        CsvSink(OutputStream out) throws IOException {
+            writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            writer.write('\uFEFF');
+        }
+
+        @Override
+        public void header(String[] headers) throws IOException {
+            Kind[] kinds = new Kind[headers.length];
+            Arrays.fill(kinds, Kind.TEXT);
+            row(headers, kinds);
+        }
+
+        @Override
+        public void row(String[] values, Kind[] kinds) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                String value = values[i];
+                if (value == null) {
+                    continue;
+                }
+                // 以公式字符开头的文本前加单引号，避免在Excel中被当作公式执行
+                if (kinds[i] == Kind.TEXT && !value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0) {
+                    value = "'" + value;
+                }
+                if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                        || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                    writer.write('"');
+                    writer.write(value.replace("\"", "\"\""));
+                    writer.write('"');
+                } else {
+                    writer.write(value);
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    /**
+     * XLSX（Office Open XML）最小实现：工作表XML在写入过程中逐行生成，
+     * 工作簿、关系和内容类型等描述文件在最后写入（ZIP条目的顺序不影响读取）
+     */
+    private static final class XlsxSink implements Sink {
+
+        /** 单个工作表的最大行数（Excel的上限，含表头） */
+        private static final int MAX_SHEET_ROWS = 1_048_576;
+
+        private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+        private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+        private static final String REL_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+        private static final String PKG_REL_NS = "http://schemas.openxmlformats.org/package/2006/relationships";
+
+        private final ZipOutputStream zip;
+        private final Writer writer;
+        private final String sheetName;
+        private final List<String> sheets = new ArrayList<>();
+        private String[] headers;
+        private int sheetRows;
+
+        XlsxSink(OutputStream out, String sheetName) {
+            zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+            writer = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+            this.sheetName = sheetName;
+        }
+
+        @Override
+        public void header(String[] headers) throws IOException {
+            this.headers = headers;
+            startSheet();
+        }
+
+        @Override
+        public void row(String[] values, Kind[] kinds) throws IOException {
+            if (sheetRows == MAX_SHEET_ROWS) {
+                endSheet();
+                startSheet();
+            }
+            writeRow(values, kinds);
+        }
+
+        private void startSheet() throws IOException {
+            sheets.add(sheets.isEmpty() ? sheetName : sheetName + " (" + (sheets.size() + 1) + ")");
+            zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheets.size() + ".xml"));
+            writer.write(XML_HEADER);
+            writer.write("<worksheet xmlns=\"" + MAIN_NS + "\"><sheetData>");
+            sheetRows = 0;
+            writeRow(headers, null);
+        }
+
+        private void endSheet() throws IOException {
+            writer.write("</sheetData></worksheet>");
+            writer.flush();
+            zip.closeEntry();
+        }
+
+        private void writeRow(String[] values, Kind[] kinds) throws IOException {
+            writer.write("<row>");
+            for (int i = 0; i < values.length; i++) {
+                String value = values[i];
+                if (value == null) {
+                    writer.write("<c/>");
+                } else if (kinds != null && kinds[i] == Kind.NUMBER) {
+                    writer.write("<c><v>");
+                    writer.write(value);
+                    writer.write("</v></c>");
+                } else {
+                    writer.write("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+                    writeEscaped(value);
+                    writer.write("</t></is></c>");
+                }
+            }
+            writer.write("</row>");
+            sheetRows++;
+        }
+
+        /**
+         * XML转义，并去掉XML 1.0不允许的控制字符
+         */
+        private void writeEscaped(String value) throws IOException {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '&': writer.write("&amp;"); break;
+                    case '<': writer.write("&lt;"); break;
+                    case '>': writer.write("&gt;"); break;
+                    default:
+                        if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                            writer.write(c);
+                        }
+                }
+            }
+        }
+
+        private void entry(String name, String content) throws IOException {
+            zip.putNextEntry(new ZipEntry(name));
+            writer.write(XML_HEADER);
+            writer.write(content);
+            writer.flush();
+            zip.closeEntry();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (sheets.isEmpty()) {
+                    header(new String[0]);
+                }
+                endSheet();
+
+                StringBuilder workbook = new StringBuilder("<workbook xmlns=\"" + MAIN_NS + "\" xmlns:r=\"" + REL_NS
+                        + "\"><sheets>");
+                StringBuilder rels = new StringBuilder("<Relationships xmlns=\"" + PKG_REL_NS + "\">");
+                for (int i = 1; i <= sheets.size(); i++) {
+                    workbook.append("<sheet name=\"").append(sheets.get(i - 1)).append("\" sheetId=\"").append(i)
+                            .append("\" r:id=\"rId").append(i).append("\"/>");
+                    rels.append("<Relationship Id=\"rId").append(i).append("\" Type=\"").append(REL_NS)
+                            .append("/worksheet\" Target=\"worksheets/sheet").append(i).append(".xml\"/>");
+                }
+                entry("xl/workbook.xml", workbook.append("</sheets></workbook>").toString());
+                entry("xl/_rels/workbook.xml.rels", rels.append("</Relationships>").toString());
+                entry("_rels/.rels", "<Relationships xmlns=\"" + PKG_REL_NS + "\"><Relationship Id=\"rId1\" Type=\""
+                        + REL_NS + "/officeDocument\" Target=\"xl/workbook.xml\"/></Relationships>");
+                entry("[Content_Types].xml", "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+                        + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+                        + "<Default Extension=\"xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>"
+                        + "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+                        + "</Types>");
+            } finally {
+                writer.close();
+            }
+        }
+    }
+}
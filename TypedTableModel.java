@@ -0,0 +1,48 @@
+/**
+ * 类型化表格模型接口
+ *
+ * 在TableModel的基础上提供按类型读取单元格的方法，
+ * 调用者（例如deleteMatching读取match_id）不需要再把getValueAt的结果强制转换为int，
+ * 列式存储的实现也可以直接返回基本类型而不必装箱。
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import javax.swing.table.TableModel;
+
+/**
+ * 类型化表格模型
+ */
+interface TypedTableModel extends TableModel {
+
+    /**
+     * 读取整数列的值
+     *
+     * @param row 行索引（模型坐标）
+     * @param column 列索引（模型坐标）
+     * @return 整数值，数据库中为NULL时返回0
+     */
+    int getInt(int row, int column);
+
+    /**
+     * 读取长整数列的值（整数列也可以用此方法读取，布尔列读取为0/1，文本列抛出IllegalArgumentException）
+     */
+    long getLong(int row, int column);
+
+    /**
+     * 读取布尔列的值
+     */
+    boolean getBoolean(int row, int column);
+
+    /**
+     * 读取字符串列的值，其他类型的列返回其字符串形式
+     */
+    String getString(int row, int column);
+
+    /**
+     * 判断单元格在数据库中是否为NULL
+     */
+    boolean isNull(int row, int column);
+}
@@ -0,0 +1,53 @@
+/**
+ * 费用明细导出基准测试类
+ *
+ * 与HotPathBenchmark中的feeReport测试项相同的操作和合成数据，由JMH负责预热、测量和防止无用代码消除。
+ * 分配字节数用 -prof gc 查看（gc.alloc.rate.norm）。
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+package jm.bench;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * feeReport基准测试
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class FeeReportBenchmark {
+
+    /** 费用明细的行数 */
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    private Callable<Object> operation;
+
+    @Setup
+    public void setUp() throws Exception {
+        operation = HotPath.operation("feeReport", size);
+    }
+
+    @Benchmark
+    public Object write() throws Exception {
+        return operation.call();
+    }
+}
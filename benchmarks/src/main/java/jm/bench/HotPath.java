@@ -0,0 +1,59 @@
+/**
+ * 热点路径被测操作的取得类
+ *
+ * 被测代码都在默认包中（包内可见），有包名的JMH类不能直接引用它们，
+ * 因此在@Setup中通过反射调用一次HotPathBenchmark.operation()或matchOperation()，取得返回的Callable。
+ * 测量时只调用Callable.call()，不经过反射；合成数据与HotPathBenchmark完全相同，
+ * 两者的结果可以直接比较。
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+package jm.bench;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.util.concurrent.Callable;
+
+/**
+ * 取得HotPathBenchmark中的被测操作
+ */
+final class HotPath {
+
+    private HotPath() {
+    }
+
+    /**
+     * 取得一个被测操作
+     *
+     * @param name 测试项：tableModel、jobReport或feeReport
+     * @param size 行数（jobReport为职业数）
+     * @return 被测操作
+     */
+    static Callable<Object> operation(String name, int size) throws Exception {
+        return invoke("operation", new Class<?>[]{String.class, int.class}, name, size);
+    }
+
+    /**
+     * 取得match的被测操作（匹配一次再取消匹配）
+     *
+     * @param conn 数据库连接，测量期间一直使用
+     * @return 被测操作，数据库中没有可匹配的职业或求职者时为null
+     */
+    static Callable<Object> match(Connection conn) throws Exception {
+        return invoke("matchOperation", new Class<?>[]{Connection.class}, conn);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Callable<Object> invoke(String name, Class<?>[] types, Object... args) throws Exception {
+        Method method = Class.forName("HotPathBenchmark").getDeclaredMethod(name, types);
+        method.setAccessible(true);  // 默认包中的类和方法都是包内可见
+        try {
+            return (Callable<Object>) method.invoke(null, args);
+        } catch (InvocationTargetException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * 职业统计报表格式化基准测试类
+ *
+ * 与HotPathBenchmark中的jobReport测试项相同的操作和合成数据，由JMH负责预热、测量和防止无用代码消除。
+ * 分配字节数用 -prof gc 查看（gc.alloc.rate.norm）。
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+package jm.bench;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * jobReport基准测试
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class JobReportBenchmark {
+
+    /** 职业数 */
+    @Param({"1000", "10000"})
+    public int size;
+
+    private Callable<Object> operation;
+
+    @Setup
+    public void setUp() throws Exception {
+        operation = HotPath.operation("jobReport", size);
+    }
+
+    @Benchmark
+    public Object format() throws Exception {
+        return operation.call();
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * 匹配基准测试类
+ *
+ * 与HotPathBenchmark中的match测试项相同的操作：经MatchingDao走JobMatcher的真实路径，
+ * 匹配一次（加锁读取、检查、插入、提交）再取消匹配，数据在每次操作前后不变。
+ * 数据库是内存中的H2（MySQL兼容模式，见MatchDatabase），不需要MySQL服务器；
+ * 结果用于比较JobMatcher前后两次修改，不含网络往返和InnoDB的开销。
+ * 分配字节数用 -prof gc 查看（gc.alloc.rate.norm）。
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+package jm.bench;
+
+import java.sql.Connection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * match基准测试
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class MatchBenchmark {
+
+    /** 职业表和求职者表的行数 */
+    @Param({"10000", "1000000"})
+    public int size;
+
+    private Connection conn;
+
+    private Callable<Object> operation;
+
+    @Setup
+    public void setUp() throws Exception {
+        conn = MatchDatabase.open("match" + size, size);
+        operation = HotPath.match(conn);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearTombstones() throws Exception {
+        MatchDatabase.clearTombstones(conn);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        conn.close();
+    }
+
+    @Benchmark
+    public Object matchAndUnmatch() throws Exception {
+        return operation.call();
+    }
+}
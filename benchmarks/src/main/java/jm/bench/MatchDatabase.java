@@ -0,0 +1,146 @@
+/**
+ * 匹配基准测试的内存数据库类
+ *
+ * 在内存中的H2（MySQL兼容模式）上建立match需要的表：Job、JobSeeker、JobMatching和DeletedRow，
+ * 列、主键、唯一索引和外键与job_management.sql相同。H2不能执行MySQL的触发器语句体，
+ * AfterInsertMatching和AfterDeleteMatching改用Java触发器实现，做的事情相同
+ * （增减已聘人数、修改聘用状态、删除时写墓碑）；版本号、updated_at和JobStats的维护不在其中，
+ * 因此测得的是JobMatcher本身的语句和事务开销，不代表MySQL上的绝对耗时。
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+package jm.bench;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.h2.api.Trigger;
+
+/**
+ * 匹配基准测试的H2数据库
+ */
+final class MatchDatabase {
+
+    private static final String[] SCHEMA = {
+        "CREATE TABLE Job (job_id INT PRIMARY KEY AUTO_INCREMENT, category_id INT, "
+                + "employer VARCHAR(100) NOT NULL, required_count INT NOT NULL, hired_count INT DEFAULT 0, notes TEXT)",
+        "CREATE TABLE JobSeeker (seeker_id INT PRIMARY KEY AUTO_INCREMENT, name VARCHAR(50) NOT NULL, "
+                + "gender VARCHAR(1) NOT NULL, employed BOOLEAN DEFAULT false)",
+        "CREATE INDEX idx_seeker_employed ON JobSeeker (employed)",
+        "CREATE TABLE JobMatching (match_id INT PRIMARY KEY AUTO_INCREMENT, job_id INT, seeker_id INT, "
+                + "CONSTRAINT uq_matching_seeker UNIQUE (seeker_id), "
+                + "FOREIGN KEY (job_id) REFERENCES Job(job_id), FOREIGN KEY (seeker_id) REFERENCES JobSeeker(seeker_id))",
+        "CREATE TABLE DeletedRow (tombstone_id BIGINT PRIMARY KEY AUTO_INCREMENT, table_name VARCHAR(32) NOT NULL, "
+                + "row_id INT NOT NULL, deleted_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3))",
+        "CREATE TRIGGER AfterInsertMatching AFTER INSERT ON JobMatching FOR EACH ROW "
+                + "CALL \"" + AfterInsertMatching.class.getName() + "\"",
+        "CREATE TRIGGER AfterDeleteMatching AFTER DELETE ON JobMatching FOR EACH ROW "
+                + "CALL \"" + AfterDeleteMatching.class.getName() + "\"",
+    };
+
+    /** 每批插入的行数 */
+    private static final int BATCH_SIZE = 10_000;
+
+    private MatchDatabase() {
+    }
+
+    /**
+     * 创建一个新的内存数据库并填入数据
+     * 职业和求职者各rows行，都可以匹配（职业有空缺，求职者未聘用）
+     *
+     * @param name 数据库名（同一JVM中不同的名字互不影响）
+     * @param rows 职业和求职者的行数
+     * @return 数据库连接，关闭后数据库随之删除
+     */
+    static Connection open(String name, int rows) throws SQLException {
+        Connection conn = DriverManager.getConnection("jdbc:h2:mem:" + name + ";MODE=MySQL", "sa", "");
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : SCHEMA) {
+                stmt.execute(sql);
+            }
+        }
+        conn.setAutoCommit(false);
+        try (PreparedStatement job = conn.prepareStatement(
+                     "INSERT INTO Job (category_id, employer, required_count) VALUES (?, ?, ?)");
+             PreparedStatement seeker = conn.prepareStatement(
+                     "INSERT INTO JobSeeker (name, gender) VALUES (?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                job.setInt(1, 1 + i % 20);
+                job.setString(2, "用人单位" + i % 5000);
+                job.setInt(3, 1 + i % 10);
+                job.addBatch();
+                seeker.setString(1, "求职者" + i);
+                seeker.setString(2, i % 2 == 0 ? "男" : "女");
+                seeker.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0 || i == rows - 1) {
+                    job.executeBatch();
+                    seeker.executeBatch();
+                    conn.commit();
+                }
+            }
+        } finally {
+            conn.setAutoCommit(true);
+        }
+        return conn;
+    }
+
+    /**
+     * 清空墓碑表（每次删除匹配都会写一行墓碑，每轮测量后清理，避免表无限增长）
+     */
+    static void clearTombstones(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("TRUNCATE TABLE DeletedRow");
+        }
+    }
+
+    /**
+     * 新增匹配时增加已聘人数并把求职者标记为已聘用（对应job_management.sql中的AfterInsertMatching）
+     */
+    public static final class AfterInsertMatching implements Trigger {
+
+        @Override
+        public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+            updateStatus(conn, newRow, 1, true);
+        }
+    }
+
+    /**
+     * 删除匹配时恢复已聘人数和聘用状态，并写入墓碑（对应job_management.sql中的AfterDeleteMatching）
+     */
+    public static final class AfterDeleteMatching implements Trigger {
+
+        @Override
+        public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+            updateStatus(conn, oldRow, -1, false);
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO DeletedRow (table_name, row_id) VALUES ('JobMatching', ?)")) {
+                pstmt.setObject(1, oldRow[0]);
+                pstmt.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * 修改匹配记录两侧的已聘人数和聘用状态
+     *
+     * @param row 匹配记录的一行：match_id、job_id、seeker_id
+     */
+    private static void updateStatus(Connection conn, Object[] row, int hiredDelta, boolean employed)
+            throws SQLException {
+        try (PreparedStatement job = conn.prepareStatement(
+                     "UPDATE Job SET hired_count = hired_count + ? WHERE job_id = ?");
+             PreparedStatement seeker = conn.prepareStatement(
+                     "UPDATE JobSeeker SET employed = ? WHERE seeker_id = ?")) {
+            job.setInt(1, hiredDelta);
+            job.setObject(2, row[1]);
+            job.executeUpdate();
+            seeker.setBoolean(1, employed);
+            seeker.setObject(2, row[2]);
+            seeker.executeUpdate();
+        }
+    }
+}
@@ -5,7 +5,12 @@ USE job_management;
 -- 职业分类表
 CREATE TABLE JobCategory (
     category_id INT PRIMARY KEY AUTO_INCREMENT,
-    category_name VARCHAR(50) NOT NULL
+    category_name VARCHAR(50) NOT NULL,
+    -- 增量同步：version每次修改加1（触发器维护），updated_at插入和修改时自动更新
+    version INT NOT NULL DEFAULT 1,
+    updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    INDEX idx_category_updated_at (updated_at),
+    INDEX idx_category_name (category_name)
 );
 
 -- 职业信息表
@@ -16,6 +21,11 @@ CREATE TABLE Job (
     required_count INT NOT NULL,
     hired_count INT DEFAULT 0,
     notes TEXT,
+    -- 增量同步：version每次修改加1（触发器维护），updated_at插入和修改时自动更新
+    version INT NOT NULL DEFAULT 1,
+    updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    INDEX idx_job_updated_at (updated_at),
+    INDEX idx_job_employer (employer),
     FOREIGN KEY (category_id) REFERENCES JobCategory(category_id)
 );
 
@@ -24,7 +34,13 @@ CREATE TABLE JobSeeker (
     seeker_id INT PRIMARY KEY AUTO_INCREMENT,
     name VARCHAR(50) NOT NULL,
     gender ENUM('男', '女') NOT NULL,
-    employed BOOLEAN DEFAULT false
+    employed BOOLEAN DEFAULT false,
+    -- 增量同步：version每次修改加1（触发器维护），updated_at插入和修改时自动更新
+    version INT NOT NULL DEFAULT 1,
+    updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    INDEX idx_seeker_updated_at (updated_at),
+    INDEX idx_seeker_employed (employed),
+    INDEX idx_seeker_name (name, employed)
 );
 
 -- 职业匹配表
@@ -32,6 +48,12 @@ CREATE TABLE JobMatching (
     match_id INT PRIMARY KEY AUTO_INCREMENT,
     job_id INT,
     seeker_id INT,
+    -- 增量同步：version每次修改加1（触发器维护），updated_at插入和修改时自动更新
+    version INT NOT NULL DEFAULT 1,
+    updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    INDEX idx_matching_updated_at (updated_at),
+    -- 一个求职者只能有一条匹配记录
+    UNIQUE INDEX uq_matching_seeker (seeker_id),
     FOREIGN KEY (job_id) REFERENCES Job(job_id),
     FOREIGN KEY (seeker_id) REFERENCES JobSeeker(seeker_id)
 );
@@ -42,7 +64,44 @@ CREATE TABLE Fee (
     employer_name VARCHAR(100),
     employer_fee DECIMAL(10,2),
     seeker_name VARCHAR(100),
-    seeker_fee DECIMAL(10,2)
+    seeker_fee DECIMAL(10,2),
+    -- 增量同步：version每次修改加1（触发器维护），updated_at插入和修改时自动更新
+    version INT NOT NULL DEFAULT 1,
+    updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    INDEX idx_fee_updated_at (updated_at)
+);
+
+-- 删除记录墓碑表：由删除触发器写入，各终端的增量同步据此从表格中移除已删除的行
+-- 启动同步时清理超过一天的墓碑
+CREATE TABLE DeletedRow (
+    tombstone_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    table_name VARCHAR(32) NOT NULL,
+    row_id INT NOT NULL,
+    deleted_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    INDEX idx_deleted_at (deleted_at)
+);
+
+-- 职业统计表：每个职业一行，由Job的触发器维护（匹配触发器修改已聘人数时也会经过Job的触发器）
+-- 职业统计报表按覆盖索引直接读取，不再扫描和排序Job表；数据不一致时调用RebuildJobStats重建
+CREATE TABLE JobStats (
+    job_id INT PRIMARY KEY,
+    category_id INT,
+    employer VARCHAR(100) NOT NULL,
+    required_count INT NOT NULL,
+    hired_count INT NOT NULL,
+    vacancy INT AS (required_count - hired_count) STORED,
+    INDEX idx_jobstats_required (required_count, employer, hired_count, vacancy),
+    FOREIGN KEY (job_id) REFERENCES Job(job_id) ON DELETE CASCADE
+);
+
+-- 职业分类统计表：每个分类一行，汇总该分类下全部职业
+CREATE TABLE CategoryStats (
+    category_id INT PRIMARY KEY,
+    job_count INT NOT NULL,
+    required_total INT NOT NULL,
+    hired_total INT NOT NULL,
+    vacancy_total INT AS (required_total - hired_total) STORED,
+    FOREIGN KEY (category_id) REFERENCES JobCategory(category_id) ON DELETE CASCADE
 );
 
 -- 触发器：新增匹配时更新状态
@@ -78,20 +137,148 @@ BEGIN
     UPDATE JobSeeker
     SET employed = false
     WHERE seeker_id = OLD.seeker_id;
+
+    -- 记录墓碑
+    INSERT INTO DeletedRow (table_name, row_id) VALUES ('JobMatching', OLD.match_id);
+END$$
+DELIMITER ;
+
+-- 触发器：修改时递增版本号（增量同步据此跳过重复读到的行）
+DELIMITER $$
+CREATE TRIGGER BeforeUpdateCategory BEFORE UPDATE ON JobCategory
+FOR EACH ROW SET NEW.version = OLD.version + 1$$
+CREATE TRIGGER BeforeUpdateJob BEFORE UPDATE ON Job
+FOR EACH ROW SET NEW.version = OLD.version + 1$$
+CREATE TRIGGER BeforeUpdateSeeker BEFORE UPDATE ON JobSeeker
+FOR EACH ROW SET NEW.version = OLD.version + 1$$
+CREATE TRIGGER BeforeUpdateMatching BEFORE UPDATE ON JobMatching
+FOR EACH ROW SET NEW.version = OLD.version + 1$$
+CREATE TRIGGER BeforeUpdateFee BEFORE UPDATE ON Fee
+FOR EACH ROW SET NEW.version = OLD.version + 1$$
+DELIMITER ;
+
+-- 触发器：删除职业或求职者时记录墓碑
+-- 级联删除的匹配记录不会触发AfterDeleteMatching，在删除前一并记录它们的墓碑
+DELIMITER $$
+CREATE TRIGGER BeforeDeleteJob
+BEFORE DELETE ON Job
+FOR EACH ROW
+BEGIN
+    INSERT INTO DeletedRow (table_name, row_id)
+    SELECT 'JobMatching', match_id FROM JobMatching WHERE job_id = OLD.job_id;
+    INSERT INTO DeletedRow (table_name, row_id) VALUES ('Job', OLD.job_id);
+    -- 职业统计行随外键级联删除，分类统计扣除该职业
+    UPDATE CategoryStats
+    SET job_count = job_count - 1,
+        required_total = required_total - OLD.required_count,
+        hired_total = hired_total - COALESCE(OLD.hired_count, 0)
+    WHERE category_id = OLD.category_id;
+END$$
+
+CREATE TRIGGER BeforeDeleteSeeker
+BEFORE DELETE ON JobSeeker
+FOR EACH ROW
+BEGIN
+    INSERT INTO DeletedRow (table_name, row_id)
+    SELECT 'JobMatching', match_id FROM JobMatching WHERE seeker_id = OLD.seeker_id;
+    INSERT INTO DeletedRow (table_name, row_id) VALUES ('JobSeeker', OLD.seeker_id);
+END$$
+
+-- 触发器：删除职业分类和费用记录时记录墓碑
+CREATE TRIGGER AfterDeleteCategory AFTER DELETE ON JobCategory
+FOR EACH ROW INSERT INTO DeletedRow (table_name, row_id) VALUES ('JobCategory', OLD.category_id)$$
+CREATE TRIGGER AfterDeleteFee AFTER DELETE ON Fee
+FOR EACH ROW INSERT INTO DeletedRow (table_name, row_id) VALUES ('Fee', OLD.fee_id)$$
+DELIMITER ;
+
+-- 触发器：新增和修改职业时维护职业统计和分类统计
+-- 匹配触发器修改Job.hired_count时也会触发AfterUpdateJob
+DELIMITER $$
+CREATE TRIGGER AfterInsertJob
+AFTER INSERT ON Job
+FOR EACH ROW
+BEGIN
+    INSERT INTO JobStats (job_id, category_id, employer, required_count, hired_count)
+    VALUES (NEW.job_id, NEW.category_id, NEW.employer, NEW.required_count, COALESCE(NEW.hired_count, 0));
+    IF NEW.category_id IS NOT NULL THEN
+        INSERT INTO CategoryStats (category_id, job_count, required_total, hired_total)
+        VALUES (NEW.category_id, 1, NEW.required_count, COALESCE(NEW.hired_count, 0))
+        ON DUPLICATE KEY UPDATE
+            job_count = job_count + 1,
+            required_total = required_total + NEW.required_count,
+            hired_total = hired_total + COALESCE(NEW.hired_count, 0);
+    END IF;
+END$$
+
+CREATE TRIGGER AfterUpdateJob
+AFTER UPDATE ON Job
+FOR EACH ROW
+BEGIN
+    UPDATE JobStats
+    SET category_id = NEW.category_id,
+        employer = NEW.employer,
+        required_count = NEW.required_count,
+        hired_count = COALESCE(NEW.hired_count, 0)
+    WHERE job_id = NEW.job_id;
+    IF OLD.category_id <=> NEW.category_id THEN
+        -- 分类不变（包括匹配修改已聘人数）：只加上差值
+        UPDATE CategoryStats
+        SET required_total = required_total + NEW.required_count - OLD.required_count,
+            hired_total = hired_total + COALESCE(NEW.hired_count, 0) - COALESCE(OLD.hired_count, 0)
+        WHERE category_id = NEW.category_id;
+    ELSE
+        UPDATE CategoryStats
+        SET job_count = job_count - 1,
+            required_total = required_total - OLD.required_count,
+            hired_total = hired_total - COALESCE(OLD.hired_count, 0)
+        WHERE category_id = OLD.category_id;
+        IF NEW.category_id IS NOT NULL THEN
+            INSERT INTO CategoryStats (category_id, job_count, required_total, hired_total)
+            VALUES (NEW.category_id, 1, NEW.required_count, COALESCE(NEW.hired_count, 0))
+            ON DUPLICATE KEY UPDATE
+                job_count = job_count + 1,
+                required_total = required_total + NEW.required_count,
+                hired_total = hired_total + COALESCE(NEW.hired_count, 0);
+        END IF;
+    END IF;
 END$$
 DELIMITER ;
 
--- 存储过程：查询各种职业的需求数和已聘用数
+-- 存储过程：查询各种职业的需求数和已聘用数（读取职业统计表，按覆盖索引倒序扫描）
 DELIMITER $$
 CREATE PROCEDURE GetJobStats()
 BEGIN
-    SELECT
-        j.employer,
-        j.required_count,
-        j.hired_count,
-        (j.required_count - j.hired_count) AS vacancy
-    FROM Job j
-    ORDER BY j.required_count DESC;
+    SELECT employer, required_count, hired_count, vacancy
+    FROM JobStats
+    ORDER BY required_count DESC;
+END$$
+
+-- 存储过程：按职业分类汇总
+CREATE PROCEDURE GetCategoryStats()
+BEGIN
+    SELECT c.category_name, s.job_count, s.required_total, s.hired_total, s.vacancy_total
+    FROM CategoryStats s JOIN JobCategory c ON c.category_id = s.category_id
+    ORDER BY s.vacancy_total DESC;
+END$$
+
+-- 存储过程：从Job表重建职业统计和分类统计（数据不一致时恢复用）
+-- INSERT ... SELECT在可重复读隔离级别下给读到的Job行加共享锁，重建期间对职业的修改会等待重建完成
+CREATE PROCEDURE RebuildJobStats()
+BEGIN
+    DECLARE EXIT HANDLER FOR SQLEXCEPTION
+    BEGIN
+        ROLLBACK;
+        RESIGNAL;
+    END;
+    START TRANSACTION;
+    DELETE FROM JobStats;
+    INSERT INTO JobStats (job_id, category_id, employer, required_count, hired_count)
+    SELECT job_id, category_id, employer, required_count, COALESCE(hired_count, 0) FROM Job;
+    DELETE FROM CategoryStats;
+    INSERT INTO CategoryStats (category_id, job_count, required_total, hired_total)
+    SELECT category_id, COUNT(*), SUM(required_count), SUM(COALESCE(hired_count, 0))
+    FROM Job WHERE category_id IS NOT NULL GROUP BY category_id;
+    COMMIT;
 END$$
 DELIMITER ;
 
@@ -106,6 +293,21 @@ ADD CONSTRAINT fk_seeker
 FOREIGN KEY (seeker_id) REFERENCES JobSeeker(seeker_id)
 ON DELETE CASCADE;
 
+-- 结构版本表：由SchemaMigrator维护，记录已执行的迁移
+-- 本脚本已包含全部迁移的结果，直接写入对应的版本记录；增加迁移时需要同时修改本脚本
+CREATE TABLE schema_version (
+    version INT PRIMARY KEY,
+    description VARCHAR(200) NOT NULL,
+    installed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    execution_millis INT NOT NULL
+);
+
+INSERT INTO schema_version (version, description, execution_millis) VALUES
+(1, '基线结构（job_management.sql）', 0),
+(2, '增量同步：version/updated_at列、DeletedRow墓碑表和触发器', 0),
+(3, '性能索引和JobMatching(seeker_id)唯一约束', 0),
+(4, '职业统计表和分类统计表', 0);
+
 -- 插入示例数据
 INSERT INTO JobCategory (category_name) VALUES
 ('信息技术'),
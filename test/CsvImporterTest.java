@@ -0,0 +1,136 @@
+/**
+ * CSV导入测试类
+ *
+ * 使用内存中的H2数据库（MySQL兼容模式）代替MySQL服务器：
+ * 1. 用TableExporter导出求职者，清空表后用CsvImporter导入导出的文件，数据应与导出前相同
+ * 2. 界面上显示的聘用状态文字（“聘用成功”“未聘用”）和旧文件中的“待聘用”也能导入
+ *
+ * 表结构只包含导入和导出用到的列，触发器和索引与测试无关。
+ *
+ * @author 系统开发者
+ * @version 1.0
+ * @since 2024
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * CsvImporter的导入测试
+ */
+class CsvImporterTest {
+
+    static {
+        // DBConnector在类加载时读取连接参数，必须在第一次使用之前设置
+        System.setProperty("jm.db.url", "jdbc:h2:mem:csv_import;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        System.setProperty("jm.db.user", "sa");
+        System.setProperty("jm.db.password", "");
+        System.setProperty("jm.db.prepStmtCacheSize", "0");  // 语句缓存参数是MySQL驱动的URL参数
+    }
+
+    /** 不取消、不显示进度 */
+    private static final CsvImporter.Progress IMPORT_PROGRESS = new CsvImporter.Progress() {
+        @Override
+        public void update(CsvImporter.Result result, int percent) {
+        }
+
+        @Override
+        public boolean cancelled() {
+            return false;
+        }
+    };
+
+    private static final TableExporter.Progress EXPORT_PROGRESS = new TableExporter.Progress() {
+        @Override
+        public void update(long rows, long estimatedRows) {
+        }
+
+        @Override
+        public boolean cancelled() {
+            return false;
+        }
+    };
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void createTable() throws SQLException {
+        try (Connection conn = DBConnector.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS JobSeeker");
+            stmt.execute("CREATE TABLE JobSeeker (seeker_id INT PRIMARY KEY AUTO_INCREMENT, "
+                    + "name VARCHAR(50) NOT NULL, gender CHAR(1) NOT NULL, employed BOOLEAN DEFAULT false)");
+        }
+    }
+
+    @Test
+    void importsExportedSeekers() throws Exception {
+        List<String> seekers = Arrays.asList("张三|男|false", "李四|女|true", "王五, \"小王\"|男|false");
+        try (Connection conn = DBConnector.getConnection()) {
+            for (String seeker : seekers) {
+                String[] fields = seeker.split("\\|");
+                SeekerDao.insert(conn, fields[0], fields[1], Boolean.parseBoolean(fields[2]));
+            }
+        }
+
+        Path file = dir.resolve("seekers.csv");
+        long exported = TableExporter.export(TableExporter.SEEKERS, TableExporter.Format.CSV, file, EXPORT_PROGRESS);
+        assertEquals(seekers.size(), exported);
+
+        try (Connection conn = DBConnector.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM JobSeeker");
+        }
+        CsvImporter.Result result = CsvImporter.importFile(CsvImporter.Kind.SEEKERS, file, IMPORT_PROGRESS);
+
+        assertEquals(seekers.size(), result.read);
+        assertEquals(seekers.size(), result.inserted);
+        assertEquals(0, result.rejected);
+        assertNull(result.rejectFile);
+        assertEquals(seekers, seekers());
+    }
+
+    @Test
+    void importsEmploymentLabelsShownInTheUi() throws Exception {
+        Path file = dir.resolve("labels.csv");
+        Files.write(file, Arrays.asList("姓名,性别,已聘用", "张三,男,未聘用", "李四,女,聘用成功", "王五,男,待聘用"),
+                StandardCharsets.UTF_8);
+
+        CsvImporter.Result result = CsvImporter.importFile(CsvImporter.Kind.SEEKERS, file, IMPORT_PROGRESS);
+
+        assertEquals(3, result.inserted);
+        assertEquals(0, result.rejected);
+        assertEquals(Arrays.asList("张三|男|false", "李四|女|true", "王五|男|false"), seekers());
+    }
+
+    /**
+     * 表中的求职者，按seeker_id排列，每行为“姓名|性别|已聘用”
+     */
+    private static List<String> seekers() throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (Connection conn = DBConnector.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "SELECT name, gender, employed FROM JobSeeker ORDER BY seeker_id");
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                rows.add(rs.getString(1) + "|" + rs.getString(2) + "|" + rs.getBoolean(3));
+            }
+        }
+        return rows;
+    }
+}